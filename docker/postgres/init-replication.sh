@@ -0,0 +1,4 @@
+#!/bin/sh
+# Разрешает реплике из docker-compose подключаться для потоковой репликации.
+# Выполняется образом postgres только при создании базы данных.
+echo "host replication all all scram-sha-256" >> "$PGDATA/pg_hba.conf"
@@ -0,0 +1,129 @@
+package com.subscriptionservice.benchmark;
+
+import com.subscriptionservice.dto.SubscriptionDTO;
+import com.subscriptionservice.model.ServiceEntry;
+import com.subscriptionservice.model.Subscription;
+import com.subscriptionservice.model.SubscriptionRow;
+import com.subscriptionservice.model.User;
+import com.subscriptionservice.repository.ServiceEntryRepository;
+import com.subscriptionservice.service.ServiceDictionary;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import java.lang.reflect.Proxy;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Тестовые данные и заглушки для бенчмарков.
+ */
+final class Fixtures {
+    static final LocalDateTime START_DATE = LocalDateTime.of(2024, 1, 1, 0, 0);
+    static final LocalDateTime END_DATE = LocalDateTime.of(2025, 1, 1, 0, 0);
+
+    /**
+     * Количество сервисов в справочнике: сервисы service-0 ... service-(SERVICES - 1)
+     * с идентификаторами, равными номеру сервиса.
+     */
+    static final int SERVICES = 1000;
+
+    private Fixtures() {
+    }
+
+    static User user(long id) {
+        User user = new User();
+        user.setId(id);
+        user.setUserName("user" + id);
+        user.setEmail("user" + id + "@example.com");
+        return user;
+    }
+
+    static SubscriptionDTO subscriptionDTO(long id, long userId) {
+        return new SubscriptionDTO(id, "service-" + id, START_DATE, END_DATE, userId);
+    }
+
+    static List<SubscriptionDTO> subscriptionDTOs(int count, long userId) {
+        List<SubscriptionDTO> subscriptions = new ArrayList<>(count);
+        for (int i = 1; i <= count; i++) {
+            subscriptions.add(subscriptionDTO(i, userId));
+        }
+        return subscriptions;
+    }
+
+    static List<Subscription> subscriptions(int count, User user) {
+        List<Subscription> subscriptions = new ArrayList<>(count);
+        for (int i = 1; i <= count; i++) {
+            Subscription subscription = new Subscription();
+            subscription.setId((long) i);
+            subscription.setServiceId(i);
+            subscription.setStartDate(START_DATE);
+            subscription.setEndDate(END_DATE);
+            subscription.setUser(user);
+            subscriptions.add(subscription);
+        }
+        return subscriptions;
+    }
+
+    static List<SubscriptionRow> subscriptionRows(int count, long userId) {
+        List<SubscriptionRow> rows = new ArrayList<>(count);
+        for (int i = 1; i <= count; i++) {
+            SubscriptionRow row = new SubscriptionRow();
+            row.setId((long) i);
+            row.setServiceId(i);
+            row.setStartDate(START_DATE);
+            row.setEndDate(END_DATE);
+            row.setUserId(userId);
+            rows.add(row);
+        }
+        return rows;
+    }
+
+    /**
+     * Создает загруженный справочник сервисов. Все используемые бенчмарками сервисы
+     * уже есть в справочнике, поэтому обращений к заглушке репозитория при замерах нет.
+     *
+     * @return справочник сервисов
+     */
+    static ServiceDictionary serviceDictionary() {
+        List<ServiceEntry> entries = new ArrayList<>(SERVICES);
+        for (int i = 0; i < SERVICES; i++) {
+            ServiceEntry entry = new ServiceEntry();
+            entry.setId(i);
+            entry.setName("service-" + i);
+            entries.add(entry);
+        }
+        ServiceEntryRepository serviceEntryRepository = stub(ServiceEntryRepository.class,
+                Map.<String, Function<Object[], Object>>of("findAll", args -> entries));
+        PlatformTransactionManager transactionManager = stub(PlatformTransactionManager.class,
+                Map.<String, Function<Object[], Object>>of(
+                        "getTransaction", args -> new SimpleTransactionStatus(),
+                        "commit", args -> null,
+                        "rollback", args -> null));
+        ServiceDictionary serviceDictionary = new ServiceDictionary(serviceEntryRepository, transactionManager);
+        serviceDictionary.load();
+        return serviceDictionary;
+    }
+
+    /**
+     * Создает заглушку интерфейса, отвечающую на вызовы перечисленных методов.
+     * Вызов любого другого метода завершается исключением, чтобы бенчмарк
+     * не измерял незаметно изменившийся путь выполнения.
+     *
+     * @param type интерфейс заглушки
+     * @param answers ответы по именам методов
+     * @return заглушка
+     */
+    static <T> T stub(Class<T> type, Map<String, Function<Object[], Object>> answers) {
+        return type.cast(Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type},
+                (proxy, method, args) -> {
+                    Function<Object[], Object> answer = answers.get(method.getName());
+                    if (answer == null) {
+                        throw new UnsupportedOperationException(type.getSimpleName() + "." + method.getName());
+                    }
+                    return answer.apply(args);
+                }));
+    }
+}
@@ -0,0 +1,109 @@
+package com.subscriptionservice.benchmark;
+
+import com.subscriptionservice.dto.SubscriptionDTO;
+import com.subscriptionservice.dto.UserDTO;
+import com.subscriptionservice.mapper.SubscriptionMapper;
+import com.subscriptionservice.mapper.UserMapper;
+import com.subscriptionservice.model.Subscription;
+import com.subscriptionservice.model.SubscriptionRow;
+import com.subscriptionservice.model.SubscriptionStatus;
+import com.subscriptionservice.model.User;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Бенчмарки мапперов и построения страницы подписок.
+ * Пара subscriptionPageFromEntities / subscriptionPageFromProjection сравнивает
+ * построение страницы из прочитанных строк через сущности и маппер с
+ * построением DTO из строк-проекций SubscriptionRow, как это делает SubscriptionService
+ * для результата SubscriptionRepository.findPageByUserId.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MapperBenchmark {
+    private static final int PAGE_SIZE = 100;
+
+    private final SubscriptionMapper subscriptionMapper = new SubscriptionMapper(Fixtures.serviceDictionary());
+    private final UserMapper userMapper = new UserMapper();
+
+    private Subscription subscription;
+    private SubscriptionDTO subscriptionDTO;
+    private User user;
+    private UserDTO userDTO;
+    private List<Object[]> rows;
+
+    @Setup
+    public void setUp() {
+        user = Fixtures.user(1);
+        subscription = Fixtures.subscriptions(1, user).get(0);
+        subscriptionDTO = Fixtures.subscriptionDTO(1, 1);
+        userDTO = userMapper.toDTO(user);
+        rows = new ArrayList<>(PAGE_SIZE);
+        for (Subscription entity : Fixtures.subscriptions(PAGE_SIZE, user)) {
+            rows.add(new Object[]{entity.getId(), entity.getServiceId(),
+                    entity.getStartDate(), entity.getEndDate(), user.getId()});
+        }
+    }
+
+    @Benchmark
+    public SubscriptionDTO subscriptionToDTO() {
+        return subscriptionMapper.toDTO(subscription);
+    }
+
+    @Benchmark
+    public Subscription subscriptionToEntity() {
+        return subscriptionMapper.toEntity(subscriptionDTO);
+    }
+
+    @Benchmark
+    public UserDTO userToDTO() {
+        return userMapper.toDTO(user);
+    }
+
+    @Benchmark
+    public User userToEntity() {
+        return userMapper.toEntity(userDTO);
+    }
+
+    @Benchmark
+    public List<SubscriptionDTO> subscriptionPageFromEntities() {
+        List<SubscriptionDTO> result = new ArrayList<>(rows.size());
+        for (Object[] row : rows) {
+            Subscription entity = new Subscription();
+            entity.setId((Long) row[0]);
+            entity.setServiceId((Integer) row[1]);
+            entity.setStartDate((LocalDateTime) row[2]);
+            entity.setEndDate((LocalDateTime) row[3]);
+            entity.setUser(user);
+            result.add(subscriptionMapper.toDTO(entity));
+        }
+        return result;
+    }
+
+    @Benchmark
+    public List<SubscriptionDTO> subscriptionPageFromProjection() {
+        List<SubscriptionDTO> result = new ArrayList<>(rows.size());
+        for (Object[] row : rows) {
+            result.add(subscriptionMapper.toDTO(new SubscriptionRow((Long) row[0], (Integer) row[1],
+                    (LocalDateTime) row[2], (LocalDateTime) row[3], (Long) row[4], SubscriptionStatus.ACTIVE)));
+        }
+        return result;
+    }
+}
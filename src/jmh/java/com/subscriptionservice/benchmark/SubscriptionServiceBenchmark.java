@@ -0,0 +1,113 @@
+package com.subscriptionservice.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.subscriptionservice.config.OutboxProperties;
+import com.subscriptionservice.config.PaginationProperties;
+import com.subscriptionservice.config.TopSubscriptionsProperties;
+import com.subscriptionservice.dto.SubscriptionDTO;
+import com.subscriptionservice.dto.SubscriptionPageDTO;
+import com.subscriptionservice.dto.TopSubscriptionDTO;
+import com.subscriptionservice.mapper.SubscriptionMapper;
+import com.subscriptionservice.model.Subscription;
+import com.subscriptionservice.model.SubscriptionRow;
+import com.subscriptionservice.repository.OutboxEventRepository;
+import com.subscriptionservice.repository.SubscriptionRepository;
+import com.subscriptionservice.repository.UserRepository;
+import com.subscriptionservice.service.OutboxService;
+import com.subscriptionservice.service.ServiceDictionary;
+import com.subscriptionservice.service.SubscriptionLeaderboard;
+import com.subscriptionservice.service.SubscriptionService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * Бенчмарки SubscriptionService с заглушками репозиториев.
+ * Измеряется собственная работа сервиса: проверки, маппинг, токены продолжения
+ * и рейтинг в памяти; время обращения к базе данных сюда не входит.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SubscriptionServiceBenchmark {
+    private static final long USER_ID = 1;
+    private static final int PAGE_SIZE = 100;
+
+    private SubscriptionService subscriptionService;
+    private SubscriptionDTO newSubscription;
+    private String nextCursor;
+
+    @Setup
+    public void setUp() {
+        List<SubscriptionRow> page = Fixtures.subscriptionRows(PAGE_SIZE + 1, USER_ID);
+        List<Object[]> counts = new ArrayList<>(Fixtures.SERVICES);
+        for (int i = 0; i < Fixtures.SERVICES; i++) {
+            counts.add(new Object[]{i, (long) i * 7 % Fixtures.SERVICES});
+        }
+        AtomicLong ids = new AtomicLong();
+        SubscriptionRepository subscriptionRepository = Fixtures.stub(SubscriptionRepository.class,
+                Map.<String, Function<Object[], Object>>of(
+                        "saveAndFlush", args -> {
+                            Subscription subscription = (Subscription) args[0];
+                            subscription.setId(ids.incrementAndGet());
+                            return subscription;
+                        },
+                        "findPageByUserId", args -> page,
+                        "countSubscriptionsByServiceId", args -> counts));
+        UserRepository userRepository = Fixtures.stub(UserRepository.class,
+                Map.<String, Function<Object[], Object>>of(
+                        "getReferenceById", args -> Fixtures.user((Long) args[0])));
+
+        OutboxEventRepository outboxEventRepository = Fixtures.stub(OutboxEventRepository.class,
+                Map.<String, Function<Object[], Object>>of("save", args -> args[0]));
+
+        ServiceDictionary serviceDictionary = Fixtures.serviceDictionary();
+        SubscriptionLeaderboard leaderboard = new SubscriptionLeaderboard(subscriptionRepository, serviceDictionary);
+        leaderboard.reconcile();
+        subscriptionService = new SubscriptionService(subscriptionRepository, userRepository,
+                new SubscriptionMapper(serviceDictionary), leaderboard, new TopSubscriptionsProperties(),
+                new PaginationProperties(), event -> { },
+                new OutboxService(outboxEventRepository, new OutboxProperties(), new ObjectMapper()));
+
+        newSubscription = Fixtures.subscriptionDTO(0, USER_ID);
+        newSubscription.setId(null);
+        nextCursor = subscriptionService.getUserSubscriptions(USER_ID, null, PAGE_SIZE).getNextCursor();
+    }
+
+    @Benchmark
+    public SubscriptionDTO addSubscription() {
+        return subscriptionService.addSubscription(USER_ID, newSubscription);
+    }
+
+    @Benchmark
+    public SubscriptionPageDTO getUserSubscriptionsFirstPage() {
+        return subscriptionService.getUserSubscriptions(USER_ID, null, PAGE_SIZE);
+    }
+
+    @Benchmark
+    public SubscriptionPageDTO getUserSubscriptionsNextPage() {
+        return subscriptionService.getUserSubscriptions(USER_ID, nextCursor, PAGE_SIZE);
+    }
+
+    @Benchmark
+    public List<TopSubscriptionDTO> getTopSubscriptions() {
+        return subscriptionService.getTopSubscriptions(10, null, null, null);
+    }
+}
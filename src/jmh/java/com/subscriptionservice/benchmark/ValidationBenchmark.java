@@ -0,0 +1,69 @@
+package com.subscriptionservice.benchmark;
+
+import com.subscriptionservice.dto.SubscriptionDTO;
+import com.subscriptionservice.validation.SubscriptionDateValidator;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
+import jakarta.validation.ValidatorFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Бенчмарки валидации подписок: проверка дат отдельно и полная проверка
+ * Bean Validation, которая выполняется для каждого элемента пакетов и импорта.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ValidationBenchmark {
+    private final SubscriptionDateValidator dateValidator = new SubscriptionDateValidator();
+
+    private ValidatorFactory validatorFactory;
+    private Validator validator;
+    private SubscriptionDTO valid;
+    private SubscriptionDTO invalid;
+
+    @Setup
+    public void setUp() {
+        validatorFactory = Validation.buildDefaultValidatorFactory();
+        validator = validatorFactory.getValidator();
+        valid = Fixtures.subscriptionDTO(1, 1);
+        invalid = new SubscriptionDTO(2L, "", Fixtures.END_DATE, Fixtures.START_DATE, 1L);
+    }
+
+    @TearDown
+    public void tearDown() {
+        validatorFactory.close();
+    }
+
+    @Benchmark
+    public boolean dateValidatorIsValid() {
+        return dateValidator.isValid(valid, null);
+    }
+
+    @Benchmark
+    public Set<ConstraintViolation<SubscriptionDTO>> validateValid() {
+        return validator.validate(valid);
+    }
+
+    @Benchmark
+    public Set<ConstraintViolation<SubscriptionDTO>> validateInvalid() {
+        return validator.validate(invalid);
+    }
+}
@@ -0,0 +1,204 @@
+package com.subscriptionservice.loadtest;
+
+import org.postgresql.PGConnection;
+import org.postgresql.copy.CopyIn;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.sql.DataSource;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+/**
+ * Генератор синтетических данных для нагрузочного теста.
+ * Создает пользователей с идентификаторами 1..users и у каждого из них
+ * subscriptionsPerUser подписок на различные сервисы. Популярность сервисов
+ * подчиняется распределению Ципфа: сервис service-1 самый популярный.
+ * Данные загружаются командой COPY, существующие пользователи и подписки удаляются.
+ */
+final class DataGenerator {
+    private static final Logger log = LoggerFactory.getLogger(DataGenerator.class);
+    private static final DateTimeFormatter TIMESTAMP_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+    private static final LocalDateTime BASE_DATE = LocalDateTime.of(2024, 1, 1, 0, 0);
+    private static final int COPY_BUFFER_SIZE = 64 * 1024;
+
+    private final DataSource dataSource;
+    private final LoadTestSettings settings;
+    private final SplittableRandom random;
+    private final double[] serviceWeights;
+
+    DataGenerator(DataSource dataSource, LoadTestSettings settings) {
+        this.dataSource = dataSource;
+        this.settings = settings;
+        this.random = new SplittableRandom(settings.seed());
+        this.serviceWeights = cumulativeZipfWeights(settings.services(), settings.skew());
+    }
+
+    void generate() throws SQLException {
+        long startNanos = System.nanoTime();
+        try (Connection connection = dataSource.getConnection()) {
+            connection.setAutoCommit(false);
+            try (Statement statement = connection.createStatement()) {
+                boolean partitioningPending = isPartitioningPending(statement);
+                statement.execute("TRUNCATE TABLE subscriptions, "
+                        + (partitioningPending ? "subscriptions_partitioned, " : "")
+                        + "services, users, outbox_events, outbox_offsets RESTART IDENTITY");
+                if (partitioningPending) {
+                    // Таблицы пусты, поэтому секционированная таблица подставляется сразу, без копирования
+                    statement.execute("SELECT subscriptions_partitioning_cutover()");
+                }
+            }
+            PGConnection pgConnection = connection.unwrap(PGConnection.class);
+            copyUsers(pgConnection);
+            copyServices(pgConnection);
+            long subscriptions = copySubscriptions(pgConnection);
+            try (Statement statement = connection.createStatement()) {
+                statement.execute("SELECT setval('users_id_seq', " + settings.users() + ")");
+                statement.execute("SELECT setval('services_id_seq', " + settings.services() + ")");
+                statement.execute("SELECT setval('subscriptions_id_seq', " + Math.max(subscriptions, 1) + ")");
+            }
+            connection.commit();
+            try (Statement statement = connection.createStatement()) {
+                connection.setAutoCommit(true);
+                statement.execute("ANALYZE users");
+                statement.execute("ANALYZE services");
+                statement.execute("ANALYZE subscriptions");
+            }
+            log.info("Сгенерировано {} пользователей и {} подписок за {} мс", settings.users(), subscriptions,
+                    (System.nanoTime() - startNanos) / 1_000_000);
+        }
+    }
+
+    private static boolean isPartitioningPending(Statement statement) throws SQLException {
+        try (ResultSet resultSet = statement.executeQuery(
+                "SELECT to_regclass('subscriptions_partitioned') IS NOT NULL")) {
+            return resultSet.next() && resultSet.getBoolean(1);
+        }
+    }
+
+    private void copyUsers(PGConnection connection) throws SQLException {
+        String now = TIMESTAMP_FORMAT.format(BASE_DATE);
+        try (CopyWriter writer = new CopyWriter(connection,
+                "COPY users (id, user_name, email, created_at, updated_at) FROM STDIN")) {
+            for (long id = 1; id <= settings.users(); id++) {
+                writer.row(id, "user" + id, "user" + id + "@loadtest.local", now, now);
+            }
+        }
+    }
+
+    private void copyServices(PGConnection connection) throws SQLException {
+        try (CopyWriter writer = new CopyWriter(connection, "COPY services (id, name) FROM STDIN")) {
+            for (int id = 1; id <= settings.services(); id++) {
+                writer.row(id, "service-" + id);
+            }
+        }
+    }
+
+    private long copySubscriptions(PGConnection connection) throws SQLException {
+        long id = 0;
+        int[] services = new int[settings.subscriptionsPerUser()];
+        try (CopyWriter writer = new CopyWriter(connection,
+                "COPY subscriptions (id, service_id, start_date, end_date, user_id) FROM STDIN")) {
+            for (long userId = 1; userId <= settings.users(); userId++) {
+                pickDistinctServices(services);
+                for (int service : services) {
+                    LocalDateTime start = BASE_DATE.minusDays(random.nextInt(365));
+                    LocalDateTime end = start.plusDays(30 + random.nextInt(336));
+                    writer.row(++id, service, TIMESTAMP_FORMAT.format(start),
+                            TIMESTAMP_FORMAT.format(end), userId);
+                }
+            }
+        }
+        return id;
+    }
+
+    /**
+     * Выбирает различные сервисы пользователя с учетом их популярности.
+     * При сильной асимметрии и большом числе подписок выборка с отбрасыванием повторов
+     * может не сойтись, тогда оставшиеся места заполняются наиболее популярными из невыбранных сервисов.
+     */
+    private void pickDistinctServices(int[] result) {
+        boolean[] taken = new boolean[settings.services() + 1];
+        int count = 0;
+        for (int attempt = 0; count < result.length && attempt < result.length * 50; attempt++) {
+            int service = sampleService();
+            if (!taken[service]) {
+                taken[service] = true;
+                result[count++] = service;
+            }
+        }
+        for (int service = 1; count < result.length; service++) {
+            if (!taken[service]) {
+                taken[service] = true;
+                result[count++] = service;
+            }
+        }
+    }
+
+    private int sampleService() {
+        double value = random.nextDouble() * serviceWeights[serviceWeights.length - 1];
+        int index = Arrays.binarySearch(serviceWeights, value);
+        return (index >= 0 ? index : -index - 1) + 1;
+    }
+
+    private static double[] cumulativeZipfWeights(int services, double skew) {
+        double[] weights = new double[services];
+        double total = 0;
+        for (int rank = 1; rank <= services; rank++) {
+            total += 1.0 / Math.pow(rank, skew);
+            weights[rank - 1] = total;
+        }
+        return weights;
+    }
+
+    /**
+     * Буферизованная запись строк в команду COPY в текстовом формате.
+     * Значения не экранируются: генератор не создает табуляций, переводов строк и обратных слешей.
+     */
+    private static final class CopyWriter implements AutoCloseable {
+        private final CopyIn copyIn;
+        private final StringBuilder buffer = new StringBuilder(COPY_BUFFER_SIZE);
+
+        private CopyWriter(PGConnection connection, String sql) throws SQLException {
+            copyIn = connection.getCopyAPI().copyIn(sql);
+        }
+
+        private void row(Object... values) throws SQLException {
+            for (int i = 0; i < values.length; i++) {
+                if (i > 0) {
+                    buffer.append('\t');
+                }
+                buffer.append(values[i]);
+            }
+            buffer.append('\n');
+            if (buffer.length() >= COPY_BUFFER_SIZE) {
+                flush();
+            }
+        }
+
+        private void flush() throws SQLException {
+            byte[] bytes = buffer.toString().getBytes(StandardCharsets.UTF_8);
+            copyIn.writeToCopy(bytes, 0, bytes.length);
+            buffer.setLength(0);
+        }
+
+        @Override
+        public void close() throws SQLException {
+            try {
+                flush();
+                copyIn.endCopy();
+            } finally {
+                if (copyIn.isActive()) {
+                    copyIn.cancelCopy();
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,75 @@
+package com.subscriptionservice.loadtest;
+
+import java.net.URI;
+import java.net.http.HttpRequest;
+import java.time.Duration;
+
+/**
+ * Нагружаемые эндпоинты REST API.
+ * Частота запросов по умолчанию переопределяется свойством {@code loadtest.rate.<ключ>}.
+ */
+enum Endpoint {
+    GET_USER("getUser", "GET /users/{id}", 200) {
+        @Override
+        HttpRequest.Builder request(URI baseUri, long userId, long sequence) {
+            return HttpRequest.newBuilder(baseUri.resolve("/users/" + userId)).GET();
+        }
+    },
+    GET_USER_SUBSCRIPTIONS("getUserSubscriptions", "GET /users/{id}/subscriptions?limit=20", 200) {
+        @Override
+        HttpRequest.Builder request(URI baseUri, long userId, long sequence) {
+            return HttpRequest.newBuilder(baseUri.resolve("/users/" + userId + "/subscriptions?limit=20")).GET();
+        }
+    },
+    GET_TOP_SUBSCRIPTIONS("getTopSubscriptions", "GET /subscriptions/top?limit=10", 100) {
+        @Override
+        HttpRequest.Builder request(URI baseUri, long userId, long sequence) {
+            return HttpRequest.newBuilder(baseUri.resolve("/subscriptions/top?limit=10")).GET();
+        }
+    },
+    ADD_SUBSCRIPTION("addSubscription", "POST /users/{id}/subscriptions", 20) {
+        @Override
+        HttpRequest.Builder request(URI baseUri, long userId, long sequence) {
+            String body = """
+                    {"serviceName":"loadtest-%d","startDate":"2024-01-01T00:00:00","endDate":"2025-01-01T00:00:00"}\
+                    """.formatted(sequence);
+            return HttpRequest.newBuilder(baseUri.resolve("/users/" + userId + "/subscriptions"))
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofString(body));
+        }
+    };
+
+    static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(30);
+
+    private final String key;
+    private final String description;
+    private final int defaultRate;
+
+    Endpoint(String key, String description, int defaultRate) {
+        this.key = key;
+        this.description = description;
+        this.defaultRate = defaultRate;
+    }
+
+    String key() {
+        return key;
+    }
+
+    String description() {
+        return description;
+    }
+
+    int defaultRate() {
+        return defaultRate;
+    }
+
+    /**
+     * Создает запрос к эндпоинту.
+     *
+     * @param baseUri адрес приложения
+     * @param userId идентификатор пользователя из сгенерированных данных
+     * @param sequence порядковый номер запроса, уникальный в рамках запуска
+     * @return построитель запроса
+     */
+    abstract HttpRequest.Builder request(URI baseUri, long userId, long sequence);
+}
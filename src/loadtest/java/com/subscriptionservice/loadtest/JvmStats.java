@@ -0,0 +1,49 @@
+package com.subscriptionservice.loadtest;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Потоки и память процесса во время нагрузки.
+ * Пиковое число потоков отсчитывается с момента создания объекта, пиковый RSS
+ * читается из /proc/self/status и учитывает весь процесс, включая генератор нагрузки.
+ */
+final class JvmStats {
+    private static final Path PROC_STATUS = Path.of("/proc/self/status");
+
+    private final ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+
+    JvmStats() {
+        threads.resetPeakThreadCount();
+    }
+
+    /**
+     * @param peakThreads пиковое число потоков
+     * @param liveThreads число потоков после нагрузки
+     * @param heapUsedMb занятая куча после нагрузки
+     * @param peakRssMb пиковый размер резидентной памяти процесса или -1, если он недоступен
+     */
+    record Snapshot(int peakThreads, int liveThreads, long heapUsedMb, long peakRssMb) {
+    }
+
+    Snapshot snapshot() {
+        long heapUsed = ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed();
+        return new Snapshot(threads.getPeakThreadCount(), threads.getThreadCount(), heapUsed >> 20, peakRssMb());
+    }
+
+    private static long peakRssMb() {
+        try {
+            for (String line : Files.readAllLines(PROC_STATUS)) {
+                if (line.startsWith("VmHWM:")) {
+                    return Long.parseLong(line.replaceAll("\\D", "")) >> 10;
+                }
+            }
+        } catch (IOException | NumberFormatException ex) {
+            // недоступно вне Linux
+        }
+        return -1;
+    }
+}
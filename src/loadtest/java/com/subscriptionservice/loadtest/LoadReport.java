@@ -0,0 +1,67 @@
+package com.subscriptionservice.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Отчет нагрузочного теста: параметры запуска и результаты по эндпоинтам.
+ *
+ * @param settings параметры запуска
+ * @param endpoints результаты по эндпоинтам
+ * @param jvm потоки и память процесса за время нагрузки
+ */
+record LoadReport(LoadTestSettings settings, List<EndpointResult> endpoints, JvmStats.Snapshot jvm) {
+
+    /**
+     * Результат измерения одного эндпоинта. Задержки успешных запросов в миллисекундах
+     * отсчитываются от запланированного момента отправки.
+     *
+     * @param endpoint ключ эндпоинта
+     * @param request метод и путь запроса
+     * @param targetRate заданная частота запросов в секунду
+     * @param sent запланировано запросов за время измерения
+     * @param succeeded успешных ответов
+     * @param errors ответов с ошибкой и неудачных запросов
+     * @param dropped запросов, отброшенных из-за предела одновременных запросов
+     * @param throughput успешных ответов в секунду
+     * @param p50 медиана задержки
+     * @param p99 99-й процентиль задержки
+     * @param p999 99.9-й процентиль задержки
+     * @param max максимальная задержка
+     */
+    record EndpointResult(String endpoint, String request, int targetRate, long sent, long succeeded,
+                          long errors, long dropped, double throughput,
+                          double p50, double p99, double p999, double max) {
+    }
+
+    void print(PrintStream out) {
+        out.printf(Locale.ROOT, "%-22s %8s %10s %8s %8s %10s %10s %10s %10s %10s%n",
+                "endpoint", "rate", "succeeded", "errors", "dropped", "rps", "p50 ms", "p99 ms", "p999 ms", "max ms");
+        for (EndpointResult result : endpoints) {
+            out.printf(Locale.ROOT, "%-22s %8d %10d %8d %8d %10.1f %10.2f %10.2f %10.2f %10.2f%n",
+                    result.endpoint(), result.targetRate(), result.succeeded(), result.errors(), result.dropped(),
+                    result.throughput(), result.p50(), result.p99(), result.p999(), result.max());
+        }
+        out.printf(Locale.ROOT, "threads: peak %d, live %d; heap used %d MB; peak RSS %d MB%n",
+                jvm.peakThreads(), jvm.liveThreads(), jvm.heapUsedMb(), jvm.peakRssMb());
+    }
+
+    void write(Path file) throws IOException {
+        if (file.getParent() != null) {
+            Files.createDirectories(file.getParent());
+        }
+        new ObjectMapper()
+                .registerModule(new JavaTimeModule())
+                .disable(SerializationFeature.WRITE_DURATIONS_AS_TIMESTAMPS)
+                .writerWithDefaultPrettyPrinter()
+                .writeValue(file.toFile(), this);
+    }
+}
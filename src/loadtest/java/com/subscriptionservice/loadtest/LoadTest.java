@@ -0,0 +1,76 @@
+package com.subscriptionservice.loadtest;
+
+import com.subscriptionservice.SubscriptionserviceApplication;
+import com.subscriptionservice.service.ServiceDictionary;
+import com.subscriptionservice.service.SubscriptionLeaderboard;
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import javax.sql.DataSource;
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Нагрузочный тест REST API.
+ * Запускает PostgreSQL (встроенный или внешний, если задан {@code loadtest.jdbcUrl}),
+ * поднимает приложение с профилем loadtest, заполняет базу синтетическими данными,
+ * подает нагрузку с фиксированной частотой и сохраняет отчет в формате JSON.
+ */
+public final class LoadTest {
+    private static final Logger log = LoggerFactory.getLogger(LoadTest.class);
+
+    private LoadTest() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        LoadTestSettings settings = LoadTestSettings.fromSystemProperties();
+        EmbeddedPostgres postgres = settings.jdbcUrl() == null ? EmbeddedPostgres.builder().start() : null;
+        try {
+            String jdbcUrl = postgres != null
+                    ? "jdbc:postgresql://localhost:" + postgres.getPort() + "/postgres?reWriteBatchedInserts=true"
+                    : settings.jdbcUrl();
+            try (ConfigurableApplicationContext context = new SpringApplicationBuilder(SubscriptionserviceApplication.class)
+                    .profiles(profiles(settings))
+                    .run("--spring.datasource.url=" + jdbcUrl,
+                            "--spring.r2dbc.url=" + r2dbcUrl(jdbcUrl),
+                            "--spring.datasource.username=" + settings.username(),
+                            "--spring.datasource.password=" + settings.password())) {
+                new DataGenerator(context.getBean(DataSource.class), settings).generate();
+                context.getBean(ServiceDictionary.class).load();
+                context.getBean(SubscriptionLeaderboard.class).reconcile();
+
+                URI baseUri = URI.create("http://localhost:" + context.getEnvironment().getProperty("local.server.port"));
+                JvmStats jvmStats = new JvmStats();
+                List<LoadReport.EndpointResult> results = new OpenModelDriver(settings, baseUri).run();
+                LoadReport report = new LoadReport(settings, results, jvmStats.snapshot());
+                report.print(System.out);
+                report.write(settings.reportFile());
+                log.info("Отчет сохранен в {}", settings.reportFile().toAbsolutePath());
+            }
+        } finally {
+            if (postgres != null) {
+                postgres.close();
+            }
+        }
+    }
+
+    /**
+     * Адрес той же базы данных для профиля reactive: параметры драйвера JDBC отбрасываются.
+     */
+    private static String r2dbcUrl(String jdbcUrl) {
+        String url = jdbcUrl.replaceFirst("^jdbc:", "r2dbc:");
+        int query = url.indexOf('?');
+        return query < 0 ? url : url.substring(0, query);
+    }
+
+    private static String[] profiles(LoadTestSettings settings) {
+        List<String> profiles = new ArrayList<>();
+        profiles.add("loadtest");
+        profiles.addAll(settings.profiles());
+        return profiles.toArray(String[]::new);
+    }
+}
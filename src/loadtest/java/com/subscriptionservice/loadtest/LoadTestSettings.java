@@ -0,0 +1,72 @@
+package com.subscriptionservice.loadtest;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Параметры нагрузочного теста, читаются из системных свойств {@code loadtest.*}.
+ *
+ * @param users количество сгенерированных пользователей
+ * @param subscriptionsPerUser количество подписок у каждого пользователя
+ * @param services количество различных сервисов
+ * @param skew показатель распределения Ципфа для популярности сервисов, 0 - равномерное
+ * @param seed начальное значение генератора случайных чисел
+ * @param warmup длительность прогрева, запросы прогрева не учитываются в отчете
+ * @param duration длительность измерения
+ * @param rates частота запросов в секунду по эндпоинтам
+ * @param maxInFlight предел одновременно выполняемых запросов, сверх него запросы отбрасываются
+ * @param jdbcUrl адрес внешней базы данных или null для встроенного PostgreSQL
+ * @param username пользователь внешней базы данных
+ * @param password пароль внешней базы данных
+ * @param reportFile файл отчета в формате JSON
+ * @param profiles дополнительные профили приложения, например virtual-threads
+ */
+record LoadTestSettings(int users, int subscriptionsPerUser, int services, double skew, long seed,
+                        Duration warmup, Duration duration, Map<Endpoint, Integer> rates, int maxInFlight,
+                        String jdbcUrl, String username, @JsonIgnore String password, Path reportFile,
+                        List<String> profiles) {
+
+    LoadTestSettings {
+        if (users < 1 || subscriptionsPerUser < 0 || services < 1) {
+            throw new IllegalArgumentException("Количество пользователей и сервисов должно быть положительным");
+        }
+        if (subscriptionsPerUser > services) {
+            throw new IllegalArgumentException("Подписок у пользователя не может быть больше, чем сервисов: "
+                    + subscriptionsPerUser + " > " + services);
+        }
+        if (skew < 0) {
+            throw new IllegalArgumentException("Показатель распределения сервисов не может быть отрицательным");
+        }
+    }
+
+    static LoadTestSettings fromSystemProperties() {
+        Map<Endpoint, Integer> rates = new EnumMap<>(Endpoint.class);
+        for (Endpoint endpoint : Endpoint.values()) {
+            rates.put(endpoint, Integer.getInteger("loadtest.rate." + endpoint.key(), endpoint.defaultRate()));
+        }
+        return new LoadTestSettings(
+                Integer.getInteger("loadtest.users", 10_000),
+                Integer.getInteger("loadtest.subscriptionsPerUser", 10),
+                Integer.getInteger("loadtest.services", 200),
+                Double.parseDouble(System.getProperty("loadtest.skew", "1.0")),
+                Long.getLong("loadtest.seed", 42),
+                Duration.parse(System.getProperty("loadtest.warmup", "PT15S")),
+                Duration.parse(System.getProperty("loadtest.duration", "PT60S")),
+                rates,
+                Integer.getInteger("loadtest.maxInFlight", 2000),
+                System.getProperty("loadtest.jdbcUrl"),
+                System.getProperty("loadtest.username", "postgres"),
+                System.getProperty("loadtest.password", ""),
+                Path.of(System.getProperty("loadtest.report", "build/results/loadtest/report.json")),
+                Arrays.stream(System.getProperty("loadtest.profiles", "").split(","))
+                        .map(String::trim)
+                        .filter(profile -> !profile.isEmpty())
+                        .toList());
+    }
+}
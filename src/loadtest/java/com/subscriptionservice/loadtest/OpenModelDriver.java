@@ -0,0 +1,177 @@
+package com.subscriptionservice.loadtest;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Генератор нагрузки по открытой модели.
+ * Запросы к каждому эндпоинту отправляются с фиксированной частотой независимо от того,
+ * успел ли ответить сервер, а задержка отсчитывается от запланированного момента отправки.
+ * Поэтому очередь перед перегруженным сервером видна в задержках, а не скрывается
+ * снижением частоты запросов (coordinated omission).
+ */
+final class OpenModelDriver {
+    private static final Logger log = LoggerFactory.getLogger(OpenModelDriver.class);
+    private static final long NANOS_PER_SECOND = TimeUnit.SECONDS.toNanos(1);
+    private static final long MAX_LATENCY_MICROS = TimeUnit.MINUTES.toMicros(2);
+    /**
+     * Потоки HTTP-клиента. Их число фиксировано, чтобы генератор нагрузки, работающий
+     * в одном процессе с приложением, не искажал число потоков в отчете.
+     */
+    private static final int CLIENT_THREADS = 4;
+
+    private final LoadTestSettings settings;
+    private final URI baseUri;
+    private final ExecutorService clientExecutor = Executors.newFixedThreadPool(CLIENT_THREADS, runnable -> {
+        Thread thread = new Thread(runnable, "load-client");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final HttpClient client = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .executor(clientExecutor)
+            .build();
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicLong sequence = new AtomicLong();
+
+    OpenModelDriver(LoadTestSettings settings, URI baseUri) {
+        this.settings = settings;
+        this.baseUri = baseUri;
+    }
+
+    /**
+     * Подает нагрузку на все эндпоинты одновременно в течение прогрева и измерения.
+     *
+     * @return результаты измерения по эндпоинтам
+     */
+    List<LoadReport.EndpointResult> run() throws InterruptedException {
+        long origin = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(100);
+        long measureFrom = origin + settings.warmup().toNanos();
+        long end = measureFrom + settings.duration().toNanos();
+
+        List<Stats> stats = new ArrayList<>();
+        List<Thread> threads = new ArrayList<>();
+        for (Map.Entry<Endpoint, Integer> rate : settings.rates().entrySet()) {
+            if (rate.getValue() <= 0) {
+                continue;
+            }
+            Stats endpointStats = new Stats(rate.getKey(), rate.getValue());
+            stats.add(endpointStats);
+            Thread thread = new Thread(() -> drive(endpointStats, origin, measureFrom, end),
+                    "load-" + rate.getKey().key());
+            threads.add(thread);
+            thread.start();
+        }
+        log.info("Прогрев {}, измерение {}", settings.warmup(), settings.duration());
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        awaitInFlight();
+        clientExecutor.shutdown();
+
+        double seconds = settings.duration().toNanos() / (double) NANOS_PER_SECOND;
+        return stats.stream().map(endpointStats -> endpointStats.result(seconds)).toList();
+    }
+
+    private void drive(Stats stats, long origin, long measureFrom, long end) {
+        SplittableRandom random = new SplittableRandom(settings.seed() ^ stats.endpoint.ordinal());
+        for (long i = 0; ; i++) {
+            long intended = origin + i * NANOS_PER_SECOND / stats.rate;
+            if (intended >= end) {
+                return;
+            }
+            long delay = intended - System.nanoTime();
+            if (delay > 0) {
+                LockSupport.parkNanos(delay);
+            }
+            boolean measured = intended >= measureFrom;
+            if (measured) {
+                stats.sent.increment();
+            }
+            if (inFlight.get() >= settings.maxInFlight()) {
+                if (measured) {
+                    stats.dropped.increment();
+                }
+                continue;
+            }
+            long userId = 1 + random.nextLong(settings.users());
+            HttpRequest request = stats.endpoint.request(baseUri, userId, sequence.incrementAndGet())
+                    .timeout(Endpoint.REQUEST_TIMEOUT)
+                    .build();
+            inFlight.incrementAndGet();
+            client.sendAsync(request, HttpResponse.BodyHandlers.discarding())
+                    .whenComplete((response, error) -> {
+                        long latencyNanos = System.nanoTime() - intended;
+                        inFlight.decrementAndGet();
+                        if (!measured) {
+                            return;
+                        }
+                        if (error != null || response.statusCode() >= 400) {
+                            stats.errors.increment();
+                        } else {
+                            stats.latency.recordValue(Math.min(
+                                    TimeUnit.NANOSECONDS.toMicros(latencyNanos), MAX_LATENCY_MICROS));
+                        }
+                    });
+        }
+    }
+
+    private void awaitInFlight() throws InterruptedException {
+        long deadline = System.nanoTime() + Endpoint.REQUEST_TIMEOUT.toNanos() + NANOS_PER_SECOND;
+        while (inFlight.get() > 0 && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        if (inFlight.get() > 0) {
+            log.warn("Не дождались завершения {} запросов", inFlight.get());
+        }
+    }
+
+    /**
+     * Счетчики и гистограмма задержек одного эндпоинта, задержки в микросекундах.
+     */
+    private static final class Stats {
+        private final Endpoint endpoint;
+        private final int rate;
+        private final Histogram latency = new ConcurrentHistogram(MAX_LATENCY_MICROS, 3);
+        private final LongAdder sent = new LongAdder();
+        private final LongAdder errors = new LongAdder();
+        private final LongAdder dropped = new LongAdder();
+
+        private Stats(Endpoint endpoint, int rate) {
+            this.endpoint = endpoint;
+            this.rate = rate;
+        }
+
+        private LoadReport.EndpointResult result(double seconds) {
+            long completed = latency.getTotalCount();
+            return new LoadReport.EndpointResult(endpoint.key(), endpoint.description(), rate,
+                    sent.sum(), completed, errors.sum(), dropped.sum(), completed / seconds,
+                    millis(latency.getValueAtPercentile(50)),
+                    millis(latency.getValueAtPercentile(99)),
+                    millis(latency.getValueAtPercentile(99.9)),
+                    millis(latency.getMaxValue()));
+        }
+
+        private static double millis(long micros) {
+            return micros / 1000.0;
+        }
+    }
+}
@@ -0,0 +1,16 @@
+package com.subscriptionservice.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Настройки пакетной обработки подписок.
+ */
+@Data
+@ConfigurationProperties(prefix = "app.batch")
+public class BatchProperties {
+    /**
+     * Максимальное количество элементов в одном пакетном запросе
+     */
+    private int maxSize = 1000;
+}
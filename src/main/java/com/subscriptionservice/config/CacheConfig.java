@@ -0,0 +1,18 @@
+package com.subscriptionservice.config;
+
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Конфигурация кэширования.
+ * Размер, время жизни и сбор статистики кэшей задаются в application.yml
+ * (spring.cache.caffeine.spec); статистика публикуется в метриках actuator.
+ */
+@Configuration
+@EnableCaching
+public class CacheConfig {
+    /**
+     * Кэш пользователей по идентификатору.
+     */
+    public static final String USERS_CACHE = "users";
+}
@@ -0,0 +1,122 @@
+package com.subscriptionservice.config;
+
+import com.subscriptionservice.exception.ServiceOverloadedException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.DispatcherType;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * Ограничивает количество одновременных запросов к каждому маршруту REST API.
+ * Предел маршрута (метод и шаблон пути) подбирается {@link GradientConcurrencyLimit} по времени ответа;
+ * запрос сверх предела отклоняется до вызова контроллера исключением {@link ServiceOverloadedException}
+ * (HTTP 503 с заголовком Retry-After). Асинхронные запросы (потоки событий, длинный опрос, выгрузка)
+ * занимают место только до освобождения потока обработки и не влияют на предел.
+ */
+@RequiredArgsConstructor
+public class ConcurrencyLimitInterceptor implements AsyncHandlerInterceptor {
+    private static final String PERMIT_ATTRIBUTE = ConcurrencyLimitInterceptor.class.getName() + ".permit";
+    private static final String UNKNOWN_URI = "UNKNOWN";
+
+    private final ConcurrencyLimitProperties concurrencyLimitProperties;
+    private final MeterRegistry meterRegistry;
+    private final Map<String, Route> routes = new ConcurrentHashMap<>();
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (!(handler instanceof HandlerMethod) || request.getDispatcherType() != DispatcherType.REQUEST) {
+            return true;
+        }
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        String method = request.getMethod();
+        String uri = pattern != null ? pattern.toString() : UNKNOWN_URI;
+        Route route = routes.computeIfAbsent(method + " " + uri, key -> createRoute(key, method, uri));
+
+        int inFlight = route.limit.tryAcquire();
+        if (inFlight < 0) {
+            route.rejected.increment();
+            throw new ServiceOverloadedException("Превышен предел одновременных запросов " + method + " " + uri,
+                    concurrencyLimitProperties.getRetryAfter());
+        }
+        request.setAttribute(PERMIT_ATTRIBUTE, new Permit(route.limit, inFlight, System.nanoTime()));
+        return true;
+    }
+
+    @Override
+    public void afterConcurrentHandlingStarted(HttpServletRequest request, HttpServletResponse response,
+                                               Object handler) {
+        Permit permit = removePermit(request);
+        if (permit != null) {
+            permit.limit.releaseWithoutSample();
+        }
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler,
+                                Exception ex) {
+        Permit permit = removePermit(request);
+        if (permit != null) {
+            // 503 - соединение с базой данных не получено за время ожидания пула
+            boolean dropped = response.getStatus() == HttpStatus.SERVICE_UNAVAILABLE.value();
+            permit.limit.release(System.nanoTime() - permit.startNanos, permit.inFlight, dropped);
+        }
+    }
+
+    private Permit removePermit(HttpServletRequest request) {
+        Permit permit = (Permit) request.getAttribute(PERMIT_ATTRIBUTE);
+        request.removeAttribute(PERMIT_ATTRIBUTE);
+        return permit;
+    }
+
+    private Route createRoute(String key, String method, String uri) {
+        ConcurrencyLimitProperties.Route override = concurrencyLimitProperties.getRoutes().get(key);
+        GradientConcurrencyLimit limit = new GradientConcurrencyLimit(
+                valueOrDefault(override, ConcurrencyLimitProperties.Route::getInitialLimit,
+                        concurrencyLimitProperties.getInitialLimit()),
+                valueOrDefault(override, ConcurrencyLimitProperties.Route::getMinLimit,
+                        concurrencyLimitProperties.getMinLimit()),
+                valueOrDefault(override, ConcurrencyLimitProperties.Route::getMaxLimit,
+                        concurrencyLimitProperties.getMaxLimit()),
+                concurrencyLimitProperties.getTolerance());
+        Gauge.builder(MetricsConfig.CONCURRENCY_LIMIT, limit, GradientConcurrencyLimit::getLimit)
+                .description("Предел одновременных запросов маршрута")
+                .tag("method", method)
+                .tag("uri", uri)
+                .register(meterRegistry);
+        Gauge.builder(MetricsConfig.CONCURRENCY_IN_FLIGHT, limit, GradientConcurrencyLimit::getInFlight)
+                .description("Количество выполняемых запросов маршрута")
+                .tag("method", method)
+                .tag("uri", uri)
+                .register(meterRegistry);
+        Counter rejected = Counter.builder(MetricsConfig.CONCURRENCY_REJECTED)
+                .description("Количество запросов, отклоненных из-за превышения предела")
+                .tag("method", method)
+                .tag("uri", uri)
+                .register(meterRegistry);
+        return new Route(limit, rejected);
+    }
+
+    private static int valueOrDefault(ConcurrencyLimitProperties.Route override,
+                                      Function<ConcurrencyLimitProperties.Route, Integer> getter,
+                                      int defaultValue) {
+        Integer value = override != null ? getter.apply(override) : null;
+        return value != null ? value : defaultValue;
+    }
+
+    private record Route(GradientConcurrencyLimit limit, Counter rejected) {
+    }
+
+    private record Permit(GradientConcurrencyLimit limit, int inFlight, long startNanos) {
+    }
+}
@@ -0,0 +1,72 @@
+package com.subscriptionservice.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Настройки адаптивного ограничения одновременных запросов к REST API.
+ * Предел каждого маршрута подбирается по времени ответа между min-limit и max-limit.
+ */
+@Data
+@ConfigurationProperties(prefix = "app.concurrency-limit")
+public class ConcurrencyLimitProperties {
+    /**
+     * Включает ограничение одновременных запросов
+     */
+    private boolean enabled = true;
+
+    /**
+     * Начальный предел одновременных запросов маршрута
+     */
+    private int initialLimit = 20;
+
+    /**
+     * Минимальный предел одновременных запросов маршрута
+     */
+    private int minLimit = 2;
+
+    /**
+     * Максимальный предел одновременных запросов маршрута
+     */
+    private int maxLimit = 200;
+
+    /**
+     * Допустимый рост времени ответа относительно долговременного среднего, при котором предел не снижается
+     */
+    private double tolerance = 1.5;
+
+    /**
+     * Значение заголовка Retry-After в ответе на отклоненный запрос
+     */
+    private Duration retryAfter = Duration.ofSeconds(1);
+
+    /**
+     * Пределы отдельных маршрутов; ключ - метод и шаблон пути, например "[GET /users/{id}]"
+     */
+    private Map<String, Route> routes = new LinkedHashMap<>();
+
+    /**
+     * Пределы маршрута; не заданные значения берутся из общих настроек.
+     */
+    @Data
+    public static class Route {
+        /**
+         * Начальный предел одновременных запросов
+         */
+        private Integer initialLimit;
+
+        /**
+         * Минимальный предел одновременных запросов
+         */
+        private Integer minLimit;
+
+        /**
+         * Максимальный предел одновременных запросов
+         */
+        private Integer maxLimit;
+    }
+}
@@ -0,0 +1,45 @@
+package com.subscriptionservice.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Настройки планировщика истечения подписок.
+ * Планировщик загружает в память только подписки, истекающие в пределах окна lookahead,
+ * поэтому потребление памяти ограничено capacity и не зависит от размера таблицы.
+ */
+@Data
+@ConfigurationProperties(prefix = "app.expiry")
+public class ExpiryProperties {
+    /**
+     * Включает планировщик истечения подписок
+     */
+    private boolean enabled = true;
+
+    /**
+     * Длительность такта колеса времени: точность момента истечения
+     */
+    private Duration tick = Duration.ofSeconds(1);
+
+    /**
+     * Окно ближайших истечений, загружаемое в память
+     */
+    private Duration lookahead = Duration.ofMinutes(10);
+
+    /**
+     * Интервал загрузки окна и перевода просроченных подписок
+     */
+    private Duration loadInterval = Duration.ofMinutes(1);
+
+    /**
+     * Максимальное количество подписок, ожидающих истечения в памяти
+     */
+    private int capacity = 100_000;
+
+    /**
+     * Количество подписок, переводимых в статус EXPIRED одним запросом
+     */
+    private int batchSize = 1000;
+}
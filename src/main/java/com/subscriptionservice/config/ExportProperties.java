@@ -0,0 +1,22 @@
+package com.subscriptionservice.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Настройки потоковой выгрузки подписок.
+ */
+@Data
+@ConfigurationProperties(prefix = "app.export")
+public class ExportProperties {
+    /**
+     * Количество строк, получаемых из курсора базы данных за одно обращение
+     */
+    private int fetchSize = 1000;
+
+    /**
+     * Максимальное количество одновременных выгрузок; каждая выгрузка удерживает соединение
+     * с базой данных, пока клиент получает данные
+     */
+    private int maxConcurrent = 2;
+}
@@ -0,0 +1,115 @@
+package com.subscriptionservice.config;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Адаптивный предел одновременных запросов одного маршрута (градиентный алгоритм).
+ * Кратковременное среднее время ответа сравнивается с долговременным: пока задержка не растет,
+ * предел увеличивается на sqrt(limit), рост задержки уменьшает предел пропорционально
+ * (не более чем вдвое за шаг), а ответ 503 из-за нехватки соединений с базой данных уменьшает
+ * его на 10%. Так число ожидающих запросов остается небольшим и при замедлении
+ * PostgreSQL лишние запросы отклоняются сразу, а не занимают потоки.
+ */
+public class GradientConcurrencyLimit {
+    // Веса экспоненциальных средних: около 10 и 600 последних ответов
+    private static final double SHORT_WEIGHT = 2.0 / 11;
+    private static final double LONG_WEIGHT = 2.0 / 601;
+    private static final double SMOOTHING = 0.2;
+    private static final double BACKOFF_RATIO = 0.9;
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final double tolerance;
+    private final AtomicInteger inFlight = new AtomicInteger();
+
+    private volatile double limit;
+    private double shortRtt;
+    private double longRtt;
+
+    public GradientConcurrencyLimit(int initialLimit, int minLimit, int maxLimit, double tolerance) {
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.tolerance = tolerance;
+        this.limit = Math.max(minLimit, Math.min(maxLimit, initialLimit));
+    }
+
+    /**
+     * Занимает место для запроса, если предел не достигнут.
+     *
+     * @return количество выполняемых запросов вместе с этим или -1, если запрос нужно отклонить
+     */
+    public int tryAcquire() {
+        while (true) {
+            int current = inFlight.get();
+            if (current >= getLimit()) {
+                return -1;
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                return current + 1;
+            }
+        }
+    }
+
+    /**
+     * Освобождает место запроса и учитывает время его выполнения.
+     *
+     * @param rttNanos время выполнения запроса в наносекундах
+     * @param inFlightAtStart количество выполнявшихся запросов в момент начала этого запроса
+     * @param dropped true, если запрос не выполнен из-за перегрузки
+     */
+    public void release(long rttNanos, int inFlightAtStart, boolean dropped) {
+        inFlight.decrementAndGet();
+        synchronized (this) {
+            if (dropped) {
+                limit = Math.max(minLimit, limit * BACKOFF_RATIO);
+                return;
+            }
+            update(rttNanos, inFlightAtStart);
+        }
+    }
+
+    /**
+     * Освобождает место запроса, не учитывая время его выполнения
+     * (например, асинхронного запроса, продолжающегося вне потока обработки).
+     */
+    public void releaseWithoutSample() {
+        inFlight.decrementAndGet();
+    }
+
+    /**
+     * @return текущий предел одновременных запросов
+     */
+    public int getLimit() {
+        return (int) limit;
+    }
+
+    /**
+     * @return количество выполняемых запросов
+     */
+    public int getInFlight() {
+        return inFlight.get();
+    }
+
+    private void update(double rtt, int inFlightAtStart) {
+        if (longRtt == 0) {
+            shortRtt = rtt;
+            longRtt = rtt;
+            return;
+        }
+        shortRtt += (rtt - shortRtt) * SHORT_WEIGHT;
+        longRtt += (rtt - longRtt) * LONG_WEIGHT;
+        // После перегрузки долговременное среднее завышено: оно сближается с текущим временем ответа,
+        // иначе предел долго не снижался бы при повторном росте задержки
+        if (longRtt / shortRtt > 2) {
+            longRtt *= 0.95;
+        }
+        // Маршрут нагружен меньше чем наполовину: время ответа не подтверждает, что больший предел допустим
+        if (inFlightAtStart < limit / 2) {
+            return;
+        }
+        double gradient = Math.max(0.5, Math.min(1.0, tolerance * longRtt / shortRtt));
+        double newLimit = limit * gradient + Math.sqrt(limit);
+        newLimit = limit * (1 - SMOOTHING) + newLimit * SMOOTHING;
+        limit = Math.max(minLimit, Math.min(maxLimit, newLimit));
+    }
+}
@@ -0,0 +1,31 @@
+package com.subscriptionservice.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Настройки потокового импорта пользователей и подписок.
+ */
+@Data
+@ConfigurationProperties(prefix = "app.import")
+public class ImportProperties {
+    /**
+     * Количество записей, сохраняемых в одной транзакции
+     */
+    private int chunkSize = 1000;
+
+    /**
+     * Количество разобранных порций, ожидающих сохранения; при заполнении очереди чтение входных данных приостанавливается
+     */
+    private int queueCapacity = 4;
+
+    /**
+     * Максимальное количество ошибок строк, возвращаемых в отчете
+     */
+    private int maxErrors = 1000;
+
+    /**
+     * Количество завершенных импортов, отчеты которых хранятся для просмотра
+     */
+    private int historySize = 20;
+}
@@ -0,0 +1,22 @@
+package com.subscriptionservice.config;
+
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Конфигурация журналирования.
+ * Асинхронная запись журнала для профиля prod настраивается в logback-spring.xml,
+ * здесь регистрируется фильтр выборки запросов для журналирования SQL.
+ */
+@Configuration
+public class LoggingConfig {
+
+    @Bean
+    public FilterRegistrationBean<SqlLogSamplingFilter> sqlLogSamplingFilter(LoggingProperties loggingProperties) {
+        FilterRegistrationBean<SqlLogSamplingFilter> registration =
+                new FilterRegistrationBean<>(new SqlLogSamplingFilter(loggingProperties));
+        registration.addUrlPatterns("/*");
+        return registration;
+    }
+}
@@ -0,0 +1,25 @@
+package com.subscriptionservice.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Настройки журналирования приложения.
+ */
+@Data
+@ConfigurationProperties(prefix = "app.logging")
+public class LoggingProperties {
+    /**
+     * Доля HTTP-запросов от 0 до 1, для которых журналируются SQL-запросы и значения их параметров
+     * (логгеры org.hibernate.SQL и org.hibernate.orm.jdbc.bind) независимо от уровня этих логгеров.
+     * Действует в профиле prod, где выборку выполняет {@link SqlLogSamplingTurboFilter}.
+     */
+    private double sqlSampleRate = 0;
+
+    /**
+     * Размер очередей асинхронной записи журнала в консоль и файл в профиле prod.
+     * Читается конфигурацией logback-spring.xml при инициализации журналирования,
+     * значение по умолчанию совпадает с указанным там.
+     */
+    private int asyncQueueSize = 8192;
+}
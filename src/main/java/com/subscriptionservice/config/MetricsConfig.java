@@ -0,0 +1,104 @@
+package com.subscriptionservice.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Конфигурация метрик приложения.
+ * Время выполнения методов сервисов измеряется таймером {@value #SERVICE_TIMER}
+ * (аннотация {@code @Timed} на классах сервисов), вызовы репозиториев, HTTP-запросы,
+ * пул соединений Hikari и статистика Hibernate публикуются автоконфигурацией Spring Boot.
+ * Метрики доступны Prometheus по адресу /actuator/prometheus.
+ */
+@Configuration
+public class MetricsConfig {
+    /**
+     * Таймер методов сервисов, теги class и method.
+     */
+    public static final String SERVICE_TIMER = "app.service";
+
+    /**
+     * Количество SQL-запросов на HTTP-запрос, теги method и uri.
+     */
+    public static final String QUERIES_PER_REQUEST = "app.http.server.requests.queries";
+
+    /**
+     * Предел одновременных запросов маршрута, теги method и uri.
+     */
+    public static final String CONCURRENCY_LIMIT = "app.http.server.concurrency.limit";
+
+    /**
+     * Количество выполняемых запросов маршрута, теги method и uri.
+     */
+    public static final String CONCURRENCY_IN_FLIGHT = "app.http.server.concurrency.in.flight";
+
+    /**
+     * Количество запросов, отклоненных из-за превышения предела, теги method и uri.
+     */
+    public static final String CONCURRENCY_REJECTED = "app.http.server.concurrency.rejected";
+
+    /**
+     * Количество запросов к кэшу сериализованных ответов, теги uri и result
+     * (hit, miss, not_modified).
+     */
+    public static final String RESPONSE_CACHE_REQUESTS = "app.http.server.response.cache";
+
+    /**
+     * Суммарный размер ответов в кэше сериализованных ответов в байтах.
+     */
+    public static final String RESPONSE_CACHE_SIZE = "app.http.server.response.cache.size";
+
+    /**
+     * Количество подписок, переведенных в статус EXPIRED.
+     */
+    public static final String SUBSCRIPTIONS_EXPIRED = "app.subscriptions.expired";
+
+    /**
+     * Количество подписок, ожидающих истечения в памяти планировщика.
+     */
+    public static final String SUBSCRIPTIONS_EXPIRY_PENDING = "app.subscriptions.expiry.pending";
+
+    /**
+     * Количество подписок, скопированных в секционированную таблицу при переходе на нее.
+     */
+    public static final String SUBSCRIPTIONS_PARTITIONING_BACKFILLED = "app.subscriptions.partitioning.backfilled";
+
+    /**
+     * Количество клиентов, подключенных к потоку рейтинга подписок.
+     */
+    public static final String TOP_STREAM_CLIENTS = "app.subscriptions.top.stream.clients";
+
+    /**
+     * Отставание реплики при последней проверке в секундах, тег replica.
+     */
+    public static final String REPLICA_LAG = "app.datasource.replica.lag";
+
+    /**
+     * Количество читающих транзакций, выполненных на основном сервере из-за отставания
+     * или недоступности реплик.
+     */
+    public static final String REPLICA_FALLBACKS = "app.datasource.replica.fallbacks";
+
+    @Bean
+    public QueryCountInspector queryCountInspector() {
+        return new QueryCountInspector();
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer queryCountHibernateCustomizer(QueryCountInspector queryCountInspector) {
+        return properties -> properties.put(AvailableSettings.STATEMENT_INSPECTOR, queryCountInspector);
+    }
+
+    @Bean
+    public FilterRegistrationBean<QueryCountFilter> queryCountFilter(QueryCountInspector queryCountInspector,
+                                                                     MeterRegistry meterRegistry) {
+        FilterRegistrationBean<QueryCountFilter> registration =
+                new FilterRegistrationBean<>(new QueryCountFilter(queryCountInspector, meterRegistry));
+        registration.addUrlPatterns("/*");
+        return registration;
+    }
+}
@@ -0,0 +1,49 @@
+package com.subscriptionservice.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+/**
+ * Настройки журнала изменений, его ретранслятора и ленты изменений.
+ */
+@Data
+@ConfigurationProperties(prefix = "app.outbox")
+public class OutboxProperties {
+    /**
+     * Интервал проверки новых событий ретранслятором
+     */
+    private Duration pollInterval = Duration.ofSeconds(1);
+
+    /**
+     * Количество событий, обрабатываемых ретранслятором за один запрос
+     */
+    private int batchSize = 500;
+
+    /**
+     * Срок хранения событий, после которого они удаляются из журнала
+     */
+    private Duration retention = Duration.ofDays(7);
+
+    /**
+     * Количество событий в ответе ленты, если параметр limit не указан
+     */
+    private int defaultLimit = 100;
+
+    /**
+     * Максимальное количество событий в ответе ленты
+     */
+    private int maxLimit = 1000;
+
+    /**
+     * Максимальное время ожидания новых событий в длинном опросе
+     */
+    private Duration maxWait = Duration.ofSeconds(30);
+
+    /**
+     * Файл, в который ретранслятор дописывает события в формате NDJSON; не задан - приемник отключен
+     */
+    private Path filePath;
+}
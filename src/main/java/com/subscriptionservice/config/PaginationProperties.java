@@ -0,0 +1,21 @@
+package com.subscriptionservice.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Настройки постраничной выдачи списков.
+ */
+@Data
+@ConfigurationProperties(prefix = "app.pagination")
+public class PaginationProperties {
+    /**
+     * Размер страницы, если параметр limit не указан
+     */
+    private int defaultLimit = 100;
+
+    /**
+     * Максимальный размер страницы, который можно запросить
+     */
+    private int maxLimit = 1000;
+}
@@ -0,0 +1,35 @@
+package com.subscriptionservice.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Настройки перехода на секционированную таблицу подписок.
+ * Количество секций задается параметром Liquibase spring.liquibase.parameters.subscription-partitions
+ * и применяется при выполнении миграции; здесь настраивается копирование существующих строк.
+ */
+@Data
+@ConfigurationProperties(prefix = "app.partitioning")
+public class PartitioningProperties {
+    /**
+     * Включает копирование существующих строк и замену таблицы
+     */
+    private boolean enabled = true;
+
+    /**
+     * Количество строк, копируемых одной транзакцией
+     */
+    private int batchSize = 5000;
+
+    /**
+     * Пауза между частями копирования: ограничивает нагрузку на базу данных
+     */
+    private Duration interval = Duration.ofMillis(200);
+
+    /**
+     * Максимальное ожидание блокировки таблицы при замене; при превышении замена повторяется позже
+     */
+    private Duration cutoverLockTimeout = Duration.ofSeconds(5);
+}
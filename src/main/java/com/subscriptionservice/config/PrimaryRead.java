@@ -0,0 +1,18 @@
+package com.subscriptionservice.config;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Аннотация для методов, читающие транзакции которых выполняются на основном сервере, а не на репликах.
+ * Применяется к чтениям, для которых отставание реплики недопустимо; признак действует и для
+ * вложенных вызовов ({@link ReplicaRouter#setPrimaryReads(boolean)}).
+ */
+@Documented
+@Target({ElementType.METHOD})
+@Retention(RetentionPolicy.RUNTIME)
+public @interface PrimaryRead {
+}
@@ -0,0 +1,27 @@
+package com.subscriptionservice.config;
+
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+
+/**
+ * Направляет читающие транзакции методов с аннотацией {@link PrimaryRead} на основной сервер.
+ * Выполняется до открытия транзакции метода и восстанавливает прежний признак потока после вызова.
+ */
+@Aspect
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class PrimaryReadAspect {
+
+    @Around("@annotation(com.subscriptionservice.config.PrimaryRead)")
+    public Object readFromPrimary(ProceedingJoinPoint joinPoint) throws Throwable {
+        boolean previous = ReplicaRouter.isPrimaryReads();
+        ReplicaRouter.setPrimaryReads(true);
+        try {
+            return joinPoint.proceed();
+        } finally {
+            ReplicaRouter.setPrimaryReads(previous);
+        }
+    }
+}
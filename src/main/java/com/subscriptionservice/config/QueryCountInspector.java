@@ -0,0 +1,39 @@
+package com.subscriptionservice.config;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+/**
+ * Считает SQL-запросы Hibernate, выполненные в текущем потоке.
+ * Подсчет ведется только между вызовами {@link #start()} и {@link #stop()},
+ * текст запросов не изменяется.
+ */
+public class QueryCountInspector implements StatementInspector {
+    private final ThreadLocal<long[]> counter = new ThreadLocal<>();
+
+    @Override
+    public String inspect(String sql) {
+        long[] count = counter.get();
+        if (count != null) {
+            count[0]++;
+        }
+        return sql;
+    }
+
+    /**
+     * Начинает подсчет запросов в текущем потоке.
+     */
+    public void start() {
+        counter.set(new long[1]);
+    }
+
+    /**
+     * Завершает подсчет запросов в текущем потоке.
+     *
+     * @return количество запросов с момента вызова {@link #start()}
+     */
+    public long stop() {
+        long[] count = counter.get();
+        counter.remove();
+        return count != null ? count[0] : 0;
+    }
+}
@@ -0,0 +1,65 @@
+package com.subscriptionservice.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.r2dbc.spi.ConnectionFactory;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.web.embedded.netty.NettyReactiveWebServerFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.r2dbc.connection.R2dbcTransactionManager;
+import org.springframework.transaction.reactive.TransactionalOperator;
+
+/**
+ * Конфигурация реактивного варианта API (профиль {@value #PROFILE}).
+ * Маршруты пользователей и подписок обслуживаются WebFlux на Netty, данные читаются
+ * и записываются через репозитории R2DBC. Остальные компоненты приложения продолжают
+ * работать с JPA и менеджером транзакций JPA.
+ */
+@Configuration
+@Profile(ReactiveConfig.PROFILE)
+@EnableConfigurationProperties(DataSourceProperties.class)
+public class ReactiveConfig {
+    /**
+     * Профиль, включающий реактивный вариант API.
+     */
+    public static final String PROFILE = "reactive";
+
+    /**
+     * Сервер Netty вместо Tomcat, который иначе выбирается первым, так как тоже есть в classpath.
+     */
+    @Bean
+    public NettyReactiveWebServerFactory nettyReactiveWebServerFactory() {
+        return new NettyReactiveWebServerFactory();
+    }
+
+    /**
+     * Пул соединений JDBC для JPA и Liquibase.
+     * Автоконфигурация Spring Boot не создает DataSource, если в контексте есть фабрика
+     * соединений R2DBC, поэтому пул настраивается явно из тех же свойств spring.datasource.
+     *
+     * @param properties свойства spring.datasource
+     * @return пул соединений Hikari
+     */
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource dataSource(DataSourceProperties properties) {
+        return properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+    }
+
+    /**
+     * Оператор транзакций R2DBC.
+     * Менеджер транзакций R2DBC не регистрируется как бин: иначе в контексте оказалось бы
+     * два менеджера транзакций и аннотация {@code @Transactional} в сервисах JPA
+     * не смогла бы выбрать нужный.
+     *
+     * @param connectionFactory фабрика соединений R2DBC
+     * @return оператор, выполняющий реактивную цепочку в транзакции
+     */
+    @Bean
+    public TransactionalOperator reactiveTransactionalOperator(ConnectionFactory connectionFactory) {
+        return TransactionalOperator.create(new R2dbcTransactionManager(connectionFactory));
+    }
+}
@@ -0,0 +1,86 @@
+package com.subscriptionservice.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Настройки реплик PostgreSQL, на которые направляются читающие транзакции.
+ */
+@Data
+@ConfigurationProperties(prefix = "app.replicas")
+public class ReplicaProperties {
+    /**
+     * Включает направление транзакций {@code @Transactional(readOnly = true)} на реплики
+     */
+    private boolean enabled = false;
+
+    /**
+     * Способ выбора реплики для читающей транзакции
+     */
+    private Selection selection = Selection.ROUND_ROBIN;
+
+    /**
+     * Максимальное отставание реплики; реплика с большим отставанием не получает читающие транзакции
+     */
+    private Duration maxLag = Duration.ofSeconds(1);
+
+    /**
+     * Интервал проверки отставания реплик
+     */
+    private Duration lagCheckInterval = Duration.ofSeconds(1);
+
+    /**
+     * Максимальное ожидание соединения с репликой, после которого чтение выполняется на основном сервере
+     */
+    private Duration connectionTimeout = Duration.ofSeconds(2);
+
+    /**
+     * Реплики; у каждой свой пул соединений
+     */
+    private List<Instance> instances = new ArrayList<>();
+
+    /**
+     * Способ выбора реплики.
+     */
+    public enum Selection {
+        /**
+         * Реплики выбираются по очереди
+         */
+        ROUND_ROBIN,
+
+        /**
+         * Выбирается реплика с наименьшим количеством занятых и ожидаемых соединений пула
+         */
+        LEAST_LOADED
+    }
+
+    /**
+     * Подключение к реплике.
+     */
+    @Data
+    public static class Instance {
+        /**
+         * JDBC URL реплики
+         */
+        private String url;
+
+        /**
+         * Имя пользователя; не задано - spring.datasource.username
+         */
+        private String username;
+
+        /**
+         * Пароль; не задан - spring.datasource.password
+         */
+        private String password;
+
+        /**
+         * Максимальный размер пула соединений реплики
+         */
+        private int maximumPoolSize = 10;
+    }
+}
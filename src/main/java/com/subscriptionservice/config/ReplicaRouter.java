@@ -0,0 +1,246 @@
+package com.subscriptionservice.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Направление читающих транзакций на реплики PostgreSQL.
+ * Основной пул соединений оборачивается {@link LazyConnectionDataSourceProxy}: соединение
+ * берется при первом запросе транзакции, и для транзакций {@code @Transactional(readOnly = true)} -
+ * из пула реплики. Реплика выбирается среди реплик, отставание которых при последней проверке
+ * не превысило app.replicas.max-lag. Если таких реплик нет или соединение с репликой не получено,
+ * читающая транзакция выполняется на основном сервере.
+ * Чтения, которые должны видеть все зафиксированные изменения, направляются на основной сервер
+ * через {@link #setPrimaryReads(boolean)} или аннотацию {@link PrimaryRead}.
+ */
+@Slf4j
+public class ReplicaRouter implements DisposableBean {
+    /**
+     * Отставание реплики в секундах: время с последней примененной транзакции, если получены
+     * не все записи журнала, и признак получения журнала с основного сервера. Реплика, у которой
+     * прервано получение журнала, применяет все полученные записи и перестает отставать по этой
+     * оценке, поэтому без потоковой репликации она считается отставшей. Экземпляр, не находящийся
+     * в режиме восстановления, не отстает. Состояние pg_stat_wal_receiver видно пользователям
+     * с правами роли pg_read_all_stats (pg_monitor).
+     */
+    static final String LAG_QUERY = "SELECT CASE WHEN NOT pg_is_in_recovery() "
+            + "OR pg_last_wal_receive_lsn() = pg_last_wal_replay_lsn() THEN 0 "
+            + "ELSE COALESCE(EXTRACT(EPOCH FROM now() - pg_last_xact_replay_timestamp()), 0) END, "
+            + "NOT pg_is_in_recovery() "
+            + "OR EXISTS (SELECT 1 FROM pg_stat_wal_receiver WHERE status = 'streaming')";
+
+    // Признак потока, читающие транзакции которого выполняются на основном сервере
+    private static final ThreadLocal<Boolean> PRIMARY_READS = new ThreadLocal<>();
+
+    private final List<Replica> replicas;
+    private final ReplicaProperties.Selection selection;
+    private final double maxLagSeconds;
+    private final Counter fallbackCounter;
+    private final AtomicInteger next = new AtomicInteger();
+    private final List<HikariDataSource> routedPools = new CopyOnWriteArrayList<>();
+
+    // Реплики, прошедшие последнюю проверку отставания; до первой проверки чтение идет на основной сервер
+    private volatile List<Replica> available = List.of();
+
+    public ReplicaRouter(ReplicaProperties replicaProperties, List<HikariDataSource> pools,
+                         MeterRegistry meterRegistry) {
+        this.selection = replicaProperties.getSelection();
+        this.maxLagSeconds = replicaProperties.getMaxLag().toMillis() / 1000.0;
+        this.fallbackCounter = meterRegistry.counter(MetricsConfig.REPLICA_FALLBACKS);
+        this.replicas = pools.stream().map(Replica::new).toList();
+        for (Replica replica : replicas) {
+            Gauge.builder(MetricsConfig.REPLICA_LAG, replica, r -> r.lag)
+                    .tag("replica", replica.name)
+                    .baseUnit("seconds")
+                    .register(meterRegistry);
+        }
+    }
+
+    /**
+     * Оборачивает основной пул соединений так, что читающие транзакции получают соединения реплик.
+     * Пул основного сервера закрывается вместе с пулами реплик.
+     *
+     * @param primary пул соединений основного сервера
+     * @return источник соединений приложения
+     */
+    public DataSource route(HikariDataSource primary) {
+        routedPools.add(primary);
+        LazyConnectionDataSourceProxy dataSource = new LazyConnectionDataSourceProxy(primary);
+        dataSource.setReadOnlyDataSource(new ReadOnlyDataSource(primary));
+        return dataSource;
+    }
+
+    /**
+     * Направляет читающие транзакции текущего потока на основной сервер или снимает это ограничение.
+     * Без настроенных реплик признак ни на что не влияет.
+     *
+     * @param primaryReads true, если транзакции потока должны читать данные на основном сервере
+     */
+    public static void setPrimaryReads(boolean primaryReads) {
+        if (primaryReads) {
+            PRIMARY_READS.set(Boolean.TRUE);
+        } else {
+            PRIMARY_READS.remove();
+        }
+    }
+
+    /**
+     * Проверяет, выполняются ли читающие транзакции текущего потока на основном сервере.
+     *
+     * @return true, если транзакции потока читают данные на основном сервере
+     */
+    public static boolean isPrimaryReads() {
+        return PRIMARY_READS.get() != null;
+    }
+
+    /**
+     * Проверяет отставание реплик и обновляет список реплик, получающих читающие транзакции.
+     */
+    @Scheduled(fixedDelayString = "${app.replicas.lag-check-interval:PT1S}")
+    public void checkLag() {
+        List<Replica> previous = available;
+        List<Replica> current = new ArrayList<>(replicas.size());
+        for (Replica replica : replicas) {
+            replica.lag = measureLag(replica);
+            // Неизвестное отставание (NaN) не проходит проверку
+            boolean healthy = replica.lag <= maxLagSeconds;
+            if (healthy) {
+                current.add(replica);
+            }
+            if (healthy && !previous.contains(replica)) {
+                log.info("Реплика {} получает читающие транзакции, отставание {} с", replica.name, replica.lag);
+            } else if (!healthy && previous.contains(replica)) {
+                if (Double.isNaN(replica.lag)) {
+                    log.warn("Реплика {} исключена: недоступна или не получает журнал с основного сервера",
+                            replica.name);
+                } else {
+                    log.warn("Реплика {} исключена: отставание {} с превышает допустимое", replica.name, replica.lag);
+                }
+            }
+        }
+        available = List.copyOf(current);
+    }
+
+    /**
+     * Выдает соединение для читающей транзакции.
+     *
+     * @param primary пул соединений основного сервера
+     * @return соединение реплики или, если подходящих реплик нет или поток читает на основном сервере,
+     *         основного сервера
+     * @throws SQLException если соединение с основным сервером не получено
+     */
+    Connection getReadOnlyConnection(DataSource primary) throws SQLException {
+        if (isPrimaryReads()) {
+            return primary.getConnection();
+        }
+        Replica replica = select();
+        if (replica != null) {
+            try {
+                return replica.pool.getConnection();
+            } catch (SQLException ex) {
+                // До следующей проверки отставания реплика не выбирается
+                available = available.stream().filter(r -> r != replica).toList();
+                log.warn("Реплика {} недоступна, чтение выполняется на основном сервере: {}",
+                        replica.name, ex.getMessage());
+            }
+        }
+        fallbackCounter.increment();
+        return primary.getConnection();
+    }
+
+    private Replica select() {
+        List<Replica> candidates = available;
+        if (candidates.isEmpty()) {
+            return null;
+        }
+        if (selection == ReplicaProperties.Selection.LEAST_LOADED) {
+            return candidates.stream().min(Comparator.comparingInt(Replica::load)).orElseThrow();
+        }
+        return candidates.get(Math.floorMod(next.getAndIncrement(), candidates.size()));
+    }
+
+    /**
+     * Измеряет отставание реплики.
+     *
+     * @return отставание в секундах или NaN, если реплика недоступна или не получает журнал
+     */
+    private double measureLag(Replica replica) {
+        try (Connection connection = replica.pool.getConnection();
+             Statement statement = connection.createStatement();
+             ResultSet resultSet = statement.executeQuery(LAG_QUERY)) {
+            resultSet.next();
+            return resultSet.getBoolean(2) ? resultSet.getDouble(1) : Double.NaN;
+        } catch (SQLException ex) {
+            if (log.isDebugEnabled()) {
+                log.debug("Не удалось проверить отставание реплики {}: {}", replica.name, ex.getMessage());
+            }
+            return Double.NaN;
+        }
+    }
+
+    @Override
+    public void destroy() {
+        replicas.forEach(replica -> replica.pool.close());
+        routedPools.forEach(HikariDataSource::close);
+    }
+
+    /**
+     * Реплика и ее пул соединений.
+     */
+    private static final class Replica {
+        private final HikariDataSource pool;
+        private final String name;
+        private volatile double lag = Double.NaN;
+
+        private Replica(HikariDataSource pool) {
+            this.pool = pool;
+            this.name = pool.getPoolName();
+        }
+
+        private int load() {
+            HikariPoolMXBean pool = this.pool.getHikariPoolMXBean();
+            // Пул создается при первом запросе соединения
+            return pool == null ? 0 : pool.getActiveConnections() + pool.getThreadsAwaitingConnection();
+        }
+    }
+
+    /**
+     * Источник соединений для читающих транзакций.
+     */
+    private final class ReadOnlyDataSource extends AbstractDataSource {
+        private final DataSource primary;
+
+        private ReadOnlyDataSource(DataSource primary) {
+            this.primary = primary;
+        }
+
+        @Override
+        public Connection getConnection() throws SQLException {
+            return getReadOnlyConnection(primary);
+        }
+
+        @Override
+        public Connection getConnection(String username, String password) throws SQLException {
+            return primary.getConnection(username, password);
+        }
+    }
+}
@@ -0,0 +1,75 @@
+package com.subscriptionservice.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Конфигурация реплик PostgreSQL для читающих транзакций (app.replicas.enabled).
+ * Пул соединений основного сервера по-прежнему создается автоконфигурацией Spring Boot
+ * (или {@link ReactiveConfig}) и оборачивается {@link ReplicaRouter} после создания.
+ * Пулы реплик не регистрируются как бины, чтобы в контексте оставался один DataSource.
+ * Чтения методов с аннотацией {@link PrimaryRead} выполняются на основном сервере.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "app.replicas", name = "enabled", havingValue = "true")
+public class ReplicaRoutingConfig {
+
+    @Bean
+    public ReplicaRouter replicaRouter(ReplicaProperties replicaProperties, DataSourceProperties dataSourceProperties,
+                                       MeterRegistry meterRegistry) {
+        List<HikariDataSource> pools = new ArrayList<>();
+        List<ReplicaProperties.Instance> instances = replicaProperties.getInstances();
+        for (int i = 0; i < instances.size(); i++) {
+            ReplicaProperties.Instance instance = instances.get(i);
+            HikariDataSource pool = new HikariDataSource();
+            pool.setPoolName("replica-" + (i + 1));
+            pool.setDriverClassName(dataSourceProperties.determineDriverClassName());
+            pool.setJdbcUrl(instance.getUrl());
+            pool.setUsername(instance.getUsername() != null
+                    ? instance.getUsername() : dataSourceProperties.determineUsername());
+            pool.setPassword(instance.getPassword() != null
+                    ? instance.getPassword() : dataSourceProperties.determinePassword());
+            pool.setMaximumPoolSize(instance.getMaximumPoolSize());
+            pool.setConnectionTimeout(replicaProperties.getConnectionTimeout().toMillis());
+            // Недоступная при запуске реплика не мешает запуску приложения
+            pool.setInitializationFailTimeout(-1);
+            pool.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(meterRegistry));
+            pools.add(pool);
+        }
+        return new ReplicaRouter(replicaProperties, pools, meterRegistry);
+    }
+
+    @Bean
+    public PrimaryReadAspect primaryReadAspect() {
+        return new PrimaryReadAspect();
+    }
+
+    /**
+     * Оборачивает пул соединений основного сервера после его настройки.
+     *
+     * @param replicaRouter маршрутизатор читающих транзакций
+     * @return постобработчик бина DataSource
+     */
+    @Bean
+    public static BeanPostProcessor replicaRoutingPostProcessor(ObjectProvider<ReplicaRouter> replicaRouter) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof HikariDataSource primary) {
+                    return replicaRouter.getObject().route(primary);
+                }
+                return bean;
+            }
+        };
+    }
+}
@@ -0,0 +1,37 @@
+package com.subscriptionservice.config;
+
+import com.subscriptionservice.service.SubscriptionLeaderboard;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Конфигурация кэша сериализованных ответов и условных GET-запросов.
+ * В профиле reactive маршруты обслуживает WebFlux, и кэш ответов не применяется.
+ */
+@Configuration
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+@ConditionalOnProperty(prefix = "app.response-cache", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class ResponseCacheConfig {
+
+    @Bean
+    public ResponseVersions responseVersions(ResponseCacheProperties responseCacheProperties) {
+        return new ResponseVersions(responseCacheProperties.getTtl());
+    }
+
+    @Bean
+    public FilterRegistrationBean<ResponseCacheFilter> responseCacheFilter(
+            ResponseCacheProperties responseCacheProperties,
+            ResponseVersions responseVersions,
+            SubscriptionLeaderboard subscriptionLeaderboard,
+            MeterRegistry meterRegistry) {
+        FilterRegistrationBean<ResponseCacheFilter> registration = new FilterRegistrationBean<>(
+                new ResponseCacheFilter(responseCacheProperties, responseVersions, subscriptionLeaderboard,
+                        meterRegistry));
+        registration.addUrlPatterns("/users/*", "/subscriptions/top");
+        return registration;
+    }
+}
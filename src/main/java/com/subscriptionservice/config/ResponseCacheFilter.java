@@ -0,0 +1,303 @@
+package com.subscriptionservice.config;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.subscriptionservice.service.SubscriptionLeaderboard;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.PathContainer;
+import org.springframework.util.DigestUtils;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.filter.ServerHttpObservationFilter;
+import org.springframework.web.servlet.HandlerMapping;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+import org.springframework.web.util.pattern.PathPattern;
+import org.springframework.web.util.pattern.PathPatternParser;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.LongSupplier;
+
+/**
+ * Кэш сериализованных ответов на частые GET-запросы с поддержкой условных запросов.
+ * Тело ответа 200 в формате JSON сохраняется в кэше вместе с заголовками и ETag; повторный запрос
+ * получает сохраненные байты без обращения к базе данных и сериализации, а запрос с совпадающим
+ * If-None-Match - ответ 304 без тела. Ответ из кэша действителен, пока версия данных, прочитанная
+ * до его формирования, остается текущей ({@link ResponseVersions}, версия рейтинга подписок),
+ * и не дольше app.response-cache.ttl. Ответ для кэша формируется по данным основного сервера,
+ * а не реплик ({@link ReplicaRouter#setPrimaryReads(boolean)}), иначе отстающая реплика вернула бы
+ * данные старше прочитанной версии, и они хранились бы под новой версией.
+ * ETag ответа берется из заголовка, установленного контроллером (для пользователя - по времени
+ * его изменения), иначе вычисляется один раз при заполнении кэша по телу и заголовкам ответа,
+ * так как заголовки (например, X-Next-Cursor) тоже меняются вместе с данными.
+ */
+public class ResponseCacheFilter extends OncePerRequestFilter {
+    private static final PathPattern USER_PATTERN = PathPatternParser.defaultInstance.parse("/users/{id}");
+    private static final PathPattern USER_SUBSCRIPTIONS_PATTERN =
+            PathPatternParser.defaultInstance.parse("/users/{userId}/subscriptions");
+    private static final PathPattern TOP_PATTERN = PathPatternParser.defaultInstance.parse("/subscriptions/top");
+
+    /**
+     * Параметры, с которыми ТОП берется из рейтинга в памяти и может быть закэширован.
+     */
+    private static final Set<String> TOP_PARAMETERS = Set.of("limit");
+
+    /**
+     * Оценка размера заголовков и служебных полей записи кэша в байтах.
+     */
+    private static final int ENTRY_OVERHEAD = 256;
+
+    private final ResponseVersions responseVersions;
+    private final SubscriptionLeaderboard subscriptionLeaderboard;
+    private final MeterRegistry meterRegistry;
+    private final long ttlNanos;
+    private final LongSupplier nanoTime;
+    private final Cache<String, CachedResponse> responses;
+
+    public ResponseCacheFilter(ResponseCacheProperties properties, ResponseVersions responseVersions,
+                               SubscriptionLeaderboard subscriptionLeaderboard, MeterRegistry meterRegistry) {
+        this(properties, responseVersions, subscriptionLeaderboard, meterRegistry, System::nanoTime);
+    }
+
+    ResponseCacheFilter(ResponseCacheProperties properties, ResponseVersions responseVersions,
+                        SubscriptionLeaderboard subscriptionLeaderboard, MeterRegistry meterRegistry,
+                        LongSupplier nanoTime) {
+        this.responseVersions = responseVersions;
+        this.subscriptionLeaderboard = subscriptionLeaderboard;
+        this.meterRegistry = meterRegistry;
+        this.ttlNanos = properties.getTtl().toNanos();
+        this.nanoTime = nanoTime;
+        this.responses = Caffeine.newBuilder()
+                .maximumWeight(properties.getMaxSize().toBytes())
+                .weigher((String key, CachedResponse response) ->
+                        key.length() + response.body().length + ENTRY_OVERHEAD)
+                .expireAfterWrite(properties.getTtl())
+                .build();
+        Gauge.builder(MetricsConfig.RESPONSE_CACHE_SIZE, responses, ResponseCacheFilter::weightedSize)
+                .description("Суммарный размер ответов в кэше")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        Route route = "GET".equals(request.getMethod()) ? resolve(request) : null;
+        if (route == null) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        // Версия читается до формирования ответа: изменение, зафиксированное позже, сделает ответ недействительным
+        long readAt = nanoTime.getAsLong();
+        String key = request.getQueryString() == null
+                ? request.getRequestURI()
+                : request.getRequestURI() + "?" + request.getQueryString();
+        CachedResponse cached = responses.getIfPresent(key);
+        if (cached != null && cached.version() == route.version() && readAt - cached.readAt() < ttlNanos) {
+            serveCached(request, response, route, cached);
+            return;
+        }
+
+        // Контроллер формирует полный ответ для кэша, условие If-None-Match проверяется ниже.
+        // Данные читаются на основном сервере: отстающая реплика вернула бы данные старше прочитанной версии
+        ContentCachingResponseWrapper wrapper = new ContentCachingResponseWrapper(response);
+        ReplicaRouter.setPrimaryReads(true);
+        try {
+            filterChain.doFilter(new UnconditionalRequest(request), wrapper);
+        } finally {
+            ReplicaRouter.setPrimaryReads(false);
+        }
+        if (wrapper.getStatus() != HttpServletResponse.SC_OK || !isJson(wrapper.getContentType())
+                || request.isAsyncStarted()) {
+            wrapper.copyBodyToResponse();
+            return;
+        }
+
+        byte[] body = wrapper.getContentAsByteArray();
+        String eTag = wrapper.getHeader(HttpHeaders.ETAG);
+        if (eTag == null) {
+            eTag = eTagOf(headersOf(wrapper), body);
+            wrapper.setHeader(HttpHeaders.ETAG, eTag);
+        }
+        responses.put(key, new CachedResponse(route.version(), readAt, eTag, headersOf(wrapper), body));
+        count(route, "miss");
+        if (matches(request, eTag)) {
+            wrapper.resetBuffer();
+            wrapper.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+        }
+        wrapper.copyBodyToResponse();
+    }
+
+    /**
+     * Определяет кэшируемый маршрут запроса и текущую версию его данных.
+     *
+     * @return маршрут или null, если ответ на запрос не кэшируется
+     */
+    private Route resolve(HttpServletRequest request) {
+        PathContainer path = PathContainer.parsePath(
+                request.getRequestURI().substring(request.getContextPath().length()));
+        PathPattern.PathMatchInfo match = USER_PATTERN.matchAndExtract(path);
+        if (match != null) {
+            Long userId = parseId(match.getUriVariables().get("id"));
+            return userId == null ? null : new Route(USER_PATTERN, responseVersions.getUserVersion(userId));
+        }
+        match = USER_SUBSCRIPTIONS_PATTERN.matchAndExtract(path);
+        if (match != null) {
+            Long userId = parseId(match.getUriVariables().get("userId"));
+            return userId == null
+                    ? null
+                    : new Route(USER_SUBSCRIPTIONS_PATTERN, responseVersions.getUserSubscriptionsVersion(userId));
+        }
+        // ТОП с ограничением по времени читается из базы данных, его версия не отслеживается
+        if (TOP_PATTERN.matches(path) && TOP_PARAMETERS.containsAll(request.getParameterMap().keySet())
+                && subscriptionLeaderboard.isLoaded()) {
+            return new Route(TOP_PATTERN, subscriptionLeaderboard.getVersion());
+        }
+        return null;
+    }
+
+    private void serveCached(HttpServletRequest request, HttpServletResponse response, Route route,
+                             CachedResponse cached) throws IOException {
+        // Маршрут для метрик и журналов, как при обработке запроса контроллером
+        request.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, route.pattern().getPatternString());
+        ServerHttpObservationFilter.findObservationContext(request)
+                .ifPresent(context -> context.setPathPattern(route.pattern().getPatternString()));
+
+        if (matches(request, cached.eTag())) {
+            count(route, "not_modified");
+            response.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+            response.setHeader(HttpHeaders.ETAG, cached.eTag());
+            return;
+        }
+        count(route, "hit");
+        response.setStatus(HttpServletResponse.SC_OK);
+        cached.headers().forEach((name, values) -> {
+            response.setHeader(name, values.get(0));
+            for (int i = 1; i < values.size(); i++) {
+                response.addHeader(name, values.get(i));
+            }
+        });
+        response.setContentLength(cached.body().length);
+        response.getOutputStream().write(cached.body());
+    }
+
+    private void count(Route route, String result) {
+        Counter.builder(MetricsConfig.RESPONSE_CACHE_REQUESTS)
+                .description("Количество запросов к кэшу сериализованных ответов")
+                .tag("uri", route.pattern().getPatternString())
+                .tag("result", result)
+                .register(meterRegistry)
+                .increment();
+    }
+
+    /**
+     * Проверяет, совпадает ли ETag с одним из значений If-None-Match.
+     * Как требует RFC 9110, для If-None-Match используется слабое сравнение.
+     */
+    static boolean matches(HttpServletRequest request, String eTag) {
+        String strong = eTag.startsWith("W/") ? eTag.substring(2) : eTag;
+        Enumeration<String> headers = request.getHeaders(HttpHeaders.IF_NONE_MATCH);
+        while (headers != null && headers.hasMoreElements()) {
+            for (String candidate : headers.nextElement().split(",")) {
+                String value = candidate.trim();
+                if (value.startsWith("W/")) {
+                    value = value.substring(2);
+                }
+                if (value.equals("*") || value.equals(strong)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    private static String eTagOf(Map<String, List<String>> headers, byte[] body) {
+        StringBuilder content = new StringBuilder();
+        headers.forEach((name, values) -> content.append(name).append(':').append(values).append('\n'));
+        byte[] headerBytes = content.toString().getBytes(StandardCharsets.UTF_8);
+        byte[] digested = Arrays.copyOf(headerBytes, headerBytes.length + body.length);
+        System.arraycopy(body, 0, digested, headerBytes.length, body.length);
+        return "\"" + DigestUtils.md5DigestAsHex(digested) + "\"";
+    }
+
+    private static Map<String, List<String>> headersOf(HttpServletResponse response) {
+        Map<String, List<String>> headers = new LinkedHashMap<>();
+        for (String name : response.getHeaderNames()) {
+            if (!HttpHeaders.CONTENT_LENGTH.equalsIgnoreCase(name)) {
+                headers.put(name, List.copyOf(response.getHeaders(name)));
+            }
+        }
+        if (response.getContentType() != null) {
+            headers.put(HttpHeaders.CONTENT_TYPE, Collections.singletonList(response.getContentType()));
+        }
+        return headers;
+    }
+
+    private static double weightedSize(Cache<String, CachedResponse> cache) {
+        return cache.policy().eviction()
+                .map(eviction -> eviction.weightedSize().orElse(0))
+                .orElse(0L);
+    }
+
+    private static boolean isJson(String contentType) {
+        try {
+            return contentType != null
+                    && MediaType.APPLICATION_JSON.isCompatibleWith(MediaType.parseMediaType(contentType));
+        } catch (IllegalArgumentException ex) {
+            return false;
+        }
+    }
+
+    private static Long parseId(String value) {
+        try {
+            return Long.valueOf(value);
+        } catch (NumberFormatException ex) {
+            return null;
+        }
+    }
+
+    /**
+     * Запрос без заголовка If-None-Match.
+     */
+    private static class UnconditionalRequest extends HttpServletRequestWrapper {
+
+        UnconditionalRequest(HttpServletRequest request) {
+            super(request);
+        }
+
+        @Override
+        public String getHeader(String name) {
+            return HttpHeaders.IF_NONE_MATCH.equalsIgnoreCase(name) ? null : super.getHeader(name);
+        }
+
+        @Override
+        public Enumeration<String> getHeaders(String name) {
+            return HttpHeaders.IF_NONE_MATCH.equalsIgnoreCase(name)
+                    ? Collections.emptyEnumeration()
+                    : super.getHeaders(name);
+        }
+    }
+
+    private record Route(PathPattern pattern, long version) {
+    }
+
+    private record CachedResponse(long version, long readAt, String eTag, Map<String, List<String>> headers,
+                                  byte[] body) {
+    }
+}
@@ -0,0 +1,32 @@
+package com.subscriptionservice.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+
+/**
+ * Настройки кэша сериализованных ответов на частые GET-запросы.
+ * Кэшируются ответы GET /users/{id}, GET /users/{userId}/subscriptions
+ * и GET /subscriptions/top без ограничения по времени.
+ */
+@Data
+@ConfigurationProperties(prefix = "app.response-cache")
+public class ResponseCacheProperties {
+    /**
+     * Включает кэш сериализованных ответов
+     */
+    private boolean enabled = true;
+
+    /**
+     * Максимальный суммарный размер тел ответов в кэше
+     */
+    private DataSize maxSize = DataSize.ofMegabytes(32);
+
+    /**
+     * Время жизни ответа в кэше; ограничивает устаревание ответа после изменений,
+     * сделанных другим экземпляром приложения или в обход приложения
+     */
+    private Duration ttl = Duration.ofMinutes(1);
+}
@@ -0,0 +1,83 @@
+package com.subscriptionservice.config;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.subscriptionservice.event.UserChangedEvent;
+import com.subscriptionservice.event.UserSubscriptionsChangedEvent;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Версии данных, из которых формируются кэшируемые ответы.
+ * Версия пользователя и списка его подписок меняется после фиксации транзакции, изменившей их;
+ * ответ из кэша действителен, пока версия, прочитанная до его формирования, остается текущей.
+ * Измененная версия хранится в течение времени жизни ответов: ответы, сформированные до изменения,
+ * к моменту удаления версии уже недействительны, поэтому память ограничена потоком изменений
+ * за время жизни ответа.
+ */
+public class ResponseVersions {
+    private static final long INITIAL_VERSION = 0;
+
+    private final AtomicLong sequence = new AtomicLong(INITIAL_VERSION);
+    private final Cache<Long, Long> users;
+    private final Cache<Long, Long> userSubscriptions;
+
+    public ResponseVersions(Duration ttl) {
+        this.users = Caffeine.newBuilder().expireAfterWrite(ttl).build();
+        this.userSubscriptions = Caffeine.newBuilder().expireAfterWrite(ttl).build();
+    }
+
+    /**
+     * Возвращает текущую версию пользователя.
+     *
+     * @param userId идентификатор пользователя
+     * @return версия пользователя
+     */
+    public long getUserVersion(Long userId) {
+        return versionOf(users, userId);
+    }
+
+    /**
+     * Возвращает текущую версию списка подписок пользователя.
+     *
+     * @param userId идентификатор пользователя
+     * @return версия списка подписок
+     */
+    public long getUserSubscriptionsVersion(Long userId) {
+        return versionOf(userSubscriptions, userId);
+    }
+
+    /**
+     * Меняет версии пользователя и его подписок после фиксации транзакции, изменившей
+     * или удалившей пользователя; при удалении пользователя удаляются и его подписки.
+     *
+     * @param event событие изменения пользователя
+     */
+    @TransactionalEventListener
+    public void onUserChanged(UserChangedEvent event) {
+        long version = sequence.incrementAndGet();
+        users.put(event.userId(), version);
+        userSubscriptions.put(event.userId(), version);
+    }
+
+    /**
+     * Меняет версии списков подписок пользователей после фиксации транзакции.
+     * Событие, опубликованное вне транзакции, обрабатывается сразу.
+     *
+     * @param event событие изменения подписок пользователей
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUserSubscriptionsChanged(UserSubscriptionsChangedEvent event) {
+        long version = sequence.incrementAndGet();
+        for (Long userId : event.userIds()) {
+            userSubscriptions.put(userId, version);
+        }
+    }
+
+    private static long versionOf(Cache<Long, Long> versions, Long userId) {
+        Long version = versions.getIfPresent(userId);
+        return version != null ? version : INITIAL_VERSION;
+    }
+}
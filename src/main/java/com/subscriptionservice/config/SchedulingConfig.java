@@ -0,0 +1,13 @@
+package com.subscriptionservice.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Конфигурация планировщика задач.
+ * Включает выполнение периодических задач, помеченных аннотацией {@code @Scheduled}.
+ */
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+}
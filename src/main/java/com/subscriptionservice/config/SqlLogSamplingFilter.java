@@ -0,0 +1,44 @@
+package com.subscriptionservice.config;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.MDC;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Отбирает HTTP-запросы, для которых журналируются SQL-запросы и их параметры.
+ * Для отобранного запроса на время обработки в MDC устанавливается ключ {@value #MDC_KEY};
+ * сам вывод разрешает {@link SqlLogSamplingTurboFilter}. Доля отбираемых запросов задается
+ * свойством app.logging.sql-sample-rate.
+ */
+@RequiredArgsConstructor
+public class SqlLogSamplingFilter extends OncePerRequestFilter {
+    /**
+     * Ключ MDC, отмечающий запрос, отобранный для журналирования SQL.
+     */
+    public static final String MDC_KEY = "sqlSampled";
+
+    private final LoggingProperties loggingProperties;
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        double rate = loggingProperties.getSqlSampleRate();
+        if (rate <= 0 || ThreadLocalRandom.current().nextDouble() >= rate) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+        MDC.put(MDC_KEY, "true");
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            MDC.remove(MDC_KEY);
+        }
+    }
+}
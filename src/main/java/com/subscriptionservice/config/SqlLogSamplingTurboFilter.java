@@ -0,0 +1,29 @@
+package com.subscriptionservice.config;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.turbo.TurboFilter;
+import ch.qos.logback.core.spi.FilterReply;
+import org.slf4j.MDC;
+import org.slf4j.Marker;
+
+/**
+ * Фильтр logback, включающий журналирование SQL только для отобранных HTTP-запросов.
+ * Для запросов, отмеченных {@link SqlLogSamplingFilter}, сообщения логгеров org.hibernate.SQL
+ * и org.hibernate.orm.jdbc.bind выводятся независимо от уровня логгеров; для остальных
+ * решение принимается по уровню как обычно. Подключается в logback-spring.xml для профиля prod.
+ */
+public class SqlLogSamplingTurboFilter extends TurboFilter {
+    private static final String SQL_LOGGER = "org.hibernate.SQL";
+    private static final String BIND_LOGGER = "org.hibernate.orm.jdbc.bind";
+
+    @Override
+    public FilterReply decide(Marker marker, Logger logger, Level level, String format, Object[] params,
+                              Throwable t) {
+        String name = logger.getName();
+        if (!name.equals(SQL_LOGGER) && !name.equals(BIND_LOGGER)) {
+            return FilterReply.NEUTRAL;
+        }
+        return MDC.get(SqlLogSamplingFilter.MDC_KEY) != null ? FilterReply.ACCEPT : FilterReply.NEUTRAL;
+    }
+}
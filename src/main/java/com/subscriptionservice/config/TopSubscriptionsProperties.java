@@ -0,0 +1,35 @@
+package com.subscriptionservice.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Настройки выборки популярных подписок.
+ * Задают размер ТОП-списка по умолчанию, его максимально допустимое значение
+ * и параметры потока изменений рейтинга.
+ */
+@Data
+@ConfigurationProperties(prefix = "app.top")
+public class TopSubscriptionsProperties {
+    /**
+     * Количество сервисов в ТОП-списке, если параметр limit не указан
+     */
+    private int defaultLimit = 3;
+
+    /**
+     * Максимальное количество сервисов, которое можно запросить
+     */
+    private int maxLimit = 100;
+
+    /**
+     * Интервал, за который изменения рейтинга объединяются в одно обновление потока
+     */
+    private Duration streamInterval = Duration.ofSeconds(1);
+
+    /**
+     * Время, после которого поток рейтинга закрывается сервером; клиент переподключается автоматически
+     */
+    private Duration streamTimeout = Duration.ofMinutes(30);
+}
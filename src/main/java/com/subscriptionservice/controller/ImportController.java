@@ -0,0 +1,105 @@
+package com.subscriptionservice.controller;
+
+import com.subscriptionservice.config.ReactiveConfig;
+import com.subscriptionservice.dto.ImportReportDTO;
+import com.subscriptionservice.service.ImportService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.io.InputStream;
+import java.util.List;
+
+/**
+ * Контроллер потокового импорта пользователей и подписок.
+ * Принимает данные в формате NDJSON или CSV и обрабатывает их построчно по мере чтения тела запроса.
+ */
+@RestController
+@Profile("!" + ReactiveConfig.PROFILE)
+@RequestMapping("/imports")
+@RequiredArgsConstructor
+@Tag(name = "Import", description = "API для потокового импорта пользователей и подписок")
+public class ImportController {
+    private final ImportService importService;
+
+    /**
+     * Импортирует пользователей из тела запроса.
+     *
+     * @param contentType тип содержимого: application/x-ndjson или text/csv
+     * @param body тело запроса
+     * @return отчет о результате импорта с ошибками отдельных строк
+     */
+    @Operation(summary = "Потоковый импорт пользователей из NDJSON или CSV")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Данные обработаны, ошибки строк указаны в отчете"),
+        @ApiResponse(responseCode = "400", description = "Неподдерживаемый формат данных")
+    })
+    @PostMapping("/users")
+    public ResponseEntity<ImportReportDTO> importUsers(
+            @RequestHeader(value = HttpHeaders.CONTENT_TYPE, required = false) String contentType,
+            InputStream body) {
+        return ResponseEntity.ok(importService.importUsers(body, contentType));
+    }
+
+    /**
+     * Импортирует подписки из тела запроса.
+     *
+     * @param contentType тип содержимого: application/x-ndjson или text/csv
+     * @param body тело запроса
+     * @return отчет о результате импорта с ошибками отдельных строк
+     */
+    @Operation(summary = "Потоковый импорт подписок из NDJSON или CSV")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Данные обработаны, ошибки строк указаны в отчете"),
+        @ApiResponse(responseCode = "400", description = "Неподдерживаемый формат данных")
+    })
+    @PostMapping("/subscriptions")
+    public ResponseEntity<ImportReportDTO> importSubscriptions(
+            @RequestHeader(value = HttpHeaders.CONTENT_TYPE, required = false) String contentType,
+            InputStream body) {
+        return ResponseEntity.ok(importService.importSubscriptions(body, contentType));
+    }
+
+    /**
+     * Получает отчеты выполняющихся и недавно завершенных импортов.
+     *
+     * @return список отчетов об импорте
+     */
+    @Operation(summary = "Получение хода выполнения импортов")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Список импортов успешно получен")
+    })
+    @GetMapping
+    public ResponseEntity<List<ImportReportDTO>> getImports() {
+        return ResponseEntity.ok(importService.getImports());
+    }
+
+    /**
+     * Получает отчет об импорте по его ID.
+     *
+     * @param id идентификатор импорта
+     * @return отчет о ходе или результате импорта
+     */
+    @Operation(summary = "Получение хода выполнения импорта по ID")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Отчет об импорте найден"),
+        @ApiResponse(responseCode = "404", description = "Импорт не найден")
+    })
+    @GetMapping("/{id}")
+    public ResponseEntity<ImportReportDTO> getImport(
+            @Parameter(description = "ID импорта") @PathVariable String id) {
+        return ResponseEntity.ok(importService.getImport(id));
+    }
+}
@@ -0,0 +1,134 @@
+package com.subscriptionservice.controller;
+
+import com.subscriptionservice.config.ReactiveConfig;
+import com.subscriptionservice.dto.OutboxEventDTO;
+import com.subscriptionservice.dto.OutboxOffsetDTO;
+import com.subscriptionservice.service.OutboxFeed;
+import com.subscriptionservice.service.OutboxService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.async.DeferredResult;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Контроллер ленты изменений пользователей и подписок.
+ * Потребитель читает события после своей позиции длинным опросом или потоком Server-Sent Events
+ * и сохраняет позицию последнего обработанного события, чтобы продолжить с нее после перезапуска.
+ */
+@RestController
+@Profile("!" + ReactiveConfig.PROFILE)
+@RequiredArgsConstructor
+@Tag(name = "Change Feed", description = "API ленты изменений пользователей и подписок")
+public class OutboxController {
+    private final OutboxService outboxService;
+    private final OutboxFeed outboxFeed;
+
+    /**
+     * Возвращает события после позиции потребителя; если событий нет,
+     * ожидает их появления не дольше времени wait.
+     *
+     * @param consumer имя потребителя, позиция которого используется, если after не указан
+     * @param after позиция последнего обработанного события
+     * @param limit максимальное количество событий
+     * @param wait максимальное время ожидания новых событий
+     * @return события в порядке возрастания позиций
+     */
+    @Operation(summary = "Длинный опрос ленты изменений")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "События после позиции; пустой список, если новых событий нет"),
+        @ApiResponse(responseCode = "400", description = "Неверные параметры запроса")
+    })
+    @GetMapping("/events")
+    public DeferredResult<List<OutboxEventDTO>> getEvents(
+            @Parameter(description = "Имя потребителя")
+            @RequestParam(required = false) String consumer,
+            @Parameter(description = "Позиция последнего обработанного события")
+            @RequestParam(required = false) Long after,
+            @Parameter(description = "Максимальное количество событий")
+            @RequestParam(required = false) Integer limit,
+            @Parameter(description = "Максимальное время ожидания, например PT30S")
+            @RequestParam(required = false) Duration wait) {
+        return outboxFeed.poll(resolveAfter(consumer, after, null), outboxService.resolveLimit(limit), wait);
+    }
+
+    /**
+     * Открывает поток событий после позиции потребителя.
+     * При переподключении позиция берется из заголовка Last-Event-ID.
+     *
+     * @param consumer имя потребителя, позиция которого используется, если after не указан
+     * @param after позиция последнего обработанного события
+     * @param lastEventId идентификатор последнего полученного события потока
+     * @return поток событий
+     */
+    @Operation(summary = "Поток ленты изменений (Server-Sent Events)")
+    @GetMapping(value = "/events/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamEvents(
+            @Parameter(description = "Имя потребителя")
+            @RequestParam(required = false) String consumer,
+            @Parameter(description = "Позиция последнего обработанного события")
+            @RequestParam(required = false) Long after,
+            @RequestHeader(value = "Last-Event-ID", required = false) Long lastEventId) {
+        return outboxFeed.stream(resolveAfter(consumer, after, lastEventId));
+    }
+
+    /**
+     * Возвращает сохраненную позицию потребителя.
+     *
+     * @param consumer имя потребителя
+     * @return позиция последнего обработанного события
+     */
+    @Operation(summary = "Получение позиции потребителя")
+    @GetMapping("/events/offsets/{consumer}")
+    public ResponseEntity<OutboxOffsetDTO> getOffset(
+            @Parameter(description = "Имя потребителя") @PathVariable String consumer) {
+        return ResponseEntity.ok(new OutboxOffsetDTO(consumer, outboxService.getOffset(consumer)));
+    }
+
+    /**
+     * Сохраняет позицию потребителя.
+     *
+     * @param consumer имя потребителя
+     * @param offsetDTO позиция последнего обработанного события
+     * @return сохраненная позиция
+     */
+    @Operation(summary = "Сохранение позиции потребителя")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Позиция сохранена"),
+        @ApiResponse(responseCode = "400", description = "Неверное имя потребителя или позиция")
+    })
+    @PutMapping("/events/offsets/{consumer}")
+    public ResponseEntity<OutboxOffsetDTO> commitOffset(
+            @Parameter(description = "Имя потребителя") @PathVariable String consumer,
+            @Valid @RequestBody OutboxOffsetDTO offsetDTO) {
+        outboxService.commitOffset(consumer, offsetDTO.getOffset());
+        return ResponseEntity.ok(new OutboxOffsetDTO(consumer, offsetDTO.getOffset()));
+    }
+
+    private long resolveAfter(String consumer, Long after, Long lastEventId) {
+        if (lastEventId != null) {
+            return lastEventId;
+        }
+        if (after != null) {
+            return after;
+        }
+        return consumer == null ? 0 : outboxService.getOffset(consumer);
+    }
+}
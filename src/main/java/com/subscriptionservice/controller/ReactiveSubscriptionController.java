@@ -0,0 +1,228 @@
+package com.subscriptionservice.controller;
+
+import com.subscriptionservice.config.ReactiveConfig;
+import com.subscriptionservice.dto.BatchItemResultDTO;
+import com.subscriptionservice.dto.BulkDeleteResultDTO;
+import com.subscriptionservice.dto.SubscriptionDTO;
+import com.subscriptionservice.dto.TopSubscriptionDTO;
+import com.subscriptionservice.service.ReactiveSubscriptionService;
+import com.subscriptionservice.service.SubscriptionBatchService;
+import com.subscriptionservice.service.SubscriptionExportService;
+import com.subscriptionservice.service.TopSubscriptionsBroadcaster;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.codec.ServerSentEvent;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Реактивный контроллер подписок (профиль reactive).
+ * Обслуживает те же маршруты и возвращает те же DTO и ошибки, что и {@link SubscriptionController}.
+ * Пакетное добавление, массовое удаление и выгрузка выполняются сервисами JPA на пуле boundedElastic,
+ * чтобы не блокировать потоки обработки запросов.
+ */
+@RestController
+@Profile(ReactiveConfig.PROFILE)
+@RequiredArgsConstructor
+public class ReactiveSubscriptionController {
+    private final ReactiveSubscriptionService subscriptionService;
+    private final SubscriptionBatchService subscriptionBatchService;
+    private final SubscriptionExportService subscriptionExportService;
+    private final TopSubscriptionsBroadcaster topSubscriptionsBroadcaster;
+
+    /**
+     * Добавляет новую подписку для пользователя.
+     *
+     * @param userId идентификатор пользователя
+     * @param subscriptionDTO данные новой подписки
+     * @return созданная подписка
+     */
+    @PostMapping("/users/{userId}/subscriptions")
+    public Mono<ResponseEntity<SubscriptionDTO>> addSubscription(
+            @PathVariable Long userId,
+            @Valid @RequestBody SubscriptionDTO subscriptionDTO) {
+        return subscriptionService.addSubscription(userId, subscriptionDTO)
+                .map(subscription -> ResponseEntity.status(201).body(subscription));
+    }
+
+    /**
+     * Добавляет пакет подписок для пользователя.
+     *
+     * @param userId идентификатор пользователя
+     * @param subscriptions данные новых подписок
+     * @return результаты обработки элементов пакета
+     */
+    @PostMapping("/users/{userId}/subscriptions:batch")
+    public Mono<ResponseEntity<List<BatchItemResultDTO>>> addSubscriptions(
+            @PathVariable Long userId,
+            @RequestBody List<SubscriptionDTO> subscriptions) {
+        return Mono.fromCallable(() -> subscriptionBatchService.addSubscriptions(userId, subscriptions))
+                .subscribeOn(Schedulers.boundedElastic())
+                .map(ResponseEntity::ok);
+    }
+
+    /**
+     * Добавляет пакет подписок для разных пользователей.
+     *
+     * @param subscriptions данные новых подписок
+     * @return результаты обработки элементов пакета
+     */
+    @PostMapping("/subscriptions:batch")
+    public Mono<ResponseEntity<List<BatchItemResultDTO>>> addSubscriptions(
+            @RequestBody List<SubscriptionDTO> subscriptions) {
+        return Mono.fromCallable(() -> subscriptionBatchService.addSubscriptions(subscriptions))
+                .subscribeOn(Schedulers.boundedElastic())
+                .map(ResponseEntity::ok);
+    }
+
+    /**
+     * Получает страницу подписок пользователя.
+     * Токен следующей страницы возвращается в заголовке X-Next-Cursor.
+     *
+     * @param userId идентификатор пользователя
+     * @param after токен продолжения из предыдущей страницы
+     * @param limit размер страницы
+     * @return подписки пользователя
+     */
+    @GetMapping("/users/{userId}/subscriptions")
+    public Mono<ResponseEntity<List<SubscriptionDTO>>> getUserSubscriptions(
+            @PathVariable Long userId,
+            @RequestParam(required = false) String after,
+            @RequestParam(required = false) Integer limit) {
+        return subscriptionService.getUserSubscriptions(userId, after, limit)
+                .map(page -> {
+                    ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+                    if (page.getNextCursor() != null) {
+                        response.header(SubscriptionController.NEXT_CURSOR_HEADER, page.getNextCursor());
+                    }
+                    return response.body(page.getSubscriptions());
+                });
+    }
+
+    /**
+     * Удаляет подписку пользователя.
+     *
+     * @param userId идентификатор пользователя
+     * @param subscriptionId идентификатор подписки
+     * @return пустой ответ с кодом 204 при успешном удалении
+     */
+    @DeleteMapping("/users/{userId}/subscriptions/{subscriptionId}")
+    public Mono<ResponseEntity<Void>> deleteSubscription(
+            @PathVariable Long userId,
+            @PathVariable Long subscriptionId) {
+        return subscriptionService.deleteSubscription(userId, subscriptionId)
+                .thenReturn(ResponseEntity.noContent().build());
+    }
+
+    /**
+     * Удаляет пакет подписок пользователя.
+     *
+     * @param userId идентификатор пользователя
+     * @param ids идентификаторы подписок
+     * @return количество удаленных подписок
+     */
+    @DeleteMapping("/users/{userId}/subscriptions")
+    public Mono<ResponseEntity<BulkDeleteResultDTO>> deleteSubscriptions(
+            @PathVariable Long userId,
+            @RequestBody List<Long> ids) {
+        return Mono.fromCallable(() -> new BulkDeleteResultDTO(subscriptionBatchService.deleteSubscriptions(userId, ids)))
+                .subscribeOn(Schedulers.boundedElastic())
+                .map(ResponseEntity::ok);
+    }
+
+    /**
+     * Удаляет все подписки на сервис или все подписки, закончившиеся до указанного момента.
+     *
+     * @param serviceName название сервиса
+     * @param endBefore момент, до которого подписка должна закончиться
+     * @return количество удаленных подписок
+     */
+    @DeleteMapping("/subscriptions")
+    public Mono<ResponseEntity<BulkDeleteResultDTO>> deleteSubscriptions(
+            @RequestParam(required = false) String serviceName,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime endBefore) {
+        return Mono.fromCallable(() -> new BulkDeleteResultDTO(
+                        subscriptionBatchService.deleteSubscriptions(serviceName, endBefore)))
+                .subscribeOn(Schedulers.boundedElastic())
+                .map(ResponseEntity::ok);
+    }
+
+    /**
+     * Получает список популярных подписок.
+     *
+     * @param limit количество сервисов в списке
+     * @param activeAt момент времени, в который подписка должна действовать
+     * @param from начало периода
+     * @param to окончание периода
+     * @return список популярных подписок с количеством подписчиков
+     */
+    @GetMapping("/subscriptions/top")
+    public Mono<ResponseEntity<List<TopSubscriptionDTO>>> getTopSubscriptions(
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime activeAt,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to) {
+        return subscriptionService.getTopSubscriptions(limit, activeAt, from, to).map(ResponseEntity::ok);
+    }
+
+    /**
+     * Открывает поток изменений ТОП-списка популярных подписок (Server-Sent Events).
+     *
+     * @param limit количество сервисов в списке
+     * @return поток событий top со списком популярных подписок
+     */
+    @GetMapping(value = "/subscriptions/top/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public Flux<ServerSentEvent<String>> streamTopSubscriptions(@RequestParam(required = false) Integer limit) {
+        return topSubscriptionsBroadcaster.flux(limit)
+                .map(ranking -> ServerSentEvent.builder(ranking).event(TopSubscriptionsBroadcaster.EVENT_NAME).build());
+    }
+
+    /**
+     * Выгружает подписки потоком в формате NDJSON или CSV.
+     * Выгрузка пишется в поток ответа на пуле boundedElastic и передается клиенту частями.
+     *
+     * @param format формат выгрузки: ndjson или csv
+     * @param serviceName название сервиса
+     * @param from начало периода действия подписок
+     * @param to окончание периода действия подписок
+     * @return поток выгружаемых подписок
+     */
+    @GetMapping("/subscriptions/export")
+    public ResponseEntity<Flux<DataBuffer>> exportSubscriptions(
+            @RequestParam(defaultValue = "ndjson") String format,
+            @RequestParam(required = false) String serviceName,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to) {
+        SubscriptionExportService.Format exportFormat = subscriptionExportService.resolveFormat(format, from, to);
+        subscriptionExportService.acquire();
+        Flux<DataBuffer> body = Flux.from(DataBufferUtils.outputStreamPublisher(
+                        out -> subscriptionExportService.export(exportFormat, serviceName, from, to, out),
+                        DefaultDataBufferFactory.sharedInstance,
+                        task -> Schedulers.boundedElastic().schedule(task)))
+                .doFinally(signal -> subscriptionExportService.release());
+        return ResponseEntity.ok()
+                .contentType(exportFormat.getMediaType())
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        "attachment; filename=\"subscriptions." + exportFormat.getExtension() + "\"")
+                .body(body);
+    }
+}
@@ -0,0 +1,95 @@
+package com.subscriptionservice.controller;
+
+import com.subscriptionservice.config.ReactiveConfig;
+import com.subscriptionservice.dto.BulkDeleteResultDTO;
+import com.subscriptionservice.dto.UserDTO;
+import com.subscriptionservice.service.ReactiveUserService;
+import com.subscriptionservice.service.UserService;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.List;
+
+/**
+ * Реактивный контроллер пользователей (профиль reactive).
+ * Обслуживает те же маршруты и возвращает те же DTO и ошибки, что и {@link UserController}.
+ * Пакетное удаление выполняется сервисом JPA на пуле boundedElastic.
+ */
+@RestController
+@RequestMapping("/users")
+@Profile(ReactiveConfig.PROFILE)
+@RequiredArgsConstructor
+public class ReactiveUserController {
+    private final ReactiveUserService userService;
+    private final UserService blockingUserService;
+
+    /**
+     * Создает нового пользователя.
+     *
+     * @param userDTO данные нового пользователя
+     * @return созданный пользователь
+     */
+    @PostMapping
+    public Mono<ResponseEntity<UserDTO>> createUser(@Valid @RequestBody UserDTO userDTO) {
+        return userService.createUser(userDTO).map(user -> ResponseEntity.status(201).body(user));
+    }
+
+    /**
+     * Получает информацию о пользователе по его ID.
+     *
+     * @param id идентификатор пользователя
+     * @return информация о пользователе
+     */
+    @GetMapping("/{id}")
+    public Mono<ResponseEntity<UserDTO>> getUser(@PathVariable Long id) {
+        return userService.getUserById(id).map(ResponseEntity::ok);
+    }
+
+    /**
+     * Обновляет информацию о пользователе.
+     *
+     * @param id идентификатор пользователя
+     * @param userDTO новые данные пользователя
+     * @return обновленная информация о пользователе
+     */
+    @PutMapping("/{id}")
+    public Mono<ResponseEntity<UserDTO>> updateUser(@PathVariable Long id, @Valid @RequestBody UserDTO userDTO) {
+        return userService.updateUser(id, userDTO).map(ResponseEntity::ok);
+    }
+
+    /**
+     * Удаляет пользователя по его ID.
+     *
+     * @param id идентификатор пользователя
+     * @return пустой ответ с кодом 204 при успешном удалении
+     */
+    @DeleteMapping("/{id}")
+    public Mono<ResponseEntity<Void>> deleteUser(@PathVariable Long id) {
+        return userService.deleteUser(id).thenReturn(ResponseEntity.noContent().build());
+    }
+
+    /**
+     * Удаляет пакет пользователей вместе с их подписками.
+     *
+     * @param ids идентификаторы пользователей
+     * @return количество удаленных пользователей
+     */
+    @DeleteMapping
+    public Mono<ResponseEntity<BulkDeleteResultDTO>> deleteUsers(@RequestBody List<Long> ids) {
+        return Mono.fromCallable(() -> new BulkDeleteResultDTO(blockingUserService.deleteUsers(ids)))
+                .subscribeOn(Schedulers.boundedElastic())
+                .map(ResponseEntity::ok);
+    }
+}
@@ -1,8 +1,15 @@
 package com.subscriptionservice.controller;
 
+import com.subscriptionservice.config.ReactiveConfig;
+import com.subscriptionservice.dto.BatchItemResultDTO;
+import com.subscriptionservice.dto.BulkDeleteResultDTO;
 import com.subscriptionservice.dto.SubscriptionDTO;
+import com.subscriptionservice.dto.SubscriptionPageDTO;
 import com.subscriptionservice.dto.TopSubscriptionDTO;
+import com.subscriptionservice.service.SubscriptionBatchService;
+import com.subscriptionservice.service.SubscriptionExportService;
 import com.subscriptionservice.service.SubscriptionService;
+import com.subscriptionservice.service.TopSubscriptionsBroadcaster;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
@@ -10,14 +17,22 @@ import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Profile;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 /**
@@ -25,10 +40,16 @@ import java.util.List;
  * Предоставляет REST API для добавления, получения и удаления подписок.
  */
 @RestController
+@Profile("!" + ReactiveConfig.PROFILE)
 @RequiredArgsConstructor
 @Tag(name = "Subscription Management", description = "API для управления подписками")
 public class SubscriptionController {
+    static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+
     private final SubscriptionService subscriptionService;
+    private final SubscriptionBatchService subscriptionBatchService;
+    private final SubscriptionExportService subscriptionExportService;
+    private final TopSubscriptionsBroadcaster topSubscriptionsBroadcaster;
 
     /**
      * Добавляет новую подписку для пользователя.
@@ -51,20 +72,73 @@ public class SubscriptionController {
     }
 
     /**
-     * Получает список подписок пользователя.
+     * Добавляет пакет подписок для пользователя.
+     * Результат возвращается для каждого элемента пакета отдельно.
      *
      * @param userId идентификатор пользователя
-     * @return список подписок пользователя
+     * @param subscriptions данные новых подписок
+     * @return результаты обработки элементов пакета
+     */
+    @Operation(summary = "Пакетное добавление подписок пользователю")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Пакет обработан, результат указан для каждого элемента"),
+        @ApiResponse(responseCode = "400", description = "Пакет пуст или превышает допустимый размер")
+    })
+    @PostMapping("/users/{userId}/subscriptions:batch")
+    public ResponseEntity<List<BatchItemResultDTO>> addSubscriptions(
+            @Parameter(description = "ID пользователя") @PathVariable Long userId,
+            @RequestBody List<SubscriptionDTO> subscriptions) {
+        return ResponseEntity.ok(subscriptionBatchService.addSubscriptions(userId, subscriptions));
+    }
+
+    /**
+     * Добавляет пакет подписок для разных пользователей.
+     * Пользователь каждой подписки задается полем userId.
+     *
+     * @param subscriptions данные новых подписок
+     * @return результаты обработки элементов пакета
+     */
+    @Operation(summary = "Пакетное добавление подписок разным пользователям")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Пакет обработан, результат указан для каждого элемента"),
+        @ApiResponse(responseCode = "400", description = "Пакет пуст или превышает допустимый размер")
+    })
+    @PostMapping("/subscriptions:batch")
+    public ResponseEntity<List<BatchItemResultDTO>> addSubscriptions(
+            @RequestBody List<SubscriptionDTO> subscriptions) {
+        return ResponseEntity.ok(subscriptionBatchService.addSubscriptions(subscriptions));
+    }
+
+    /**
+     * Получает страницу подписок пользователя.
+     * Токен следующей страницы возвращается в заголовке X-Next-Cursor;
+     * если заголовок отсутствует, страница последняя. Ответ кэшируется и поддерживает
+     * условные запросы с If-None-Match.
+     *
+     * @param userId идентификатор пользователя
+     * @param after токен продолжения из предыдущей страницы
+     * @param limit размер страницы
+     * @return подписки пользователя
      */
     @Operation(summary = "Получение списка подписок пользователя")
     @ApiResponses(value = {
         @ApiResponse(responseCode = "200", description = "Список подписок успешно получен"),
-        @ApiResponse(responseCode = "404", description = "Пользователь не найден")
+        @ApiResponse(responseCode = "304", description = "Список подписок не изменился"),
+        @ApiResponse(responseCode = "400", description = "Неверный размер страницы или токен продолжения")
     })
     @GetMapping("/users/{userId}/subscriptions")
     public ResponseEntity<List<SubscriptionDTO>> getUserSubscriptions(
-            @Parameter(description = "ID пользователя") @PathVariable Long userId) {
-        return ResponseEntity.ok(subscriptionService.getUserSubscriptions(userId));
+            @Parameter(description = "ID пользователя") @PathVariable Long userId,
+            @Parameter(description = "Токен продолжения из заголовка X-Next-Cursor предыдущей страницы")
+            @RequestParam(required = false) String after,
+            @Parameter(description = "Размер страницы")
+            @RequestParam(required = false) Integer limit) {
+        SubscriptionPageDTO page = subscriptionService.getUserSubscriptions(userId, after, limit);
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (page.getNextCursor() != null) {
+            response.header(NEXT_CURSOR_HEADER, page.getNextCursor());
+        }
+        return response.body(page.getSubscriptions());
     }
 
     /**
@@ -88,16 +162,137 @@ public class SubscriptionController {
     }
 
     /**
-     * Получает список ТОП-3 популярных подписок.
+     * Удаляет пакет подписок пользователя.
+     * Отсутствующие подписки и подписки других пользователей пропускаются.
      *
+     * @param userId идентификатор пользователя
+     * @param ids идентификаторы подписок
+     * @return количество удаленных подписок
+     */
+    @Operation(summary = "Пакетное удаление подписок пользователя")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Подписки удалены"),
+        @ApiResponse(responseCode = "400", description = "Список пуст или превышает допустимый размер")
+    })
+    @DeleteMapping("/users/{userId}/subscriptions")
+    public ResponseEntity<BulkDeleteResultDTO> deleteSubscriptions(
+            @Parameter(description = "ID пользователя") @PathVariable Long userId,
+            @RequestBody List<Long> ids) {
+        return ResponseEntity.ok(new BulkDeleteResultDTO(subscriptionBatchService.deleteSubscriptions(userId, ids)));
+    }
+
+    /**
+     * Удаляет все подписки на сервис или все подписки, закончившиеся до указанного момента.
+     * Должен быть указан ровно один из параметров.
+     *
+     * @param serviceName название сервиса
+     * @param endBefore момент, до которого подписка должна закончиться
+     * @return количество удаленных подписок
+     */
+    @Operation(summary = "Массовое удаление подписок по сервису или дате окончания")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Подписки удалены"),
+        @ApiResponse(responseCode = "400", description = "Не указан ровно один из параметров")
+    })
+    @DeleteMapping("/subscriptions")
+    public ResponseEntity<BulkDeleteResultDTO> deleteSubscriptions(
+            @Parameter(description = "Название сервиса") @RequestParam(required = false) String serviceName,
+            @Parameter(description = "Удалить подписки, закончившиеся до этого момента (ISO-8601)")
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime endBefore) {
+        return ResponseEntity.ok(new BulkDeleteResultDTO(
+                subscriptionBatchService.deleteSubscriptions(serviceName, endBefore)));
+    }
+
+    /**
+     * Получает список популярных подписок.
+     * По умолчанию возвращает ТОП-3 по всем подпискам; с параметрами activeAt или from/to
+     * учитываются только подписки, действующие в указанный момент или период.
+     * Ответ без ограничения по времени кэшируется и поддерживает условные запросы с If-None-Match.
+     *
+     * @param limit количество сервисов в списке
+     * @param activeAt момент времени, в который подписка должна действовать
+     * @param from начало периода
+     * @param to окончание периода
      * @return список популярных подписок с количеством подписчиков
      */
-    @Operation(summary = "Получение ТОП-3 популярных подписок")
+    @Operation(summary = "Получение ТОП популярных подписок")
     @ApiResponses(value = {
-        @ApiResponse(responseCode = "200", description = "Список популярных подписок успешно получен")
+        @ApiResponse(responseCode = "200", description = "Список популярных подписок успешно получен"),
+        @ApiResponse(responseCode = "304", description = "Список популярных подписок не изменился"),
+        @ApiResponse(responseCode = "400", description = "Неверные параметры выборки")
     })
     @GetMapping("/subscriptions/top")
-    public ResponseEntity<List<TopSubscriptionDTO>> getTopSubscriptions() {
-        return ResponseEntity.ok(subscriptionService.getTopSubscriptions());
+    public ResponseEntity<List<TopSubscriptionDTO>> getTopSubscriptions(
+            @Parameter(description = "Количество сервисов в списке")
+            @RequestParam(required = false) Integer limit,
+            @Parameter(description = "Момент времени, в который подписка должна действовать")
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime activeAt,
+            @Parameter(description = "Начало периода действия подписок")
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @Parameter(description = "Окончание периода действия подписок")
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to) {
+        return ResponseEntity.ok(subscriptionService.getTopSubscriptions(limit, activeAt, from, to));
+    }
+
+    /**
+     * Открывает поток изменений ТОП-списка популярных подписок (Server-Sent Events).
+     * Первым событием передается текущий список, далее - список после каждого изменения,
+     * не чаще интервала app.top.stream-interval.
+     *
+     * @param limit количество сервисов в списке
+     * @return поток событий top со списком популярных подписок
+     */
+    @Operation(summary = "Поток изменений ТОП популярных подписок (Server-Sent Events)")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Поток открыт"),
+        @ApiResponse(responseCode = "400", description = "Неверное количество сервисов")
+    })
+    @GetMapping(value = "/subscriptions/top/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamTopSubscriptions(
+            @Parameter(description = "Количество сервисов в списке")
+            @RequestParam(required = false) Integer limit) {
+        return topSubscriptionsBroadcaster.stream(limit);
+    }
+
+    /**
+     * Выгружает подписки потоком в формате NDJSON или CSV.
+     * Строки записываются в ответ по мере чтения из базы данных.
+     *
+     * @param format формат выгрузки: ndjson или csv
+     * @param serviceName название сервиса
+     * @param from начало периода действия подписок
+     * @param to окончание периода действия подписок
+     * @return поток выгружаемых подписок
+     */
+    @Operation(summary = "Потоковая выгрузка подписок в NDJSON или CSV")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Подписки выгружаются"),
+        @ApiResponse(responseCode = "400", description = "Неверные параметры выгрузки"),
+        @ApiResponse(responseCode = "503", description = "Превышен предел одновременных выгрузок")
+    })
+    @GetMapping("/subscriptions/export")
+    public ResponseEntity<StreamingResponseBody> exportSubscriptions(
+            @Parameter(description = "Формат выгрузки: ndjson или csv")
+            @RequestParam(defaultValue = "ndjson") String format,
+            @Parameter(description = "Название сервиса")
+            @RequestParam(required = false) String serviceName,
+            @Parameter(description = "Начало периода действия подписок")
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @Parameter(description = "Окончание периода действия подписок")
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to) {
+        SubscriptionExportService.Format exportFormat = subscriptionExportService.resolveFormat(format, from, to);
+        subscriptionExportService.acquire();
+        StreamingResponseBody body = out -> {
+            try {
+                subscriptionExportService.export(exportFormat, serviceName, from, to, out);
+            } finally {
+                subscriptionExportService.release();
+            }
+        };
+        return ResponseEntity.ok()
+                .contentType(exportFormat.getMediaType())
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        "attachment; filename=\"subscriptions." + exportFormat.getExtension() + "\"")
+                .body(body);
     }
-} 
\ No newline at end of file
+}
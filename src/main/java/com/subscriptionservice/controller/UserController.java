@@ -1,5 +1,7 @@
 package com.subscriptionservice.controller;
 
+import com.subscriptionservice.config.ReactiveConfig;
+import com.subscriptionservice.dto.BulkDeleteResultDTO;
 import com.subscriptionservice.dto.UserDTO;
 import com.subscriptionservice.service.UserService;
 import io.swagger.v3.oas.annotations.Operation;
@@ -9,6 +11,7 @@ import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Profile;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -19,11 +22,16 @@ import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+
 /**
  * Контроллер для управления пользователями.
  * Предоставляет REST API для создания, получения, обновления и удаления пользователей.
  */
 @RestController
+@Profile("!" + ReactiveConfig.PROFILE)
 @RequestMapping("/users")
 @RequiredArgsConstructor
 @Tag(name = "User Management", description = "API для управления пользователями")
@@ -49,6 +57,8 @@ public class UserController {
 
     /**
      * Получает информацию о пользователе по его ID.
+     * ETag ответа формируется по времени последнего изменения пользователя;
+     * на запрос с совпадающим If-None-Match возвращается ответ 304 без тела.
      *
      * @param id идентификатор пользователя
      * @return информация о пользователе
@@ -56,12 +66,18 @@ public class UserController {
     @Operation(summary = "Получение информации о пользователе по ID")
     @ApiResponses(value = {
         @ApiResponse(responseCode = "200", description = "Пользователь найден"),
+        @ApiResponse(responseCode = "304", description = "Пользователь не изменился"),
         @ApiResponse(responseCode = "404", description = "Пользователь не найден")
     })
     @GetMapping("/{id}")
     public ResponseEntity<UserDTO> getUser(
             @Parameter(description = "ID пользователя") @PathVariable Long id) {
-        return ResponseEntity.ok(userService.getUserById(id));
+        UserDTO user = userService.getUserById(id);
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (user.getUpdatedAt() != null) {
+            response.eTag(eTag(user.getUpdatedAt()));
+        }
+        return response.body(user);
     }
 
     /**
@@ -101,4 +117,29 @@ public class UserController {
         userService.deleteUser(id);
         return ResponseEntity.noContent().build();
     }
+
+    /**
+     * Удаляет пакет пользователей вместе с их подписками.
+     * Отсутствующие пользователи пропускаются.
+     *
+     * @param ids идентификаторы пользователей
+     * @return количество удаленных пользователей
+     */
+    @Operation(summary = "Пакетное удаление пользователей")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Пользователи удалены"),
+        @ApiResponse(responseCode = "400", description = "Список пуст или превышает допустимый размер")
+    })
+    @DeleteMapping
+    public ResponseEntity<BulkDeleteResultDTO> deleteUsers(@RequestBody List<Long> ids) {
+        return ResponseEntity.ok(new BulkDeleteResultDTO(userService.deleteUsers(ids)));
+    }
+
+    /**
+     * Формирует ETag по времени изменения с точностью до микросекунды, как в базе данных.
+     */
+    private static String eTag(LocalDateTime updatedAt) {
+        long micros = updatedAt.toEpochSecond(ZoneOffset.UTC) * 1_000_000 + updatedAt.getNano() / 1_000;
+        return "\"" + micros + "\"";
+    }
 } 
\ No newline at end of file
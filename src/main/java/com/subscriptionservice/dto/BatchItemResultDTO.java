@@ -0,0 +1,59 @@
+package com.subscriptionservice.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.Data;
+
+/**
+ * DTO результата обработки одного элемента пакетного запроса.
+ * Позволяет клиенту сопоставить результат с элементом запроса по его индексу.
+ */
+@Data
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class BatchItemResultDTO {
+    /**
+     * Индекс элемента в пакетном запросе
+     */
+    private int index;
+
+    /**
+     * Результат обработки элемента
+     */
+    private Status status;
+
+    /**
+     * Созданная подписка, заполняется при успешной обработке
+     */
+    private SubscriptionDTO subscription;
+
+    /**
+     * Созданный пользователь, заполняется при успешном пакетном создании пользователей
+     */
+    private UserDTO user;
+
+    /**
+     * Описание ошибки, заполняется при неуспешной обработке
+     */
+    private String error;
+
+    /**
+     * Возможные результаты обработки элемента пакета.
+     */
+    public enum Status {
+        /**
+         * Подписка создана
+         */
+        CREATED,
+        /**
+         * Данные подписки не прошли валидацию
+         */
+        INVALID,
+        /**
+         * Пользователь не найден
+         */
+        USER_NOT_FOUND,
+        /**
+         * У пользователя уже есть подписка на сервис или пользователь с таким email уже существует
+         */
+        DUPLICATE
+    }
+}
@@ -0,0 +1,18 @@
+package com.subscriptionservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * DTO результата массового удаления.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkDeleteResultDTO {
+    /**
+     * Количество удаленных объектов; отсутствующие и чужие объекты не учитываются
+     */
+    private long deleted;
+}
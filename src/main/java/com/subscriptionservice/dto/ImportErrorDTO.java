@@ -0,0 +1,23 @@
+package com.subscriptionservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * DTO ошибки импорта отдельной строки.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ImportErrorDTO {
+    /**
+     * Номер строки во входных данных, начиная с 1
+     */
+    private long line;
+
+    /**
+     * Описание ошибки
+     */
+    private String error;
+}
@@ -0,0 +1,81 @@
+package com.subscriptionservice.dto;
+
+import lombok.Data;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * DTO отчета о ходе и результате импорта.
+ * Во время импорта отражает текущий прогресс, после завершения - итоговый результат.
+ */
+@Data
+public class ImportReportDTO {
+    /**
+     * Идентификатор импорта
+     */
+    private String id;
+
+    /**
+     * Тип импортируемых записей: users или subscriptions
+     */
+    private String type;
+
+    /**
+     * Состояние импорта
+     */
+    private Status status;
+
+    /**
+     * Время начала импорта
+     */
+    private LocalDateTime startedAt;
+
+    /**
+     * Длительность импорта в миллисекундах
+     */
+    private long durationMs;
+
+    /**
+     * Количество прочитанных записей
+     */
+    private long processed;
+
+    /**
+     * Количество сохраненных записей
+     */
+    private long imported;
+
+    /**
+     * Количество отклоненных записей
+     */
+    private long failed;
+
+    /**
+     * Ошибки отдельных строк; список ограничен настройкой app.import.max-errors
+     */
+    private List<ImportErrorDTO> errors;
+
+    /**
+     * Признак того, что часть ошибок не попала в список
+     */
+    private boolean errorsTruncated;
+
+    /**
+     * Возможные состояния импорта.
+     */
+    public enum Status {
+        /**
+         * Импорт выполняется
+         */
+        RUNNING,
+        /**
+         * Все входные данные обработаны
+         */
+        COMPLETED,
+        /**
+         * Импорт прерван из-за ошибки чтения или сохранения данных
+         */
+        FAILED
+    }
+}
@@ -0,0 +1,68 @@
+package com.subscriptionservice.dto;
+
+import com.fasterxml.jackson.annotation.JsonRawValue;
+import com.subscriptionservice.model.OutboxEventType;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * DTO события журнала изменений.
+ * Передается потребителям ленты изменений и приемникам ретранслятора.
+ */
+@Data
+@NoArgsConstructor
+public class OutboxEventDTO {
+    /**
+     * Сквозная позиция события; потребитель сохраняет позицию последнего обработанного события
+     */
+    private Long position;
+
+    /**
+     * Тип события
+     */
+    private OutboxEventType type;
+
+    /**
+     * Тип измененного объекта: USER или SUBSCRIPTION
+     */
+    private String aggregateType;
+
+    /**
+     * Идентификатор измененного объекта
+     */
+    private Long aggregateId;
+
+    /**
+     * Время записи события
+     */
+    private LocalDateTime createdAt;
+
+    /**
+     * Данные объекта: пользователь или подписка в том же формате, что и в REST API
+     */
+    @JsonRawValue
+    private String payload;
+
+    /**
+     * Создает DTO события.
+     * Используется в запросах-проекциях, читающих события без загрузки сущностей.
+     *
+     * @param position позиция события
+     * @param type тип события
+     * @param aggregateType тип измененного объекта
+     * @param aggregateId идентификатор измененного объекта
+     * @param createdAt время записи события
+     * @param payload данные объекта в формате JSON
+     */
+    public OutboxEventDTO(Long position, OutboxEventType type, String aggregateType, Long aggregateId,
+                          LocalDateTime createdAt, String payload) {
+        this.position = position;
+        this.type = type;
+        this.aggregateType = aggregateType;
+        this.aggregateId = aggregateId;
+        this.createdAt = createdAt;
+        this.payload = payload;
+    }
+}
@@ -0,0 +1,36 @@
+package com.subscriptionservice.dto;
+
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.PositiveOrZero;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * DTO позиции потребителя ленты изменений.
+ */
+@Data
+@NoArgsConstructor
+public class OutboxOffsetDTO {
+    /**
+     * Имя потребителя
+     */
+    private String consumer;
+
+    /**
+     * Позиция последнего обработанного события; 0, если потребитель еще не обработал ни одного события
+     */
+    @NotNull(message = "Позиция не может быть пустой")
+    @PositiveOrZero(message = "Позиция не может быть отрицательной")
+    private Long offset;
+
+    /**
+     * Создает DTO позиции потребителя.
+     *
+     * @param consumer имя потребителя
+     * @param offset позиция последнего обработанного события
+     */
+    public OutboxOffsetDTO(String consumer, Long offset) {
+        this.consumer = consumer;
+        this.offset = offset;
+    }
+}
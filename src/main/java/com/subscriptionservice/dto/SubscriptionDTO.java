@@ -1,9 +1,11 @@
 package com.subscriptionservice.dto;
 
+import com.subscriptionservice.model.SubscriptionStatus;
 import com.subscriptionservice.validation.SubscriptionDateConstraint;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
 import lombok.Data;
+import lombok.NoArgsConstructor;
 
 import java.time.LocalDateTime;
 
@@ -12,6 +14,7 @@ import java.time.LocalDateTime;
  * Используется для валидации и передачи данных между слоями приложения.
  */
 @Data
+@NoArgsConstructor
 @SubscriptionDateConstraint
 public class SubscriptionDTO {
     /**
@@ -42,9 +45,50 @@ public class SubscriptionDTO {
      */
     private Long userId;
 
+    /**
+     * Статус подписки.
+     * Назначается сервером, значение в запросе игнорируется.
+     */
+    private SubscriptionStatus status;
+
     /**
      * Количество подписчиков на сервис.
      * Используется только для отображения статистики.
      */
     private Long subscriberCount;
-} 
\ No newline at end of file
+
+    /**
+     * Создает DTO подписки.
+     * Используется в запросах-проекциях, читающих подписки без загрузки сущностей.
+     *
+     * @param id идентификатор подписки
+     * @param serviceName название сервиса
+     * @param startDate дата начала подписки
+     * @param endDate дата окончания подписки
+     * @param userId идентификатор пользователя
+     */
+    public SubscriptionDTO(Long id, String serviceName, LocalDateTime startDate, LocalDateTime endDate, Long userId) {
+        this.id = id;
+        this.serviceName = serviceName;
+        this.startDate = startDate;
+        this.endDate = endDate;
+        this.userId = userId;
+    }
+
+    /**
+     * Создает DTO подписки со статусом.
+     * Используется в запросах-проекциях, читающих подписки без загрузки сущностей.
+     *
+     * @param id идентификатор подписки
+     * @param serviceName название сервиса
+     * @param startDate дата начала подписки
+     * @param endDate дата окончания подписки
+     * @param userId идентификатор пользователя
+     * @param status статус подписки
+     */
+    public SubscriptionDTO(Long id, String serviceName, LocalDateTime startDate, LocalDateTime endDate, Long userId,
+                           SubscriptionStatus status) {
+        this(id, serviceName, startDate, endDate, userId);
+        this.status = status;
+    }
+}
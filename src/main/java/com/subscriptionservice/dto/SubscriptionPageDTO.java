@@ -0,0 +1,26 @@
+package com.subscriptionservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Страница подписок пользователя.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SubscriptionPageDTO {
+    /**
+     * Подписки страницы в порядке возрастания идентификаторов.
+     */
+    private List<SubscriptionDTO> subscriptions;
+
+    /**
+     * Токен продолжения для запроса следующей страницы.
+     * Равен null, если страница последняя.
+     */
+    private String nextCursor;
+}
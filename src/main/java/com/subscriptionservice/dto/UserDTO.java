@@ -1,15 +1,20 @@
 package com.subscriptionservice.dto;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.validation.constraints.Email;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.Size;
 import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
 
 /**
  * DTO для передачи данных о пользователе.
  * Содержит валидацию полей для обеспечения корректности данных.
  */
 @Data
+@NoArgsConstructor
 public class UserDTO {
     /**
      * Уникальный идентификатор пользователя.
@@ -33,4 +38,39 @@ public class UserDTO {
     @Email(message = "Некорректный формат email")
     @Size(max = 100, message = "Email не может быть длиннее 100 символов")
     private String email;
-} 
\ No newline at end of file
+
+    /**
+     * Время последнего изменения пользователя.
+     * Не передается в JSON, используется для формирования ETag ответа.
+     */
+    @JsonIgnore
+    private LocalDateTime updatedAt;
+
+    /**
+     * Создает DTO пользователя.
+     * Используется в запросах-проекциях, читающих пользователей без загрузки сущностей.
+     *
+     * @param id идентификатор пользователя
+     * @param userName имя пользователя
+     * @param email email пользователя
+     */
+    public UserDTO(Long id, String userName, String email) {
+        this.id = id;
+        this.userName = userName;
+        this.email = email;
+    }
+
+    /**
+     * Создает DTO пользователя со временем последнего изменения.
+     * Используется в запросе-проекции, результат которого кэшируется.
+     *
+     * @param id идентификатор пользователя
+     * @param userName имя пользователя
+     * @param email email пользователя
+     * @param updatedAt время последнего изменения пользователя
+     */
+    public UserDTO(Long id, String userName, String email, LocalDateTime updatedAt) {
+        this(id, userName, email);
+        this.updatedAt = updatedAt;
+    }
+}
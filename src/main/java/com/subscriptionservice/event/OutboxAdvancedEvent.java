@@ -0,0 +1,10 @@
+package com.subscriptionservice.event;
+
+/**
+ * Событие появления в журнале изменений новых событий с назначенными позициями.
+ * Публикуется ретранслятором и будит ожидающих потребителей ленты изменений.
+ *
+ * @param position позиция последнего события журнала
+ */
+public record OutboxAdvancedEvent(long position) {
+}
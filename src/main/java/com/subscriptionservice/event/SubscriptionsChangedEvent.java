@@ -0,0 +1,32 @@
+package com.subscriptionservice.event;
+
+import java.util.Map;
+
+/**
+ * Событие изменения количества подписок по сервисам.
+ * Публикуется внутри транзакции и обрабатывается слушателями после ее фиксации.
+ *
+ * @param serviceDeltas изменение количества подписок для каждого сервиса
+ */
+public record SubscriptionsChangedEvent(Map<String, Long> serviceDeltas) {
+
+    /**
+     * Создает событие добавления одной подписки на сервис.
+     *
+     * @param serviceName название сервиса
+     * @return событие с приращением +1
+     */
+    public static SubscriptionsChangedEvent added(String serviceName) {
+        return new SubscriptionsChangedEvent(Map.of(serviceName, 1L));
+    }
+
+    /**
+     * Создает событие удаления одной подписки на сервис.
+     *
+     * @param serviceName название сервиса
+     * @return событие с приращением -1
+     */
+    public static SubscriptionsChangedEvent removed(String serviceName) {
+        return new SubscriptionsChangedEvent(Map.of(serviceName, -1L));
+    }
+}
@@ -0,0 +1,10 @@
+package com.subscriptionservice.event;
+
+/**
+ * Событие изменения или удаления пользователя.
+ * Публикуется внутри транзакции и обрабатывается слушателями после ее фиксации.
+ *
+ * @param userId идентификатор пользователя
+ */
+public record UserChangedEvent(Long userId) {
+}
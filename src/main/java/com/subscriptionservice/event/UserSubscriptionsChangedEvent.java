@@ -0,0 +1,23 @@
+package com.subscriptionservice.event;
+
+import java.util.Set;
+
+/**
+ * Событие изменения подписок пользователей: добавления, удаления или истечения.
+ * Публикуется внутри транзакции и обрабатывается слушателями после ее фиксации;
+ * планировщик истечения публикует событие вне транзакции, после выполнения обновления.
+ *
+ * @param userIds идентификаторы пользователей, подписки которых изменились
+ */
+public record UserSubscriptionsChangedEvent(Set<Long> userIds) {
+
+    /**
+     * Создает событие изменения подписок одного пользователя.
+     *
+     * @param userId идентификатор пользователя
+     * @return событие изменения подписок пользователя
+     */
+    public static UserSubscriptionsChangedEvent of(Long userId) {
+        return new UserSubscriptionsChangedEvent(Set.of(userId));
+    }
+}
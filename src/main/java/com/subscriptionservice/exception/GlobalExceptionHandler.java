@@ -1,12 +1,17 @@
 package com.subscriptionservice.exception;
 
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.transaction.CannotCreateTransactionException;
+import org.springframework.validation.BindingResult;
 import org.springframework.validation.ObjectError;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.bind.support.WebExchangeBindException;
 
 import java.util.HashMap;
 import java.util.Map;
@@ -47,7 +52,8 @@ public class GlobalExceptionHandler {
         log.error("Ошибка валидации: {}", ex.getMessage());
         Map<String, String> response = new HashMap<>();
         response.put("error", ex.getMessage());
-        return new ResponseEntity<>(response, HttpStatus.BAD_REQUEST);
+        // Тип задан явно, чтобы ошибка возвращалась и клиентам потоков, ожидающим text/event-stream
+        return ResponseEntity.badRequest().contentType(MediaType.APPLICATION_JSON).body(response);
     }
 
     /**
@@ -59,13 +65,61 @@ public class GlobalExceptionHandler {
      */
     @ExceptionHandler(MethodArgumentNotValidException.class)
     public ResponseEntity<Map<String, String>> handleValidationExceptions(MethodArgumentNotValidException ex) {
-        Map<String, String> errors = new HashMap<>();
-        ex.getBindingResult().getAllErrors().forEach((error) -> {
-            String errorMessage = error.getDefaultMessage();
-            errors.put("error", errorMessage);
-        });
-        log.error("Ошибки валидации: {}", errors);
-        return new ResponseEntity<>(errors, HttpStatus.BAD_REQUEST);
+        return validationErrors(ex.getBindingResult());
+    }
+
+    /**
+     * Обрабатывает исключения валидации WebFlux (WebExchangeBindException) в реактивном варианте API.
+     * Возвращает HTTP 400 (Bad Request) в том же формате, что и для MethodArgumentNotValidException.
+     *
+     * @param ex исключение, которое было выброшено
+     * @return ResponseEntity с картой ошибок валидации и статусом 400
+     */
+    @ExceptionHandler(WebExchangeBindException.class)
+    public ResponseEntity<Map<String, String>> handleWebExchangeBindException(WebExchangeBindException ex) {
+        return validationErrors(ex.getBindingResult());
+    }
+
+    /**
+     * Обрабатывает исключение CannotCreateTransactionException.
+     * Возникает, когда за время ожидания не удалось получить соединение из пула:
+     * пул соединений ограничивает число одновременно обрабатываемых запросов к базе данных,
+     * поэтому при его исчерпании возвращается HTTP 503 (Service Unavailable) с заголовком Retry-After.
+     *
+     * @param ex исключение, которое было выброшено
+     * @return ResponseEntity с сообщением об ошибке и статусом 503
+     */
+    @ExceptionHandler(CannotCreateTransactionException.class)
+    public ResponseEntity<Map<String, String>> handleCannotCreateTransactionException(
+            CannotCreateTransactionException ex) {
+        log.warn("Не удалось получить соединение с базой данных: {}", ex.getMostSpecificCause().getMessage());
+        Map<String, String> response = new HashMap<>();
+        response.put("error", "Сервис перегружен, повторите запрос позже");
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .body(response);
+    }
+
+    /**
+     * Обрабатывает исключение ServiceOverloadedException.
+     * Запрос отклонен до вызова контроллера, поэтому возвращается HTTP 503 (Service Unavailable)
+     * с заголовком Retry-After в секундах.
+     *
+     * @param ex исключение, которое было выброшено
+     * @return ResponseEntity с сообщением об ошибке и статусом 503
+     */
+    @ExceptionHandler(ServiceOverloadedException.class)
+    public ResponseEntity<Map<String, String>> handleServiceOverloadedException(ServiceOverloadedException ex) {
+        if (log.isDebugEnabled()) {
+            log.debug("Запрос отклонен: {}", ex.getMessage());
+        }
+        long retryAfterSeconds = Math.max(1, (ex.getRetryAfter().toMillis() + 999) / 1000);
+        Map<String, String> response = new HashMap<>();
+        response.put("error", "Сервис перегружен, повторите запрос позже");
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, Long.toString(retryAfterSeconds))
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(response);
     }
 
     /**
@@ -82,4 +136,14 @@ public class GlobalExceptionHandler {
         response.put("error", "Произошла внутренняя ошибка сервера");
         return new ResponseEntity<>(response, HttpStatus.INTERNAL_SERVER_ERROR);
     }
+
+    private ResponseEntity<Map<String, String>> validationErrors(BindingResult bindingResult) {
+        Map<String, String> errors = new HashMap<>();
+        bindingResult.getAllErrors().forEach((error) -> {
+            String errorMessage = error.getDefaultMessage();
+            errors.put("error", errorMessage);
+        });
+        log.error("Ошибки валидации: {}", errors);
+        return new ResponseEntity<>(errors, HttpStatus.BAD_REQUEST);
+    }
 } 
\ No newline at end of file
@@ -0,0 +1,31 @@
+package com.subscriptionservice.exception;
+
+import java.time.Duration;
+
+/**
+ * Исключение, возникающее, когда запрос отклонен из-за превышения предела одновременных запросов.
+ * Клиенту возвращается HTTP 503 с заголовком Retry-After.
+ */
+public class ServiceOverloadedException extends RuntimeException {
+    private final Duration retryAfter;
+
+    /**
+     * Создает новое исключение с указанным сообщением.
+     *
+     * @param message сообщение об ошибке
+     * @param retryAfter время, через которое клиенту следует повторить запрос
+     */
+    public ServiceOverloadedException(String message, Duration retryAfter) {
+        super(message);
+        this.retryAfter = retryAfter;
+    }
+
+    /**
+     * Возвращает время, через которое клиенту следует повторить запрос.
+     *
+     * @return время до повтора запроса
+     */
+    public Duration getRetryAfter() {
+        return retryAfter;
+    }
+}
@@ -2,14 +2,20 @@ package com.subscriptionservice.mapper;
 
 import com.subscriptionservice.dto.SubscriptionDTO;
 import com.subscriptionservice.model.Subscription;
+import com.subscriptionservice.model.SubscriptionRow;
+import com.subscriptionservice.service.ServiceDictionary;
+import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Component;
 
 /**
  * Маппер для преобразования между сущностью Subscription и DTO.
  * Обеспечивает конвертацию данных между слоями приложения.
+ * Название сервиса и его идентификатор преобразуются через справочник сервисов.
  */
 @Component
+@RequiredArgsConstructor
 public class SubscriptionMapper {
+    private final ServiceDictionary serviceDictionary;
 
     /**
      * Преобразует сущность Subscription в SubscriptionDTO.
@@ -24,17 +30,35 @@ public class SubscriptionMapper {
 
         SubscriptionDTO dto = new SubscriptionDTO();
         dto.setId(subscription.getId());
-        dto.setServiceName(subscription.getServiceName());
+        dto.setServiceName(serviceDictionary.getName(subscription.getServiceId()));
         dto.setStartDate(subscription.getStartDate());
         dto.setEndDate(subscription.getEndDate());
+        dto.setStatus(subscription.getStatus());
         if (subscription.getUser() != null) {
             dto.setUserId(subscription.getUser().getId());
         }
         return dto;
     }
 
+    /**
+     * Преобразует строку таблицы подписок в SubscriptionDTO.
+     *
+     * @param subscription строка таблицы подписок
+     * @return DTO подписки
+     */
+    public SubscriptionDTO toDTO(SubscriptionRow subscription) {
+        if (subscription == null) {
+            return null;
+        }
+
+        return new SubscriptionDTO(subscription.getId(), serviceDictionary.getName(subscription.getServiceId()),
+                subscription.getStartDate(), subscription.getEndDate(), subscription.getUserId(),
+                subscription.getStatus());
+    }
+
     /**
      * Преобразует SubscriptionDTO в сущность Subscription.
+     * Сервис, отсутствующий в справочнике, добавляется в него.
      *
      * @param dto DTO подписки
      * @return сущность подписки
@@ -46,9 +70,9 @@ public class SubscriptionMapper {
 
         Subscription subscription = new Subscription();
         subscription.setId(dto.getId());
-        subscription.setServiceName(dto.getServiceName());
+        subscription.setServiceId(serviceDictionary.getId(dto.getServiceName()));
         subscription.setStartDate(dto.getStartDate());
         subscription.setEndDate(dto.getEndDate());
         return subscription;
     }
-}
\ No newline at end of file
+}
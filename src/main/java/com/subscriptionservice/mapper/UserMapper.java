@@ -44,6 +44,7 @@ public class UserMapper {
         dto.setId(entity.getId());
         dto.setUserName(entity.getUserName());
         dto.setEmail(entity.getEmail());
+        dto.setUpdatedAt(entity.getUpdatedAt());
         return dto;
     }
 
@@ -0,0 +1,70 @@
+package com.subscriptionservice.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.SequenceGenerator;
+import jakarta.persistence.Table;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+/**
+ * Событие журнала изменений (transactional outbox).
+ * Записывается в одной транзакции с изменением пользователя или подписки;
+ * позицию события назначает ретранслятор после фиксации транзакции.
+ */
+@Data
+@Entity
+@Table(name = "outbox_events")
+public class OutboxEvent {
+    /**
+     * Уникальный идентификатор события.
+     * Выделяется из последовательности блоками, что позволяет Hibernate объединять вставки в JDBC-пакеты.
+     */
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "outbox_events_id_seq")
+    @SequenceGenerator(name = "outbox_events_id_seq", sequenceName = "outbox_events_id_seq", allocationSize = 50)
+    private Long id;
+
+    /**
+     * Сквозная позиция события в журнале; null, пока событие не обработано ретранслятором
+     */
+    @Column(insertable = false, updatable = false)
+    private Long position;
+
+    /**
+     * Тип измененного объекта: USER или SUBSCRIPTION
+     */
+    @Column(nullable = false, length = 32)
+    private String aggregateType;
+
+    /**
+     * Идентификатор измененного объекта
+     */
+    @Column(nullable = false)
+    private Long aggregateId;
+
+    /**
+     * Тип события
+     */
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 64)
+    private OutboxEventType eventType;
+
+    /**
+     * Данные объекта в формате JSON
+     */
+    @Column(nullable = false, columnDefinition = "TEXT")
+    private String payload;
+
+    /**
+     * Время записи события
+     */
+    @Column(nullable = false)
+    private LocalDateTime createdAt;
+}
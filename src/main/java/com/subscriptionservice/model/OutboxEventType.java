@@ -0,0 +1,50 @@
+package com.subscriptionservice.model;
+
+/**
+ * Тип события журнала изменений.
+ * Определяет вид изменения и тип измененного объекта.
+ */
+public enum OutboxEventType {
+    /**
+     * Создание пользователя
+     */
+    USER_CREATED(OutboxEventType.USER),
+
+    /**
+     * Изменение данных пользователя
+     */
+    USER_UPDATED(OutboxEventType.USER),
+
+    /**
+     * Удаление пользователя; подписки пользователя удаляются вместе с ним без отдельных событий
+     */
+    USER_DELETED(OutboxEventType.USER),
+
+    /**
+     * Создание подписки
+     */
+    SUBSCRIPTION_CREATED(OutboxEventType.SUBSCRIPTION),
+
+    /**
+     * Удаление подписки
+     */
+    SUBSCRIPTION_DELETED(OutboxEventType.SUBSCRIPTION);
+
+    private static final String USER = "USER";
+    private static final String SUBSCRIPTION = "SUBSCRIPTION";
+
+    private final String aggregateType;
+
+    OutboxEventType(String aggregateType) {
+        this.aggregateType = aggregateType;
+    }
+
+    /**
+     * Возвращает тип измененного объекта.
+     *
+     * @return USER или SUBSCRIPTION
+     */
+    public String getAggregateType() {
+        return aggregateType;
+    }
+}
@@ -0,0 +1,31 @@
+package com.subscriptionservice.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.Data;
+import org.hibernate.annotations.Immutable;
+
+/**
+ * Запись справочника сервисов.
+ * Подписка ссылается на сервис по идентификатору; записи только добавляются
+ * и не изменяются, поэтому соответствие названия и идентификатора постоянно.
+ */
+@Data
+@Entity
+@Immutable
+@Table(name = "services")
+public class ServiceEntry {
+    /**
+     * Уникальный идентификатор сервиса
+     */
+    @Id
+    private Integer id;
+
+    /**
+     * Название сервиса
+     */
+    @Column(nullable = false, unique = true)
+    private String name;
+}
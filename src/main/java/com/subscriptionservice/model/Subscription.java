@@ -2,13 +2,17 @@ package com.subscriptionservice.model;
 
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
 import jakarta.persistence.FetchType;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
+import jakarta.persistence.SequenceGenerator;
 import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
 import lombok.Data;
 
 import java.time.LocalDateTime;
@@ -19,20 +23,24 @@ import java.time.LocalDateTime;
  */
 @Data
 @Entity
-@Table(name = "subscriptions")
+@Table(name = "subscriptions", uniqueConstraints = @UniqueConstraint(
+        name = "uk_subscriptions_user_service", columnNames = {"user_id", "service_id"}))
 public class Subscription {
     /**
-     * Уникальный идентификатор подписки
+     * Уникальный идентификатор подписки.
+     * Выделяется из последовательности блоками, что позволяет Hibernate объединять вставки в JDBC-пакеты.
      */
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "subscriptions_id_seq")
+    @SequenceGenerator(name = "subscriptions_id_seq", sequenceName = "subscriptions_id_seq", allocationSize = 50)
     private Long id;
 
     /**
-     * Название сервиса подписки
+     * Идентификатор сервиса подписки в справочнике сервисов.
+     * Название сервиса определяется через {@link com.subscriptionservice.service.ServiceDictionary}.
      */
     @Column(nullable = false)
-    private String serviceName;
+    private Integer serviceId;
 
     /**
      * Дата начала подписки
@@ -46,6 +54,14 @@ public class Subscription {
     @Column(nullable = false)
     private LocalDateTime endDate;
 
+    /**
+     * Статус подписки.
+     * Новая подписка действует; после даты окончания статус меняет планировщик истечения.
+     */
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 16)
+    private SubscriptionStatus status = SubscriptionStatus.ACTIVE;
+
     /**
      * Пользователь, которому принадлежит подписка
      */
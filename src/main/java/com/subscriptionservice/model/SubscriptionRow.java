@@ -0,0 +1,58 @@
+package com.subscriptionservice.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.relational.core.mapping.Column;
+import org.springframework.data.relational.core.mapping.Table;
+
+import java.time.LocalDateTime;
+
+/**
+ * Строка таблицы subscriptions для репозиториев R2DBC.
+ * Используется реактивным вариантом API вместо сущности {@link Subscription},
+ * а также для чтения страниц подписок через JPA без загрузки сущностей.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Table("subscriptions")
+public class SubscriptionRow {
+    /**
+     * Уникальный идентификатор подписки.
+     * Назначается базой данных при вставке.
+     */
+    @Id
+    private Long id;
+
+    /**
+     * Идентификатор сервиса подписки в справочнике сервисов
+     */
+    @Column("service_id")
+    private Integer serviceId;
+
+    /**
+     * Дата начала подписки
+     */
+    @Column("start_date")
+    private LocalDateTime startDate;
+
+    /**
+     * Дата окончания подписки
+     */
+    @Column("end_date")
+    private LocalDateTime endDate;
+
+    /**
+     * Идентификатор пользователя, которому принадлежит подписка
+     */
+    @Column("user_id")
+    private Long userId;
+
+    /**
+     * Статус подписки
+     */
+    @Column("status")
+    private SubscriptionStatus status = SubscriptionStatus.ACTIVE;
+}
@@ -0,0 +1,16 @@
+package com.subscriptionservice.model;
+
+/**
+ * Статус подписки.
+ */
+public enum SubscriptionStatus {
+    /**
+     * Подписка действует: дата окончания еще не наступила
+     */
+    ACTIVE,
+
+    /**
+     * Срок действия подписки истек
+     */
+    EXPIRED
+}
@@ -0,0 +1,46 @@
+package com.subscriptionservice.model;
+
+import lombok.Data;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.relational.core.mapping.Column;
+import org.springframework.data.relational.core.mapping.Table;
+
+import java.time.LocalDateTime;
+
+/**
+ * Строка таблицы users для репозиториев R2DBC.
+ * Используется реактивным вариантом API вместо сущности {@link User}.
+ */
+@Data
+@Table("users")
+public class UserRow {
+    /**
+     * Уникальный идентификатор пользователя.
+     * Назначается базой данных при вставке.
+     */
+    @Id
+    private Long id;
+
+    /**
+     * Имя пользователя.
+     */
+    @Column("user_name")
+    private String userName;
+
+    /**
+     * Email пользователя.
+     */
+    private String email;
+
+    /**
+     * Дата и время создания записи.
+     */
+    @Column("created_at")
+    private LocalDateTime createdAt;
+
+    /**
+     * Дата и время последнего обновления записи.
+     */
+    @Column("updated_at")
+    private LocalDateTime updatedAt;
+}
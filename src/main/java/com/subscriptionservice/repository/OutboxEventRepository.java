@@ -0,0 +1,103 @@
+package com.subscriptionservice.repository;
+
+import com.subscriptionservice.dto.OutboxEventDTO;
+import com.subscriptionservice.model.OutboxEvent;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Репозиторий журнала изменений и позиций его потребителей.
+ */
+@Repository
+public interface OutboxEventRepository extends JpaRepository<OutboxEvent, Long> {
+    /**
+     * Находит события после заданной позиции в порядке возрастания позиций.
+     * Запрос читает из индекса uk_outbox_events_position только строки страницы.
+     *
+     * @param after позиция последнего обработанного события
+     * @param pageable ограничение количества возвращаемых событий
+     * @return события журнала
+     */
+    @Query("SELECT new com.subscriptionservice.dto.OutboxEventDTO(" +
+           "e.position, e.eventType, e.aggregateType, e.aggregateId, e.createdAt, e.payload) " +
+           "FROM OutboxEvent e " +
+           "WHERE e.position > :after " +
+           "ORDER BY e.position")
+    List<OutboxEventDTO> findAfterPosition(@Param("after") long after, Pageable pageable);
+
+    /**
+     * Возвращает позицию последнего события журнала.
+     *
+     * @return позиция или 0, если событиям еще не назначены позиции
+     */
+    @Query(value = "SELECT COALESCE(MAX(position), 0) FROM outbox_events", nativeQuery = true)
+    long findLatestPosition();
+
+    /**
+     * Пытается захватить блокировку назначения позиций до конца текущей транзакции.
+     * Позиции назначает только один экземпляр приложения одновременно.
+     *
+     * @param key ключ рекомендательной блокировки
+     * @return true если блокировка захвачена
+     */
+    @Query(value = "SELECT pg_try_advisory_xact_lock(:key)", nativeQuery = true)
+    boolean tryLockSequencer(@Param("key") long key);
+
+    /**
+     * Назначает позиции не более limit зафиксированным событиям без позиции в порядке идентификаторов.
+     *
+     * @param limit максимальное количество событий
+     * @return количество событий, получивших позицию
+     */
+    @Modifying
+    @Query(value = "UPDATE outbox_events e SET position = s.position " +
+                   "FROM (SELECT id, nextval('outbox_events_position_seq') AS position " +
+                   "FROM (SELECT id FROM outbox_events WHERE position IS NULL ORDER BY id LIMIT :limit) pending) s " +
+                   "WHERE e.id = s.id",
+           nativeQuery = true)
+    int assignPositions(@Param("limit") int limit);
+
+    /**
+     * Удаляет не более limit событий с назначенной позицией, записанных раньше заданного момента.
+     *
+     * @param before момент, раньше которого события удаляются
+     * @param limit максимальное количество событий
+     * @return количество удаленных событий
+     */
+    @Modifying
+    @Query(value = "DELETE FROM outbox_events WHERE id IN (SELECT id FROM outbox_events " +
+                   "WHERE position IS NOT NULL AND created_at < :before ORDER BY position LIMIT :limit)",
+           nativeQuery = true)
+    int deleteSequencedBefore(@Param("before") LocalDateTime before, @Param("limit") int limit);
+
+    /**
+     * Находит сохраненную позицию потребителя.
+     *
+     * @param consumer имя потребителя
+     * @return позиция последнего обработанного события
+     */
+    @Query(value = "SELECT position FROM outbox_offsets WHERE consumer = :consumer", nativeQuery = true)
+    Optional<Long> findOffset(@Param("consumer") String consumer);
+
+    /**
+     * Сохраняет позицию потребителя.
+     *
+     * @param consumer имя потребителя
+     * @param position позиция последнего обработанного события
+     * @param now текущий момент
+     */
+    @Modifying
+    @Query(value = "INSERT INTO outbox_offsets (consumer, position, updated_at) VALUES (:consumer, :position, :now) " +
+                   "ON CONFLICT (consumer) DO UPDATE SET position = EXCLUDED.position, updated_at = EXCLUDED.updated_at",
+           nativeQuery = true)
+    void saveOffset(@Param("consumer") String consumer, @Param("position") long position,
+                    @Param("now") LocalDateTime now);
+}
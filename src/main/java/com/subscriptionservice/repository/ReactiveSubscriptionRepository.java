@@ -0,0 +1,89 @@
+package com.subscriptionservice.repository;
+
+import com.subscriptionservice.dto.TopSubscriptionDTO;
+import com.subscriptionservice.model.SubscriptionRow;
+import org.springframework.data.r2dbc.repository.Query;
+import org.springframework.data.r2dbc.repository.R2dbcRepository;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDateTime;
+
+/**
+ * Реактивный репозиторий подписок на R2DBC.
+ * Используется реактивным вариантом API (профиль reactive); запросы повторяют
+ * запросы {@link SubscriptionRepository}. Запросы статистики возвращают названия сервисов,
+ * соединяя с таблицей services уже сгруппированные по идентификатору сервиса подписки.
+ */
+@Repository
+public interface ReactiveSubscriptionRepository extends R2dbcRepository<SubscriptionRow, Long> {
+    /**
+     * Находит страницу подписок пользователя в порядке возрастания идентификаторов.
+     * Страница начинается после подписки с идентификатором afterId.
+     *
+     * @param userId идентификатор пользователя
+     * @param afterId идентификатор последней подписки предыдущей страницы
+     * @param limit максимальное количество подписок
+     * @return подписки пользователя
+     */
+    @Query("SELECT id, service_id, start_date, end_date, user_id, status FROM subscriptions " +
+           "WHERE user_id = :userId AND id > :afterId " +
+           "ORDER BY id LIMIT :limit")
+    Flux<SubscriptionRow> findPageByUserId(Long userId, Long afterId, int limit);
+
+    /**
+     * Находит самые популярные подписки.
+     *
+     * @param limit количество сервисов
+     * @return популярные сервисы с количеством подписок
+     */
+    @Query("SELECT sv.name AS service_name, t.subscriber_count " +
+           "FROM (SELECT service_id, COUNT(*) AS subscriber_count FROM subscriptions " +
+           "GROUP BY service_id) t " +
+           "JOIN services sv ON sv.id = t.service_id " +
+           "ORDER BY t.subscriber_count DESC, sv.name LIMIT :limit")
+    Flux<TopSubscriptionDTO> findTopPopularSubscriptions(int limit);
+
+    /**
+     * Находит самые популярные подписки среди действующих в заданном периоде.
+     * Учитываются подписки, период действия которых пересекается с [from, to].
+     *
+     * @param from начало периода
+     * @param to окончание периода
+     * @param limit количество сервисов
+     * @return популярные сервисы с количеством подписок
+     */
+    @Query("SELECT sv.name AS service_name, t.subscriber_count " +
+           "FROM (SELECT service_id, COUNT(*) AS subscriber_count FROM subscriptions " +
+           "WHERE start_date <= :to AND end_date >= :from " +
+           "GROUP BY service_id) t " +
+           "JOIN services sv ON sv.id = t.service_id " +
+           "ORDER BY t.subscriber_count DESC, sv.name LIMIT :limit")
+    Flux<TopSubscriptionDTO> findTopPopularSubscriptionsActiveBetween(LocalDateTime from, LocalDateTime to,
+                                                                      int limit);
+
+    /**
+     * Подсчитывает количество подписок пользователя по каждому сервису.
+     *
+     * @param userId идентификатор пользователя
+     * @return сервисы с количеством подписок пользователя
+     */
+    @Query("SELECT sv.name AS service_name, t.subscriber_count " +
+           "FROM (SELECT service_id, COUNT(*) AS subscriber_count FROM subscriptions " +
+           "WHERE user_id = :userId " +
+           "GROUP BY service_id) t " +
+           "JOIN services sv ON sv.id = t.service_id")
+    Flux<TopSubscriptionDTO> countSubscriptionsByServiceNameForUser(Long userId);
+
+    /**
+     * Удаляет подписку пользователя одним запросом и возвращает удаленную строку.
+     * Принадлежность пользователю проверяется условием запроса.
+     *
+     * @param id идентификатор подписки
+     * @param userId идентификатор владельца подписки
+     * @return удаленная подписка или пустой результат, если подписки пользователя с таким ID нет
+     */
+    @Query("DELETE FROM subscriptions WHERE id = :id AND user_id = :userId RETURNING *")
+    Mono<SubscriptionRow> deleteOwned(Long id, Long userId);
+}
@@ -0,0 +1,43 @@
+package com.subscriptionservice.repository;
+
+import com.subscriptionservice.dto.UserDTO;
+import com.subscriptionservice.model.UserRow;
+import org.springframework.data.r2dbc.repository.Modifying;
+import org.springframework.data.r2dbc.repository.Query;
+import org.springframework.data.r2dbc.repository.R2dbcRepository;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Mono;
+
+/**
+ * Реактивный репозиторий пользователей на R2DBC.
+ * Используется реактивным вариантом API (профиль reactive).
+ */
+@Repository
+public interface ReactiveUserRepository extends R2dbcRepository<UserRow, Long> {
+    /**
+     * Проверяет существование пользователя с указанным email.
+     *
+     * @param email email для проверки
+     * @return true, если пользователь существует, false в противном случае
+     */
+    Mono<Boolean> existsByEmail(String email);
+
+    /**
+     * Находит пользователя по ID и читает его сразу в DTO.
+     *
+     * @param id идентификатор пользователя
+     * @return данные пользователя или пустой результат, если пользователь не найден
+     */
+    @Query("SELECT id, user_name, email FROM users WHERE id = :id")
+    Mono<UserDTO> findDTOById(Long id);
+
+    /**
+     * Удаляет пользователя одним запросом; подписки удаляются базой данных каскадно.
+     *
+     * @param id идентификатор пользователя
+     * @return количество удаленных строк: 0, если пользователь не найден
+     */
+    @Modifying
+    @Query("DELETE FROM users WHERE id = :id")
+    Mono<Integer> deleteUserById(Long id);
+}
@@ -0,0 +1,35 @@
+package com.subscriptionservice.repository;
+
+import com.subscriptionservice.model.ServiceEntry;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+/**
+ * Репозиторий справочника сервисов.
+ */
+@Repository
+public interface ServiceEntryRepository extends JpaRepository<ServiceEntry, Integer> {
+    /**
+     * Находит сервис по названию.
+     *
+     * @param name название сервиса
+     * @return сервис или пустой результат, если сервиса нет в справочнике
+     */
+    Optional<ServiceEntry> findByName(String name);
+
+    /**
+     * Добавляет сервис, если его еще нет в справочнике.
+     * При одновременном добавлении одного сервиса несколькими транзакциями запись
+     * создается один раз, остальные транзакции получают пустой результат.
+     *
+     * @param name название сервиса
+     * @return идентификатор добавленного сервиса или null, если сервис уже есть в справочнике
+     */
+    @Query(value = "INSERT INTO services (name) VALUES (:name) ON CONFLICT (name) DO NOTHING RETURNING id",
+           nativeQuery = true)
+    Integer insertIfAbsent(@Param("name") String name);
+}
@@ -1,10 +1,16 @@
 package com.subscriptionservice.repository;
 
 import com.subscriptionservice.model.Subscription;
+import com.subscriptionservice.model.SubscriptionRow;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 /**
@@ -14,34 +20,199 @@ import java.util.List;
 @Repository
 public interface SubscriptionRepository extends JpaRepository<Subscription, Long> {
     /**
-     * Находит все подписки пользователя по его ID.
+     * Находит страницу подписок пользователя в порядке возрастания идентификаторов.
+     * Страница начинается после подписки с идентификатором afterId, поэтому запрос
+     * читает из индекса idx_subscriptions_user_id_id только строки страницы.
+     * Подписки читаются сразу в строки без загрузки сущностей в контекст персистентности.
      *
      * @param userId идентификатор пользователя
-     * @return список подписок пользователя
+     * @param afterId идентификатор последней подписки предыдущей страницы
+     * @param pageable ограничение количества возвращаемых подписок
+     * @return подписки пользователя
      */
-    List<Subscription> findByUserId(Long userId);
+    @Query("SELECT new com.subscriptionservice.model.SubscriptionRow(s.id, s.serviceId, s.startDate, s.endDate, s.user.id, s.status) " +
+           "FROM Subscription s " +
+           "WHERE s.user.id = :userId AND s.id > :afterId " +
+           "ORDER BY s.id")
+    List<SubscriptionRow> findPageByUserId(@Param("userId") Long userId,
+                                        @Param("afterId") Long afterId,
+                                        Pageable pageable);
+
+    /**
+     * Находит самые популярные подписки.
+     * Подписки группируются по идентификатору сервиса; с таблицей services соединяются только
+     * полученные группы, чтобы упорядочить сервисы с одинаковым количеством подписок по названию.
+     * Возвращает список массивов объектов, где каждый массив содержит:
+     * [0] - название сервиса
+     * [1] - количество подписок на этот сервис
+     *
+     * @param limit количество возвращаемых сервисов
+     * @return список популярных подписок с количеством пользователей
+     */
+    @Query(value = "SELECT sv.name, t.subscriber_count " +
+                   "FROM (SELECT service_id, COUNT(*) AS subscriber_count FROM subscriptions " +
+                   "GROUP BY service_id) t " +
+                   "JOIN services sv ON sv.id = t.service_id " +
+                   "ORDER BY t.subscriber_count DESC, sv.name LIMIT :limit",
+           nativeQuery = true)
+    List<Object[]> findTopPopularSubscriptions(@Param("limit") int limit);
 
     /**
-     * Находит ТОП-3 самых популярных подписок.
+     * Находит самые популярные подписки среди действующих в заданном периоде.
+     * Учитываются подписки, период действия которых пересекается с [from, to].
+     * Условие на start_date и end_date позволяет использовать индекс idx_subscriptions_dates.
      * Возвращает список массивов объектов, где каждый массив содержит:
      * [0] - название сервиса
      * [1] - количество подписок на этот сервис
      *
+     * @param from начало периода
+     * @param to окончание периода
+     * @param limit количество возвращаемых сервисов
      * @return список популярных подписок с количеством пользователей
      */
-    @Query("SELECT s.serviceName as serviceName, COUNT(s) as subscriberCount " +
+    @Query(value = "SELECT sv.name, t.subscriber_count " +
+                   "FROM (SELECT service_id, COUNT(*) AS subscriber_count FROM subscriptions " +
+                   "WHERE start_date <= :to AND end_date >= :from " +
+                   "GROUP BY service_id) t " +
+                   "JOIN services sv ON sv.id = t.service_id " +
+                   "ORDER BY t.subscriber_count DESC, sv.name LIMIT :limit",
+           nativeQuery = true)
+    List<Object[]> findTopPopularSubscriptionsActiveBetween(@Param("from") LocalDateTime from,
+                                                            @Param("to") LocalDateTime to,
+                                                            @Param("limit") int limit);
+
+    /**
+     * Подсчитывает количество подписок по каждому сервису.
+     * Возвращает список массивов объектов, где каждый массив содержит:
+     * [0] - идентификатор сервиса
+     * [1] - количество подписок на этот сервис
+     *
+     * @return список сервисов с количеством подписок
+     */
+    @Query("SELECT s.serviceId, COUNT(s) " +
            "FROM Subscription s " +
-           "GROUP BY s.serviceName " +
-           "ORDER BY subscriberCount DESC " +
-           "LIMIT 3")
-    List<Object[]> findTop3PopularSubscriptions();
+           "GROUP BY s.serviceId")
+    List<Object[]> countSubscriptionsByServiceId();
 
     /**
-     * Проверяет существование подписки на сервис у пользователя.
+     * Удаляет все подписки пользователей одним запросом и возвращает удаленные строки.
+     * Используется перед удалением пользователей, чтобы по каждой подписке было записано событие удаления.
+     * Возвращенные сущности уже удалены из базы данных и используются только для чтения.
      *
-     * @param userId идентификатор пользователя
-     * @param serviceName название сервиса
-     * @return true если подписка существует, false в противном случае
+     * @param userIds идентификаторы пользователей
+     * @return удаленные подписки
+     */
+    @Query(value = "DELETE FROM subscriptions WHERE user_id IN (:userIds) RETURNING *", nativeQuery = true)
+    List<Subscription> deleteByUserIds(@Param("userIds") Collection<Long> userIds);
+
+    /**
+     * Находит пары (пользователь, сервис) среди существующих подписок.
+     * Используется для проверки дубликатов всего пакета одним запросом; результат может
+     * содержать пары, отсутствующие в пакете, поэтому его нужно фильтровать на стороне вызывающего кода.
+     * Возвращает список массивов объектов, где каждый массив содержит:
+     * [0] - идентификатор пользователя
+     * [1] - идентификатор сервиса
+     *
+     * @param userIds идентификаторы пользователей
+     * @param serviceIds идентификаторы сервисов
+     * @return список существующих пар пользователь-сервис
+     */
+    @Query("SELECT s.user.id, s.serviceId " +
+           "FROM Subscription s " +
+           "WHERE s.user.id IN :userIds AND s.serviceId IN :serviceIds")
+    List<Object[]> findUserServicePairs(@Param("userIds") Collection<Long> userIds,
+                                        @Param("serviceIds") Collection<Integer> serviceIds);
+
+    /**
+     * Удаляет подписки пользователя из списка одним запросом и возвращает удаленные строки.
+     * Принадлежность пользователю проверяется условием запроса, поэтому ни подписки, ни пользователь
+     * не загружаются перед удалением; подписки других пользователей не удаляются и не возвращаются.
+     * Возвращенные сущности уже удалены из базы данных и используются только для чтения.
+     *
+     * @param ids идентификаторы подписок
+     * @param userId идентификатор владельца подписок
+     * @return удаленные подписки
+     */
+    @Query(value = "DELETE FROM subscriptions WHERE id IN (:ids) AND user_id = :userId RETURNING *",
+           nativeQuery = true)
+    List<Subscription> deleteOwnedByIds(@Param("ids") Collection<Long> ids, @Param("userId") Long userId);
+
+    /**
+     * Удаляет не более limit подписок на сервис и возвращает удаленные строки.
+     * Подписки выбираются по индексу idx_subscriptions_service_id.
+     *
+     * @param serviceId идентификатор сервиса
+     * @param limit максимальное количество подписок
+     * @return удаленные подписки
+     */
+    @Query(value = "DELETE FROM subscriptions WHERE id IN (SELECT id FROM subscriptions " +
+                   "WHERE service_id = :serviceId LIMIT :limit) RETURNING *",
+           nativeQuery = true)
+    List<Subscription> deleteByServiceId(@Param("serviceId") int serviceId, @Param("limit") int limit);
+
+    /**
+     * Удаляет не более limit подписок, закончившихся до момента before, и возвращает удаленные строки.
+     * Дата начала подписки не позже даты окончания, поэтому избыточное условие на start_date
+     * позволяет выбирать подписки по индексу idx_subscriptions_dates.
+     *
+     * @param before момент, до которого подписка должна закончиться
+     * @param limit максимальное количество подписок
+     * @return удаленные подписки
+     */
+    @Query(value = "DELETE FROM subscriptions WHERE id IN (SELECT id FROM subscriptions " +
+                   "WHERE start_date < :before AND end_date < :before LIMIT :limit) RETURNING *",
+           nativeQuery = true)
+    List<Subscription> deleteEndedBefore(@Param("before") LocalDateTime before, @Param("limit") int limit);
+
+    /**
+     * Находит действующие подписки, истекающие в интервале (from, to], в порядке даты окончания.
+     * Запрос читает из частичного индекса idx_subscriptions_active_end_date только строки окна.
+     * Возвращает список массивов объектов, где каждый массив содержит:
+     * [0] - идентификатор подписки
+     * [1] - дата окончания подписки
+     *
+     * @param from начало интервала, не включается
+     * @param to окончание интервала
+     * @param pageable ограничение количества возвращаемых подписок
+     * @return идентификаторы и даты окончания подписок
+     */
+    @Query("SELECT s.id, s.endDate " +
+           "FROM Subscription s " +
+           "WHERE s.status = com.subscriptionservice.model.SubscriptionStatus.ACTIVE " +
+           "AND s.endDate > :from AND s.endDate <= :to " +
+           "ORDER BY s.endDate")
+    List<Object[]> findActiveExpiringBetween(@Param("from") LocalDateTime from,
+                                             @Param("to") LocalDateTime to,
+                                             Pageable pageable);
+
+    /**
+     * Переводит в статус EXPIRED действующие подписки из списка, срок которых истек к моменту now.
+     * Условие на статус и дату окончания делает обновление повторяемым и не затрагивает подписки,
+     * дата окончания которых изменилась после загрузки в планировщик.
+     *
+     * @param ids идентификаторы подписок
+     * @param now текущий момент
+     * @return идентификаторы владельцев подписок, переведенных в статус EXPIRED, по одному на подписку
+     */
+    @Transactional
+    @Query(value = "UPDATE subscriptions SET status = 'EXPIRED' " +
+                   "WHERE id IN (:ids) AND status = 'ACTIVE' AND end_date <= :now RETURNING user_id",
+           nativeQuery = true)
+    List<Long> expireByIds(@Param("ids") Collection<Long> ids, @Param("now") LocalDateTime now);
+
+    /**
+     * Переводит в статус EXPIRED не более limit просроченных действующих подписок.
+     * Используется для подписок, не попавших в планировщик: созданных с прошедшей датой окончания,
+     * добавленных после загрузки окна или истекших, пока приложение было остановлено.
+     *
+     * @param now текущий момент
+     * @param limit максимальное количество подписок
+     * @return идентификаторы владельцев подписок, переведенных в статус EXPIRED, по одному на подписку
      */
-    boolean existsByUserIdAndServiceName(Long userId, String serviceName);
-} 
\ No newline at end of file
+    @Transactional
+    @Query(value = "UPDATE subscriptions SET status = 'EXPIRED' " +
+                   "WHERE status = 'ACTIVE' AND id IN (SELECT id FROM subscriptions " +
+                   "WHERE status = 'ACTIVE' AND end_date <= :now LIMIT :limit) RETURNING user_id",
+           nativeQuery = true)
+    List<Long> expireOverdue(@Param("now") LocalDateTime now, @Param("limit") int limit);
+}
@@ -1,9 +1,19 @@
 package com.subscriptionservice.repository;
 
+import com.subscriptionservice.config.CacheConfig;
+import com.subscriptionservice.dto.UserDTO;
 import com.subscriptionservice.model.User;
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
 /**
  * Репозиторий для работы с сущностью User.
  * Предоставляет методы для поиска и управления пользователями.
@@ -17,4 +27,58 @@ public interface UserRepository extends JpaRepository<User, Long> {
      * @return true, если пользователь существует, false в противном случае
      */
     boolean existsByEmail(String email);
-} 
\ No newline at end of file
+
+    /**
+     * Находит идентификаторы существующих пользователей среди указанных.
+     *
+     * @param ids идентификаторы для проверки
+     * @return идентификаторы пользователей, которые существуют
+     */
+    @Query("SELECT u.id FROM User u WHERE u.id IN :ids")
+    Set<Long> findExistingIds(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Находит email, которые уже используются, среди указанных.
+     *
+     * @param emails email для проверки
+     * @return email существующих пользователей
+     */
+    @Query("SELECT u.email FROM User u WHERE u.email IN :emails")
+    Set<String> findExistingEmails(@Param("emails") Collection<String> emails);
+
+    /**
+     * Блокирует существующих пользователей из списка до конца транзакции.
+     * Добавление подписки проверяет внешний ключ блокировкой FOR KEY SHARE, поэтому после блокировки
+     * пользователю не могут быть добавлены подписки. Строки блокируются в порядке идентификаторов,
+     * чтобы параллельные удаления не блокировали друг друга взаимно.
+     *
+     * @param ids идентификаторы пользователей
+     * @return идентификаторы существующих пользователей
+     */
+    @Query(value = "SELECT id FROM users WHERE id IN (:ids) ORDER BY id FOR UPDATE", nativeQuery = true)
+    List<Long> lockByIds(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Удаляет пользователей одним запросом и возвращает идентификаторы удаленных.
+     * Подписки пользователей удаляются базой данных каскадно (ON DELETE CASCADE),
+     * без загрузки коллекции подписок в контекст персистентности.
+     *
+     * @param ids идентификаторы пользователей
+     * @return идентификаторы удаленных пользователей; отсутствующие пользователи пропускаются
+     */
+    @Query(value = "DELETE FROM users WHERE id IN (:ids) RETURNING id", nativeQuery = true)
+    List<Long> deleteByIdsReturningIds(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Находит пользователя по ID и читает его сразу в DTO.
+     * Сущность не загружается в контекст персистентности.
+     * Найденные пользователи кэшируются; отсутствующие не кэшируются.
+     *
+     * @param id идентификатор пользователя
+     * @return данные пользователя, если он существует
+     */
+    @Cacheable(cacheNames = CacheConfig.USERS_CACHE, unless = "#result == null")
+    @Query("SELECT new com.subscriptionservice.dto.UserDTO(u.id, u.userName, u.email, u.updatedAt) " +
+           "FROM User u WHERE u.id = :id")
+    Optional<UserDTO> findDTOById(@Param("id") Long id);
+}
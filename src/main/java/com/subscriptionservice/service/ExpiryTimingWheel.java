@@ -0,0 +1,128 @@
+package com.subscriptionservice.service;
+
+import java.time.Duration;
+import java.util.Arrays;
+
+/**
+ * Колесо времени для подписок, ожидающих истечения.
+ * Время делится на такты фиксированной длины; слот кольцевого массива хранит идентификаторы
+ * подписок, истекающих в одном такте. Добавление и извлечение подписки выполняются за O(1),
+ * подписки дальше горизонта колеса и сверх допустимого количества не принимаются.
+ * Подписка извлекается в первом такте, начало которого не раньше момента ее истечения.
+ * Класс не потокобезопасен.
+ */
+final class ExpiryTimingWheel {
+    private static final long[] EMPTY = new long[0];
+
+    private final long tickMillis;
+    private final int capacity;
+    private final long[][] slots;
+    private final int[] slotSizes;
+
+    /**
+     * Первый такт, подписки которого еще не извлечены.
+     */
+    private long currentTick;
+    private int size;
+
+    /**
+     * Создает колесо времени.
+     *
+     * @param tick длительность такта
+     * @param horizon время вперед от текущего такта, в пределах которого принимаются подписки
+     * @param capacity максимальное количество подписок в колесе
+     * @param nowMillis текущий момент в миллисекундах
+     */
+    ExpiryTimingWheel(Duration tick, Duration horizon, int capacity, long nowMillis) {
+        this.tickMillis = tick.toMillis();
+        this.capacity = capacity;
+        int slotCount = Math.toIntExact(Math.ceilDiv(horizon.toMillis(), tickMillis) + 1);
+        this.slots = new long[slotCount][];
+        this.slotSizes = new int[slotCount];
+        Arrays.fill(slots, EMPTY);
+        this.currentTick = Math.floorDiv(nowMillis, tickMillis);
+    }
+
+    /**
+     * Добавляет подписку. Подписка с уже наступившим моментом истечения
+     * извлекается при ближайшем продвижении колеса.
+     *
+     * @param id идентификатор подписки
+     * @param expiresAtMillis момент истечения в миллисекундах
+     * @return false если колесо заполнено или момент истечения дальше горизонта
+     */
+    boolean add(long id, long expiresAtMillis) {
+        long tick = Math.max(Math.ceilDiv(expiresAtMillis, tickMillis), currentTick);
+        if (size >= capacity || tick >= currentTick + slots.length) {
+            return false;
+        }
+        int slot = (int) Math.floorMod(tick, (long) slots.length);
+        long[] ids = slots[slot];
+        int slotSize = slotSizes[slot];
+        if (slotSize == ids.length) {
+            ids = Arrays.copyOf(ids, Math.max(8, slotSize * 2));
+            slots[slot] = ids;
+        }
+        ids[slotSize] = id;
+        slotSizes[slot] = slotSize + 1;
+        size++;
+        return true;
+    }
+
+    /**
+     * Продвигает колесо до текущего момента и извлекает истекшие подписки.
+     *
+     * @param nowMillis текущий момент в миллисекундах
+     * @return идентификаторы истекших подписок
+     */
+    long[] advance(long nowMillis) {
+        long nowTick = Math.floorDiv(nowMillis, tickMillis);
+        if (nowTick < currentTick) {
+            return EMPTY;
+        }
+        long ticks = Math.min(nowTick - currentTick + 1, slots.length);
+        int dueCount = 0;
+        for (long i = 0; i < ticks; i++) {
+            dueCount += slotSizes[(int) Math.floorMod(currentTick + i, (long) slots.length)];
+        }
+        long[] due = new long[dueCount];
+        int position = 0;
+        for (long i = 0; i < ticks; i++) {
+            int slot = (int) Math.floorMod(currentTick + i, (long) slots.length);
+            System.arraycopy(slots[slot], 0, due, position, slotSizes[slot]);
+            position += slotSizes[slot];
+            slots[slot] = EMPTY;
+            slotSizes[slot] = 0;
+        }
+        size -= dueCount;
+        currentTick = nowTick + 1;
+        return due;
+    }
+
+    /**
+     * Возвращает самый поздний момент истечения, который колесо может принять сейчас.
+     *
+     * @return момент в миллисекундах
+     */
+    long horizonMillis() {
+        return (currentTick + slots.length - 1) * tickMillis;
+    }
+
+    /**
+     * Возвращает количество подписок, ожидающих истечения.
+     *
+     * @return количество подписок в колесе
+     */
+    int size() {
+        return size;
+    }
+
+    /**
+     * Возвращает количество подписок, которое колесо еще может принять.
+     *
+     * @return свободное место в колесе
+     */
+    int remainingCapacity() {
+        return capacity - size;
+    }
+}
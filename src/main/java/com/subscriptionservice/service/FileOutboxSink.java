@@ -0,0 +1,51 @@
+package com.subscriptionservice.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.subscriptionservice.config.OutboxProperties;
+import com.subscriptionservice.dto.OutboxEventDTO;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+/**
+ * Приемник, дописывающий события журнала изменений в файл в формате NDJSON.
+ * Предназначен для локальной проверки ленты изменений; включается параметром app.outbox.file-path.
+ */
+@Component
+@ConditionalOnProperty(prefix = "app.outbox", name = "file-path")
+public class FileOutboxSink implements OutboxSink {
+    private final Path file;
+    private final ObjectWriter writer;
+
+    public FileOutboxSink(OutboxProperties outboxProperties, ObjectMapper objectMapper) {
+        this.file = outboxProperties.getFilePath();
+        this.writer = objectMapper.writerFor(OutboxEventDTO.class);
+    }
+
+    @Override
+    public String name() {
+        return "file";
+    }
+
+    @Override
+    public void publish(List<OutboxEventDTO> events) throws IOException {
+        if (file.getParent() != null) {
+            Files.createDirectories(file.getParent());
+        }
+        try (Writer out = Files.newBufferedWriter(file, StandardCharsets.UTF_8,
+                StandardOpenOption.CREATE, StandardOpenOption.APPEND)) {
+            for (OutboxEventDTO event : events) {
+                out.write(writer.writeValueAsString(event));
+                out.write('\n');
+            }
+        }
+    }
+}
@@ -0,0 +1,475 @@
+package com.subscriptionservice.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.subscriptionservice.config.BatchProperties;
+import com.subscriptionservice.config.ImportProperties;
+import com.subscriptionservice.config.MetricsConfig;
+import com.subscriptionservice.dto.BatchItemResultDTO;
+import com.subscriptionservice.dto.ImportErrorDTO;
+import com.subscriptionservice.dto.ImportReportDTO;
+import com.subscriptionservice.dto.SubscriptionDTO;
+import com.subscriptionservice.dto.UserDTO;
+import com.subscriptionservice.exception.ResourceNotFoundException;
+import com.subscriptionservice.exception.ValidationException;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import io.micrometer.core.annotation.Timed;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Сервис потокового импорта пользователей и подписок из NDJSON или CSV.
+ * Входные данные читаются построчно прямо из тела запроса без буферизации целиком.
+ * Разбор и валидация выполняются в потоке запроса, сохранение - в отдельном потоке
+ * порциями, каждая в своей транзакции. Порции передаются через ограниченную очередь:
+ * если сохранение не успевает, чтение входных данных приостанавливается.
+ * Ошибка сохранения порции не прерывает импорт: строки порции отклоняются с текстом ошибки.
+ */
+@Slf4j
+@Service
+@Timed(value = MetricsConfig.SERVICE_TIMER, histogram = true)
+@RequiredArgsConstructor
+public class ImportService {
+    private static final MediaType NDJSON = MediaType.parseMediaType("application/x-ndjson");
+    private static final MediaType CSV = MediaType.parseMediaType("text/csv");
+
+    private final UserService userService;
+    private final SubscriptionBatchService subscriptionBatchService;
+    private final Validator validator;
+    private final ObjectMapper objectMapper;
+    private final ImportProperties importProperties;
+    private final BatchProperties batchProperties;
+    private final AsyncTaskExecutor applicationTaskExecutor;
+
+    private final Map<String, ImportJob> jobs = new ConcurrentHashMap<>();
+    private final Deque<String> finishedJobs = new ArrayDeque<>();
+
+    /**
+     * Импортирует пользователей.
+     * CSV должен содержать заголовок с колонками userName и email.
+     *
+     * @param body тело запроса
+     * @param contentType тип содержимого: application/x-ndjson или text/csv
+     * @return отчет о результате импорта
+     * @throws ValidationException если формат входных данных не поддерживается
+     */
+    public ImportReportDTO importUsers(InputStream body, String contentType) {
+        return runImport("users", body, contentType, UserDTO.class, this::userFromCsv,
+                userService::createUsers, importProperties.getChunkSize());
+    }
+
+    /**
+     * Импортирует подписки.
+     * CSV должен содержать заголовок с колонками userId, serviceName, startDate и endDate.
+     *
+     * @param body тело запроса
+     * @param contentType тип содержимого: application/x-ndjson или text/csv
+     * @return отчет о результате импорта
+     * @throws ValidationException если формат входных данных не поддерживается
+     */
+    public ImportReportDTO importSubscriptions(InputStream body, String contentType) {
+        int chunkSize = Math.min(importProperties.getChunkSize(), batchProperties.getMaxSize());
+        return runImport("subscriptions", body, contentType, SubscriptionDTO.class, this::subscriptionFromCsv,
+                subscriptionBatchService::addSubscriptions, chunkSize);
+    }
+
+    /**
+     * Возвращает отчеты выполняющихся и недавно завершенных импортов.
+     *
+     * @return список отчетов
+     */
+    public List<ImportReportDTO> getImports() {
+        return jobs.values().stream()
+                .map(ImportJob::toReport)
+                .sorted((a, b) -> b.getStartedAt().compareTo(a.getStartedAt()))
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Возвращает отчет об импорте.
+     *
+     * @param id идентификатор импорта
+     * @return отчет о ходе или результате импорта
+     * @throws ResourceNotFoundException если импорт не найден
+     */
+    public ImportReportDTO getImport(String id) {
+        ImportJob job = jobs.get(id);
+        if (job == null) {
+            throw new ResourceNotFoundException("Импорт с ID " + id + " не найден");
+        }
+        return job.toReport();
+    }
+
+    private <T> ImportReportDTO runImport(String type, InputStream body, String contentType, Class<T> recordType,
+                                          CsvMapper<T> csvMapper, Function<List<T>, List<BatchItemResultDTO>> writer,
+                                          int chunkSize) {
+        MediaType format = resolveFormat(contentType);
+        ImportJob job = new ImportJob(type, importProperties.getMaxErrors());
+        jobs.put(job.id, job);
+        log.info("Начало импорта {} с ID: {}, формат: {}", type, job.id, format);
+
+        BlockingQueue<Chunk<T>> queue = new ArrayBlockingQueue<>(importProperties.getQueueCapacity());
+        Future<?> writerTask = applicationTaskExecutor.submit(() -> writeChunks(job, queue, writer));
+        try {
+            BufferedReader reader = new BufferedReader(new InputStreamReader(body, StandardCharsets.UTF_8));
+            RecordParser<T> parser = format.equalsTypeAndSubtype(CSV)
+                    ? csvParser(reader, csvMapper)
+                    : ndjsonParser(objectMapper.readerFor(recordType));
+
+            List<Line<T>> records = new ArrayList<>(chunkSize);
+            String line;
+            long lineNumber = parser.headerLines();
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                if (line.isBlank()) {
+                    continue;
+                }
+                job.processed.incrementAndGet();
+                T record;
+                try {
+                    record = parser.parse(line);
+                } catch (JsonProcessingException ex) {
+                    job.fail(lineNumber, "Некорректный формат строки: " + ex.getOriginalMessage());
+                    continue;
+                } catch (Exception ex) {
+                    job.fail(lineNumber, "Некорректный формат строки: " + ex.getMessage());
+                    continue;
+                }
+                String error = validate(record);
+                if (error != null) {
+                    job.fail(lineNumber, error);
+                    continue;
+                }
+                records.add(new Line<>(lineNumber, record));
+                if (records.size() == chunkSize) {
+                    enqueue(queue, new Chunk<>(records, false), writerTask);
+                    records = new ArrayList<>(chunkSize);
+                }
+            }
+            enqueue(queue, new Chunk<>(records, true), writerTask);
+            writerTask.get();
+            job.finish(ImportReportDTO.Status.COMPLETED);
+        } catch (IOException ex) {
+            abort(job, queue, writerTask);
+            throw new UncheckedIOException("Ошибка чтения данных импорта", ex);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            abort(job, queue, writerTask);
+            throw new IllegalStateException("Импорт прерван", ex);
+        } catch (ExecutionException ex) {
+            job.finish(ImportReportDTO.Status.FAILED);
+            throw new IllegalStateException("Ошибка сохранения данных импорта", ex.getCause());
+        } catch (RuntimeException ex) {
+            abort(job, queue, writerTask);
+            throw ex;
+        } finally {
+            rememberFinished(job);
+        }
+
+        ImportReportDTO report = job.toReport();
+        log.info("Импорт {} завершен: прочитано {}, сохранено {}, отклонено {}, длительность {} мс",
+                job.id, report.getProcessed(), report.getImported(), report.getFailed(), report.getDurationMs());
+        return report;
+    }
+
+    private <T> void writeChunks(ImportJob job, BlockingQueue<Chunk<T>> queue,
+                                 Function<List<T>, List<BatchItemResultDTO>> writer) {
+        try {
+            while (true) {
+                Chunk<T> chunk = queue.take();
+                if (!chunk.lines().isEmpty()) {
+                    writeChunk(job, chunk, writer);
+                    log.debug("Импорт {}: сохранено {}, отклонено {}", job.id, job.imported.get(), job.failed.get());
+                }
+                if (chunk.last()) {
+                    return;
+                }
+            }
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Сохранение данных импорта прервано", ex);
+        }
+    }
+
+    private <T> void writeChunk(ImportJob job, Chunk<T> chunk, Function<List<T>, List<BatchItemResultDTO>> writer) {
+        List<T> records = new ArrayList<>(chunk.lines().size());
+        for (Line<T> line : chunk.lines()) {
+            records.add(line.record());
+        }
+        List<BatchItemResultDTO> results;
+        try {
+            results = writer.apply(records);
+        } catch (RuntimeException ex) {
+            if (Thread.currentThread().isInterrupted()) {
+                throw ex;
+            }
+            log.warn("Импорт {}: не удалось сохранить строки {}-{}: {}", job.id, chunk.lines().get(0).number(),
+                    chunk.lines().get(chunk.lines().size() - 1).number(), ex.getMessage());
+            String error = "Ошибка сохранения: " + ex.getMessage();
+            for (Line<T> line : chunk.lines()) {
+                job.fail(line.number(), error);
+            }
+            return;
+        }
+        for (int i = 0; i < results.size(); i++) {
+            BatchItemResultDTO result = results.get(i);
+            if (result.getStatus() == BatchItemResultDTO.Status.CREATED) {
+                job.imported.incrementAndGet();
+            } else {
+                job.fail(chunk.lines().get(i).number(), result.getError());
+            }
+        }
+    }
+
+    private <T> void enqueue(BlockingQueue<Chunk<T>> queue, Chunk<T> chunk, Future<?> writerTask)
+            throws InterruptedException, ExecutionException {
+        while (!queue.offer(chunk, 100, TimeUnit.MILLISECONDS)) {
+            if (writerTask.isDone()) {
+                writerTask.get();
+                throw new IllegalStateException("Сохранение данных импорта остановлено");
+            }
+        }
+    }
+
+    private <T> void abort(ImportJob job, BlockingQueue<Chunk<T>> queue, Future<?> writerTask) {
+        job.finish(ImportReportDTO.Status.FAILED);
+        if (!writerTask.isDone() && !queue.offer(new Chunk<>(List.of(), true))) {
+            writerTask.cancel(true);
+        }
+    }
+
+    private synchronized void rememberFinished(ImportJob job) {
+        finishedJobs.addLast(job.id);
+        while (finishedJobs.size() > importProperties.getHistorySize()) {
+            jobs.remove(finishedJobs.removeFirst());
+        }
+    }
+
+    private String validate(Object record) {
+        Set<ConstraintViolation<Object>> violations = validator.validate(record);
+        if (violations.isEmpty()) {
+            return null;
+        }
+        return violations.stream()
+                .map(ConstraintViolation::getMessage)
+                .sorted()
+                .collect(Collectors.joining("; "));
+    }
+
+    private static MediaType resolveFormat(String contentType) {
+        try {
+            if (contentType != null) {
+                MediaType mediaType = MediaType.parseMediaType(contentType);
+                if (mediaType.equalsTypeAndSubtype(NDJSON) || mediaType.equalsTypeAndSubtype(CSV)) {
+                    return mediaType;
+                }
+            }
+        } catch (InvalidMediaTypeException ex) {
+            // обрабатывается ниже как неподдерживаемый формат
+        }
+        throw new ValidationException("Поддерживаются только форматы application/x-ndjson и text/csv");
+    }
+
+    private static <T> RecordParser<T> ndjsonParser(ObjectReader reader) {
+        return new RecordParser<>() {
+            @Override
+            public T parse(String line) throws IOException {
+                return reader.readValue(line);
+            }
+
+            @Override
+            public long headerLines() {
+                return 0;
+            }
+        };
+    }
+
+    private static <T> RecordParser<T> csvParser(BufferedReader reader, CsvMapper<T> mapper) throws IOException {
+        String headerLine = reader.readLine();
+        if (headerLine == null) {
+            throw new ValidationException("CSV должен содержать строку заголовка");
+        }
+        Map<String, Integer> columns = new HashMap<>();
+        List<String> header = splitCsvLine(headerLine);
+        for (int i = 0; i < header.size(); i++) {
+            columns.put(header.get(i).trim(), i);
+        }
+        return new RecordParser<>() {
+            @Override
+            public T parse(String line) {
+                List<String> values = splitCsvLine(line);
+                return mapper.map(column -> {
+                    Integer index = columns.get(column);
+                    if (index == null || index >= values.size() || values.get(index).isEmpty()) {
+                        return null;
+                    }
+                    return values.get(index);
+                });
+            }
+
+            @Override
+            public long headerLines() {
+                return 1;
+            }
+        };
+    }
+
+    /**
+     * Разбивает строку CSV на значения по правилам RFC 4180.
+     * Значения в двойных кавычках могут содержать запятые и экранированные кавычки.
+     */
+    static List<String> splitCsvLine(String line) {
+        List<String> values = new ArrayList<>();
+        StringBuilder value = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    value.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    value.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                values.add(value.toString());
+                value.setLength(0);
+            } else {
+                value.append(c);
+            }
+        }
+        if (quoted) {
+            throw new IllegalArgumentException("незакрытая кавычка");
+        }
+        values.add(value.toString());
+        return values;
+    }
+
+    private UserDTO userFromCsv(Function<String, String> columns) {
+        UserDTO dto = new UserDTO();
+        dto.setUserName(columns.apply("userName"));
+        dto.setEmail(columns.apply("email"));
+        return dto;
+    }
+
+    private SubscriptionDTO subscriptionFromCsv(Function<String, String> columns) {
+        SubscriptionDTO dto = new SubscriptionDTO();
+        String userId = columns.apply("userId");
+        String startDate = columns.apply("startDate");
+        String endDate = columns.apply("endDate");
+        dto.setUserId(userId == null ? null : Long.valueOf(userId.trim()));
+        dto.setServiceName(columns.apply("serviceName"));
+        dto.setStartDate(startDate == null ? null : LocalDateTime.parse(startDate.trim()));
+        dto.setEndDate(endDate == null ? null : LocalDateTime.parse(endDate.trim()));
+        return dto;
+    }
+
+    private interface RecordParser<T> {
+        T parse(String line) throws Exception;
+
+        long headerLines();
+    }
+
+    @FunctionalInterface
+    private interface CsvMapper<T> {
+        T map(Function<String, String> columns);
+    }
+
+    private record Line<T>(long number, T record) {
+    }
+
+    private record Chunk<T>(List<Line<T>> lines, boolean last) {
+    }
+
+    /**
+     * Состояние выполняющегося импорта.
+     */
+    private static final class ImportJob {
+        private final String id = UUID.randomUUID().toString();
+        private final String type;
+        private final int maxErrors;
+        private final LocalDateTime startedAt = LocalDateTime.now();
+        private final long startNanos = System.nanoTime();
+        private final AtomicLong processed = new AtomicLong();
+        private final AtomicLong imported = new AtomicLong();
+        private final AtomicLong failed = new AtomicLong();
+        private final List<ImportErrorDTO> errors = new ArrayList<>();
+        private volatile ImportReportDTO.Status status = ImportReportDTO.Status.RUNNING;
+        private volatile long durationMs = -1;
+
+        private ImportJob(String type, int maxErrors) {
+            this.type = type;
+            this.maxErrors = maxErrors;
+        }
+
+        private void fail(long line, String error) {
+            failed.incrementAndGet();
+            synchronized (errors) {
+                if (errors.size() < maxErrors) {
+                    errors.add(new ImportErrorDTO(line, error));
+                }
+            }
+        }
+
+        private void finish(ImportReportDTO.Status finalStatus) {
+            if (status == ImportReportDTO.Status.RUNNING) {
+                durationMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos);
+                status = finalStatus;
+            }
+        }
+
+        private ImportReportDTO toReport() {
+            ImportReportDTO report = new ImportReportDTO();
+            report.setId(id);
+            report.setType(type);
+            report.setStatus(status);
+            report.setStartedAt(startedAt);
+            report.setDurationMs(durationMs >= 0
+                    ? durationMs
+                    : TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos));
+            report.setProcessed(processed.get());
+            report.setImported(imported.get());
+            report.setFailed(failed.get());
+            synchronized (errors) {
+                report.setErrors(List.copyOf(errors));
+            }
+            report.setErrorsTruncated(failed.get() > report.getErrors().size());
+            return report;
+        }
+    }
+}
@@ -0,0 +1,191 @@
+package com.subscriptionservice.service;
+
+import com.subscriptionservice.config.OutboxProperties;
+import com.subscriptionservice.config.ReactiveConfig;
+import com.subscriptionservice.dto.OutboxEventDTO;
+import com.subscriptionservice.event.OutboxAdvancedEvent;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.Profile;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.async.DeferredResult;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * Лента изменений для внешних потребителей: длинный опрос и поток Server-Sent Events.
+ * События читаются из журнала по позиции, сохраненной потребителем. Потребитель, получивший
+ * все события, ожидает без занятого потока: ретранслятор публикует {@link OutboxAdvancedEvent},
+ * после чего ожидающие потребители перечитывают журнал в пуле задач приложения.
+ */
+@Slf4j
+@Component
+@Profile("!" + ReactiveConfig.PROFILE)
+@RequiredArgsConstructor
+public class OutboxFeed {
+    private final OutboxService outboxService;
+    private final OutboxProperties outboxProperties;
+    private final AsyncTaskExecutor applicationTaskExecutor;
+
+    private final Queue<Waiter> waiters = new ConcurrentLinkedQueue<>();
+
+    /**
+     * Возвращает события после заданной позиции, а если их нет - ожидает новых событий
+     * не дольше заданного времени.
+     *
+     * @param after позиция последнего обработанного события
+     * @param limit максимальное количество событий
+     * @param wait время ожидания или null для максимального
+     * @return события; пустой список, если за время ожидания событий не появилось
+     */
+    public DeferredResult<List<OutboxEventDTO>> poll(long after, int limit, Duration wait) {
+        Duration maxWait = outboxProperties.getMaxWait();
+        Duration timeout = wait == null || wait.compareTo(maxWait) > 0 ? maxWait : wait;
+        DeferredResult<List<OutboxEventDTO>> result = new DeferredResult<>(Math.max(timeout.toMillis(), 1), List.of());
+        Waiter waiter = new Waiter(after, limit) {
+            @Override
+            boolean isDone() {
+                return result.isSetOrExpired();
+            }
+
+            @Override
+            void deliver(List<OutboxEventDTO> events) {
+                result.setResult(events);
+            }
+        };
+        result.onCompletion(() -> waiters.remove(waiter));
+        if (timeout.isZero() || timeout.isNegative()) {
+            result.setResult(outboxService.getEvents(after, limit));
+        } else {
+            check(waiter);
+        }
+        return result;
+    }
+
+    /**
+     * Открывает поток событий после заданной позиции.
+     * Идентификатор каждого события потока равен его позиции, поэтому после переподключения
+     * клиент продолжает чтение с позиции из заголовка Last-Event-ID.
+     *
+     * @param after позиция последнего обработанного события
+     * @return поток событий
+     */
+    public SseEmitter stream(long after) {
+        SseEmitter emitter = new SseEmitter();
+        int limit = outboxProperties.getMaxLimit();
+        Waiter waiter = new Waiter(after, limit) {
+            private volatile boolean closed;
+
+            @Override
+            boolean isDone() {
+                return closed;
+            }
+
+            @Override
+            void deliver(List<OutboxEventDTO> events) {
+                try {
+                    for (OutboxEventDTO event : events) {
+                        emitter.send(SseEmitter.event()
+                                .id(String.valueOf(event.getPosition()))
+                                .name(event.getType().name())
+                                .data(event));
+                    }
+                } catch (IOException | IllegalStateException ex) {
+                    closed = true;
+                    log.debug("Поток ленты изменений закрыт клиентом: {}", ex.getMessage());
+                    return;
+                }
+                after = events.get(events.size() - 1).getPosition();
+                applicationTaskExecutor.execute(() -> check(this));
+            }
+
+            @Override
+            void close() {
+                closed = true;
+            }
+        };
+        Runnable close = () -> {
+            waiter.close();
+            waiters.remove(waiter);
+        };
+        emitter.onCompletion(close);
+        emitter.onTimeout(close);
+        emitter.onError(error -> close.run());
+        applicationTaskExecutor.execute(() -> check(waiter));
+        return emitter;
+    }
+
+    /**
+     * Будит потребителей, ожидающих новых событий.
+     *
+     * @param event событие появления новых событий журнала
+     */
+    @EventListener
+    public void onAdvanced(OutboxAdvancedEvent event) {
+        Waiter waiter;
+        while ((waiter = waiters.poll()) != null) {
+            if (!waiter.isDone()) {
+                Waiter awakened = waiter;
+                applicationTaskExecutor.execute(() -> check(awakened));
+            }
+        }
+    }
+
+    /**
+     * Количество потребителей, ожидающих новых событий.
+     *
+     * @return количество ожидающих потребителей
+     */
+    int waitingCount() {
+        return waiters.size();
+    }
+
+    /**
+     * Передает потребителю события после его позиции или ставит его в очередь ожидания.
+     * Потребитель ставится в очередь до чтения журнала, поэтому события, получившие позицию
+     * между чтением и постановкой в очередь, не теряются.
+     */
+    private void check(Waiter waiter) {
+        if (waiter.isDone()) {
+            return;
+        }
+        waiters.add(waiter);
+        List<OutboxEventDTO> events;
+        try {
+            events = outboxService.getEvents(waiter.after, waiter.limit);
+        } catch (RuntimeException ex) {
+            log.error("Не удалось прочитать события журнала изменений", ex);
+            return;
+        }
+        if (!events.isEmpty() && waiters.remove(waiter)) {
+            waiter.deliver(events);
+        }
+    }
+
+    /**
+     * Потребитель, ожидающий событий после своей позиции.
+     */
+    private abstract static class Waiter {
+        protected volatile long after;
+        protected final int limit;
+
+        Waiter(long after, int limit) {
+            this.after = after;
+            this.limit = limit;
+        }
+
+        abstract boolean isDone();
+
+        abstract void deliver(List<OutboxEventDTO> events);
+
+        void close() {
+        }
+    }
+}
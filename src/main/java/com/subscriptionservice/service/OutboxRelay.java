@@ -0,0 +1,96 @@
+package com.subscriptionservice.service;
+
+import com.subscriptionservice.config.OutboxProperties;
+import com.subscriptionservice.dto.OutboxEventDTO;
+import com.subscriptionservice.event.OutboxAdvancedEvent;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Ретранслятор журнала изменений.
+ * Периодически назначает позиции новым зафиксированным событиям, будит ожидающих
+ * потребителей ленты изменений и передает события пакетами всем приемникам {@link OutboxSink}.
+ * Позиция каждого приемника сохраняется в базе данных после успешной передачи пакета.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class OutboxRelay {
+    private final OutboxService outboxService;
+    private final List<OutboxSink> sinks;
+    private final OutboxProperties outboxProperties;
+    private final ApplicationEventPublisher eventPublisher;
+
+    private long advancedPosition = -1;
+
+    /**
+     * Назначает позиции новым событиям и передает их приемникам.
+     */
+    @Scheduled(fixedDelayString = "${app.outbox.poll-interval:PT1S}")
+    public void relay() {
+        int batchSize = outboxProperties.getBatchSize();
+        long latestPosition;
+        try {
+            int assigned;
+            do {
+                assigned = outboxService.assignPositions(batchSize);
+            } while (assigned == batchSize);
+            latestPosition = outboxService.getLatestPosition();
+        } catch (RuntimeException ex) {
+            log.error("Не удалось назначить позиции событиям журнала изменений", ex);
+            return;
+        }
+
+        if (latestPosition != advancedPosition) {
+            advancedPosition = latestPosition;
+            eventPublisher.publishEvent(new OutboxAdvancedEvent(latestPosition));
+        }
+        for (OutboxSink sink : sinks) {
+            publish(sink, latestPosition);
+        }
+    }
+
+    /**
+     * Удаляет из журнала события, срок хранения которых истек.
+     */
+    @Scheduled(fixedDelayString = "PT1H", initialDelayString = "PT1H")
+    public void deleteExpired() {
+        int batchSize = outboxProperties.getBatchSize();
+        long deleted = 0;
+        try {
+            int count;
+            do {
+                count = outboxService.deleteExpired(batchSize);
+                deleted += count;
+            } while (count == batchSize);
+        } catch (RuntimeException ex) {
+            log.error("Не удалось удалить устаревшие события журнала изменений", ex);
+        }
+        if (deleted > 0) {
+            log.info("Удалено устаревших событий журнала изменений: {}", deleted);
+        }
+    }
+
+    private void publish(OutboxSink sink, long latestPosition) {
+        try {
+            long offset = outboxService.getSinkOffset(sink.name());
+            while (offset < latestPosition) {
+                List<OutboxEventDTO> events = outboxService.getEvents(offset, outboxProperties.getBatchSize());
+                if (events.isEmpty()) {
+                    return;
+                }
+                sink.publish(events);
+                offset = events.get(events.size() - 1).getPosition();
+                outboxService.commitSinkOffset(sink.name(), offset);
+            }
+        } catch (Exception ex) {
+            // Пакет будет передан повторно при следующей проверке
+            log.error("Не удалось передать события журнала изменений приемнику {}", sink.name(), ex);
+        }
+    }
+}
@@ -0,0 +1,202 @@
+package com.subscriptionservice.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.subscriptionservice.config.OutboxProperties;
+import com.subscriptionservice.config.PrimaryRead;
+import com.subscriptionservice.dto.OutboxEventDTO;
+import com.subscriptionservice.exception.ValidationException;
+import com.subscriptionservice.model.OutboxEvent;
+import com.subscriptionservice.model.OutboxEventType;
+import com.subscriptionservice.repository.OutboxEventRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.regex.Pattern;
+
+/**
+ * Сервис журнала изменений (transactional outbox).
+ * Записывает события изменений пользователей и подписок в транзакции изменения,
+ * назначает событиям позиции после фиксации и читает события для потребителей.
+ * Журнал и позиции читаются на основном сервере, а не на репликах: ретранслятор и потребители
+ * продолжают с только что сохраненных позиций, и отставшая реплика вернула бы уже переданные события.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class OutboxService {
+    /**
+     * Ключ рекомендательной блокировки PostgreSQL, под которой назначаются позиции.
+     */
+    static final long SEQUENCER_LOCK_KEY = 0x6f7574626f78L;
+
+    private static final Pattern CONSUMER_NAME = Pattern.compile("[A-Za-z0-9_.-]{1,64}");
+    private static final String SINK_PREFIX = "sink:";
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final OutboxProperties outboxProperties;
+    private final ObjectMapper objectMapper;
+
+    /**
+     * Записывает событие в журнал. Должен вызываться внутри транзакции изменения,
+     * чтобы событие было зафиксировано или отменено вместе с ним.
+     *
+     * @param type тип события
+     * @param aggregateId идентификатор измененного объекта
+     * @param payload данные объекта, сериализуемые в JSON
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void record(OutboxEventType type, Long aggregateId, Object payload) {
+        OutboxEvent event = new OutboxEvent();
+        event.setAggregateType(type.getAggregateType());
+        event.setAggregateId(aggregateId);
+        event.setEventType(type);
+        event.setPayload(toJson(payload));
+        event.setCreatedAt(LocalDateTime.now());
+        outboxEventRepository.save(event);
+    }
+
+    /**
+     * Назначает позиции зафиксированным событиям без позиции.
+     * Если позиции назначает другой экземпляр приложения, ничего не делает.
+     *
+     * @param limit максимальное количество событий
+     * @return количество событий, получивших позицию
+     */
+    @Transactional
+    public int assignPositions(int limit) {
+        if (!outboxEventRepository.tryLockSequencer(SEQUENCER_LOCK_KEY)) {
+            return 0;
+        }
+        return outboxEventRepository.assignPositions(limit);
+    }
+
+    /**
+     * Возвращает позицию последнего события журнала.
+     *
+     * @return позиция или 0, если журнал пуст
+     */
+    @PrimaryRead
+    @Transactional(readOnly = true)
+    public long getLatestPosition() {
+        return outboxEventRepository.findLatestPosition();
+    }
+
+    /**
+     * Читает события после заданной позиции.
+     *
+     * @param after позиция последнего обработанного события
+     * @param limit максимальное количество событий
+     * @return события в порядке возрастания позиций
+     */
+    @PrimaryRead
+    @Transactional(readOnly = true)
+    public List<OutboxEventDTO> getEvents(long after, int limit) {
+        return outboxEventRepository.findAfterPosition(after, PageRequest.of(0, limit));
+    }
+
+    /**
+     * Возвращает сохраненную позицию потребителя ленты изменений.
+     *
+     * @param consumer имя потребителя
+     * @return позиция последнего обработанного события или 0
+     * @throws ValidationException если имя потребителя некорректно
+     */
+    @PrimaryRead
+    @Transactional(readOnly = true)
+    public long getOffset(String consumer) {
+        checkConsumerName(consumer);
+        return outboxEventRepository.findOffset(consumer).orElse(0L);
+    }
+
+    /**
+     * Сохраняет позицию потребителя ленты изменений.
+     * Позиция может быть уменьшена, чтобы повторно получить события.
+     *
+     * @param consumer имя потребителя
+     * @param position позиция последнего обработанного события
+     * @throws ValidationException если имя потребителя или позиция некорректны
+     */
+    @Transactional
+    public void commitOffset(String consumer, long position) {
+        checkConsumerName(consumer);
+        if (position < 0) {
+            throw new ValidationException("Позиция не может быть отрицательной");
+        }
+        outboxEventRepository.saveOffset(consumer, position, LocalDateTime.now());
+        log.debug("Позиция потребителя {} сохранена: {}", consumer, position);
+    }
+
+    /**
+     * Возвращает сохраненную позицию приемника ретранслятора.
+     *
+     * @param sink имя приемника
+     * @return позиция последнего переданного события или 0
+     */
+    @PrimaryRead
+    @Transactional(readOnly = true)
+    public long getSinkOffset(String sink) {
+        return outboxEventRepository.findOffset(SINK_PREFIX + sink).orElse(0L);
+    }
+
+    /**
+     * Сохраняет позицию приемника ретранслятора.
+     *
+     * @param sink имя приемника
+     * @param position позиция последнего переданного события
+     */
+    @Transactional
+    public void commitSinkOffset(String sink, long position) {
+        outboxEventRepository.saveOffset(SINK_PREFIX + sink, position, LocalDateTime.now());
+    }
+
+    /**
+     * Удаляет события, срок хранения которых истек.
+     *
+     * @param limit максимальное количество событий
+     * @return количество удаленных событий
+     */
+    @Transactional
+    public int deleteExpired(int limit) {
+        return outboxEventRepository.deleteSequencedBefore(
+                LocalDateTime.now().minus(outboxProperties.getRetention()), limit);
+    }
+
+    /**
+     * Проверяет количество событий, запрошенное потребителем.
+     *
+     * @param limit количество событий или null для значения по умолчанию
+     * @return количество событий
+     * @throws ValidationException если количество вне допустимого диапазона
+     */
+    public int resolveLimit(Integer limit) {
+        if (limit == null) {
+            return outboxProperties.getDefaultLimit();
+        }
+        if (limit < 1 || limit > outboxProperties.getMaxLimit()) {
+            throw new ValidationException("Параметр limit должен быть от 1 до " + outboxProperties.getMaxLimit());
+        }
+        return limit;
+    }
+
+    private static void checkConsumerName(String consumer) {
+        if (consumer == null || !CONSUMER_NAME.matcher(consumer).matches()) {
+            throw new ValidationException(
+                    "Имя потребителя должно состоять из 1-64 латинских букв, цифр и символов '_', '.', '-'");
+        }
+    }
+
+    private String toJson(Object payload) {
+        try {
+            return objectMapper.writeValueAsString(payload);
+        } catch (JsonProcessingException ex) {
+            throw new IllegalStateException("Не удалось сериализовать событие журнала изменений", ex);
+        }
+    }
+}
@@ -0,0 +1,29 @@
+package com.subscriptionservice.service;
+
+import com.subscriptionservice.dto.OutboxEventDTO;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Приемник событий журнала изменений.
+ * Ретранслятор передает приемнику события пакетами в порядке позиций и сохраняет позицию
+ * приемника после успешной передачи. При ошибке пакет передается повторно, поэтому приемник
+ * должен учитывать, что событие может прийти более одного раза (доставка at-least-once).
+ */
+public interface OutboxSink {
+    /**
+     * Возвращает имя приемника, под которым сохраняется его позиция.
+     *
+     * @return имя приемника
+     */
+    String name();
+
+    /**
+     * Передает пакет событий.
+     *
+     * @param events события в порядке возрастания позиций
+     * @throws IOException если события не удалось передать
+     */
+    void publish(List<OutboxEventDTO> events) throws IOException;
+}
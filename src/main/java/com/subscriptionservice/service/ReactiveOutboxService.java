@@ -0,0 +1,50 @@
+package com.subscriptionservice.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.subscriptionservice.config.ReactiveConfig;
+import com.subscriptionservice.model.OutboxEventType;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Profile;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDateTime;
+
+/**
+ * Реактивная запись событий журнала изменений (профиль reactive).
+ * Событие записывается через R2DBC в транзакции изменения; позиции событиям назначает
+ * общий ретранслятор {@link OutboxRelay}.
+ */
+@Service
+@Profile(ReactiveConfig.PROFILE)
+@RequiredArgsConstructor
+public class ReactiveOutboxService {
+    private static final String INSERT_EVENT =
+            "INSERT INTO outbox_events (aggregate_type, aggregate_id, event_type, payload, created_at) " +
+            "VALUES (:aggregateType, :aggregateId, :eventType, :payload, :createdAt)";
+
+    private final DatabaseClient databaseClient;
+    private final ObjectMapper objectMapper;
+
+    /**
+     * Записывает событие в журнал. Должен выполняться внутри транзакции изменения.
+     *
+     * @param type тип события
+     * @param aggregateId идентификатор измененного объекта
+     * @param payload данные объекта, сериализуемые в JSON
+     * @return завершение после записи
+     */
+    public Mono<Void> record(OutboxEventType type, Long aggregateId, Object payload) {
+        return Mono.fromCallable(() -> objectMapper.writeValueAsString(payload))
+                .flatMap(json -> databaseClient.sql(INSERT_EVENT)
+                        .bind("aggregateType", type.getAggregateType())
+                        .bind("aggregateId", aggregateId)
+                        .bind("eventType", type.name())
+                        .bind("payload", json)
+                        .bind("createdAt", LocalDateTime.now())
+                        .fetch()
+                        .rowsUpdated())
+                .then();
+    }
+}
@@ -0,0 +1,217 @@
+package com.subscriptionservice.service;
+
+import com.subscriptionservice.config.PaginationProperties;
+import com.subscriptionservice.config.ReactiveConfig;
+import com.subscriptionservice.config.TopSubscriptionsProperties;
+import com.subscriptionservice.dto.SubscriptionDTO;
+import com.subscriptionservice.dto.SubscriptionPageDTO;
+import com.subscriptionservice.dto.TopSubscriptionDTO;
+import com.subscriptionservice.event.SubscriptionsChangedEvent;
+import com.subscriptionservice.exception.ResourceNotFoundException;
+import com.subscriptionservice.exception.ValidationException;
+import com.subscriptionservice.mapper.SubscriptionMapper;
+import com.subscriptionservice.model.OutboxEventType;
+import com.subscriptionservice.model.SubscriptionRow;
+import com.subscriptionservice.repository.ReactiveSubscriptionRepository;
+import io.r2dbc.postgresql.api.PostgresqlException;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.Profile;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Реактивный сервис подписок пользователей (профиль reactive).
+ * Повторяет правила {@link SubscriptionService}, но работает с базой данных через R2DBC
+ * и не блокирует потоки обработки запросов. Рейтинг популярных подписок обновляется
+ * напрямую после фиксации изменений, так как события {@code @TransactionalEventListener}
+ * не доставляются вне транзакций JPA.
+ */
+@Slf4j
+@Service
+@Profile(ReactiveConfig.PROFILE)
+@RequiredArgsConstructor
+public class ReactiveSubscriptionService {
+    private final ReactiveSubscriptionRepository subscriptionRepository;
+    private final SubscriptionLeaderboard subscriptionLeaderboard;
+    private final TopSubscriptionsProperties topSubscriptionsProperties;
+    private final PaginationProperties paginationProperties;
+    private final TransactionalOperator transactionalOperator;
+    private final ReactiveOutboxService outboxService;
+    private final ServiceDictionary serviceDictionary;
+    private final SubscriptionMapper subscriptionMapper;
+
+    /**
+     * Добавляет новую подписку для пользователя.
+     * Уникальность подписки и существование пользователя проверяются базой данных при вставке.
+     *
+     * @param userId идентификатор пользователя
+     * @param subscriptionDTO данные новой подписки
+     * @return созданная подписка; ошибка ValidationException, если дата окончания раньше даты начала
+     *         или у пользователя уже есть подписка на сервис, ResourceNotFoundException, если пользователь не найден
+     */
+    public Mono<SubscriptionDTO> addSubscription(Long userId, SubscriptionDTO subscriptionDTO) {
+        if (log.isDebugEnabled()) {
+            log.debug("Добавление подписки {} для пользователя с ID: {}", subscriptionDTO.getServiceName(), userId);
+        }
+        if (subscriptionDTO.getEndDate().isBefore(subscriptionDTO.getStartDate())) {
+            log.warn("Попытка добавления подписки с некорректными датами для пользователя с ID: {}", userId);
+            return Mono.error(new ValidationException("Дата окончания подписки должна быть позже даты начала"));
+        }
+
+        SubscriptionRow subscription = new SubscriptionRow();
+        subscription.setStartDate(subscriptionDTO.getStartDate());
+        subscription.setEndDate(subscriptionDTO.getEndDate());
+        subscription.setUserId(userId);
+        return serviceDictionary.resolveId(subscriptionDTO.getServiceName())
+                .flatMap(serviceId -> {
+                    subscription.setServiceId(serviceId);
+                    return subscriptionRepository.save(subscription);
+                })
+                .map(subscriptionMapper::toDTO)
+                .flatMap(created -> outboxService.record(OutboxEventType.SUBSCRIPTION_CREATED, created.getId(), created)
+                        .thenReturn(created))
+                .as(transactionalOperator::transactional)
+                .onErrorMap(DataIntegrityViolationException.class,
+                        ex -> translateConstraintViolation(ex, userId, subscriptionDTO.getServiceName()))
+                .doOnSuccess(saved -> {
+                    subscriptionLeaderboard.onSubscriptionsChanged(
+                            SubscriptionsChangedEvent.added(saved.getServiceName()));
+                    log.info("Подписка успешно добавлена с ID: {}", saved.getId());
+                });
+    }
+
+    /**
+     * Получает страницу подписок пользователя.
+     * Подписки упорядочены по возрастанию идентификаторов; следующая страница запрашивается
+     * с токеном продолжения из предыдущей страницы.
+     *
+     * @param userId идентификатор пользователя
+     * @param after токен продолжения или null для первой страницы
+     * @param limit размер страницы или null для размера по умолчанию
+     * @return страница подписок пользователя; ошибка ValidationException, если размер страницы
+     *         или токен продолжения некорректны
+     */
+    public Mono<SubscriptionPageDTO> getUserSubscriptions(Long userId, String after, Integer limit) {
+        return Mono.defer(() -> {
+            int pageSize = SubscriptionService.resolvePageSize(limit, paginationProperties);
+            long afterId = after == null ? 0 : SubscriptionService.decodeCursor(userId, after);
+            if (log.isDebugEnabled()) {
+                log.debug("Получение подписок для пользователя с ID: {} после подписки с ID: {}", userId, afterId);
+            }
+            return subscriptionRepository.findPageByUserId(userId, afterId, pageSize + 1)
+                    .collectList()
+                    .flatMap(rows -> serviceDictionary.resolveNames(
+                                    rows.stream().map(SubscriptionRow::getServiceId).toList())
+                            .then(Mono.fromSupplier(() -> toPage(userId,
+                                    rows.stream().map(subscriptionMapper::toDTO).toList(), pageSize))));
+        });
+    }
+
+    /**
+     * Удаляет подписку пользователя.
+     *
+     * @param userId идентификатор пользователя
+     * @param subscriptionId идентификатор подписки
+     * @return завершение после удаления; ошибка ResourceNotFoundException, если подписка не найдена,
+     *         ValidationException, если подписка не принадлежит пользователю
+     */
+    public Mono<Void> deleteSubscription(Long userId, Long subscriptionId) {
+        if (log.isDebugEnabled()) {
+            log.debug("Удаление подписки с ID: {} для пользователя с ID: {}", subscriptionId, userId);
+        }
+        return subscriptionRepository.deleteOwned(subscriptionId, userId)
+                .switchIfEmpty(Mono.defer(() -> subscriptionRepository.existsById(subscriptionId)
+                        .flatMap(exists -> {
+                            if (exists) {
+                                log.error("Подписка с ID {} не принадлежит пользователю с ID {}", subscriptionId, userId);
+                                return Mono.error(new ValidationException("Подписка не принадлежит пользователю"));
+                            }
+                            log.error("Подписка с ID {} не найдена", subscriptionId);
+                            return Mono.error(new ResourceNotFoundException("Подписка не найдена"));
+                        })))
+                .flatMap(row -> serviceDictionary.resolveNames(List.of(row.getServiceId()))
+                        .then(Mono.fromSupplier(() -> subscriptionMapper.toDTO(row))))
+                .flatMap(subscription -> outboxService.record(OutboxEventType.SUBSCRIPTION_DELETED, subscriptionId,
+                                subscription)
+                        .thenReturn(subscription))
+                .as(transactionalOperator::transactional)
+                .doOnSuccess(subscription -> {
+                    subscriptionLeaderboard.onSubscriptionsChanged(
+                            SubscriptionsChangedEvent.removed(subscription.getServiceName()));
+                    log.info("Подписка успешно удалена");
+                })
+                .then();
+    }
+
+    /**
+     * Получает список популярных подписок.
+     * Без ограничения по времени результат берется из рейтинга в памяти; пока рейтинг
+     * не загружен, выполняется запрос к базе данных.
+     *
+     * @param limit количество сервисов в списке, если null - значение по умолчанию
+     * @param activeAt момент времени, в который подписка должна действовать
+     * @param from начало периода
+     * @param to окончание периода
+     * @return список популярных подписок; ошибка ValidationException, если параметры выборки некорректны
+     */
+    public Mono<List<TopSubscriptionDTO>> getTopSubscriptions(Integer limit, LocalDateTime activeAt,
+                                                              LocalDateTime from, LocalDateTime to) {
+        return Mono.defer(() -> {
+            int resolvedLimit = SubscriptionService.resolveTopLimit(limit, activeAt, from, to,
+                    topSubscriptionsProperties);
+            if (log.isDebugEnabled()) {
+                log.debug("Получение ТОП-{} популярных подписок", resolvedLimit);
+            }
+
+            Flux<TopSubscriptionDTO> results;
+            if (activeAt != null) {
+                results = subscriptionRepository.findTopPopularSubscriptionsActiveBetween(activeAt, activeAt,
+                        resolvedLimit);
+            } else if (from != null) {
+                results = subscriptionRepository.findTopPopularSubscriptionsActiveBetween(from, to, resolvedLimit);
+            } else if (subscriptionLeaderboard.isLoaded()) {
+                return Mono.just(subscriptionLeaderboard.getTop(resolvedLimit));
+            } else {
+                results = subscriptionRepository.findTopPopularSubscriptions(resolvedLimit);
+            }
+            return results.collectList();
+        });
+    }
+
+    private RuntimeException translateConstraintViolation(DataIntegrityViolationException ex,
+                                                          Long userId, String serviceName) {
+        String constraintName = ex.getCause() instanceof PostgresqlException violation
+                ? violation.getErrorDetails().getConstraintName().orElse(null)
+                : null;
+        if (SubscriptionService.isUniqueUserServiceConstraint(constraintName)) {
+            log.warn("Попытка добавления существующей подписки {} для пользователя с ID: {}", serviceName, userId);
+            return new ValidationException("У пользователя уже есть подписка на сервис " + serviceName);
+        }
+        if (SubscriptionService.USER_FOREIGN_KEY.equalsIgnoreCase(constraintName)) {
+            log.error("Пользователь с ID {} не найден", userId);
+            return new ResourceNotFoundException("Пользователь не найден");
+        }
+        return ex;
+    }
+
+    private static SubscriptionPageDTO toPage(Long userId, List<SubscriptionDTO> subscriptions, int pageSize) {
+        boolean hasNext = subscriptions.size() > pageSize;
+        if (hasNext) {
+            subscriptions = subscriptions.subList(0, pageSize);
+        }
+        if (log.isDebugEnabled()) {
+            log.debug("Найдено {} подписок для пользователя", subscriptions.size());
+        }
+        String nextCursor = hasNext
+                ? SubscriptionService.encodeCursor(userId, subscriptions.get(subscriptions.size() - 1).getId())
+                : null;
+        return new SubscriptionPageDTO(subscriptions, nextCursor);
+    }
+}
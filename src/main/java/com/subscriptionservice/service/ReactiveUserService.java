@@ -0,0 +1,173 @@
+package com.subscriptionservice.service;
+
+import com.subscriptionservice.config.ReactiveConfig;
+import com.subscriptionservice.dto.TopSubscriptionDTO;
+import com.subscriptionservice.dto.UserDTO;
+import com.subscriptionservice.event.SubscriptionsChangedEvent;
+import com.subscriptionservice.exception.ResourceNotFoundException;
+import com.subscriptionservice.exception.UserAlreadyExistsException;
+import com.subscriptionservice.model.OutboxEventType;
+import com.subscriptionservice.model.UserRow;
+import com.subscriptionservice.repository.ReactiveSubscriptionRepository;
+import com.subscriptionservice.repository.ReactiveUserRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+
+/**
+ * Реактивный сервис пользователей (профиль reactive).
+ * Повторяет правила {@link UserService}, но работает с базой данных через R2DBC.
+ * Пользователи читаются из базы данных без кэша: кэш пользователей обслуживает только
+ * вариант API на Spring MVC.
+ */
+@Slf4j
+@Service
+@Profile(ReactiveConfig.PROFILE)
+@RequiredArgsConstructor
+public class ReactiveUserService {
+    private final ReactiveUserRepository userRepository;
+    private final ReactiveSubscriptionRepository subscriptionRepository;
+    private final SubscriptionLeaderboard subscriptionLeaderboard;
+    private final TransactionalOperator transactionalOperator;
+    private final ReactiveOutboxService outboxService;
+
+    /**
+     * Создает нового пользователя.
+     * Проверяет уникальность email перед созданием.
+     *
+     * @param userDTO данные нового пользователя
+     * @return созданный пользователь; ошибка UserAlreadyExistsException, если email уже используется
+     */
+    public Mono<UserDTO> createUser(UserDTO userDTO) {
+        if (log.isDebugEnabled()) {
+            log.debug("Начало создания пользователя с email: {}", userDTO.getEmail());
+        }
+        return userRepository.existsByEmail(userDTO.getEmail())
+                .flatMap(exists -> {
+                    if (exists) {
+                        log.warn("Попытка создания пользователя с существующим email: {}", userDTO.getEmail());
+                        return Mono.error(emailInUse(userDTO.getEmail()));
+                    }
+                    LocalDateTime now = LocalDateTime.now();
+                    UserRow user = new UserRow();
+                    user.setUserName(userDTO.getUserName());
+                    user.setEmail(userDTO.getEmail());
+                    user.setCreatedAt(now);
+                    user.setUpdatedAt(now);
+                    return userRepository.save(user);
+                })
+                .map(ReactiveUserService::toDTO)
+                .flatMap(created -> outboxService.record(OutboxEventType.USER_CREATED, created.getId(), created)
+                        .thenReturn(created))
+                .as(transactionalOperator::transactional)
+                .doOnSuccess(user -> log.info("Пользователь успешно создан с ID: {}", user.getId()));
+    }
+
+    /**
+     * Получает пользователя по его ID.
+     *
+     * @param id идентификатор пользователя
+     * @return информация о пользователе; ошибка ResourceNotFoundException, если пользователь не найден
+     */
+    public Mono<UserDTO> getUserById(Long id) {
+        if (log.isDebugEnabled()) {
+            log.debug("Поиск пользователя по ID: {}", id);
+        }
+        return userRepository.findDTOById(id)
+                .switchIfEmpty(Mono.error(() -> {
+                    log.warn("Пользователь с ID {} не найден", id);
+                    return userNotFound(id);
+                }));
+    }
+
+    /**
+     * Обновляет информацию о пользователе.
+     * Проверяет существование пользователя и уникальность нового email.
+     *
+     * @param id идентификатор пользователя
+     * @param userDTO новые данные пользователя
+     * @return обновленная информация о пользователе; ошибка ResourceNotFoundException, если пользователь
+     *         не найден, UserAlreadyExistsException, если новый email уже используется
+     */
+    public Mono<UserDTO> updateUser(Long id, UserDTO userDTO) {
+        if (log.isDebugEnabled()) {
+            log.debug("Начало обновления пользователя с ID: {}", id);
+        }
+        return userRepository.findById(id)
+                .switchIfEmpty(Mono.error(() -> {
+                    log.warn("Пользователь с ID {} не найден при попытке обновления", id);
+                    return userNotFound(id);
+                }))
+                .flatMap(user -> {
+                    Mono<Boolean> emailTaken = user.getEmail().equals(userDTO.getEmail())
+                            ? Mono.just(false)
+                            : userRepository.existsByEmail(userDTO.getEmail());
+                    return emailTaken.flatMap(taken -> {
+                        if (taken) {
+                            log.warn("Попытка обновления email на уже существующий: {}", userDTO.getEmail());
+                            return Mono.error(emailInUse(userDTO.getEmail()));
+                        }
+                        user.setUserName(userDTO.getUserName());
+                        user.setEmail(userDTO.getEmail());
+                        user.setUpdatedAt(LocalDateTime.now());
+                        return userRepository.save(user);
+                    });
+                })
+                .map(ReactiveUserService::toDTO)
+                .flatMap(updated -> outboxService.record(OutboxEventType.USER_UPDATED, id, updated)
+                        .thenReturn(updated))
+                .as(transactionalOperator::transactional)
+                .doOnSuccess(user -> log.info("Пользователь с ID {} успешно обновлен", id));
+    }
+
+    /**
+     * Удаляет пользователя по его ID.
+     * Подписки пользователя удаляются базой данных каскадно.
+     *
+     * @param id идентификатор пользователя
+     * @return завершение после удаления; ошибка ResourceNotFoundException, если пользователь не найден
+     */
+    public Mono<Void> deleteUser(Long id) {
+        if (log.isDebugEnabled()) {
+            log.debug("Начало удаления пользователя с ID: {}", id);
+        }
+        return subscriptionRepository.countSubscriptionsByServiceNameForUser(id)
+                .collectMap(TopSubscriptionDTO::getServiceName, row -> -row.getSubscriberCount())
+                .flatMap(removedSubscriptions -> userRepository.deleteUserById(id)
+                        .flatMap(deleted -> {
+                            if (deleted == 0) {
+                                log.warn("Попытка удаления несуществующего пользователя с ID: {}", id);
+                                return Mono.error(userNotFound(id));
+                            }
+                            return outboxService.record(OutboxEventType.USER_DELETED, id, Map.of("id", id))
+                                    .thenReturn(removedSubscriptions);
+                        }))
+                .as(transactionalOperator::transactional)
+                .doOnSuccess(removedSubscriptions -> {
+                    if (!removedSubscriptions.isEmpty()) {
+                        subscriptionLeaderboard.onSubscriptionsChanged(
+                                new SubscriptionsChangedEvent(Map.copyOf(removedSubscriptions)));
+                    }
+                    log.info("Пользователь с ID {} успешно удален", id);
+                })
+                .then();
+    }
+
+    private static UserDTO toDTO(UserRow user) {
+        return new UserDTO(user.getId(), user.getUserName(), user.getEmail());
+    }
+
+    private static ResourceNotFoundException userNotFound(Long id) {
+        return new ResourceNotFoundException("Пользователь с ID " + id + " не найден");
+    }
+
+    private static UserAlreadyExistsException emailInUse(String email) {
+        return new UserAlreadyExistsException("Пользователь с email " + email + " уже существует");
+    }
+}
@@ -0,0 +1,257 @@
+package com.subscriptionservice.service;
+
+import com.subscriptionservice.exception.ValidationException;
+import com.subscriptionservice.model.ServiceEntry;
+import com.subscriptionservice.repository.ServiceEntryRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Справочник сервисов в памяти: соответствие названия сервиса и его идентификатора.
+ * Подписки хранят идентификатор сервиса, а API принимает и возвращает название;
+ * преобразование выполняется через справочник без обращения к базе данных.
+ * Справочник загружается целиком после запуска приложения; неизвестные названия
+ * добавляются в таблицу services, неизвестные идентификаторы (добавленные другим
+ * экземпляром приложения) загружаются повторной загрузкой справочника.
+ * Новый сервис добавляется в транзакции вызывающего кода и попадает в справочник только после
+ * ее фиксации: при откате, например из-за отсутствующего пользователя, не остается ни записи
+ * в таблице, ни названия в памяти. До фиксации сервис виден только этой транзакции.
+ */
+@Slf4j
+@Component
+public class ServiceDictionary {
+    private final ServiceEntryRepository serviceEntryRepository;
+
+    /**
+     * Присоединяется к транзакции вызывающего кода, вне транзакции открывает собственную.
+     */
+    private final TransactionTemplate transactionTemplate;
+
+    private final Map<String, Integer> ids = new ConcurrentHashMap<>();
+    private final Map<Integer, String> names = new ConcurrentHashMap<>();
+
+    // Загрузка выполняет запросы к базе данных; блокировка не закрепляет виртуальный поток за платформенным
+    private final ReentrantLock reloadLock = new ReentrantLock();
+
+    public ServiceDictionary(ServiceEntryRepository serviceEntryRepository,
+                             PlatformTransactionManager transactionManager) {
+        this.serviceEntryRepository = serviceEntryRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    /**
+     * Загружает справочник после запуска приложения, до загрузки рейтинга подписок.
+     * Ранее загруженные записи отбрасываются.
+     */
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        reloadLock.lock();
+        try {
+            ids.clear();
+            names.clear();
+            reload();
+        } finally {
+            reloadLock.unlock();
+        }
+        log.info("Справочник сервисов загружен, сервисов: {}", names.size());
+    }
+
+    /**
+     * Возвращает идентификатор сервиса, добавляя сервис в справочник, если его еще нет.
+     * Сервис добавляется в текущей транзакции, а вне транзакции - в отдельной.
+     *
+     * @param name название сервиса
+     * @return идентификатор сервиса
+     * @throws ValidationException если название не указано
+     */
+    public int getId(String name) {
+        if (name == null || name.isBlank()) {
+            throw new ValidationException("Название сервиса не может быть пустым");
+        }
+        Integer id = ids.get(name);
+        if (id != null) {
+            return id;
+        }
+        return transactionTemplate.execute(status -> insert(name));
+    }
+
+    private Integer insert(String name) {
+        Map<String, Integer> pending = TransactionSynchronizationManager.isSynchronizationActive()
+                ? bindPendingIds()
+                : null;
+        Integer id = pending != null ? pending.get(name) : null;
+        if (id != null) {
+            return id;
+        }
+        Integer inserted = serviceEntryRepository.insertIfAbsent(name);
+        // Сервис уже добавлен другим экземпляром приложения или параллельной транзакцией
+        id = inserted != null ? inserted : serviceEntryRepository.findByName(name)
+                .map(ServiceEntry::getId)
+                .orElseThrow(() -> new IllegalStateException("Сервис " + name + " не найден в справочнике"));
+        if (pending != null) {
+            pending.put(name, id);
+        } else {
+            put(id, name);
+        }
+        return id;
+    }
+
+    /**
+     * Находит идентификатор сервиса без добавления сервиса в справочник.
+     * Используется для поиска: подписок на сервис, отсутствующий в справочнике, нет.
+     *
+     * @param name название сервиса
+     * @return идентификатор сервиса или пустой результат
+     */
+    public Optional<Integer> findId(String name) {
+        if (name == null) {
+            return Optional.empty();
+        }
+        Integer id = ids.get(name);
+        if (id == null) {
+            Map<String, Integer> pending = pendingIds();
+            id = pending != null ? pending.get(name) : null;
+        }
+        if (id != null) {
+            return Optional.of(id);
+        }
+        Optional<Integer> found = serviceEntryRepository.findByName(name).map(ServiceEntry::getId);
+        found.ifPresent(serviceId -> put(serviceId, name));
+        return found;
+    }
+
+    /**
+     * Возвращает название сервиса по идентификатору.
+     *
+     * @param id идентификатор сервиса
+     * @return название сервиса
+     * @throws IllegalStateException если сервиса нет в справочнике
+     */
+    public String getName(Integer id) {
+        String name = names.get(id);
+        if (name == null) {
+            name = pendingName(id);
+        }
+        if (name == null) {
+            reload();
+            name = names.get(id);
+            if (name == null) {
+                throw new IllegalStateException("Сервис с ID " + id + " не найден в справочнике");
+            }
+        }
+        return name;
+    }
+
+    /**
+     * Возвращает идентификатор сервиса для реактивного варианта API.
+     * Известный идентификатор возвращается сразу; добавление сервиса выполняется на пуле
+     * boundedElastic, чтобы не блокировать потоки обработки запросов.
+     *
+     * @param name название сервиса
+     * @return идентификатор сервиса
+     */
+    public Mono<Integer> resolveId(String name) {
+        Integer id = name != null ? ids.get(name) : null;
+        return id != null
+                ? Mono.just(id)
+                : Mono.fromCallable(() -> getId(name)).subscribeOn(Schedulers.boundedElastic());
+    }
+
+    /**
+     * Загружает отсутствующие в памяти названия сервисов для реактивного варианта API,
+     * после чего {@link #getName} не обращается к базе данных для этих идентификаторов.
+     *
+     * @param serviceIds идентификаторы сервисов
+     * @return завершение после загрузки
+     */
+    public Mono<Void> resolveNames(Collection<Integer> serviceIds) {
+        return names.keySet().containsAll(serviceIds)
+                ? Mono.empty()
+                : Mono.fromRunnable(this::reload).subscribeOn(Schedulers.boundedElastic()).then();
+    }
+
+    private void reload() {
+        reloadLock.lock();
+        try {
+            // Сервисы, добавленные текущей транзакцией, попадут в справочник после ее фиксации
+            Map<String, Integer> pending = pendingIds();
+            for (ServiceEntry entry : serviceEntryRepository.findAll()) {
+                if (pending == null || !pending.containsKey(entry.getName())) {
+                    put(entry.getId(), entry.getName());
+                }
+            }
+        } finally {
+            reloadLock.unlock();
+        }
+    }
+
+    /**
+     * Возвращает сервисы, добавленные текущей транзакцией.
+     *
+     * @return сервисы транзакции по названию или null, если транзакция не добавляла сервисов
+     */
+    @SuppressWarnings("unchecked")
+    private Map<String, Integer> pendingIds() {
+        return (Map<String, Integer>) TransactionSynchronizationManager.getResource(this);
+    }
+
+    /**
+     * Возвращает сервисы, добавленные текущей транзакцией, создавая их набор при первом добавлении;
+     * после фиксации транзакции сервисы переносятся в справочник, при откате отбрасываются.
+     */
+    private Map<String, Integer> bindPendingIds() {
+        Map<String, Integer> pending = pendingIds();
+        if (pending == null) {
+            Map<String, Integer> created = new HashMap<>();
+            TransactionSynchronizationManager.bindResource(this, created);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    created.forEach((name, id) -> put(id, name));
+                }
+
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(ServiceDictionary.this);
+                }
+            });
+            pending = created;
+        }
+        return pending;
+    }
+
+    private String pendingName(Integer id) {
+        Map<String, Integer> pending = pendingIds();
+        if (pending == null) {
+            return null;
+        }
+        return pending.entrySet().stream()
+                .filter(entry -> entry.getValue().equals(id))
+                .map(Map.Entry::getKey)
+                .findFirst()
+                .orElse(null);
+    }
+
+    private void put(Integer id, String name) {
+        names.put(id, name);
+        ids.put(name, id);
+    }
+}
@@ -0,0 +1,320 @@
+package com.subscriptionservice.service;
+
+import com.subscriptionservice.config.BatchProperties;
+import com.subscriptionservice.config.MetricsConfig;
+import com.subscriptionservice.dto.BatchItemResultDTO;
+import com.subscriptionservice.dto.SubscriptionDTO;
+import com.subscriptionservice.event.SubscriptionsChangedEvent;
+import com.subscriptionservice.event.UserSubscriptionsChangedEvent;
+import com.subscriptionservice.exception.ValidationException;
+import com.subscriptionservice.mapper.SubscriptionMapper;
+import com.subscriptionservice.model.OutboxEventType;
+import com.subscriptionservice.model.Subscription;
+import com.subscriptionservice.repository.SubscriptionRepository;
+import com.subscriptionservice.repository.UserRepository;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import io.micrometer.core.annotation.Timed;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.IntFunction;
+import java.util.stream.Collectors;
+
+/**
+ * Сервис пакетного создания и массового удаления подписок.
+ * Проверяет существование пользователей и дубликаты для всего пакета несколькими
+ * запросами вместо запросов на каждый элемент и сохраняет подписки JDBC-пакетами.
+ * Ошибка в одном элементе не прерывает обработку остальных: результат возвращается
+ * для каждого элемента отдельно. Подписки удаляются запросами DELETE по условию,
+ * без загрузки сущностей перед удалением.
+ */
+@Slf4j
+@Service
+@Timed(value = MetricsConfig.SERVICE_TIMER, histogram = true)
+@RequiredArgsConstructor
+public class SubscriptionBatchService {
+    private final SubscriptionRepository subscriptionRepository;
+    private final UserRepository userRepository;
+    private final SubscriptionMapper subscriptionMapper;
+    private final Validator validator;
+    private final BatchProperties batchProperties;
+    private final ApplicationEventPublisher eventPublisher;
+    private final OutboxService outboxService;
+    private final TransactionTemplate transactionTemplate;
+    private final ServiceDictionary serviceDictionary;
+
+    /**
+     * Создает пакет подписок для одного пользователя.
+     * Идентификатор пользователя в элементах пакета игнорируется.
+     *
+     * @param userId идентификатор пользователя
+     * @param subscriptions данные новых подписок
+     * @return результаты обработки в порядке элементов запроса
+     * @throws ValidationException если пакет пуст или превышает допустимый размер,
+     *         либо подписки пакета были добавлены параллельным запросом
+     */
+    @Transactional
+    public List<BatchItemResultDTO> addSubscriptions(Long userId, List<SubscriptionDTO> subscriptions) {
+        log.info("Пакетное добавление {} подписок для пользователя с ID: {}", sizeOf(subscriptions), userId);
+        checkBatchSize(subscriptions);
+        List<Long> userIds = new ArrayList<>(subscriptions.size());
+        for (int i = 0; i < subscriptions.size(); i++) {
+            userIds.add(userId);
+        }
+        return process(userIds, subscriptions);
+    }
+
+    /**
+     * Создает пакет подписок для разных пользователей.
+     * Пользователь каждой подписки берется из поля userId элемента пакета.
+     *
+     * @param subscriptions данные новых подписок
+     * @return результаты обработки в порядке элементов запроса
+     * @throws ValidationException если пакет пуст или превышает допустимый размер,
+     *         либо подписки пакета были добавлены параллельным запросом
+     */
+    @Transactional
+    public List<BatchItemResultDTO> addSubscriptions(List<SubscriptionDTO> subscriptions) {
+        log.info("Пакетное добавление {} подписок", sizeOf(subscriptions));
+        checkBatchSize(subscriptions);
+        List<Long> userIds = new ArrayList<>(subscriptions.size());
+        for (SubscriptionDTO subscription : subscriptions) {
+            userIds.add(subscription == null ? null : subscription.getUserId());
+        }
+        return process(userIds, subscriptions);
+    }
+
+    /**
+     * Удаляет пакет подписок пользователя одним запросом DELETE.
+     * Отсутствующие подписки и подписки других пользователей пропускаются.
+     *
+     * @param userId идентификатор пользователя
+     * @param ids идентификаторы подписок
+     * @return количество удаленных подписок
+     * @throws ValidationException если пакет пуст, превышает допустимый размер или содержит пустые идентификаторы
+     */
+    @Transactional
+    public int deleteSubscriptions(Long userId, List<Long> ids) {
+        checkIds(ids, batchProperties);
+        List<Subscription> deleted = subscriptionRepository.deleteOwnedByIds(ids, userId);
+        onDeleted(deleted);
+        log.info("Пакетное удаление подписок пользователя с ID {}: удалено {} из {}", userId, deleted.size(), ids.size());
+        return deleted.size();
+    }
+
+    /**
+     * Удаляет все подписки на сервис или все подписки, закончившиеся до указанного момента.
+     * Подписки удаляются частями по app.batch.max-size запросами DELETE, каждая часть - в отдельной
+     * транзакции, поэтому удаление большого количества подписок не удерживает длинную транзакцию
+     * и не загружает подписки в память целиком.
+     *
+     * @param serviceName название сервиса
+     * @param endBefore момент, до которого подписка должна закончиться
+     * @return количество удаленных подписок
+     * @throws ValidationException если не указан ровно один из параметров
+     */
+    public long deleteSubscriptions(String serviceName, LocalDateTime endBefore) {
+        if ((serviceName == null || serviceName.isBlank()) == (endBefore == null)) {
+            throw new ValidationException("Укажите ровно один из параметров serviceName и endBefore");
+        }
+        IntFunction<List<Subscription>> deleteChunk;
+        if (endBefore == null) {
+            Optional<Integer> serviceId = serviceDictionary.findId(serviceName);
+            if (serviceId.isEmpty()) {
+                log.info("Массовое удаление подписок: сервис {} не найден", serviceName);
+                return 0;
+            }
+            deleteChunk = limit -> subscriptionRepository.deleteByServiceId(serviceId.get(), limit);
+        } else {
+            deleteChunk = limit -> subscriptionRepository.deleteEndedBefore(endBefore, limit);
+        }
+        int chunkSize = batchProperties.getMaxSize();
+        long total = 0;
+        int deleted;
+        do {
+            deleted = transactionTemplate.execute(status -> {
+                List<Subscription> chunk = deleteChunk.apply(chunkSize);
+                onDeleted(chunk);
+                return chunk.size();
+            });
+            total += deleted;
+        } while (deleted == chunkSize);
+        log.info("Массовое удаление подписок (serviceName={}, endBefore={}): удалено {}", serviceName, endBefore, total);
+        return total;
+    }
+
+    /**
+     * Проверяет пакет идентификаторов.
+     * Используется также пакетным удалением пользователей.
+     */
+    static void checkIds(List<Long> ids, BatchProperties batchProperties) {
+        if (ids == null || ids.isEmpty()) {
+            throw new ValidationException("Список идентификаторов не может быть пустым");
+        }
+        if (ids.size() > batchProperties.getMaxSize()) {
+            throw new ValidationException("Список не может содержать более "
+                    + batchProperties.getMaxSize() + " идентификаторов");
+        }
+        if (ids.stream().anyMatch(Objects::isNull)) {
+            throw new ValidationException("Список идентификаторов не может содержать пустые значения");
+        }
+    }
+
+    /**
+     * Записывает события удаления подписок в журнал изменений и публикует изменения счетчиков
+     * подписок и списков подписок пользователей. Используется также удалением пользователей.
+     *
+     * @param deleted удаленные подписки
+     */
+    void onDeleted(List<Subscription> deleted) {
+        Map<String, Long> deltas = new HashMap<>();
+        Set<Long> changedUserIds = new HashSet<>();
+        for (Subscription subscription : deleted) {
+            SubscriptionDTO dto = subscriptionMapper.toDTO(subscription);
+            outboxService.record(OutboxEventType.SUBSCRIPTION_DELETED, subscription.getId(), dto);
+            deltas.merge(dto.getServiceName(), -1L, Long::sum);
+            changedUserIds.add(dto.getUserId());
+        }
+        if (!deltas.isEmpty()) {
+            eventPublisher.publishEvent(new SubscriptionsChangedEvent(deltas));
+            eventPublisher.publishEvent(new UserSubscriptionsChangedEvent(changedUserIds));
+        }
+    }
+
+    private List<BatchItemResultDTO> process(List<Long> userIds, List<SubscriptionDTO> subscriptions) {
+        BatchItemResultDTO[] results = new BatchItemResultDTO[subscriptions.size()];
+        List<Integer> candidates = new ArrayList<>();
+        for (int i = 0; i < subscriptions.size(); i++) {
+            String error = validate(userIds.get(i), subscriptions.get(i));
+            if (error != null) {
+                results[i] = failure(i, BatchItemResultDTO.Status.INVALID, error);
+            } else {
+                candidates.add(i);
+            }
+        }
+
+        // Подписок на сервисы, которых еще нет в справочнике, в базе данных быть не может
+        Set<Long> requestedUserIds = new HashSet<>();
+        Set<Integer> requestedServiceIds = new HashSet<>();
+        for (int i : candidates) {
+            requestedUserIds.add(userIds.get(i));
+            serviceDictionary.findId(subscriptions.get(i).getServiceName()).ifPresent(requestedServiceIds::add);
+        }
+
+        Set<Long> existingUserIds = requestedUserIds.isEmpty()
+                ? Set.of()
+                : userRepository.findExistingIds(requestedUserIds);
+        Set<UserServicePair> occupied = new HashSet<>();
+        if (!requestedServiceIds.isEmpty()) {
+            for (Object[] row : subscriptionRepository.findUserServicePairs(requestedUserIds, requestedServiceIds)) {
+                occupied.add(new UserServicePair((Long) row[0], serviceDictionary.getName((Integer) row[1])));
+            }
+        }
+
+        List<Subscription> toSave = new ArrayList<>();
+        List<Integer> savedIndexes = new ArrayList<>();
+        for (int i : candidates) {
+            Long userId = userIds.get(i);
+            SubscriptionDTO dto = subscriptions.get(i);
+            if (!existingUserIds.contains(userId)) {
+                results[i] = failure(i, BatchItemResultDTO.Status.USER_NOT_FOUND,
+                        "Пользователь с ID " + userId + " не найден");
+            } else if (!occupied.add(new UserServicePair(userId, dto.getServiceName()))) {
+                results[i] = failure(i, BatchItemResultDTO.Status.DUPLICATE,
+                        "У пользователя уже есть подписка на сервис " + dto.getServiceName());
+            } else {
+                Subscription subscription = subscriptionMapper.toEntity(dto);
+                subscription.setId(null);
+                subscription.setUser(userRepository.getReferenceById(userId));
+                toSave.add(subscription);
+                savedIndexes.add(i);
+            }
+        }
+
+        List<Subscription> saved = subscriptionRepository.saveAll(toSave);
+        try {
+            subscriptionRepository.flush();
+        } catch (DataIntegrityViolationException ex) {
+            log.warn("Пакет подписок нарушает ограничения базы данных: {}", ex.getMostSpecificCause().getMessage());
+            throw new ValidationException("Подписки пакета были добавлены параллельным запросом, повторите запрос");
+        }
+        Map<String, Long> deltas = new HashMap<>();
+        Set<Long> changedUserIds = new HashSet<>();
+        for (int j = 0; j < saved.size(); j++) {
+            Subscription subscription = saved.get(j);
+            int index = savedIndexes.get(j);
+            BatchItemResultDTO result = new BatchItemResultDTO();
+            result.setIndex(index);
+            result.setStatus(BatchItemResultDTO.Status.CREATED);
+            result.setSubscription(subscriptionMapper.toDTO(subscription));
+            results[index] = result;
+            outboxService.record(OutboxEventType.SUBSCRIPTION_CREATED, subscription.getId(), result.getSubscription());
+            deltas.merge(result.getSubscription().getServiceName(), 1L, Long::sum);
+            changedUserIds.add(userIds.get(index));
+        }
+        if (!deltas.isEmpty()) {
+            eventPublisher.publishEvent(new SubscriptionsChangedEvent(deltas));
+            eventPublisher.publishEvent(new UserSubscriptionsChangedEvent(changedUserIds));
+        }
+
+        log.info("Пакет обработан: создано {}, отклонено {}", saved.size(), subscriptions.size() - saved.size());
+        return List.of(results);
+    }
+
+    private String validate(Long userId, SubscriptionDTO subscription) {
+        if (subscription == null) {
+            return "Данные подписки не указаны";
+        }
+        if (userId == null) {
+            return "Не указан идентификатор пользователя";
+        }
+        Set<ConstraintViolation<SubscriptionDTO>> violations = validator.validate(subscription);
+        if (violations.isEmpty()) {
+            return null;
+        }
+        return violations.stream()
+                .map(ConstraintViolation::getMessage)
+                .sorted()
+                .collect(Collectors.joining("; "));
+    }
+
+    private void checkBatchSize(List<SubscriptionDTO> subscriptions) {
+        if (subscriptions == null || subscriptions.isEmpty()) {
+            throw new ValidationException("Пакет подписок не может быть пустым");
+        }
+        if (subscriptions.size() > batchProperties.getMaxSize()) {
+            throw new ValidationException("Пакет не может содержать более "
+                    + batchProperties.getMaxSize() + " подписок");
+        }
+    }
+
+    private static int sizeOf(List<SubscriptionDTO> subscriptions) {
+        return subscriptions == null ? 0 : subscriptions.size();
+    }
+
+    private static BatchItemResultDTO failure(int index, BatchItemResultDTO.Status status, String error) {
+        BatchItemResultDTO result = new BatchItemResultDTO();
+        result.setIndex(index);
+        result.setStatus(status);
+        result.setError(error);
+        return result;
+    }
+
+    private record UserServicePair(Long userId, String serviceName) {
+    }
+}
@@ -0,0 +1,185 @@
+package com.subscriptionservice.service;
+
+import com.subscriptionservice.config.ExpiryProperties;
+import com.subscriptionservice.config.MetricsConfig;
+import com.subscriptionservice.event.UserSubscriptionsChangedEvent;
+import com.subscriptionservice.repository.SubscriptionRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Clock;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+
+/**
+ * Планировщик истечения подписок.
+ * Периодически загружает в колесо времени действующие подписки, истекающие в ближайшем окне,
+ * и каждый такт переводит истекшие подписки в статус EXPIRED пакетными запросами UPDATE.
+ * В памяти хранятся только идентификаторы подписок окна, поэтому потребление памяти
+ * ограничено и не зависит от размера таблицы. Подписки, не попавшие в окно (созданные после
+ * его загрузки или не поместившиеся в колесо), переводятся в статус EXPIRED при следующей
+ * загрузке, то есть с задержкой не более интервала загрузки. После каждого обновления публикуется
+ * событие изменения подписок владельцев истекших подписок.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(prefix = "app.expiry", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class SubscriptionExpiryScheduler {
+    private final SubscriptionRepository subscriptionRepository;
+    private final ExpiryProperties expiryProperties;
+    private final ApplicationEventPublisher eventPublisher;
+    private final Counter expiredCounter;
+    private final Clock clock;
+
+    private ExpiryTimingWheel wheel;
+
+    /**
+     * Конец окна, уже загруженного в колесо времени.
+     */
+    private LocalDateTime loadedUntil;
+
+    private volatile int pending;
+
+    @Autowired
+    public SubscriptionExpiryScheduler(SubscriptionRepository subscriptionRepository,
+                                       ExpiryProperties expiryProperties,
+                                       ApplicationEventPublisher eventPublisher,
+                                       MeterRegistry meterRegistry) {
+        this(subscriptionRepository, expiryProperties, eventPublisher, meterRegistry, Clock.systemDefaultZone());
+    }
+
+    SubscriptionExpiryScheduler(SubscriptionRepository subscriptionRepository,
+                                ExpiryProperties expiryProperties,
+                                ApplicationEventPublisher eventPublisher,
+                                MeterRegistry meterRegistry,
+                                Clock clock) {
+        this.subscriptionRepository = subscriptionRepository;
+        this.expiryProperties = expiryProperties;
+        this.eventPublisher = eventPublisher;
+        this.expiredCounter = meterRegistry.counter(MetricsConfig.SUBSCRIPTIONS_EXPIRED);
+        this.clock = clock;
+        Gauge.builder(MetricsConfig.SUBSCRIPTIONS_EXPIRY_PENDING, this, scheduler -> scheduler.pending)
+                .register(meterRegistry);
+    }
+
+    /**
+     * Переводит в статус EXPIRED просроченные подписки и загружает в колесо времени
+     * подписки, истекающие до конца окна.
+     */
+    @Scheduled(fixedDelayString = "${app.expiry.load-interval:PT1M}")
+    public synchronized void load() {
+        LocalDateTime now = LocalDateTime.now(clock);
+        try {
+            expireOverdue(now);
+            loadWindow(now);
+        } catch (RuntimeException ex) {
+            log.error("Не удалось загрузить подписки для истечения", ex);
+        }
+    }
+
+    /**
+     * Продвигает колесо времени и переводит истекшие подписки в статус EXPIRED.
+     */
+    @Scheduled(fixedDelayString = "${app.expiry.tick:PT1S}")
+    public synchronized void tick() {
+        if (wheel == null) {
+            return;
+        }
+        LocalDateTime now = LocalDateTime.now(clock);
+        long[] due = wheel.advance(toMillis(now));
+        pending = wheel.size();
+        if (due.length == 0) {
+            return;
+        }
+        int expired = 0;
+        int batchSize = expiryProperties.getBatchSize();
+        try {
+            for (int from = 0; from < due.length; from += batchSize) {
+                int to = Math.min(from + batchSize, due.length);
+                List<Long> batch = new ArrayList<>(to - from);
+                for (int i = from; i < to; i++) {
+                    batch.add(due[i]);
+                }
+                expired += onExpired(subscriptionRepository.expireByIds(batch, now));
+            }
+        } catch (RuntimeException ex) {
+            // Оставшиеся подписки будут переведены при следующей загрузке как просроченные
+            log.error("Не удалось перевести истекшие подписки в статус EXPIRED", ex);
+        }
+        if (expired > 0) {
+            expiredCounter.increment(expired);
+            log.info("Истекло подписок: {}", expired);
+        }
+    }
+
+    private void expireOverdue(LocalDateTime now) {
+        int batchSize = expiryProperties.getBatchSize();
+        long expired = 0;
+        int updated;
+        do {
+            updated = onExpired(subscriptionRepository.expireOverdue(now, batchSize));
+            expired += updated;
+        } while (updated == batchSize);
+        if (expired > 0) {
+            expiredCounter.increment(expired);
+            log.info("Переведено в статус EXPIRED просроченных подписок: {}", expired);
+        }
+    }
+
+    /**
+     * Публикует событие изменения подписок владельцев истекших подписок.
+     *
+     * @return количество подписок, переведенных в статус EXPIRED
+     */
+    private int onExpired(List<Long> userIds) {
+        if (!userIds.isEmpty()) {
+            eventPublisher.publishEvent(new UserSubscriptionsChangedEvent(new HashSet<>(userIds)));
+        }
+        return userIds.size();
+    }
+
+    private void loadWindow(LocalDateTime now) {
+        if (wheel == null) {
+            wheel = new ExpiryTimingWheel(expiryProperties.getTick(),
+                    expiryProperties.getLookahead().plus(expiryProperties.getLoadInterval()),
+                    expiryProperties.getCapacity(), toMillis(now));
+        }
+        LocalDateTime from = loadedUntil == null || loadedUntil.isBefore(now) ? now : loadedUntil;
+        LocalDateTime to = now.plus(expiryProperties.getLookahead());
+        int limit = wheel.remainingCapacity();
+        if (!to.isAfter(from) || limit <= 0) {
+            return;
+        }
+        List<Object[]> rows = subscriptionRepository.findActiveExpiringBetween(from, to, PageRequest.of(0, limit));
+        LocalDateTime last = from;
+        for (Object[] row : rows) {
+            last = (LocalDateTime) row[1];
+            wheel.add((Long) row[0], toMillis(last));
+        }
+        // Если окно не поместилось в колесо, следующая загрузка продолжит с последней загруженной даты
+        loadedUntil = rows.size() < limit ? to : last;
+        pending = wheel.size();
+        if (log.isDebugEnabled()) {
+            log.debug("Загружено подписок для истечения: {}, ожидают истечения: {}", rows.size(), pending);
+        }
+    }
+
+    /**
+     * Переводит дату без часового пояса в миллисекунды. Колесо времени сравнивает
+     * только такие значения между собой, поэтому часовой пояс не имеет значения.
+     */
+    private static long toMillis(LocalDateTime dateTime) {
+        return dateTime.toInstant(ZoneOffset.UTC).toEpochMilli();
+    }
+}
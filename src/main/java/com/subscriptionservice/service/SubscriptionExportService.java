@@ -0,0 +1,274 @@
+package com.subscriptionservice.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.util.MinimalPrettyPrinter;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.subscriptionservice.config.ExportProperties;
+import com.subscriptionservice.config.MetricsConfig;
+import com.subscriptionservice.exception.ServiceOverloadedException;
+import com.subscriptionservice.exception.ValidationException;
+import lombok.Getter;
+import io.micrometer.core.annotation.Timed;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.concurrent.Semaphore;
+
+/**
+ * Сервис потоковой выгрузки подписок в NDJSON или CSV.
+ * Подписки читаются однонаправленным курсором базы данных порциями по
+ * {@code app.export.fetch-size} строк и сразу записываются в выходной поток,
+ * поэтому потребление памяти не зависит от размера таблицы.
+ * Выгрузка удерживает соединение с базой данных все время, пока клиент получает данные,
+ * поэтому число одновременных выгрузок ограничено {@code app.export.max-concurrent}.
+ */
+@Slf4j
+@Service
+@Timed(value = MetricsConfig.SERVICE_TIMER, histogram = true)
+public class SubscriptionExportService {
+    private static final String SELECT_SUBSCRIPTIONS =
+            "SELECT id, user_id, service_id, start_date, end_date FROM subscriptions";
+    private static final String CSV_HEADER = "id,userId,serviceName,startDate,endDate";
+    private static final int OUTPUT_BUFFER_SIZE = 64 * 1024;
+
+    /**
+     * Время, через которое клиенту следует повторить отклоненную выгрузку; выгрузки длятся долго.
+     */
+    private static final Duration RETRY_AFTER = Duration.ofSeconds(5);
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+    private final ExportProperties exportProperties;
+    private final ServiceDictionary serviceDictionary;
+    private final Semaphore exportPermits;
+
+    public SubscriptionExportService(JdbcTemplate jdbcTemplate, ObjectMapper objectMapper,
+                                     ExportProperties exportProperties, ServiceDictionary serviceDictionary) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.objectMapper = objectMapper;
+        this.exportProperties = exportProperties;
+        this.serviceDictionary = serviceDictionary;
+        this.exportPermits = new Semaphore(exportProperties.getMaxConcurrent());
+    }
+
+    /**
+     * Формат выгрузки.
+     */
+    @Getter
+    @RequiredArgsConstructor
+    public enum Format {
+        NDJSON(MediaType.parseMediaType("application/x-ndjson"), "ndjson"),
+        CSV(MediaType.parseMediaType("text/csv;charset=UTF-8"), "csv");
+
+        private final MediaType mediaType;
+        private final String extension;
+    }
+
+    /**
+     * Проверяет параметры выгрузки до начала записи ответа.
+     *
+     * @param format формат выгрузки: ndjson или csv
+     * @param from начало периода действия подписок
+     * @param to окончание периода действия подписок
+     * @return формат выгрузки
+     * @throws ValidationException если формат не поддерживается или период задан некорректно
+     */
+    public Format resolveFormat(String format, LocalDateTime from, LocalDateTime to) {
+        if (from != null && to != null && from.isAfter(to)) {
+            throw new ValidationException("Начало периода не может быть позже его окончания");
+        }
+        try {
+            return Format.valueOf(format.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException | NullPointerException ex) {
+            throw new ValidationException("Поддерживаются только форматы выгрузки ndjson и csv");
+        }
+    }
+
+    /**
+     * Занимает место одной из одновременных выгрузок до начала записи ответа.
+     * Предел одновременных запросов освобождает место, когда запрос переходит в асинхронный режим,
+     * поэтому выгрузки ограничиваются отдельно. Место освобождается вызовом {@link #release()}
+     * после завершения выгрузки.
+     *
+     * @throws ServiceOverloadedException если уже выполняется app.export.max-concurrent выгрузок
+     */
+    public void acquire() {
+        if (!exportPermits.tryAcquire()) {
+            throw new ServiceOverloadedException("Превышен предел одновременных выгрузок подписок: "
+                    + exportProperties.getMaxConcurrent(), RETRY_AFTER);
+        }
+    }
+
+    /**
+     * Освобождает место выгрузки, занятое {@link #acquire()}.
+     */
+    public void release() {
+        exportPermits.release();
+    }
+
+    /**
+     * Выгружает подписки в выходной поток.
+     * Если задан период, выгружаются подписки, действующие хотя бы частично в этом периоде.
+     *
+     * @param format формат выгрузки
+     * @param serviceName название сервиса или null для всех сервисов
+     * @param from начало периода или null
+     * @param to окончание периода или null
+     * @param out выходной поток
+     */
+    @Transactional(readOnly = true)
+    public void export(Format format, String serviceName, LocalDateTime from, LocalDateTime to, OutputStream out) {
+        log.info("Выгрузка подписок в формате {}: сервис {}, период {} - {}", format, serviceName, from, to);
+        StringBuilder sql = new StringBuilder(SELECT_SUBSCRIPTIONS);
+        List<Object> params = new ArrayList<>();
+        // Подписок на сервис, которого нет в справочнике, нет: выгрузка будет пустой
+        Optional<Integer> serviceId = serviceName == null ? Optional.empty() : serviceDictionary.findId(serviceName);
+        boolean unknownService = serviceName != null && serviceId.isEmpty();
+        if (serviceId.isPresent()) {
+            sql.append(params.isEmpty() ? " WHERE" : " AND").append(" service_id = ?");
+            params.add(serviceId.get());
+        }
+        if (from != null) {
+            sql.append(params.isEmpty() ? " WHERE" : " AND").append(" end_date >= ?");
+            params.add(Timestamp.valueOf(from));
+        }
+        if (to != null) {
+            sql.append(params.isEmpty() ? " WHERE" : " AND").append(" start_date <= ?");
+            params.add(Timestamp.valueOf(to));
+        }
+        sql.append(" ORDER BY id");
+
+        long startNanos = System.nanoTime();
+        try (RowWriter writer = format == Format.CSV ? new CsvRowWriter(out) : new NdjsonRowWriter(out)) {
+            long[] rows = new long[1];
+            if (!unknownService) {
+                query(sql.toString(), params, writer, rows);
+            }
+            log.info("Выгрузка завершена: {} подписок за {} мс", rows[0], (System.nanoTime() - startNanos) / 1_000_000);
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Ошибка записи выгрузки подписок", ex);
+        }
+    }
+
+    private void query(String sql, List<Object> params, RowWriter writer, long[] rows) {
+        jdbcTemplate.query(connection -> {
+            PreparedStatement statement = connection.prepareStatement(sql,
+                    ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            statement.setFetchSize(exportProperties.getFetchSize());
+            for (int i = 0; i < params.size(); i++) {
+                statement.setObject(i + 1, params.get(i));
+            }
+            return statement;
+        }, (ResultSet resultSet) -> {
+            try {
+                writer.write(resultSet);
+            } catch (IOException ex) {
+                throw new UncheckedIOException(ex);
+            }
+            rows[0]++;
+        });
+    }
+
+    private interface RowWriter extends AutoCloseable {
+        void write(ResultSet row) throws SQLException, IOException;
+
+        @Override
+        void close() throws IOException;
+    }
+
+    private final class NdjsonRowWriter implements RowWriter {
+        private final JsonGenerator generator;
+        private boolean empty = true;
+
+        private NdjsonRowWriter(OutputStream out) throws IOException {
+            generator = objectMapper.getFactory().createGenerator(out);
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            generator.setPrettyPrinter(new MinimalPrettyPrinter("\n"));
+        }
+
+        @Override
+        public void write(ResultSet row) throws SQLException, IOException {
+            generator.writeStartObject();
+            generator.writeNumberField("id", row.getLong(1));
+            generator.writeNumberField("userId", row.getLong(2));
+            generator.writeStringField("serviceName", serviceDictionary.getName(row.getInt(3)));
+            generator.writeStringField("startDate", formatDate(row.getTimestamp(4)));
+            generator.writeStringField("endDate", formatDate(row.getTimestamp(5)));
+            generator.writeEndObject();
+            empty = false;
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (!empty) {
+                generator.writeRaw('\n');
+            }
+            generator.close();
+        }
+    }
+
+    private final class CsvRowWriter implements RowWriter {
+        private final Writer writer;
+
+        private CsvRowWriter(OutputStream out) throws IOException {
+            writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), OUTPUT_BUFFER_SIZE);
+            writer.write(CSV_HEADER);
+            writer.write('\n');
+        }
+
+        @Override
+        public void write(ResultSet row) throws SQLException, IOException {
+            writer.write(Long.toString(row.getLong(1)));
+            writer.write(',');
+            writer.write(Long.toString(row.getLong(2)));
+            writer.write(',');
+            writer.write(csvValue(serviceDictionary.getName(row.getInt(3))));
+            writer.write(',');
+            writer.write(formatDate(row.getTimestamp(4)));
+            writer.write(',');
+            writer.write(formatDate(row.getTimestamp(5)));
+            writer.write('\n');
+        }
+
+        @Override
+        public void close() throws IOException {
+            writer.flush();
+        }
+    }
+
+    private static String formatDate(Timestamp timestamp) {
+        return DateTimeFormatter.ISO_LOCAL_DATE_TIME.format(timestamp.toLocalDateTime());
+    }
+
+    /**
+     * Экранирует значение CSV по правилам RFC 4180.
+     */
+    static String csvValue(String value) {
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            return value;
+        }
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+}
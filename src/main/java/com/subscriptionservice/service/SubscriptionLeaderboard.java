@@ -0,0 +1,194 @@
+package com.subscriptionservice.service;
+
+import com.subscriptionservice.config.MetricsConfig;
+import com.subscriptionservice.dto.TopSubscriptionDTO;
+import com.subscriptionservice.event.SubscriptionsChangedEvent;
+import com.subscriptionservice.repository.SubscriptionRepository;
+import io.micrometer.core.annotation.Timed;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Рейтинг популярности сервисов, поддерживаемый в памяти.
+ * Количество подписок по сервисам загружается из базы данных при старте приложения,
+ * затем обновляется инкрементально после фиксации транзакций, изменяющих подписки,
+ * и периодически сверяется с базой данных для устранения расхождений.
+ */
+@Slf4j
+@Component
+@Timed(value = MetricsConfig.SERVICE_TIMER, histogram = true)
+@RequiredArgsConstructor
+public class SubscriptionLeaderboard {
+    private static final Comparator<Entry> RANKING_ORDER = Comparator
+            .comparingLong(Entry::subscriberCount).reversed()
+            .thenComparing(Entry::serviceName);
+
+    private final SubscriptionRepository subscriptionRepository;
+    private final ServiceDictionary serviceDictionary;
+
+    private final Map<String, Long> counts = new ConcurrentHashMap<>();
+
+    /**
+     * Версия счетчиков, увеличивается при каждом изменении.
+     */
+    private final AtomicLong version = new AtomicLong();
+
+    /**
+     * Отсортированный снимок рейтинга; снимок устаревает, когда его версия отстает от счетчиков.
+     */
+    private volatile Snapshot ranking = new Snapshot(-1, List.of());
+
+    private volatile boolean loaded;
+
+    /**
+     * Изменения, зафиксированные во время загрузки счетчиков сверкой; null, если сверка не выполняется.
+     */
+    private Map<String, Long> reconcileDeltas;
+
+    /**
+     * Загружает рейтинг из базы данных после запуска приложения.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        reconcile();
+    }
+
+    /**
+     * Сверяет рейтинг с базой данных и заменяет счетчики актуальными значениями.
+     * Счетчики загружаются без блокировки; изменения, зафиксированные во время загрузки, запоминаются
+     * и применяются к загруженным значениям перед заменой, чтобы сверка сама не вносила расхождение.
+     * Изменение, зафиксированное до начала загрузки, но примененное после ее начала, учитывается
+     * дважды и исправляется следующей сверкой.
+     */
+    @Scheduled(fixedDelayString = "${app.leaderboard.reconcile-interval:PT5M}",
+            initialDelayString = "${app.leaderboard.reconcile-interval:PT5M}")
+    public void reconcile() {
+        synchronized (this) {
+            reconcileDeltas = new HashMap<>();
+        }
+        Map<String, Long> actual = new HashMap<>();
+        try {
+            for (Object[] row : subscriptionRepository.countSubscriptionsByServiceId()) {
+                actual.put(serviceDictionary.getName((Integer) row[0]), (Long) row[1]);
+            }
+        } catch (RuntimeException ex) {
+            synchronized (this) {
+                reconcileDeltas = null;
+            }
+            log.error("Не удалось загрузить рейтинг подписок из базы данных", ex);
+            return;
+        }
+
+        synchronized (this) {
+            reconcileDeltas.forEach((serviceName, delta) -> apply(actual, serviceName, delta));
+            reconcileDeltas = null;
+            if (loaded && !actual.equals(counts)) {
+                log.warn("Обнаружено расхождение рейтинга подписок с базой данных, рейтинг пересчитан");
+            }
+            counts.clear();
+            counts.putAll(actual);
+            version.incrementAndGet();
+            loaded = true;
+        }
+        log.debug("Рейтинг подписок сверен с базой данных, сервисов: {}", actual.size());
+    }
+
+    /**
+     * Применяет изменения количества подписок после фиксации транзакции.
+     *
+     * @param event событие изменения подписок
+     */
+    @TransactionalEventListener
+    public synchronized void onSubscriptionsChanged(SubscriptionsChangedEvent event) {
+        if (reconcileDeltas != null) {
+            event.serviceDeltas().forEach((serviceName, delta) -> reconcileDeltas.merge(serviceName, delta, Long::sum));
+        }
+        if (!loaded) {
+            return;
+        }
+        event.serviceDeltas().forEach((serviceName, delta) -> apply(counts, serviceName, delta));
+        version.incrementAndGet();
+    }
+
+    private static void apply(Map<String, Long> counts, String serviceName, long delta) {
+        counts.compute(serviceName, (name, count) -> {
+            long updated = (count == null ? 0 : count) + delta;
+            return updated > 0 ? updated : null;
+        });
+    }
+
+    /**
+     * Проверяет, загружен ли рейтинг из базы данных.
+     *
+     * @return true если рейтинг готов к использованию
+     */
+    public boolean isLoaded() {
+        return loaded;
+    }
+
+    /**
+     * Возвращает версию рейтинга, увеличивающуюся при каждом изменении счетчиков.
+     *
+     * @return версия рейтинга
+     */
+    public long getVersion() {
+        return version.get();
+    }
+
+    /**
+     * Возвращает первые позиции рейтинга.
+     *
+     * @param limit максимальное количество сервисов
+     * @return список популярных сервисов с количеством подписчиков
+     */
+    public List<TopSubscriptionDTO> getTop(int limit) {
+        Snapshot snapshot = ranking;
+        if (snapshot.version() != version.get()) {
+            snapshot = rebuildRanking();
+        }
+        List<Entry> entries = snapshot.entries();
+        int size = Math.min(limit, entries.size());
+        List<TopSubscriptionDTO> result = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            Entry entry = entries.get(i);
+            TopSubscriptionDTO dto = new TopSubscriptionDTO();
+            dto.setServiceName(entry.serviceName());
+            dto.setSubscriberCount(entry.subscriberCount());
+            result.add(dto);
+        }
+        return result;
+    }
+
+    private synchronized Snapshot rebuildRanking() {
+        long currentVersion = version.get();
+        Snapshot snapshot = ranking;
+        if (snapshot.version() == currentVersion) {
+            return snapshot;
+        }
+        List<Entry> entries = new ArrayList<>(counts.size());
+        counts.forEach((serviceName, count) -> entries.add(new Entry(serviceName, count)));
+        entries.sort(RANKING_ORDER);
+        snapshot = new Snapshot(currentVersion, List.copyOf(entries));
+        ranking = snapshot;
+        return snapshot;
+    }
+
+    private record Entry(String serviceName, long subscriberCount) {
+    }
+
+    private record Snapshot(long version, List<Entry> entries) {
+    }
+}
@@ -0,0 +1,92 @@
+package com.subscriptionservice.service;
+
+import com.subscriptionservice.config.MetricsConfig;
+import com.subscriptionservice.config.PartitioningProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Переход на секционированную таблицу подписок без остановки приложения.
+ * Миграция 10-subscriptions-partitioned создает секционированную таблицу и триггер, переносящий
+ * в нее изменения; планировщик копирует существующие строки частями по app.partitioning.batch-size
+ * с паузой app.partitioning.interval, после чего заменяет таблицу subscriptions секционированной.
+ * Позиция копирования хранится в базе данных, поэтому после перезапуска копирование продолжается,
+ * а несколько экземпляров приложения не копируют одни и те же строки.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(prefix = "app.partitioning", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class SubscriptionPartitioningBackfill {
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final PartitioningProperties partitioningProperties;
+    private final Counter backfilledCounter;
+
+    private volatile boolean completed;
+
+    public SubscriptionPartitioningBackfill(JdbcTemplate jdbcTemplate,
+                                            PlatformTransactionManager transactionManager,
+                                            PartitioningProperties partitioningProperties,
+                                            MeterRegistry meterRegistry) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.partitioningProperties = partitioningProperties;
+        this.backfilledCounter = meterRegistry.counter(MetricsConfig.SUBSCRIPTIONS_PARTITIONING_BACKFILLED);
+    }
+
+    /**
+     * Копирует очередную часть строк; после копирования последней части заменяет таблицу.
+     */
+    @Scheduled(fixedDelayString = "${app.partitioning.interval:PT0.2S}")
+    public void backfill() {
+        if (completed) {
+            return;
+        }
+        try {
+            if (!isPending()) {
+                completed = true;
+                return;
+            }
+            int batchSize = partitioningProperties.getBatchSize();
+            Integer copied = jdbcTemplate.queryForObject("SELECT subscriptions_partitioning_backfill(?)",
+                    Integer.class, batchSize);
+            if (copied == null) {
+                // Строки копирует другой экземпляр приложения
+                return;
+            }
+            backfilledCounter.increment(copied);
+            if (log.isDebugEnabled()) {
+                log.debug("Скопировано в секционированную таблицу подписок: {}", copied);
+            }
+            if (copied == batchSize) {
+                return;
+            }
+            cutover();
+            completed = true;
+            log.info("Таблица subscriptions заменена секционированной");
+        } catch (RuntimeException ex) {
+            // Блокировка не получена или таблицу заменил другой экземпляр: повтор на следующем запуске
+            log.warn("Не удалось продолжить переход на секционированную таблицу подписок: {}", ex.getMessage());
+        }
+    }
+
+    private boolean isPending() {
+        return Boolean.TRUE.equals(jdbcTemplate.queryForObject(
+                "SELECT to_regclass('subscriptions_partitioned') IS NOT NULL", Boolean.class));
+    }
+
+    private void cutover() {
+        String lockTimeout = partitioningProperties.getCutoverLockTimeout().toMillis() + "ms";
+        transactionTemplate.executeWithoutResult(status -> {
+            jdbcTemplate.queryForObject("SELECT set_config('lock_timeout', ?, true)", String.class, lockTimeout);
+            jdbcTemplate.execute("SELECT subscriptions_partitioning_cutover()");
+        });
+    }
+}
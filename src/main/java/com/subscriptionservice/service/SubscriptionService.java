@@ -1,20 +1,36 @@
 package com.subscriptionservice.service;
 
+import com.subscriptionservice.config.MetricsConfig;
+import com.subscriptionservice.config.PaginationProperties;
+import com.subscriptionservice.config.TopSubscriptionsProperties;
 import com.subscriptionservice.dto.SubscriptionDTO;
+import com.subscriptionservice.dto.SubscriptionPageDTO;
 import com.subscriptionservice.dto.TopSubscriptionDTO;
+import com.subscriptionservice.event.SubscriptionsChangedEvent;
+import com.subscriptionservice.event.UserSubscriptionsChangedEvent;
 import com.subscriptionservice.exception.ResourceNotFoundException;
 import com.subscriptionservice.exception.ValidationException;
 import com.subscriptionservice.mapper.SubscriptionMapper;
 import com.subscriptionservice.mapper.UserMapper;
+import com.subscriptionservice.model.OutboxEventType;
 import com.subscriptionservice.model.Subscription;
-import com.subscriptionservice.model.User;
 import com.subscriptionservice.repository.SubscriptionRepository;
+import com.subscriptionservice.repository.UserRepository;
+import io.micrometer.core.annotation.Timed;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.hibernate.exception.ConstraintViolationException;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
 import java.util.List;
+import java.util.Locale;
 import java.util.stream.Collectors;
 
 /**
@@ -24,11 +40,24 @@ import java.util.stream.Collectors;
  */
 @Slf4j
 @Service
+@Timed(value = MetricsConfig.SERVICE_TIMER, histogram = true)
 @RequiredArgsConstructor
 public class SubscriptionService {
+    /**
+     * Ограничение уникальности сервиса у пользователя. Нарушение в секции таблицы сообщается
+     * с именем ограничения секции uk_subscriptions_user_service_pN.
+     */
+    static final String UNIQUE_USER_SERVICE_CONSTRAINT = "uk_subscriptions_user_service";
+    static final String USER_FOREIGN_KEY = "fk_subscription_user";
+
     private final SubscriptionRepository subscriptionRepository;
-    private final UserService userService;
+    private final UserRepository userRepository;
     private final SubscriptionMapper subscriptionMapper;
+    private final SubscriptionLeaderboard subscriptionLeaderboard;
+    private final TopSubscriptionsProperties topSubscriptionsProperties;
+    private final PaginationProperties paginationProperties;
+    private final ApplicationEventPublisher eventPublisher;
+    private final OutboxService outboxService;
 
     /**
      * Добавляет новую подписку для пользователя.
@@ -37,17 +66,13 @@ public class SubscriptionService {
      * @param subscriptionDTO данные новой подписки
      * @return созданная подписка
      * @throws ValidationException если дата окончания подписки раньше даты начала
+     *         или у пользователя уже есть подписка на сервис
      * @throws ResourceNotFoundException если пользователь не найден
      */
     @Transactional
     public SubscriptionDTO addSubscription(Long userId, SubscriptionDTO subscriptionDTO) {
-        log.info("Добавление подписки {} для пользователя с ID: {}", 
-                subscriptionDTO.getServiceName(), userId);
-
-        if (subscriptionRepository.existsByUserIdAndServiceName(userId, subscriptionDTO.getServiceName())) {
-            log.warn("Попытка добавления существующей подписки {} для пользователя с ID: {}", 
-                    subscriptionDTO.getServiceName(), userId);
-            throw new ValidationException("У пользователя уже есть подписка на сервис " + subscriptionDTO.getServiceName());
+        if (log.isDebugEnabled()) {
+            log.debug("Добавление подписки {} для пользователя с ID: {}", subscriptionDTO.getServiceName(), userId);
         }
 
         if (subscriptionDTO.getEndDate().isBefore(subscriptionDTO.getStartDate())) {
@@ -55,31 +80,62 @@ public class SubscriptionService {
             throw new ValidationException("Дата окончания подписки должна быть позже даты начала");
         }
 
-        User user = userService.getUserEntityById(userId);
         Subscription subscription = subscriptionMapper.toEntity(subscriptionDTO);
-        subscription.setUser(user);
-        Subscription savedSubscription = subscriptionRepository.save(subscription);
+        subscription.setUser(userRepository.getReferenceById(userId));
+        Subscription savedSubscription;
+        try {
+            savedSubscription = subscriptionRepository.saveAndFlush(subscription);
+        } catch (DataIntegrityViolationException ex) {
+            throw translateConstraintViolation(ex, userId, subscriptionDTO.getServiceName());
+        }
+        SubscriptionDTO created = subscriptionMapper.toDTO(savedSubscription);
+        outboxService.record(OutboxEventType.SUBSCRIPTION_CREATED, savedSubscription.getId(), created);
+        eventPublisher.publishEvent(SubscriptionsChangedEvent.added(created.getServiceName()));
+        eventPublisher.publishEvent(UserSubscriptionsChangedEvent.of(userId));
         log.info("Подписка успешно добавлена с ID: {}", savedSubscription.getId());
-        return subscriptionMapper.toDTO(savedSubscription);
+        return created;
     }
 
     /**
-     * Получает список всех подписок пользователя.
+     * Получает страницу подписок пользователя.
+     * Подписки упорядочены по возрастанию идентификаторов; следующая страница запрашивается
+     * с токеном продолжения из предыдущей страницы.
      *
      * @param userId идентификатор пользователя
-     * @return список подписок пользователя
+     * @param after токен продолжения или null для первой страницы
+     * @param limit размер страницы или null для размера по умолчанию
+     * @return страница подписок пользователя
+     * @throws ValidationException если размер страницы или токен продолжения некорректны
      */
-    public List<SubscriptionDTO> getUserSubscriptions(Long userId) {
-        log.info("Получение списка подписок для пользователя с ID: {}", userId);
-        List<Subscription> subscriptions = subscriptionRepository.findByUserId(userId);
-        log.info("Найдено {} подписок для пользователя", subscriptions.size());
-        return subscriptions.stream()
+    @Transactional(readOnly = true)
+    public SubscriptionPageDTO getUserSubscriptions(Long userId, String after, Integer limit) {
+        int pageSize = resolvePageSize(limit, paginationProperties);
+        long afterId = after == null ? 0 : decodeCursor(userId, after);
+        if (log.isDebugEnabled()) {
+            log.debug("Получение подписок для пользователя с ID: {} после подписки с ID: {}", userId, afterId);
+        }
+
+        List<SubscriptionDTO> subscriptions = subscriptionRepository.findPageByUserId(userId, afterId,
+                        PageRequest.of(0, pageSize + 1)).stream()
                 .map(subscriptionMapper::toDTO)
                 .collect(Collectors.toList());
+        boolean hasNext = subscriptions.size() > pageSize;
+        if (hasNext) {
+            subscriptions = subscriptions.subList(0, pageSize);
+        }
+        if (log.isDebugEnabled()) {
+            log.debug("Найдено {} подписок для пользователя", subscriptions.size());
+        }
+        String nextCursor = hasNext
+                ? encodeCursor(userId, subscriptions.get(subscriptions.size() - 1).getId())
+                : null;
+        return new SubscriptionPageDTO(subscriptions, nextCursor);
     }
 
     /**
      * Удаляет подписку пользователя.
+     * Подписка удаляется одним запросом DELETE с условием на владельца; причина отказа
+     * определяется дополнительным запросом только если подписка не была удалена.
      *
      * @param userId идентификатор пользователя
      * @param subscriptionId идентификатор подписки
@@ -88,33 +144,58 @@ public class SubscriptionService {
      */
     @Transactional
     public void deleteSubscription(Long userId, Long subscriptionId) {
-        log.info("Удаление подписки с ID: {} для пользователя с ID: {}", 
-                subscriptionId, userId);
-        Subscription subscription = subscriptionRepository.findById(subscriptionId)
-                .orElseThrow(() -> {
-                    log.error("Подписка с ID {} не найдена", subscriptionId);
-                    return new ResourceNotFoundException("Подписка не найдена");
-                });
-        
-        if (!subscription.getUser().getId().equals(userId)) {
-            log.error("Подписка с ID {} не принадлежит пользователю с ID {}", 
-                    subscriptionId, userId);
-            throw new ValidationException("Подписка не принадлежит пользователю");
-        }
-        
-        subscriptionRepository.delete(subscription);
+        if (log.isDebugEnabled()) {
+            log.debug("Удаление подписки с ID: {} для пользователя с ID: {}", subscriptionId, userId);
+        }
+        List<Subscription> deleted = subscriptionRepository.deleteOwnedByIds(List.of(subscriptionId), userId);
+        if (deleted.isEmpty()) {
+            if (subscriptionRepository.existsById(subscriptionId)) {
+                log.error("Подписка с ID {} не принадлежит пользователю с ID {}",
+                        subscriptionId, userId);
+                throw new ValidationException("Подписка не принадлежит пользователю");
+            }
+            log.error("Подписка с ID {} не найдена", subscriptionId);
+            throw new ResourceNotFoundException("Подписка не найдена");
+        }
+
+        SubscriptionDTO subscription = subscriptionMapper.toDTO(deleted.get(0));
+        outboxService.record(OutboxEventType.SUBSCRIPTION_DELETED, subscriptionId, subscription);
+        eventPublisher.publishEvent(SubscriptionsChangedEvent.removed(subscription.getServiceName()));
+        eventPublisher.publishEvent(UserSubscriptionsChangedEvent.of(userId));
         log.info("Подписка успешно удалена");
     }
 
     /**
-     * Получает список ТОП-3 популярных подписок.
+     * Получает список популярных подписок.
+     * Без ограничения по времени результат берется из рейтинга в памяти; пока рейтинг
+     * не загружен, выполняется запрос к базе данных. С ограничением по времени учитываются
+     * только подписки, действующие в момент activeAt или в периоде [from, to].
      *
+     * @param limit количество сервисов в списке, если null - значение по умолчанию
+     * @param activeAt момент времени, в который подписка должна действовать
+     * @param from начало периода
+     * @param to окончание периода
      * @return список DTO популярных подписок с количеством подписчиков
+     * @throws ValidationException если параметры выборки некорректны
      */
     @Transactional(readOnly = true)
-    public List<TopSubscriptionDTO> getTopSubscriptions() {
-        log.info("Получение ТОП-3 популярных подписок");
-        List<Object[]> results = subscriptionRepository.findTop3PopularSubscriptions();
+    public List<TopSubscriptionDTO> getTopSubscriptions(Integer limit, LocalDateTime activeAt,
+                                                        LocalDateTime from, LocalDateTime to) {
+        int resolvedLimit = resolveTopLimit(limit, activeAt, from, to, topSubscriptionsProperties);
+        if (log.isDebugEnabled()) {
+            log.debug("Получение ТОП-{} популярных подписок", resolvedLimit);
+        }
+
+        List<Object[]> results;
+        if (activeAt != null) {
+            results = subscriptionRepository.findTopPopularSubscriptionsActiveBetween(activeAt, activeAt, resolvedLimit);
+        } else if (from != null) {
+            results = subscriptionRepository.findTopPopularSubscriptionsActiveBetween(from, to, resolvedLimit);
+        } else if (subscriptionLeaderboard.isLoaded()) {
+            return subscriptionLeaderboard.getTop(resolvedLimit);
+        } else {
+            results = subscriptionRepository.findTopPopularSubscriptions(resolvedLimit);
+        }
         return results.stream()
                 .map(result -> {
                     TopSubscriptionDTO dto = new TopSubscriptionDTO();
@@ -124,4 +205,102 @@ public class SubscriptionService {
                 })
                 .collect(Collectors.toList());
     }
-} 
\ No newline at end of file
+
+    /**
+     * Определяет размер страницы подписок.
+     * Используется также реактивным вариантом API.
+     *
+     * @param limit запрошенный размер страницы или null для размера по умолчанию
+     * @param properties настройки постраничного чтения
+     * @return размер страницы
+     * @throws ValidationException если размер страницы вне допустимого диапазона
+     */
+    static int resolvePageSize(Integer limit, PaginationProperties properties) {
+        int pageSize = limit == null ? properties.getDefaultLimit() : limit;
+        if (pageSize < 1 || pageSize > properties.getMaxLimit()) {
+            throw new ValidationException("Размер страницы должен быть от 1 до " + properties.getMaxLimit());
+        }
+        return pageSize;
+    }
+
+    /**
+     * Проверяет параметры выборки популярных подписок и определяет размер списка.
+     * Используется также реактивным вариантом API.
+     *
+     * @param limit запрошенное количество сервисов или null для значения по умолчанию
+     * @param activeAt момент времени, в который подписка должна действовать
+     * @param from начало периода
+     * @param to окончание периода
+     * @param properties настройки выборки популярных подписок
+     * @return количество сервисов в списке
+     * @throws ValidationException если параметры выборки некорректны
+     */
+    static int resolveTopLimit(Integer limit, LocalDateTime activeAt, LocalDateTime from, LocalDateTime to,
+                               TopSubscriptionsProperties properties) {
+        int resolvedLimit = limit != null ? limit : properties.getDefaultLimit();
+        if (resolvedLimit < 1 || resolvedLimit > properties.getMaxLimit()) {
+            throw new ValidationException("Параметр limit должен быть от 1 до " + properties.getMaxLimit());
+        }
+        if (activeAt != null && (from != null || to != null)) {
+            throw new ValidationException("Параметр activeAt нельзя использовать вместе с from и to");
+        }
+        if ((from == null) != (to == null)) {
+            throw new ValidationException("Параметры from и to должны указываться вместе");
+        }
+        if (from != null && from.isAfter(to)) {
+            throw new ValidationException("Параметр from должен быть не позже параметра to");
+        }
+        return resolvedLimit;
+    }
+
+    /**
+     * Преобразует нарушение ограничения при вставке подписки в ошибку API.
+     * Уникальность подписки и существование пользователя проверяются базой данных
+     * при вставке, а не отдельными запросами перед ней.
+     */
+    private RuntimeException translateConstraintViolation(DataIntegrityViolationException ex,
+                                                          Long userId, String serviceName) {
+        String constraintName = ex.getCause() instanceof ConstraintViolationException violation
+                ? violation.getConstraintName()
+                : null;
+        if (isUniqueUserServiceConstraint(constraintName)) {
+            log.warn("Попытка добавления существующей подписки {} для пользователя с ID: {}", serviceName, userId);
+            return new ValidationException("У пользователя уже есть подписка на сервис " + serviceName);
+        }
+        if (USER_FOREIGN_KEY.equalsIgnoreCase(constraintName)) {
+            log.error("Пользователь с ID {} не найден", userId);
+            return new ResourceNotFoundException("Пользователь не найден");
+        }
+        return ex;
+    }
+
+    /**
+     * Проверяет, является ли ограничение ограничением уникальности сервиса у пользователя
+     * для таблицы подписок или одной из ее секций.
+     */
+    static boolean isUniqueUserServiceConstraint(String constraintName) {
+        return constraintName != null
+                && constraintName.toLowerCase(Locale.ROOT).startsWith(UNIQUE_USER_SERVICE_CONSTRAINT);
+    }
+
+    /**
+     * Кодирует позицию страницы в токен продолжения.
+     * Токен привязан к пользователю, чтобы его нельзя было использовать для чужого списка.
+     */
+    static String encodeCursor(Long userId, Long lastId) {
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString((userId + ":" + lastId).getBytes(StandardCharsets.UTF_8));
+    }
+
+    static long decodeCursor(Long userId, String cursor) {
+        try {
+            String[] parts = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8).split(":");
+            if (parts.length == 2 && Long.parseLong(parts[0]) == userId) {
+                return Long.parseLong(parts[1]);
+            }
+        } catch (IllegalArgumentException ex) {
+            // обрабатывается ниже как некорректный токен
+        }
+        throw new ValidationException("Некорректный токен продолжения");
+    }
+}
@@ -0,0 +1,253 @@
+package com.subscriptionservice.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.subscriptionservice.config.MetricsConfig;
+import com.subscriptionservice.config.TopSubscriptionsProperties;
+import com.subscriptionservice.dto.TopSubscriptionDTO;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.FluxSink;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Рассылка изменений рейтинга популярных подписок подключенным клиентам.
+ * Раз в интервал app.top.stream-interval рейтинг проверяется по версии {@link SubscriptionLeaderboard};
+ * если он изменился, ТОП-список вычисляется и сериализуется один раз для каждого запрошенного
+ * размера и передается всем клиентам этого размера. Клиенту передается только последний
+ * рейтинг: если клиент не успел получить предыдущий, промежуточный рейтинг пропускается,
+ * а медленная запись одному клиенту занимает только его виртуальный поток.
+ */
+@Slf4j
+@Component
+public class TopSubscriptionsBroadcaster {
+    /**
+     * Имя события потока рейтинга.
+     */
+    public static final String EVENT_NAME = "top";
+
+    private final SubscriptionLeaderboard subscriptionLeaderboard;
+    private final TopSubscriptionsProperties topSubscriptionsProperties;
+    private final ObjectWriter writer;
+    private final Executor executor;
+
+    private final Set<Client> clients = ConcurrentHashMap.newKeySet();
+
+    /**
+     * Последний разосланный рейтинг по размеру ТОП-списка.
+     */
+    private Map<Integer, String> rankings = Map.of();
+
+    private long broadcastVersion = -1;
+
+    @Autowired
+    public TopSubscriptionsBroadcaster(SubscriptionLeaderboard subscriptionLeaderboard,
+                                       TopSubscriptionsProperties topSubscriptionsProperties,
+                                       ObjectMapper objectMapper,
+                                       MeterRegistry meterRegistry) {
+        this(subscriptionLeaderboard, topSubscriptionsProperties, objectMapper, meterRegistry,
+                Executors.newVirtualThreadPerTaskExecutor());
+    }
+
+    TopSubscriptionsBroadcaster(SubscriptionLeaderboard subscriptionLeaderboard,
+                                TopSubscriptionsProperties topSubscriptionsProperties,
+                                ObjectMapper objectMapper,
+                                MeterRegistry meterRegistry,
+                                Executor executor) {
+        this.subscriptionLeaderboard = subscriptionLeaderboard;
+        this.topSubscriptionsProperties = topSubscriptionsProperties;
+        this.writer = objectMapper.writerFor(objectMapper.getTypeFactory()
+                .constructCollectionType(List.class, TopSubscriptionDTO.class));
+        this.executor = executor;
+        Gauge.builder(MetricsConfig.TOP_STREAM_CLIENTS, clients, Set::size).register(meterRegistry);
+    }
+
+    /**
+     * Открывает поток рейтинга для Spring MVC.
+     * Первым событием передается текущий рейтинг, далее - рейтинг после каждого изменения.
+     *
+     * @param limit количество сервисов в списке или null для значения по умолчанию
+     * @return поток событий
+     * @throws com.subscriptionservice.exception.ValidationException если limit вне допустимого диапазона
+     */
+    public SseEmitter stream(Integer limit) {
+        int resolvedLimit = resolveLimit(limit);
+        SseEmitter emitter = new SseEmitter(topSubscriptionsProperties.getStreamTimeout().toMillis());
+        Runnable cancel = register(resolvedLimit, ranking -> emitter.send(SseEmitter.event()
+                .name(EVENT_NAME)
+                .data(ranking, MediaType.APPLICATION_JSON)));
+        emitter.onCompletion(cancel);
+        emitter.onTimeout(cancel);
+        emitter.onError(error -> cancel.run());
+        return emitter;
+    }
+
+    /**
+     * Открывает поток рейтинга для реактивного варианта API.
+     * Если подписчик не успевает получать рейтинги, сохраняется только последний.
+     *
+     * @param limit количество сервисов в списке или null для значения по умолчанию
+     * @return поток рейтингов в формате JSON
+     * @throws com.subscriptionservice.exception.ValidationException если limit вне допустимого диапазона
+     */
+    public Flux<String> flux(Integer limit) {
+        int resolvedLimit = resolveLimit(limit);
+        return Flux.<String>create(sink -> {
+                    Runnable cancel = register(resolvedLimit, sink::next);
+                    sink.onDispose(cancel::run);
+                }, FluxSink.OverflowStrategy.LATEST)
+                .take(topSubscriptionsProperties.getStreamTimeout());
+    }
+
+    /**
+     * Рассылает рейтинг клиентам, если он изменился с предыдущей рассылки.
+     */
+    @Scheduled(fixedDelayString = "${app.top.stream-interval:PT1S}")
+    public synchronized void broadcast() {
+        if (clients.isEmpty()) {
+            rankings = Map.of();
+            broadcastVersion = -1;
+            return;
+        }
+        long version = subscriptionLeaderboard.getVersion();
+        if (!subscriptionLeaderboard.isLoaded() || version == broadcastVersion) {
+            return;
+        }
+        broadcastVersion = version;
+
+        int maxLimit = 0;
+        for (Client client : clients) {
+            maxLimit = Math.max(maxLimit, client.limit);
+        }
+        List<TopSubscriptionDTO> top = subscriptionLeaderboard.getTop(maxLimit);
+        Map<Integer, String> current = new HashMap<>();
+        for (Client client : clients) {
+            client.offer(current.computeIfAbsent(client.limit, limit -> render(top, limit)));
+        }
+        rankings = current;
+    }
+
+    /**
+     * Количество подключенных клиентов.
+     *
+     * @return количество клиентов
+     */
+    int clientCount() {
+        return clients.size();
+    }
+
+    /**
+     * Подключает клиента и передает ему текущий рейтинг.
+     *
+     * @param limit количество сервисов в списке
+     * @param listener получатель рейтингов в формате JSON
+     * @return действие, отключающее клиента
+     */
+    synchronized Runnable register(int limit, Listener listener) {
+        Client client = new Client(limit, listener);
+        clients.add(client);
+        if (subscriptionLeaderboard.isLoaded()) {
+            client.offer(render(subscriptionLeaderboard.getTop(limit), limit));
+        }
+        return () -> clients.remove(client);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        if (executor instanceof ExecutorService executorService) {
+            executorService.shutdownNow();
+        }
+    }
+
+    private int resolveLimit(Integer limit) {
+        return SubscriptionService.resolveTopLimit(limit, null, null, null, topSubscriptionsProperties);
+    }
+
+    /**
+     * Сериализует первые позиции рейтинга. Если рейтинг не изменился с предыдущей рассылки,
+     * возвращает ранее разосланную строку, чтобы клиенты пропустили его без сравнения содержимого.
+     */
+    private String render(List<TopSubscriptionDTO> top, int limit) {
+        String ranking;
+        try {
+            ranking = writer.writeValueAsString(top.subList(0, Math.min(limit, top.size())));
+        } catch (JsonProcessingException ex) {
+            throw new IllegalStateException("Не удалось сериализовать рейтинг подписок", ex);
+        }
+        String previous = rankings.get(limit);
+        return ranking.equals(previous) ? previous : ranking;
+    }
+
+    /**
+     * Получатель рейтингов подписок.
+     */
+    @FunctionalInterface
+    interface Listener {
+        void send(String ranking) throws IOException;
+    }
+
+    /**
+     * Подключенный клиент. Хранит не более одного неотправленного рейтинга;
+     * отправка выполняется не более чем одной задачей одновременно.
+     */
+    private final class Client {
+        private final int limit;
+        private final Listener listener;
+        private final AtomicReference<String> pending = new AtomicReference<>();
+        private final AtomicBoolean sending = new AtomicBoolean();
+        private String lastOffered;
+
+        private Client(int limit, Listener listener) {
+            this.limit = limit;
+            this.listener = listener;
+        }
+
+        private synchronized void offer(String ranking) {
+            if (ranking.equals(lastOffered)) {
+                return;
+            }
+            lastOffered = ranking;
+            pending.set(ranking);
+            if (sending.compareAndSet(false, true)) {
+                executor.execute(this::drain);
+            }
+        }
+
+        private void drain() {
+            do {
+                String ranking;
+                while ((ranking = pending.getAndSet(null)) != null) {
+                    try {
+                        listener.send(ranking);
+                    } catch (IOException | RuntimeException ex) {
+                        // Отправка больше не запускается: флаг sending остается установленным
+                        clients.remove(this);
+                        log.debug("Поток рейтинга подписок закрыт клиентом: {}", ex.getMessage());
+                        return;
+                    }
+                }
+                sending.set(false);
+            } while (pending.get() != null && sending.compareAndSet(false, true));
+        }
+    }
+}
@@ -1,15 +1,37 @@
 package com.subscriptionservice.service;
 
+import com.subscriptionservice.config.BatchProperties;
+import com.subscriptionservice.config.CacheConfig;
+import com.subscriptionservice.config.MetricsConfig;
+import com.subscriptionservice.config.PrimaryRead;
+import com.subscriptionservice.dto.BatchItemResultDTO;
 import com.subscriptionservice.dto.UserDTO;
+import com.subscriptionservice.event.UserChangedEvent;
 import com.subscriptionservice.exception.ResourceNotFoundException;
 import com.subscriptionservice.exception.UserAlreadyExistsException;
 import com.subscriptionservice.mapper.UserMapper;
+import com.subscriptionservice.model.OutboxEventType;
 import com.subscriptionservice.model.User;
+import com.subscriptionservice.repository.SubscriptionRepository;
 import com.subscriptionservice.repository.UserRepository;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import io.micrometer.core.annotation.Timed;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 /**
  * Сервис для управления пользователями.
@@ -18,10 +40,17 @@ import org.springframework.transaction.annotation.Transactional;
  */
 @Slf4j
 @Service
+@Timed(value = MetricsConfig.SERVICE_TIMER, histogram = true)
 @RequiredArgsConstructor
 public class UserService {
     private final UserRepository userRepository;
+    private final SubscriptionRepository subscriptionRepository;
+    private final SubscriptionBatchService subscriptionBatchService;
     private final UserMapper userMapper;
+    private final Validator validator;
+    private final ApplicationEventPublisher eventPublisher;
+    private final OutboxService outboxService;
+    private final BatchProperties batchProperties;
 
     /**
      * Создает нового пользователя.
@@ -33,7 +62,9 @@ public class UserService {
      */
     @Transactional
     public UserDTO createUser(UserDTO userDTO) {
-        log.debug("Начало создания пользователя с email: {}", userDTO.getEmail());
+        if (log.isDebugEnabled()) {
+            log.debug("Начало создания пользователя с email: {}", userDTO.getEmail());
+        }
         
         if (userRepository.existsByEmail(userDTO.getEmail())) {
             log.warn("Попытка создания пользователя с существующим email: {}", userDTO.getEmail());
@@ -42,30 +73,101 @@ public class UserService {
 
         User user = userMapper.toEntity(userDTO);
         User savedUser = userRepository.save(user);
+        UserDTO created = userMapper.toDTO(savedUser);
+        outboxService.record(OutboxEventType.USER_CREATED, savedUser.getId(), created);
         log.info("Пользователь успешно создан с ID: {}", savedUser.getId());
         
-        return userMapper.toDTO(savedUser);
+        return created;
+    }
+
+    /**
+     * Создает пакет пользователей.
+     * Занятые email проверяются для всего пакета одним запросом, пользователи сохраняются
+     * JDBC-пакетами. Результат возвращается для каждого элемента пакета отдельно.
+     *
+     * @param users данные новых пользователей
+     * @return результаты обработки в порядке элементов пакета
+     */
+    @Transactional
+    public List<BatchItemResultDTO> createUsers(List<UserDTO> users) {
+        log.debug("Пакетное создание {} пользователей", users.size());
+        BatchItemResultDTO[] results = new BatchItemResultDTO[users.size()];
+
+        Set<String> requestedEmails = new HashSet<>();
+        for (int i = 0; i < users.size(); i++) {
+            UserDTO userDTO = users.get(i);
+            Set<ConstraintViolation<UserDTO>> violations = userDTO == null ? Set.of() : validator.validate(userDTO);
+            if (userDTO == null || !violations.isEmpty()) {
+                results[i] = failure(i, BatchItemResultDTO.Status.INVALID, userDTO == null
+                        ? "Данные пользователя не указаны"
+                        : violations.stream().map(ConstraintViolation::getMessage).sorted()
+                                .collect(Collectors.joining("; ")));
+            } else {
+                requestedEmails.add(userDTO.getEmail());
+            }
+        }
+
+        Set<String> occupiedEmails = new HashSet<>();
+        if (!requestedEmails.isEmpty()) {
+            occupiedEmails.addAll(userRepository.findExistingEmails(requestedEmails));
+        }
+
+        List<User> toSave = new ArrayList<>();
+        List<Integer> savedIndexes = new ArrayList<>();
+        for (int i = 0; i < users.size(); i++) {
+            if (results[i] != null) {
+                continue;
+            }
+            UserDTO userDTO = users.get(i);
+            if (!occupiedEmails.add(userDTO.getEmail())) {
+                results[i] = failure(i, BatchItemResultDTO.Status.DUPLICATE,
+                        "Пользователь с email " + userDTO.getEmail() + " уже существует");
+            } else {
+                toSave.add(userMapper.toEntity(userDTO));
+                savedIndexes.add(i);
+            }
+        }
+
+        List<User> savedUsers = userRepository.saveAll(toSave);
+        for (int j = 0; j < savedUsers.size(); j++) {
+            int index = savedIndexes.get(j);
+            BatchItemResultDTO result = new BatchItemResultDTO();
+            result.setIndex(index);
+            result.setStatus(BatchItemResultDTO.Status.CREATED);
+            result.setUser(userMapper.toDTO(savedUsers.get(j)));
+            results[index] = result;
+            outboxService.record(OutboxEventType.USER_CREATED, savedUsers.get(j).getId(), result.getUser());
+        }
+        log.info("Пакет пользователей обработан: создано {}, отклонено {}",
+                savedUsers.size(), users.size() - savedUsers.size());
+        return List.of(results);
     }
 
     /**
      * Получает пользователя по его ID.
+     * Пользователь читается из кэша; при промахе - на основном сервере, а не на реплике,
+     * чтобы после удаления из кэша в него не попали данные отстающей реплики.
      *
      * @param id идентификатор пользователя
      * @return информация о пользователе
      * @throws ResourceNotFoundException если пользователь не найден
      */
+    @PrimaryRead
     @Transactional(readOnly = true)
     public UserDTO getUserById(Long id) {
-        log.debug("Поиск пользователя по ID: {}", id);
-        
-        User user = userRepository.findById(id)
+        if (log.isDebugEnabled()) {
+            log.debug("Поиск пользователя по ID: {}", id);
+        }
+        UserDTO user = userRepository.findDTOById(id)
                 .orElseThrow(() -> {
                     log.warn("Пользователь с ID {} не найден", id);
                     return new ResourceNotFoundException("Пользователь с ID " + id + " не найден");
                 });
         
-        log.debug("Пользователь с ID {} найден", id);
-        return userMapper.toDTO(user);
+        if (log.isDebugEnabled()) {
+            log.debug("Пользователь с ID {} найден", id);
+        }
+        return user;
     }
 
     /**
@@ -80,7 +182,9 @@ public class UserService {
      */
     @Transactional
     public UserDTO updateUser(Long id, UserDTO userDTO) {
-        log.debug("Начало обновления пользователя с ID: {}", id);
+        if (log.isDebugEnabled()) {
+            log.debug("Начало обновления пользователя с ID: {}", id);
+        }
         
         User existingUser = userRepository.findById(id)
                 .orElseThrow(() -> {
@@ -96,45 +200,91 @@ public class UserService {
 
         User updatedUser = userMapper.updateEntity(existingUser, userDTO);
         User savedUser = userRepository.save(updatedUser);
+        UserDTO updated = userMapper.toDTO(savedUser);
+        outboxService.record(OutboxEventType.USER_UPDATED, id, updated);
+        eventPublisher.publishEvent(new UserChangedEvent(id));
         log.info("Пользователь с ID {} успешно обновлен", id);
         
-        return userMapper.toDTO(savedUser);
+        return updated;
     }
 
     /**
      * Удаляет пользователя по его ID.
-     * При удалении пользователя также удаляются все его подписки (каскадное удаление).
+     * Пользователь и его подписки удаляются запросами DELETE без предварительной загрузки;
+     * по каждой подписке записывается событие удаления.
      *
      * @param id идентификатор пользователя
      * @throws ResourceNotFoundException если пользователь не найден
      */
     @Transactional
     public void deleteUser(Long id) {
-        log.debug("Начало удаления пользователя с ID: {}", id);
-        
-        if (!userRepository.existsById(id)) {
+        if (log.isDebugEnabled()) {
+            log.debug("Начало удаления пользователя с ID: {}", id);
+        }
+
+        if (delete(List.of(id)) == 0) {
             log.warn("Попытка удаления несуществующего пользователя с ID: {}", id);
             throw new ResourceNotFoundException("Пользователь с ID " + id + " не найден");
         }
-
-        userRepository.deleteById(id);
         log.info("Пользователь с ID {} успешно удален", id);
     }
 
     /**
-     * Получает сущность пользователя по его ID.
+     * Удаляет пакет пользователей и их подписки, по одному запросу DELETE на каждую таблицу.
+     * Отсутствующие пользователи пропускаются.
      *
-     * @param id идентификатор пользователя
-     * @return сущность пользователя
-     * @throws ResourceNotFoundException если пользователь не найден
+     * @param ids идентификаторы пользователей
+     * @return количество удаленных пользователей
+     * @throws com.subscriptionservice.exception.ValidationException если пакет пуст,
+     *         превышает допустимый размер или содержит пустые идентификаторы
      */
-    @Transactional(readOnly = true)
-    public User getUserEntityById(Long id) {
-        log.info("Получение пользователя с ID: {}", id);
-        return userRepository.findById(id)
-                .orElseThrow(() -> {
-                    log.error("Пользователь с ID {} не найден", id);
-                    return new ResourceNotFoundException("Пользователь не найден");
-                });
+    @Transactional
+    public int deleteUsers(List<Long> ids) {
+        SubscriptionBatchService.checkIds(ids, batchProperties);
+        int deleted = delete(ids);
+        log.info("Пакетное удаление пользователей: удалено {} из {}", deleted, ids.size());
+        return deleted;
+    }
+
+    /**
+     * Удаляет пользователя из кэша после фиксации транзакции, изменившей или удалившей его.
+     * Чтение, начатое до фиксации, может вернуть в кэш прежние данные;
+     * такая запись устаревает не позже срока жизни записей кэша.
+     *
+     * @param event событие изменения пользователя
+     */
+    @TransactionalEventListener
+    @CacheEvict(cacheNames = CacheConfig.USERS_CACHE, key = "#event.userId()")
+    public void onUserChanged(UserChangedEvent event) {
+        log.debug("Пользователь с ID {} удален из кэша", event.userId());
+    }
+
+    /**
+     * Удаляет пользователей и публикует события удаления.
+     * Пользователи блокируются, чтобы им не были добавлены новые подписки; затем подписки удаляются
+     * явно, а не каскадно, и по каждой записывается событие удаления подписки и изменение рейтинга,
+     * как при удалении подписок, после чего удаляются пользователи.
+     */
+    private int delete(Collection<Long> ids) {
+        List<Long> existingIds = userRepository.lockByIds(ids);
+        if (existingIds.isEmpty()) {
+            return 0;
+        }
+        subscriptionBatchService.onDeleted(subscriptionRepository.deleteByUserIds(existingIds));
+
+        List<Long> deletedIds = userRepository.deleteByIdsReturningIds(existingIds);
+        for (Long id : deletedIds) {
+            outboxService.record(OutboxEventType.USER_DELETED, id, Map.of("id", id));
+            eventPublisher.publishEvent(new UserChangedEvent(id));
+        }
+        return deletedIds.size();
+    }
+
+    private static BatchItemResultDTO failure(int index, BatchItemResultDTO.Status status, String error) {
+        BatchItemResultDTO result = new BatchItemResultDTO();
+        result.setIndex(index);
+        result.setStatus(status);
+        result.setError(error);
+        return result;
     }
-} 
\ No newline at end of file
+}
@@ -0,0 +1,4 @@
+-- Шаг последовательности идентификаторов подписок для пакетной вставки.
+-- Hibernate резервирует диапазон из 50 идентификаторов за одно обращение к последовательности,
+-- поэтому вставки подписок могут объединяться в JDBC-пакеты.
+ALTER SEQUENCE subscriptions_id_seq INCREMENT BY 50;
@@ -0,0 +1,4 @@
+-- Шаг последовательности идентификаторов пользователей для пакетной вставки.
+-- Hibernate резервирует диапазон из 50 идентификаторов за одно обращение к последовательности,
+-- поэтому вставки пользователей при импорте могут объединяться в JDBC-пакеты.
+ALTER SEQUENCE users_id_seq INCREMENT BY 50;
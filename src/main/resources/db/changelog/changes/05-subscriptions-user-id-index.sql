@@ -0,0 +1,5 @@
+-- Составной индекс для постраничного чтения подписок пользователя в порядке идентификаторов.
+-- Запрос "WHERE user_id = ? AND id > ? ORDER BY id LIMIT ?" читает из индекса только одну страницу
+-- без сортировки; индекс по user_id становится избыточным, так как является префиксом нового.
+CREATE INDEX idx_subscriptions_user_id_id ON subscriptions(user_id, id);
+DROP INDEX idx_subscriptions_user_id;
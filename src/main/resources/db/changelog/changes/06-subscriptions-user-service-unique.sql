@@ -0,0 +1,11 @@
+-- Уникальность подписки пользователя на сервис обеспечивается базой данных.
+-- Дубликаты, которые могли появиться при параллельных запросах, удаляются;
+-- сохраняется самая ранняя подписка.
+DELETE FROM subscriptions s
+USING subscriptions d
+WHERE s.user_id = d.user_id
+  AND s.service_name = d.service_name
+  AND s.id > d.id;
+
+ALTER TABLE subscriptions
+    ADD CONSTRAINT uk_subscriptions_user_service UNIQUE (user_id, service_name);
@@ -0,0 +1,11 @@
+-- Статус подписки: ACTIVE до даты окончания, после нее планировщик переводит подписку в EXPIRED.
+-- Добавление столбца с постоянным значением по умолчанию не перезаписывает таблицу.
+ALTER TABLE subscriptions ADD COLUMN status VARCHAR(16) NOT NULL DEFAULT 'ACTIVE';
+
+UPDATE subscriptions SET status = 'EXPIRED' WHERE end_date <= LOCALTIMESTAMP;
+
+-- Частичный индекс по дате окончания действующих подписок. Планировщик читает из него
+-- только окно ближайших истечений; индекс idx_subscriptions_dates для этого не подходит,
+-- так как начинается со start_date. Истекшие подписки в индекс не попадают,
+-- поэтому его размер определяется числом действующих подписок.
+CREATE INDEX idx_subscriptions_active_end_date ON subscriptions(end_date) WHERE status = 'ACTIVE';
@@ -0,0 +1,32 @@
+-- Журнал изменений (transactional outbox). Сервисы записывают событие в одной транзакции
+-- с изменением данных, ретранслятор после фиксации назначает событиям сквозную позицию.
+-- Позиции назначаются по порядку только зафиксированным событиям, поэтому потребитель,
+-- читающий события после сохраненной позиции, не пропускает события транзакций,
+-- зафиксированных позже транзакций с большими идентификаторами.
+CREATE TABLE outbox_events (
+    id BIGSERIAL PRIMARY KEY,
+    position BIGINT,
+    aggregate_type VARCHAR(32) NOT NULL,
+    aggregate_id BIGINT NOT NULL,
+    event_type VARCHAR(64) NOT NULL,
+    payload TEXT NOT NULL,
+    created_at TIMESTAMP NOT NULL
+);
+
+-- Идентификаторы выделяются блоками по 50, как и для остальных таблиц
+ALTER SEQUENCE outbox_events_id_seq INCREMENT BY 50;
+
+CREATE SEQUENCE outbox_events_position_seq;
+
+-- Чтение событий потребителями после сохраненной позиции
+CREATE UNIQUE INDEX uk_outbox_events_position ON outbox_events(position);
+
+-- Поиск событий, которым еще не назначена позиция
+CREATE INDEX idx_outbox_events_unsequenced ON outbox_events(id) WHERE position IS NULL;
+
+-- Позиции, до которых события обработаны потребителями и приемниками ретранслятора
+CREATE TABLE outbox_offsets (
+    consumer VARCHAR(64) PRIMARY KEY,
+    position BIGINT NOT NULL,
+    updated_at TIMESTAMP NOT NULL
+);
@@ -0,0 +1,27 @@
+-- Справочник сервисов. Подписка хранит идентификатор сервиса вместо названия,
+-- поэтому группировка и сравнение по сервису выполняются по целым числам,
+-- а строки таблицы subscriptions и индексы по сервису становятся меньше.
+CREATE TABLE services (
+    id SERIAL PRIMARY KEY,
+    name VARCHAR(255) NOT NULL,
+    CONSTRAINT uk_services_name UNIQUE (name)
+);
+
+INSERT INTO services (name)
+SELECT DISTINCT service_name FROM subscriptions ORDER BY service_name;
+
+-- Столбец заменяется изменением типа: таблица перезаписывается один раз, без промежуточных
+-- версий строк, а индекс idx_subscriptions_service и ограничение uk_subscriptions_user_service
+-- перестраиваются по новому столбцу.
+CREATE FUNCTION pg_temp.service_id(service_name VARCHAR) RETURNS INTEGER
+    LANGUAGE sql STABLE AS 'SELECT id FROM services WHERE name = service_name';
+
+ALTER TABLE subscriptions
+    ALTER COLUMN service_name TYPE INTEGER USING pg_temp.service_id(service_name);
+
+ALTER TABLE subscriptions RENAME COLUMN service_name TO service_id;
+
+ALTER INDEX idx_subscriptions_service RENAME TO idx_subscriptions_service_id;
+
+ALTER TABLE subscriptions
+    ADD CONSTRAINT fk_subscriptions_service FOREIGN KEY (service_id) REFERENCES services(id);
@@ -0,0 +1,157 @@
+--liquibase formatted sql
+
+-- Файл в формате formatted SQL: количество секций подставляется из параметра Liquibase,
+-- а тела функций PL/pgSQL не разбиваются на отдельные команды.
+--changeset subscription-service:10-subscriptions-partitioned splitStatements:false
+
+-- Секционирование таблицы подписок по хешу user_id. Запросы подписок пользователя
+-- (страница подписок, проверка владельца, уникальность сервиса у пользователя) читают
+-- одну секцию, а очистка и перестроение индексов выполняются по секциям.
+--
+-- Миграция не копирует данные и не блокирует таблицу надолго:
+-- 1. создается секционированная таблица subscriptions_partitioned с ${subscription-partitions} секциями;
+-- 2. триггер переносит в нее все изменения таблицы subscriptions;
+-- 3. приложение (SubscriptionPartitioningBackfill) копирует существующие строки частями
+--    функцией subscriptions_partitioning_backfill;
+-- 4. после копирования функция subscriptions_partitioning_cutover под короткой блокировкой
+--    заменяет таблицу subscriptions секционированной и удаляет вспомогательные объекты.
+CREATE TABLE subscriptions_partitioned (
+    id BIGINT NOT NULL DEFAULT nextval('subscriptions_id_seq'),
+    service_id INTEGER NOT NULL,
+    start_date TIMESTAMP NOT NULL,
+    end_date TIMESTAMP NOT NULL,
+    user_id BIGINT NOT NULL,
+    status VARCHAR(16) NOT NULL DEFAULT 'ACTIVE',
+    -- Первичный и уникальные ключи секционированной таблицы включают ключ секционирования
+    CONSTRAINT subscriptions_partitioned_pkey PRIMARY KEY (id, user_id),
+    CONSTRAINT uk_subscriptions_partitioned_user_service UNIQUE (user_id, service_id),
+    CONSTRAINT fk_subscription_user FOREIGN KEY (user_id) REFERENCES users(id) ON DELETE CASCADE,
+    CONSTRAINT fk_subscriptions_service FOREIGN KEY (service_id) REFERENCES services(id)
+) PARTITION BY HASH (user_id);
+
+-- Индексы создаются в каждой секции. Имена индексов таблицы subscriptions заняты до замены таблицы.
+CREATE INDEX idx_subscriptions_partitioned_user_id_id ON subscriptions_partitioned(user_id, id);
+CREATE INDEX idx_subscriptions_partitioned_dates ON subscriptions_partitioned(start_date, end_date);
+CREATE INDEX idx_subscriptions_partitioned_service_id ON subscriptions_partitioned(service_id);
+CREATE INDEX idx_subscriptions_partitioned_active_end_date ON subscriptions_partitioned(end_date)
+    WHERE status = 'ACTIVE';
+
+-- Нарушение уникальности в секции сообщается с именем ограничения секции, поэтому ограничения
+-- секций называются uk_subscriptions_user_service_pN и распознаются приложением по префиксу.
+DO $$
+BEGIN
+    FOR remainder IN 0..${subscription-partitions} - 1 LOOP
+        EXECUTE format('CREATE TABLE subscriptions_p%s PARTITION OF subscriptions_partitioned '
+                       'FOR VALUES WITH (MODULUS %s, REMAINDER %s)',
+                       remainder, ${subscription-partitions}, remainder);
+        EXECUTE format('ALTER INDEX subscriptions_p%s_user_id_service_id_key '
+                       'RENAME TO uk_subscriptions_user_service_p%s', remainder, remainder);
+    END LOOP;
+END
+$$;
+
+-- Позиция копирования существующих строк: строки с идентификатором не больше backfilled_id скопированы
+CREATE TABLE subscriptions_backfill (
+    backfilled_id BIGINT NOT NULL
+);
+
+INSERT INTO subscriptions_backfill (backfilled_id) VALUES (0);
+
+-- Перенос изменений таблицы subscriptions. Изменение еще не скопированной строки добавляет ее,
+-- копирование такой строки затем пропускается.
+CREATE FUNCTION subscriptions_partitioning_sync() RETURNS TRIGGER
+    LANGUAGE plpgsql AS $$
+BEGIN
+    IF TG_OP = 'DELETE' THEN
+        DELETE FROM subscriptions_partitioned WHERE id = OLD.id AND user_id = OLD.user_id;
+        RETURN NULL;
+    END IF;
+    IF TG_OP = 'UPDATE' AND NEW.user_id <> OLD.user_id THEN
+        DELETE FROM subscriptions_partitioned WHERE id = OLD.id AND user_id = OLD.user_id;
+    END IF;
+    INSERT INTO subscriptions_partitioned (id, service_id, start_date, end_date, user_id, status)
+    VALUES (NEW.id, NEW.service_id, NEW.start_date, NEW.end_date, NEW.user_id, NEW.status)
+    ON CONFLICT (id, user_id) DO UPDATE
+        SET service_id = EXCLUDED.service_id,
+            start_date = EXCLUDED.start_date,
+            end_date = EXCLUDED.end_date,
+            status = EXCLUDED.status;
+    RETURN NULL;
+END
+$$;
+
+CREATE TRIGGER subscriptions_partitioning_sync
+    AFTER INSERT OR UPDATE OR DELETE ON subscriptions
+    FOR EACH ROW EXECUTE FUNCTION subscriptions_partitioning_sync();
+
+-- Копирует следующие batch_size строк в порядке идентификаторов и возвращает их количество.
+-- Копируемые строки блокируются FOR SHARE: удаление или изменение строки, выполняемое параллельно,
+-- применяется триггером после копирования и не теряется. Если позицию удерживает другой
+-- экземпляр приложения, возвращает NULL.
+CREATE FUNCTION subscriptions_partitioning_backfill(batch_size INTEGER) RETURNS INTEGER
+    LANGUAGE plpgsql AS $$
+DECLARE
+    backfilled BIGINT;
+    copied INTEGER;
+    last_id BIGINT;
+BEGIN
+    SELECT backfilled_id INTO backfilled FROM subscriptions_backfill FOR UPDATE SKIP LOCKED;
+    IF NOT FOUND THEN
+        RETURN NULL;
+    END IF;
+    WITH batch AS (
+        SELECT id, service_id, start_date, end_date, user_id, status
+        FROM subscriptions
+        WHERE id > backfilled
+        ORDER BY id
+        LIMIT batch_size
+        FOR SHARE
+    ), copied_rows AS (
+        INSERT INTO subscriptions_partitioned (id, service_id, start_date, end_date, user_id, status)
+        SELECT id, service_id, start_date, end_date, user_id, status FROM batch
+        ON CONFLICT DO NOTHING
+    )
+    SELECT count(*), max(id) INTO copied, last_id FROM batch;
+    IF copied > 0 THEN
+        UPDATE subscriptions_backfill SET backfilled_id = last_id;
+    END IF;
+    RETURN copied;
+END
+$$;
+
+-- Заменяет таблицу subscriptions секционированной. Выполняется под блокировкой ACCESS EXCLUSIVE:
+-- докопируются только строки после последней позиции, остальное - переименования.
+-- Последовательность идентификаторов переходит к новой таблице; прежняя таблица удаляется.
+CREATE FUNCTION subscriptions_partitioning_cutover() RETURNS VOID
+    LANGUAGE plpgsql AS $$
+DECLARE
+    backfilled BIGINT;
+BEGIN
+    LOCK TABLE subscriptions IN ACCESS EXCLUSIVE MODE;
+    SELECT backfilled_id INTO backfilled FROM subscriptions_backfill FOR UPDATE;
+
+    INSERT INTO subscriptions_partitioned (id, service_id, start_date, end_date, user_id, status)
+    SELECT id, service_id, start_date, end_date, user_id, status
+    FROM subscriptions
+    WHERE id > backfilled
+    ON CONFLICT DO NOTHING;
+
+    ALTER SEQUENCE subscriptions_id_seq OWNED BY NONE;
+    DROP TABLE subscriptions;
+
+    ALTER TABLE subscriptions_partitioned RENAME TO subscriptions;
+    ALTER TABLE subscriptions RENAME CONSTRAINT subscriptions_partitioned_pkey TO subscriptions_pkey;
+    ALTER TABLE subscriptions RENAME CONSTRAINT uk_subscriptions_partitioned_user_service
+        TO uk_subscriptions_user_service;
+    ALTER INDEX idx_subscriptions_partitioned_user_id_id RENAME TO idx_subscriptions_user_id_id;
+    ALTER INDEX idx_subscriptions_partitioned_dates RENAME TO idx_subscriptions_dates;
+    ALTER INDEX idx_subscriptions_partitioned_service_id RENAME TO idx_subscriptions_service_id;
+    ALTER INDEX idx_subscriptions_partitioned_active_end_date RENAME TO idx_subscriptions_active_end_date;
+    ALTER SEQUENCE subscriptions_id_seq OWNED BY subscriptions.id;
+
+    DROP TABLE subscriptions_backfill;
+    DROP FUNCTION subscriptions_partitioning_sync();
+    DROP FUNCTION subscriptions_partitioning_backfill(INTEGER);
+    DROP FUNCTION subscriptions_partitioning_cutover();
+END
+$$;
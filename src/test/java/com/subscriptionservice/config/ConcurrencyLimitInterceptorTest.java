@@ -0,0 +1,84 @@
+package com.subscriptionservice.config;
+
+import com.subscriptionservice.exception.ServiceOverloadedException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.time.Duration;
+
+@DisplayName("Тесты ограничения одновременных запросов к маршрутам")
+class ConcurrencyLimitInterceptorTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private ConcurrencyLimitInterceptor interceptor;
+    private HandlerMethod handler;
+
+    @BeforeEach
+    void setUp() throws NoSuchMethodException {
+        ConcurrencyLimitProperties properties = new ConcurrencyLimitProperties();
+        properties.setInitialLimit(1);
+        properties.setMinLimit(1);
+        properties.setRetryAfter(Duration.ofSeconds(2));
+        ConcurrencyLimitProperties.Route top = new ConcurrencyLimitProperties.Route();
+        top.setInitialLimit(2);
+        properties.getRoutes().put("GET /subscriptions/top", top);
+        meterRegistry = new SimpleMeterRegistry();
+        interceptor = new ConcurrencyLimitInterceptor(properties, meterRegistry);
+        handler = new HandlerMethod(this, getClass().getDeclaredMethod("setUp"));
+    }
+
+    @Test
+    @DisplayName("Запрос сверх предела маршрута отклоняется, другие маршруты ограничиваются отдельно")
+    void preHandle_rejectsAboveRouteLimit() {
+        MockHttpServletRequest first = request("GET", "/users/{id}");
+        Assertions.assertTrue(interceptor.preHandle(first, new MockHttpServletResponse(), handler));
+
+        ServiceOverloadedException ex = Assertions.assertThrows(ServiceOverloadedException.class,
+                () -> interceptor.preHandle(request("GET", "/users/{id}"), new MockHttpServletResponse(), handler));
+        Assertions.assertEquals(Duration.ofSeconds(2), ex.getRetryAfter());
+
+        Assertions.assertTrue(interceptor.preHandle(request("GET", "/subscriptions/top"),
+                new MockHttpServletResponse(), handler));
+        Assertions.assertTrue(interceptor.preHandle(request("GET", "/subscriptions/top"),
+                new MockHttpServletResponse(), handler));
+
+        Assertions.assertEquals(1, meterRegistry.get(MetricsConfig.CONCURRENCY_REJECTED)
+                .tag("uri", "/users/{id}").counter().count());
+        Assertions.assertEquals(2, meterRegistry.get(MetricsConfig.CONCURRENCY_LIMIT)
+                .tag("uri", "/subscriptions/top").gauge().value());
+        Assertions.assertEquals(2, meterRegistry.get(MetricsConfig.CONCURRENCY_IN_FLIGHT)
+                .tag("uri", "/subscriptions/top").gauge().value());
+
+        interceptor.afterCompletion(first, new MockHttpServletResponse(), handler, null);
+        Assertions.assertTrue(interceptor.preHandle(request("GET", "/users/{id}"),
+                new MockHttpServletResponse(), handler));
+    }
+
+    @Test
+    @DisplayName("Асинхронный запрос освобождает место при освобождении потока обработки")
+    void afterConcurrentHandlingStarted_releasesOnce() {
+        MockHttpServletRequest stream = request("GET", "/subscriptions/top/stream");
+        interceptor.preHandle(stream, new MockHttpServletResponse(), handler);
+
+        interceptor.afterConcurrentHandlingStarted(stream, new MockHttpServletResponse(), handler);
+        interceptor.afterCompletion(stream, new MockHttpServletResponse(), handler, null);
+
+        Assertions.assertEquals(0, meterRegistry.get(MetricsConfig.CONCURRENCY_IN_FLIGHT)
+                .tag("uri", "/subscriptions/top/stream").gauge().value());
+        Assertions.assertTrue(interceptor.preHandle(request("GET", "/subscriptions/top/stream"),
+                new MockHttpServletResponse(), handler));
+    }
+
+    private static MockHttpServletRequest request(String method, String pattern) {
+        MockHttpServletRequest request = new MockHttpServletRequest(method, pattern);
+        request.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, pattern);
+        return request;
+    }
+}
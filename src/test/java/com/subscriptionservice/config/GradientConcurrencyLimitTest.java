@@ -0,0 +1,65 @@
+package com.subscriptionservice.config;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+@DisplayName("Тесты адаптивного предела одновременных запросов")
+class GradientConcurrencyLimitTest {
+    private static final long FAST = TimeUnit.MILLISECONDS.toNanos(5);
+    private static final long SLOW = TimeUnit.MILLISECONDS.toNanos(100);
+
+    @Test
+    @DisplayName("Запросы сверх предела отклоняются, освобожденное место занимается снова")
+    void tryAcquire_rejectsAboveLimit() {
+        GradientConcurrencyLimit limit = new GradientConcurrencyLimit(2, 1, 10, 1.5);
+
+        Assertions.assertEquals(1, limit.tryAcquire());
+        Assertions.assertEquals(2, limit.tryAcquire());
+        Assertions.assertEquals(-1, limit.tryAcquire());
+
+        limit.releaseWithoutSample();
+        Assertions.assertEquals(1, limit.getInFlight());
+        Assertions.assertEquals(2, limit.tryAcquire());
+    }
+
+    @Test
+    @DisplayName("При стабильном времени ответа предел растет, при росте задержки снижается")
+    void release_adaptsToLatency() {
+        GradientConcurrencyLimit limit = new GradientConcurrencyLimit(10, 2, 100, 1.5);
+
+        complete(limit, 200, FAST);
+        int grown = limit.getLimit();
+        Assertions.assertTrue(grown > 10, "предел " + grown);
+
+        complete(limit, 100, SLOW);
+        Assertions.assertTrue(limit.getLimit() < grown / 2, "предел " + limit.getLimit());
+        Assertions.assertTrue(limit.getLimit() >= 2);
+    }
+
+    @Test
+    @DisplayName("Без нагрузки предел не растет, отказ из-за перегрузки снижает предел")
+    void release_idleAndDropped() {
+        GradientConcurrencyLimit limit = new GradientConcurrencyLimit(10, 2, 100, 1.5);
+
+        for (int i = 0; i < 100; i++) {
+            limit.tryAcquire();
+            limit.release(FAST, 1, false);
+        }
+        Assertions.assertEquals(10, limit.getLimit());
+
+        limit.tryAcquire();
+        limit.release(SLOW, 1, true);
+        Assertions.assertEquals(9, limit.getLimit());
+        Assertions.assertEquals(0, limit.getInFlight());
+    }
+
+    private static void complete(GradientConcurrencyLimit limit, int requests, long rttNanos) {
+        for (int i = 0; i < requests; i++) {
+            limit.tryAcquire();
+            limit.release(rttNanos, limit.getLimit(), false);
+        }
+    }
+}
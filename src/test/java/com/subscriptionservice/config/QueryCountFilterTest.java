@@ -0,0 +1,52 @@
+package com.subscriptionservice.config;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.servlet.HandlerMapping;
+
+@DisplayName("Тесты подсчета SQL-запросов на HTTP-запрос")
+class QueryCountFilterTest {
+
+    private QueryCountInspector inspector;
+    private SimpleMeterRegistry meterRegistry;
+    private QueryCountFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        inspector = new QueryCountInspector();
+        meterRegistry = new SimpleMeterRegistry();
+        filter = new QueryCountFilter(inspector, meterRegistry);
+    }
+
+    @Test
+    @DisplayName("Запросы, выполненные при обработке, публикуются с шаблоном пути")
+    void doFilter_recordsQueries() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/users/1/subscriptions");
+
+        filter.doFilter(request, new MockHttpServletResponse(), (req, res) -> {
+            inspector.inspect("select 1");
+            inspector.inspect("select 2");
+            req.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, "/users/{userId}/subscriptions");
+        });
+
+        DistributionSummary summary = meterRegistry.get(MetricsConfig.QUERIES_PER_REQUEST)
+                .tag("method", "GET")
+                .tag("uri", "/users/{userId}/subscriptions")
+                .summary();
+        Assertions.assertEquals(1, summary.count());
+        Assertions.assertEquals(2, summary.totalAmount());
+    }
+
+    @Test
+    @DisplayName("Вне HTTP-запроса запросы не считаются")
+    void inspect_outsideRequest() {
+        Assertions.assertEquals("select 1", inspector.inspect("select 1"));
+        Assertions.assertEquals(0, inspector.stop());
+    }
+}
@@ -0,0 +1,192 @@
+package com.subscriptionservice.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.sql.Statement;
+import java.util.List;
+
+@DisplayName("Тесты направления читающих транзакций на реплики")
+class ReplicaRouterTest {
+
+    private DataSource primary;
+    private Connection primaryConnection;
+    private SimpleMeterRegistry meterRegistry;
+    private ReplicaProperties replicaProperties;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        primary = Mockito.mock(DataSource.class);
+        primaryConnection = Mockito.mock(Connection.class);
+        Mockito.when(primary.getConnection()).thenReturn(primaryConnection);
+        meterRegistry = new SimpleMeterRegistry();
+        replicaProperties = new ReplicaProperties();
+    }
+
+    @Test
+    @DisplayName("Реплики выбираются по очереди, отстающая реплика пропускается")
+    void getReadOnlyConnection_roundRobin() throws SQLException {
+        Connection first = Mockito.mock(Connection.class);
+        Connection second = Mockito.mock(Connection.class);
+        Connection lagging = Mockito.mock(Connection.class);
+        ReplicaRouter router = new ReplicaRouter(replicaProperties,
+                List.of(replica("replica-1", first, 0), replica("replica-2", second, 0.2),
+                        replica("replica-3", lagging, 30)), meterRegistry);
+
+        // До первой проверки отставания чтение выполняется на основном сервере
+        Assertions.assertSame(primaryConnection, router.getReadOnlyConnection(primary));
+
+        router.checkLag();
+
+        Assertions.assertSame(first, router.getReadOnlyConnection(primary));
+        Assertions.assertSame(second, router.getReadOnlyConnection(primary));
+        Assertions.assertSame(first, router.getReadOnlyConnection(primary));
+        Assertions.assertEquals(1, meterRegistry.get(MetricsConfig.REPLICA_FALLBACKS).counter().count());
+        Assertions.assertEquals(30, meterRegistry.get(MetricsConfig.REPLICA_LAG)
+                .tag("replica", "replica-3").gauge().value());
+    }
+
+    @Test
+    @DisplayName("Выбирается реплика с наименьшей загрузкой пула")
+    void getReadOnlyConnection_leastLoaded() throws SQLException {
+        replicaProperties.setSelection(ReplicaProperties.Selection.LEAST_LOADED);
+        Connection busy = Mockito.mock(Connection.class);
+        Connection idle = Mockito.mock(Connection.class);
+        HikariDataSource busyPool = replica("replica-1", busy, 0);
+        HikariDataSource idlePool = replica("replica-2", idle, 0);
+        HikariPoolMXBean busyPoolState = Mockito.mock(HikariPoolMXBean.class);
+        Mockito.when(busyPoolState.getActiveConnections()).thenReturn(3);
+        Mockito.when(busyPool.getHikariPoolMXBean()).thenReturn(busyPoolState);
+        HikariPoolMXBean idlePoolState = Mockito.mock(HikariPoolMXBean.class);
+        Mockito.when(idlePoolState.getActiveConnections()).thenReturn(1);
+        Mockito.when(idlePool.getHikariPoolMXBean()).thenReturn(idlePoolState);
+        ReplicaRouter router = new ReplicaRouter(replicaProperties, List.of(busyPool, idlePool), meterRegistry);
+        router.checkLag();
+
+        Assertions.assertSame(idle, router.getReadOnlyConnection(primary));
+
+        Mockito.when(busyPoolState.getActiveConnections()).thenReturn(0);
+        Assertions.assertSame(busy, router.getReadOnlyConnection(primary));
+    }
+
+    @Test
+    @DisplayName("Недоступная реплика исключается до следующей проверки, чтение выполняется на основном сервере")
+    void getReadOnlyConnection_replicaUnavailable() throws SQLException {
+        Connection replicaConnection = Mockito.mock(Connection.class);
+        HikariDataSource pool = replica("replica-1", replicaConnection, 0);
+        ReplicaRouter router = new ReplicaRouter(replicaProperties, List.of(pool), meterRegistry);
+        router.checkLag();
+
+        Mockito.when(pool.getConnection()).thenThrow(new SQLTransientConnectionException("timeout"))
+                .thenReturn(replicaConnection);
+
+        Assertions.assertSame(primaryConnection, router.getReadOnlyConnection(primary));
+        Assertions.assertSame(primaryConnection, router.getReadOnlyConnection(primary));
+        Mockito.verify(pool, Mockito.times(2)).getConnection();
+
+        router.checkLag();
+        Assertions.assertSame(replicaConnection, router.getReadOnlyConnection(primary));
+        Assertions.assertEquals(2, meterRegistry.get(MetricsConfig.REPLICA_FALLBACKS).counter().count());
+    }
+
+    @Test
+    @DisplayName("Реплика, не получающая журнал с основного сервера, исключается при нулевом отставании")
+    void checkLag_excludesReplicaNotStreaming() throws SQLException {
+        Connection replicaConnection = Mockito.mock(Connection.class);
+        HikariDataSource pool = replica("replica-1", replicaConnection, 0);
+        ResultSet resultSet = replicaConnection.createStatement().executeQuery(ReplicaRouter.LAG_QUERY);
+        ReplicaRouter router = new ReplicaRouter(replicaProperties, List.of(pool), meterRegistry);
+        router.checkLag();
+        Assertions.assertSame(replicaConnection, router.getReadOnlyConnection(primary));
+
+        // Прием журнала прерван: реплика применила все полученные записи и сообщает нулевое отставание
+        Mockito.when(resultSet.getBoolean(2)).thenReturn(false);
+        router.checkLag();
+
+        Assertions.assertSame(primaryConnection, router.getReadOnlyConnection(primary));
+        Assertions.assertTrue(Double.isNaN(meterRegistry.get(MetricsConfig.REPLICA_LAG)
+                .tag("replica", "replica-1").gauge().value()));
+
+        Mockito.when(resultSet.getBoolean(2)).thenReturn(true);
+        router.checkLag();
+        Assertions.assertSame(replicaConnection, router.getReadOnlyConnection(primary));
+    }
+
+    @Test
+    @DisplayName("Чтения потока, направленные на основной сервер, не получают соединения реплик")
+    void getReadOnlyConnection_primaryReads() throws SQLException {
+        Connection replicaConnection = Mockito.mock(Connection.class);
+        ReplicaRouter router = new ReplicaRouter(replicaProperties,
+                List.of(replica("replica-1", replicaConnection, 0)), meterRegistry);
+        router.checkLag();
+
+        ReplicaRouter.setPrimaryReads(true);
+        try {
+            Assertions.assertSame(primaryConnection, router.getReadOnlyConnection(primary));
+        } finally {
+            ReplicaRouter.setPrimaryReads(false);
+        }
+
+        Assertions.assertSame(replicaConnection, router.getReadOnlyConnection(primary));
+        // Направление на основной сервер не считается переключением из-за недоступности реплик
+        Assertions.assertEquals(0, meterRegistry.get(MetricsConfig.REPLICA_FALLBACKS).counter().count());
+    }
+
+    @Test
+    @DisplayName("Метод с @PrimaryRead читает на основном сервере и восстанавливает прежний признак потока")
+    void primaryRead_restoresPreviousHint() {
+        AspectJProxyFactory factory = new AspectJProxyFactory(new Reads());
+        factory.addAspect(new PrimaryReadAspect());
+        Reads reads = factory.getProxy();
+
+        Assertions.assertTrue(reads.primary());
+        Assertions.assertFalse(ReplicaRouter.isPrimaryReads());
+        Assertions.assertFalse(reads.any());
+
+        ReplicaRouter.setPrimaryReads(true);
+        try {
+            Assertions.assertTrue(reads.primary());
+            // Вложенный вызов не снимает признак, установленный вызывающим кодом
+            Assertions.assertTrue(ReplicaRouter.isPrimaryReads());
+        } finally {
+            ReplicaRouter.setPrimaryReads(false);
+        }
+    }
+
+    static class Reads {
+        @PrimaryRead
+        public boolean primary() {
+            return ReplicaRouter.isPrimaryReads();
+        }
+
+        public boolean any() {
+            return ReplicaRouter.isPrimaryReads();
+        }
+    }
+
+    private static HikariDataSource replica(String name, Connection connection, double lag) throws SQLException {
+        HikariDataSource pool = Mockito.mock(HikariDataSource.class);
+        Statement statement = Mockito.mock(Statement.class);
+        ResultSet resultSet = Mockito.mock(ResultSet.class);
+        Mockito.when(pool.getPoolName()).thenReturn(name);
+        Mockito.when(pool.getConnection()).thenReturn(connection);
+        Mockito.when(connection.createStatement()).thenReturn(statement);
+        Mockito.when(statement.executeQuery(ReplicaRouter.LAG_QUERY)).thenReturn(resultSet);
+        Mockito.when(resultSet.next()).thenReturn(true);
+        Mockito.when(resultSet.getDouble(1)).thenReturn(lag);
+        Mockito.when(resultSet.getBoolean(2)).thenReturn(true);
+        return pool;
+    }
+}
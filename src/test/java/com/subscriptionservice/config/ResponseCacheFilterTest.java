@@ -0,0 +1,158 @@
+package com.subscriptionservice.config;
+
+import com.subscriptionservice.event.UserChangedEvent;
+import com.subscriptionservice.event.UserSubscriptionsChangedEvent;
+import com.subscriptionservice.service.SubscriptionLeaderboard;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+@DisplayName("Тесты кэша сериализованных ответов и условных запросов")
+class ResponseCacheFilterTest {
+    private static final String BODY = "[{\"id\":1,\"serviceName\":\"Netflix\"}]";
+
+    private final AtomicLong now = new AtomicLong();
+    private final AtomicInteger calls = new AtomicInteger();
+    private String nextCursor = "Mjox";
+
+    private SimpleMeterRegistry meterRegistry;
+    private ResponseVersions responseVersions;
+    private SubscriptionLeaderboard subscriptionLeaderboard;
+    private ResponseCacheFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        ResponseCacheProperties properties = new ResponseCacheProperties();
+        properties.setTtl(Duration.ofMinutes(1));
+        meterRegistry = new SimpleMeterRegistry();
+        responseVersions = new ResponseVersions(properties.getTtl());
+        subscriptionLeaderboard = Mockito.mock(SubscriptionLeaderboard.class);
+        filter = new ResponseCacheFilter(properties, responseVersions, subscriptionLeaderboard, meterRegistry,
+                now::get);
+    }
+
+    @Test
+    @DisplayName("Повторный запрос получает байты из кэша, запрос с совпадающим ETag - ответ 304")
+    void doFilter_servesCachedBytesAndNotModified() throws Exception {
+        MockHttpServletResponse first = get("/users/1/subscriptions", "limit=1", null);
+        String eTag = first.getHeader(HttpHeaders.ETAG);
+        Assertions.assertEquals(200, first.getStatus());
+        Assertions.assertEquals(BODY, first.getContentAsString());
+        Assertions.assertNotNull(eTag);
+
+        MockHttpServletResponse cached = get("/users/1/subscriptions", "limit=1", null);
+        Assertions.assertEquals(200, cached.getStatus());
+        Assertions.assertEquals(BODY, cached.getContentAsString());
+        Assertions.assertEquals("Mjox", cached.getHeader("X-Next-Cursor"));
+        Assertions.assertEquals(eTag, cached.getHeader(HttpHeaders.ETAG));
+        Assertions.assertTrue(MediaType.APPLICATION_JSON.isCompatibleWith(
+                MediaType.parseMediaType(cached.getContentType())));
+
+        MockHttpServletResponse notModified = get("/users/1/subscriptions", "limit=1", "W/\"x\", " + eTag);
+        Assertions.assertEquals(304, notModified.getStatus());
+        Assertions.assertEquals(0, notModified.getContentAsByteArray().length);
+
+        Assertions.assertEquals(1, calls.get());
+        Assertions.assertEquals(1, meterRegistry.get(MetricsConfig.RESPONSE_CACHE_REQUESTS)
+                .tag("uri", "/users/{userId}/subscriptions").tag("result", "hit").counter().count());
+        Assertions.assertEquals(1, meterRegistry.get(MetricsConfig.RESPONSE_CACHE_REQUESTS)
+                .tag("uri", "/users/{userId}/subscriptions").tag("result", "not_modified").counter().count());
+    }
+
+    @Test
+    @DisplayName("Изменение данных после формирования ответа делает ответ недействительным")
+    void doFilter_invalidatesOnVersionChange() throws Exception {
+        MockHttpServletResponse user = get("/users/1", null, null);
+        Assertions.assertEquals("\"42\"", user.getHeader(HttpHeaders.ETAG));
+
+        responseVersions.onUserSubscriptionsChanged(UserSubscriptionsChangedEvent.of(1L));
+        get("/users/1", null, null);
+        Assertions.assertEquals(1, calls.get());
+
+        responseVersions.onUserChanged(new UserChangedEvent(1L));
+        // Контроллер формирует полный ответ, 304 возвращает фильтр
+        MockHttpServletResponse notModified = get("/users/1", null, "\"42\"");
+        Assertions.assertEquals(2, calls.get());
+        Assertions.assertEquals(304, notModified.getStatus());
+
+        String eTag = get("/users/1/subscriptions", null, null).getHeader(HttpHeaders.ETAG);
+        responseVersions.onUserSubscriptionsChanged(UserSubscriptionsChangedEvent.of(1L));
+        nextCursor = "Mjoy";
+        MockHttpServletResponse changed = get("/users/1/subscriptions", null, eTag);
+        Assertions.assertEquals(4, calls.get());
+        // Тело не изменилось, но изменился токен следующей страницы
+        Assertions.assertEquals(200, changed.getStatus());
+        Assertions.assertNotEquals(eTag, changed.getHeader(HttpHeaders.ETAG));
+    }
+
+    @Test
+    @DisplayName("ТОП с ограничением по времени не кэшируется, ответ не используется дольше времени жизни")
+    void doFilter_bypassesFilteredTopAndExpires() throws Exception {
+        Mockito.when(subscriptionLeaderboard.isLoaded()).thenReturn(true);
+        Mockito.when(subscriptionLeaderboard.getVersion()).thenReturn(5L);
+
+        get("/subscriptions/top", "limit=3", null);
+        get("/subscriptions/top", "limit=3", null);
+        Assertions.assertEquals(1, calls.get());
+
+        get("/subscriptions/top", "activeAt=2024-01-01T00:00:00", null);
+        get("/subscriptions/top", "activeAt=2024-01-01T00:00:00", null);
+        Assertions.assertEquals(3, calls.get());
+
+        now.addAndGet(Duration.ofMinutes(1).toNanos());
+        get("/subscriptions/top", "limit=3", null);
+        Assertions.assertEquals(4, calls.get());
+    }
+
+    private MockHttpServletResponse get(String uri, String query, String ifNoneMatch) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", uri);
+        if (query != null) {
+            request.setQueryString(query);
+            for (String parameter : query.split("&")) {
+                String[] pair = parameter.split("=", 2);
+                request.addParameter(pair[0], pair[1]);
+            }
+        }
+        if (ifNoneMatch != null) {
+            request.addHeader(HttpHeaders.IF_NONE_MATCH, ifNoneMatch);
+        }
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, controller(uri));
+        Assertions.assertFalse(ReplicaRouter.isPrimaryReads());
+        return response;
+    }
+
+    private FilterChain controller(String uri) {
+        return (request, response) -> {
+            calls.incrementAndGet();
+            Assertions.assertNull(((HttpServletRequest) request).getHeader(HttpHeaders.IF_NONE_MATCH));
+            // Ответ для кэша формируется по данным основного сервера, а не отстающей реплики
+            Assertions.assertEquals(!uri.equals("/subscriptions/top") || request.getParameter("activeAt") == null,
+                    ReplicaRouter.isPrimaryReads());
+            HttpServletResponse http = (HttpServletResponse) response;
+            http.setStatus(200);
+            http.setContentType(MediaType.APPLICATION_JSON_VALUE);
+            if (uri.equals("/users/1")) {
+                http.setHeader(HttpHeaders.ETAG, "\"42\"");
+            } else {
+                http.setHeader("X-Next-Cursor", nextCursor);
+            }
+            http.getOutputStream().write(BODY.getBytes(StandardCharsets.UTF_8));
+        };
+    }
+}
@@ -0,0 +1,63 @@
+package com.subscriptionservice.config;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.core.spi.FilterReply;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.slf4j.MDC;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@DisplayName("Тесты выборки запросов для журналирования SQL")
+class SqlLogSamplingFilterTest {
+
+    private final LoggerContext loggerContext = new LoggerContext();
+    private final SqlLogSamplingTurboFilter turboFilter = new SqlLogSamplingTurboFilter();
+
+    private LoggingProperties loggingProperties;
+    private SqlLogSamplingFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        loggingProperties = new LoggingProperties();
+        filter = new SqlLogSamplingFilter(loggingProperties);
+    }
+
+    @Test
+    @DisplayName("В отобранном запросе SQL журналируется независимо от уровня логгера")
+    void doFilter_sampledRequest() throws Exception {
+        loggingProperties.setSqlSampleRate(1);
+        List<FilterReply> replies = new ArrayList<>();
+
+        filter.doFilter(new MockHttpServletRequest("GET", "/users/1"), new MockHttpServletResponse(),
+                (req, res) -> {
+                    replies.add(decide("org.hibernate.SQL", Level.DEBUG));
+                    replies.add(decide("org.hibernate.orm.jdbc.bind", Level.TRACE));
+                    replies.add(decide("com.subscriptionservice.service.UserService", Level.DEBUG));
+                });
+
+        Assertions.assertEquals(List.of(FilterReply.ACCEPT, FilterReply.ACCEPT, FilterReply.NEUTRAL), replies);
+        Assertions.assertNull(MDC.get(SqlLogSamplingFilter.MDC_KEY));
+    }
+
+    @Test
+    @DisplayName("Без выборки решение принимается по уровню логгера")
+    void doFilter_notSampled() throws Exception {
+        List<FilterReply> replies = new ArrayList<>();
+
+        filter.doFilter(new MockHttpServletRequest("GET", "/users/1"), new MockHttpServletResponse(),
+                (req, res) -> replies.add(decide("org.hibernate.SQL", Level.DEBUG)));
+
+        Assertions.assertEquals(List.of(FilterReply.NEUTRAL), replies);
+    }
+
+    private FilterReply decide(String loggerName, Level level) {
+        return turboFilter.decide(null, loggerContext.getLogger(loggerName), level, "", null, null);
+    }
+}
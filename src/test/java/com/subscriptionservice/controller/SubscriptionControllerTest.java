@@ -1,11 +1,16 @@
 package com.subscriptionservice.controller;
 
+import com.subscriptionservice.dto.BatchItemResultDTO;
 import com.subscriptionservice.dto.SubscriptionDTO;
+import com.subscriptionservice.dto.SubscriptionPageDTO;
 import com.subscriptionservice.dto.TopSubscriptionDTO;
 import com.subscriptionservice.dto.UserDTO;
 import com.subscriptionservice.exception.ResourceNotFoundException;
 import com.subscriptionservice.exception.ValidationException;
+import com.subscriptionservice.service.SubscriptionBatchService;
+import com.subscriptionservice.service.SubscriptionExportService;
 import com.subscriptionservice.service.SubscriptionService;
+import com.subscriptionservice.service.TopSubscriptionsBroadcaster;
 import com.subscriptionservice.service.UserService;
 import com.subscriptionservice.mapper.SubscriptionMapper;
 import com.subscriptionservice.mapper.UserMapper;
@@ -17,8 +22,11 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.ByteArrayOutputStream;
 import java.time.LocalDateTime;
 import java.util.Arrays;
 import java.util.List;
@@ -35,6 +43,15 @@ class SubscriptionControllerTest {
     @Mock
     private SubscriptionService subscriptionService;
 
+    @Mock
+    private SubscriptionBatchService subscriptionBatchService;
+
+    @Mock
+    private SubscriptionExportService subscriptionExportService;
+
+    @Mock
+    private TopSubscriptionsBroadcaster topSubscriptionsBroadcaster;
+
     @Mock
     private UserService userService;
 
@@ -82,21 +99,40 @@ class SubscriptionControllerTest {
         verify(subscriptionService).addSubscription(eq(1L), any(SubscriptionDTO.class));
     }
 
+    @Test
+    @DisplayName("Пакетное добавление подписок пользователю")
+    void addSubscriptions_Batch() {
+        BatchItemResultDTO result = new BatchItemResultDTO();
+        result.setStatus(BatchItemResultDTO.Status.CREATED);
+        result.setSubscription(subscriptionDTO);
+        when(subscriptionBatchService.addSubscriptions(1L, List.of(subscriptionDTO))).thenReturn(List.of(result));
+
+        ResponseEntity<List<BatchItemResultDTO>> response =
+                subscriptionController.addSubscriptions(1L, List.of(subscriptionDTO));
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertNotNull(response.getBody());
+        assertEquals(BatchItemResultDTO.Status.CREATED, response.getBody().get(0).getStatus());
+        verify(subscriptionBatchService).addSubscriptions(1L, List.of(subscriptionDTO));
+    }
+
     @Test
     @DisplayName("Успешное получение подписок пользователя")
     void getUserSubscriptions_Success() {
         List<SubscriptionDTO> subscriptions = Arrays.asList(subscriptionDTO);
-        when(subscriptionService.getUserSubscriptions(1L)).thenReturn(subscriptions);
+        when(subscriptionService.getUserSubscriptions(1L, null, null))
+                .thenReturn(new SubscriptionPageDTO(subscriptions, "next"));
 
-        ResponseEntity<List<SubscriptionDTO>> response = subscriptionController.getUserSubscriptions(1L);
+        ResponseEntity<List<SubscriptionDTO>> response = subscriptionController.getUserSubscriptions(1L, null, null);
 
         assertEquals(HttpStatus.OK, response.getStatusCode());
         assertNotNull(response.getBody());
         assertEquals(1, response.getBody().size());
         assertEquals(subscriptionDTO.getId(), response.getBody().get(0).getId());
         assertEquals(subscriptionDTO.getServiceName(), response.getBody().get(0).getServiceName());
+        assertEquals("next", response.getHeaders().getFirst("X-Next-Cursor"));
 
-        verify(subscriptionService).getUserSubscriptions(1L);
+        verify(subscriptionService).getUserSubscriptions(1L, null, null);
     }
 
     @Test
@@ -117,9 +153,10 @@ class SubscriptionControllerTest {
         topSubscription.setServiceName("Netflix");
         topSubscription.setSubscriberCount(5L);
         List<TopSubscriptionDTO> topSubscriptions = Arrays.asList(topSubscription);
-        when(subscriptionService.getTopSubscriptions()).thenReturn(topSubscriptions);
+        when(subscriptionService.getTopSubscriptions(null, null, null, null)).thenReturn(topSubscriptions);
 
-        ResponseEntity<List<TopSubscriptionDTO>> response = subscriptionController.getTopSubscriptions();
+        ResponseEntity<List<TopSubscriptionDTO>> response =
+                subscriptionController.getTopSubscriptions(null, null, null, null);
 
         assertEquals(HttpStatus.OK, response.getStatusCode());
         assertNotNull(response.getBody());
@@ -127,7 +164,26 @@ class SubscriptionControllerTest {
         assertEquals("Netflix", response.getBody().get(0).getServiceName());
         assertEquals(5L, response.getBody().get(0).getSubscriberCount());
 
-        verify(subscriptionService).getTopSubscriptions();
+        verify(subscriptionService).getTopSubscriptions(null, null, null, null);
+    }
+
+    @Test
+    @DisplayName("Выгрузка подписок передается потоком в выбранном формате")
+    void exportSubscriptions_Success() throws Exception {
+        when(subscriptionExportService.resolveFormat("csv", null, null))
+                .thenReturn(SubscriptionExportService.Format.CSV);
+
+        ResponseEntity<StreamingResponseBody> response =
+                subscriptionController.exportSubscriptions("csv", "Netflix", null, null);
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertTrue(MediaType.parseMediaType("text/csv").includes(response.getHeaders().getContentType()));
+        assertNotNull(response.getBody());
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        response.getBody().writeTo(out);
+        verify(subscriptionExportService).export(SubscriptionExportService.Format.CSV, "Netflix", null, null, out);
+        verify(subscriptionExportService).acquire();
+        verify(subscriptionExportService).release();
     }
 
     @Test
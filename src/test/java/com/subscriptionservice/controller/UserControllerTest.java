@@ -15,6 +15,7 @@ import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -82,6 +83,17 @@ class UserControllerTest {
         verify(userService).getUserById(1L);
     }
 
+    @Test
+    @DisplayName("ETag пользователя формируется по времени его изменения")
+    void getUser_ETagFromUpdatedAt() {
+        userDTO.setUpdatedAt(LocalDateTime.of(2024, 1, 1, 0, 0, 0, 123_456_000));
+        when(userService.getUserById(1L)).thenReturn(userDTO);
+
+        ResponseEntity<UserDTO> response = userController.getUser(1L);
+
+        assertEquals("\"1704067200123456\"", response.getHeaders().getETag());
+    }
+
     @Test
     @DisplayName("Успешное обновление пользователя")
     void updateUser_Success() {
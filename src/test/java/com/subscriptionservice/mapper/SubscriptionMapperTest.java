@@ -2,10 +2,14 @@ package com.subscriptionservice.mapper;
 
 import com.subscriptionservice.dto.SubscriptionDTO;
 import com.subscriptionservice.model.Subscription;
+import com.subscriptionservice.model.SubscriptionRow;
+import com.subscriptionservice.model.SubscriptionStatus;
 import com.subscriptionservice.model.User;
+import com.subscriptionservice.service.ServiceDictionary;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
 
 import java.time.LocalDateTime;
 
@@ -20,7 +24,10 @@ class SubscriptionMapperTest {
 
     @BeforeEach
     void setUp() {
-        mapper = new SubscriptionMapper();
+        ServiceDictionary serviceDictionary = Mockito.mock(ServiceDictionary.class);
+        Mockito.lenient().when(serviceDictionary.getName(7)).thenReturn("Netflix");
+        Mockito.lenient().when(serviceDictionary.getId("Netflix")).thenReturn(7);
+        mapper = new SubscriptionMapper(serviceDictionary);
     }
 
     @Test
@@ -34,7 +41,7 @@ class SubscriptionMapperTest {
 
         Subscription subscription = new Subscription();
         subscription.setId(1L);
-        subscription.setServiceName("Netflix");
+        subscription.setServiceId(7);
         subscription.setStartDate(startDate);
         subscription.setEndDate(endDate);
         subscription.setUser(user);
@@ -43,7 +50,7 @@ class SubscriptionMapperTest {
 
         assertNotNull(dto);
         assertEquals(subscription.getId(), dto.getId());
-        assertEquals(subscription.getServiceName(), dto.getServiceName());
+        assertEquals("Netflix", dto.getServiceName());
         assertEquals(subscription.getStartDate(), dto.getStartDate());
         assertEquals(subscription.getEndDate(), dto.getEndDate());
         assertEquals(subscription.getUser().getId(), dto.getUserId());
@@ -66,7 +73,7 @@ class SubscriptionMapperTest {
 
         assertNotNull(subscription);
         assertEquals(dto.getId(), subscription.getId());
-        assertEquals(dto.getServiceName(), subscription.getServiceName());
+        assertEquals(7, subscription.getServiceId());
         assertEquals(dto.getStartDate(), subscription.getStartDate());
         assertEquals(dto.getEndDate(), subscription.getEndDate());
     }
@@ -74,7 +81,7 @@ class SubscriptionMapperTest {
     @Test
     @DisplayName("Преобразование в DTO должно возвращать null при null-сущности")
     void toDTO_ShouldReturnNull_WhenSubscriptionIsNull() {
-        SubscriptionDTO dto = mapper.toDTO(null);
+        SubscriptionDTO dto = mapper.toDTO((Subscription) null);
 
         assertNull(dto);
     }
@@ -95,7 +102,7 @@ class SubscriptionMapperTest {
 
         Subscription subscription = new Subscription();
         subscription.setId(1L);
-        subscription.setServiceName("Netflix");
+        subscription.setServiceId(7);
         subscription.setStartDate(startDate);
         subscription.setEndDate(endDate);
         subscription.setUser(null);
@@ -104,9 +111,25 @@ class SubscriptionMapperTest {
 
         assertNotNull(dto);
         assertEquals(subscription.getId(), dto.getId());
-        assertEquals(subscription.getServiceName(), dto.getServiceName());
+        assertEquals("Netflix", dto.getServiceName());
         assertEquals(subscription.getStartDate(), dto.getStartDate());
         assertEquals(subscription.getEndDate(), dto.getEndDate());
         assertNull(dto.getUserId());
     }
-} 
\ No newline at end of file
+
+    @Test
+    @DisplayName("Преобразование строки таблицы в DTO должно подставлять название сервиса")
+    void toDTO_ShouldMapRow() {
+        LocalDateTime startDate = LocalDateTime.now();
+        SubscriptionRow row = new SubscriptionRow(1L, 7, startDate, startDate.plusMonths(1), 2L,
+                SubscriptionStatus.ACTIVE);
+
+        SubscriptionDTO dto = mapper.toDTO(row);
+
+        assertEquals(1L, dto.getId());
+        assertEquals("Netflix", dto.getServiceName());
+        assertEquals(row.getEndDate(), dto.getEndDate());
+        assertEquals(2L, dto.getUserId());
+        assertEquals(SubscriptionStatus.ACTIVE, dto.getStatus());
+    }
+}
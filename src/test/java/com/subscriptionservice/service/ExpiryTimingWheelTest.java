@@ -0,0 +1,59 @@
+package com.subscriptionservice.service;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+@DisplayName("Тестирование ExpiryTimingWheel")
+class ExpiryTimingWheelTest {
+
+    private static final Duration TICK = Duration.ofSeconds(1);
+
+    @Test
+    @DisplayName("Подписка извлекается в такте, начало которого не раньше момента истечения")
+    void advance_firesWhenDue() {
+        ExpiryTimingWheel wheel = new ExpiryTimingWheel(TICK, Duration.ofSeconds(10), 100, 0);
+        wheel.add(1L, 1_500);
+        wheel.add(2L, 3_000);
+
+        Assertions.assertArrayEquals(new long[0], wheel.advance(1_999));
+        Assertions.assertArrayEquals(new long[]{1L}, wheel.advance(2_000));
+        Assertions.assertArrayEquals(new long[]{2L}, wheel.advance(5_000));
+        Assertions.assertEquals(0, wheel.size());
+    }
+
+    @Test
+    @DisplayName("Просроченная подписка извлекается при ближайшем продвижении")
+    void add_overdue() {
+        ExpiryTimingWheel wheel = new ExpiryTimingWheel(TICK, Duration.ofSeconds(10), 100, 5_000);
+        wheel.advance(5_000);
+
+        Assertions.assertTrue(wheel.add(1L, 1_000));
+        Assertions.assertArrayEquals(new long[]{1L}, wheel.advance(6_000));
+    }
+
+    @Test
+    @DisplayName("Подписки дальше горизонта и сверх емкости не принимаются")
+    void add_rejectsBeyondHorizonAndCapacity() {
+        ExpiryTimingWheel wheel = new ExpiryTimingWheel(TICK, Duration.ofSeconds(10), 2, 0);
+
+        Assertions.assertFalse(wheel.add(1L, wheel.horizonMillis() + 1));
+        Assertions.assertTrue(wheel.add(2L, wheel.horizonMillis()));
+        Assertions.assertTrue(wheel.add(3L, 1_000));
+        Assertions.assertFalse(wheel.add(4L, 1_000));
+        Assertions.assertEquals(0, wheel.remainingCapacity());
+    }
+
+    @Test
+    @DisplayName("После оборота колеса слоты используются повторно")
+    void advance_wrapsAround() {
+        ExpiryTimingWheel wheel = new ExpiryTimingWheel(TICK, Duration.ofSeconds(3), 100, 0);
+        for (long id = 1; id <= 20; id++) {
+            Assertions.assertArrayEquals(new long[0], wheel.advance((id - 1) * 1_000));
+            Assertions.assertTrue(wheel.add(id, id * 1_000));
+            Assertions.assertArrayEquals(new long[]{id}, wheel.advance(id * 1_000));
+        }
+    }
+}
@@ -0,0 +1,170 @@
+package com.subscriptionservice.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.subscriptionservice.config.BatchProperties;
+import com.subscriptionservice.config.ImportProperties;
+import com.subscriptionservice.dto.BatchItemResultDTO;
+import com.subscriptionservice.dto.ImportReportDTO;
+import com.subscriptionservice.dto.SubscriptionDTO;
+import com.subscriptionservice.dto.UserDTO;
+import com.subscriptionservice.exception.ResourceNotFoundException;
+import com.subscriptionservice.exception.ValidationException;
+import jakarta.validation.Validation;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.anyList;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Тесты потокового импорта")
+class ImportServiceTest {
+
+    @Mock
+    private UserService userService;
+
+    @Mock
+    private SubscriptionBatchService subscriptionBatchService;
+
+    private ImportService importService;
+
+    @BeforeEach
+    void setUp() {
+        ImportProperties importProperties = new ImportProperties();
+        importProperties.setChunkSize(2);
+        importProperties.setQueueCapacity(1);
+        BatchProperties batchProperties = new BatchProperties();
+        importService = new ImportService(userService, subscriptionBatchService,
+                Validation.buildDefaultValidatorFactory().getValidator(),
+                new ObjectMapper().registerModule(new JavaTimeModule()),
+                importProperties, batchProperties, new SimpleAsyncTaskExecutor());
+    }
+
+    @Test
+    @DisplayName("Импорт NDJSON сохраняет данные частями и собирает ошибки с номерами строк")
+    void importUsers_ndjson() {
+        List<List<UserDTO>> chunks = new ArrayList<>();
+        Mockito.when(userService.createUsers(anyList())).thenAnswer(invocation -> {
+            List<UserDTO> users = invocation.getArgument(0);
+            chunks.add(users);
+            List<BatchItemResultDTO> results = new ArrayList<>();
+            for (int i = 0; i < users.size(); i++) {
+                results.add(result(i, "taken@example.com".equals(users.get(i).getEmail())
+                        ? BatchItemResultDTO.Status.DUPLICATE
+                        : BatchItemResultDTO.Status.CREATED));
+            }
+            return results;
+        });
+
+        ImportReportDTO report = importService.importUsers(stream("""
+                {"userName":"ivan","email":"ivan@example.com"}
+                {"userName":"petr","email":"taken@example.com"}
+                not json
+
+                {"userName":"x","email":"anna@example.com"}
+                {"userName":"anna","email":"anna@example.com"}
+                """), "application/x-ndjson");
+
+        Assertions.assertEquals(ImportReportDTO.Status.COMPLETED, report.getStatus());
+        Assertions.assertEquals(5, report.getProcessed());
+        Assertions.assertEquals(2, report.getImported());
+        Assertions.assertEquals(3, report.getFailed());
+        Assertions.assertEquals(List.of(2L, 3L, 5L), report.getErrors().stream()
+                .map(error -> error.getLine()).sorted().toList());
+        Assertions.assertEquals(2, chunks.size());
+        Assertions.assertEquals(report, importService.getImport(report.getId()));
+    }
+
+    @Test
+    @DisplayName("Импорт CSV сопоставляет колонки по заголовку")
+    void importSubscriptions_csv() {
+        List<SubscriptionDTO> imported = new ArrayList<>();
+        Mockito.when(subscriptionBatchService.addSubscriptions(anyList())).thenAnswer(invocation -> {
+            List<SubscriptionDTO> subscriptions = invocation.getArgument(0);
+            imported.addAll(subscriptions);
+            List<BatchItemResultDTO> results = new ArrayList<>();
+            for (int i = 0; i < subscriptions.size(); i++) {
+                results.add(result(i, BatchItemResultDTO.Status.CREATED));
+            }
+            return results;
+        });
+
+        ImportReportDTO report = importService.importSubscriptions(stream("""
+                serviceName,userId,startDate,endDate
+                "Yandex, Plus",1,2024-01-01T00:00:00,2024-02-01T00:00:00
+                Netflix,abc,2024-01-01T00:00:00,2024-02-01T00:00:00
+                """), "text/csv; charset=UTF-8");
+
+        Assertions.assertEquals(1, report.getImported());
+        Assertions.assertEquals(1, report.getFailed());
+        Assertions.assertEquals(3L, report.getErrors().get(0).getLine());
+        Assertions.assertEquals("Yandex, Plus", imported.get(0).getServiceName());
+        Assertions.assertEquals(1L, imported.get(0).getUserId());
+        Assertions.assertEquals(LocalDateTime.of(2024, 2, 1, 0, 0), imported.get(0).getEndDate());
+    }
+
+    @Test
+    @DisplayName("Ошибка сохранения порции отклоняет ее строки и не прерывает импорт")
+    void importUsers_chunkFailure() {
+        Mockito.when(userService.createUsers(anyList()))
+                .thenThrow(new ValidationException("Пакет нарушает ограничения"))
+                .thenAnswer(invocation -> List.of(result(0, BatchItemResultDTO.Status.CREATED)));
+
+        ImportReportDTO report = importService.importUsers(stream("""
+                {"userName":"ivan","email":"ivan@example.com"}
+                {"userName":"petr","email":"petr@example.com"}
+                {"userName":"anna","email":"anna@example.com"}
+                """), "application/x-ndjson");
+
+        Assertions.assertEquals(ImportReportDTO.Status.COMPLETED, report.getStatus());
+        Assertions.assertEquals(1, report.getImported());
+        Assertions.assertEquals(2, report.getFailed());
+        Assertions.assertEquals(1L, report.getErrors().get(0).getLine());
+        Assertions.assertEquals(2L, report.getErrors().get(1).getLine());
+        Assertions.assertEquals("Ошибка сохранения: Пакет нарушает ограничения", report.getErrors().get(1).getError());
+    }
+
+    @Test
+    @DisplayName("Неподдерживаемый формат и неизвестный импорт")
+    void importUsers_unsupportedFormat() {
+        Assertions.assertThrows(ValidationException.class,
+            () -> importService.importUsers(stream("[]"), "application/json"));
+        Assertions.assertThrows(ResourceNotFoundException.class, () -> importService.getImport("missing"));
+        Mockito.verifyNoInteractions(userService);
+    }
+
+    @Test
+    @DisplayName("Разбор строки CSV с кавычками")
+    void splitCsvLine_quotedValues() {
+        Assertions.assertEquals(List.of("a", "b,c", "say \"hi\"", ""),
+                ImportService.splitCsvLine("a,\"b,c\",\"say \"\"hi\"\"\","));
+    }
+
+    private static InputStream stream(String content) {
+        return new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static BatchItemResultDTO result(int index, BatchItemResultDTO.Status status) {
+        BatchItemResultDTO result = new BatchItemResultDTO();
+        result.setIndex(index);
+        result.setStatus(status);
+        if (status != BatchItemResultDTO.Status.CREATED) {
+            result.setError("Ошибка");
+        }
+        return result;
+    }
+}
@@ -0,0 +1,80 @@
+package com.subscriptionservice.service;
+
+import com.subscriptionservice.config.OutboxProperties;
+import com.subscriptionservice.dto.OutboxEventDTO;
+import com.subscriptionservice.event.OutboxAdvancedEvent;
+import com.subscriptionservice.model.OutboxEventType;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.core.task.support.TaskExecutorAdapter;
+import org.springframework.web.context.request.async.DeferredResult;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+@DisplayName("Тестирование OutboxFeed")
+@ExtendWith(MockitoExtension.class)
+class OutboxFeedTest {
+
+    @Mock
+    private OutboxService outboxService;
+
+    private OutboxFeed outboxFeed;
+
+    @BeforeEach
+    void setUp() {
+        outboxFeed = new OutboxFeed(outboxService, new OutboxProperties(), new TaskExecutorAdapter(Runnable::run));
+    }
+
+    @Test
+    @DisplayName("Длинный опрос сразу возвращает имеющиеся события")
+    void poll_returnsAvailableEvents() {
+        List<OutboxEventDTO> events = List.of(event(6));
+        Mockito.when(outboxService.getEvents(5, 10)).thenReturn(events);
+
+        DeferredResult<List<OutboxEventDTO>> result = outboxFeed.poll(5, 10, Duration.ofSeconds(5));
+
+        Assertions.assertEquals(events, result.getResult());
+        Assertions.assertEquals(0, outboxFeed.waitingCount());
+    }
+
+    @Test
+    @DisplayName("Длинный опрос ожидает новых событий и завершается после назначения позиций")
+    void poll_waitsUntilAdvanced() {
+        List<OutboxEventDTO> events = List.of(event(6));
+        Mockito.when(outboxService.getEvents(5, 10)).thenReturn(List.of()).thenReturn(events);
+
+        DeferredResult<List<OutboxEventDTO>> result = outboxFeed.poll(5, 10, Duration.ofSeconds(5));
+
+        Assertions.assertFalse(result.hasResult());
+        Assertions.assertEquals(1, outboxFeed.waitingCount());
+
+        outboxFeed.onAdvanced(new OutboxAdvancedEvent(6));
+
+        Assertions.assertEquals(events, result.getResult());
+        Assertions.assertEquals(0, outboxFeed.waitingCount());
+    }
+
+    @Test
+    @DisplayName("Нулевое время ожидания возвращает пустой список без ожидания")
+    void poll_zeroWaitReturnsImmediately() {
+        Mockito.when(outboxService.getEvents(5, 10)).thenReturn(List.of());
+
+        DeferredResult<List<OutboxEventDTO>> result = outboxFeed.poll(5, 10, Duration.ZERO);
+
+        Assertions.assertEquals(List.of(), result.getResult());
+        Assertions.assertEquals(0, outboxFeed.waitingCount());
+    }
+
+    private static OutboxEventDTO event(long position) {
+        return new OutboxEventDTO(position, OutboxEventType.USER_UPDATED, "USER", 1L,
+                LocalDateTime.now(), "{}");
+    }
+}
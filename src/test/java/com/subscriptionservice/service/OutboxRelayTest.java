@@ -0,0 +1,88 @@
+package com.subscriptionservice.service;
+
+import com.subscriptionservice.config.OutboxProperties;
+import com.subscriptionservice.dto.OutboxEventDTO;
+import com.subscriptionservice.event.OutboxAdvancedEvent;
+import com.subscriptionservice.model.OutboxEventType;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+
+@DisplayName("Тестирование OutboxRelay")
+@ExtendWith(MockitoExtension.class)
+class OutboxRelayTest {
+
+    @Mock
+    private OutboxService outboxService;
+
+    @Mock
+    private OutboxSink sink;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    private OutboxRelay relay;
+
+    @BeforeEach
+    void setUp() {
+        OutboxProperties outboxProperties = new OutboxProperties();
+        outboxProperties.setBatchSize(2);
+        relay = new OutboxRelay(outboxService, List.of(sink), outboxProperties, eventPublisher);
+        Mockito.lenient().when(sink.name()).thenReturn("test");
+    }
+
+    @Test
+    @DisplayName("Позиции назначаются пакетами, приемник получает события и его позиция сохраняется")
+    void relay_publishesToSinkAndCommitsOffset() throws IOException {
+        Mockito.when(outboxService.assignPositions(2)).thenReturn(2, 1);
+        Mockito.when(outboxService.getLatestPosition()).thenReturn(3L);
+        Mockito.when(outboxService.getSinkOffset("test")).thenReturn(0L);
+        List<OutboxEventDTO> first = List.of(event(1), event(2));
+        List<OutboxEventDTO> second = List.of(event(3));
+        Mockito.when(outboxService.getEvents(0, 2)).thenReturn(first);
+        Mockito.when(outboxService.getEvents(2, 2)).thenReturn(second);
+
+        relay.relay();
+
+        Mockito.verify(outboxService, Mockito.times(2)).assignPositions(2);
+        Mockito.verify(eventPublisher).publishEvent(new OutboxAdvancedEvent(3));
+        Mockito.verify(sink).publish(first);
+        Mockito.verify(sink).publish(second);
+        Mockito.verify(outboxService).commitSinkOffset("test", 2);
+        Mockito.verify(outboxService).commitSinkOffset("test", 3);
+    }
+
+    @Test
+    @DisplayName("При ошибке приемника позиция не сохраняется, событие о новых позициях публикуется один раз")
+    void relay_sinkFailureKeepsOffset() throws IOException {
+        Mockito.when(outboxService.assignPositions(2)).thenReturn(0);
+        Mockito.when(outboxService.getLatestPosition()).thenReturn(1L);
+        Mockito.when(outboxService.getSinkOffset("test")).thenReturn(0L);
+        Mockito.when(outboxService.getEvents(0, 2)).thenReturn(List.of(event(1)));
+        Mockito.doThrow(new IOException("disk full")).when(sink).publish(any());
+
+        relay.relay();
+        relay.relay();
+
+        Mockito.verify(sink, Mockito.times(2)).publish(any());
+        Mockito.verify(outboxService, Mockito.never()).commitSinkOffset(any(), anyLong());
+        Mockito.verify(eventPublisher, Mockito.times(1)).publishEvent(any(OutboxAdvancedEvent.class));
+    }
+
+    private static OutboxEventDTO event(long position) {
+        return new OutboxEventDTO(position, OutboxEventType.USER_CREATED, "USER", position,
+                LocalDateTime.now(), "{}");
+    }
+}
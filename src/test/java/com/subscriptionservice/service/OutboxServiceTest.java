@@ -0,0 +1,72 @@
+package com.subscriptionservice.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.subscriptionservice.config.OutboxProperties;
+import com.subscriptionservice.exception.ValidationException;
+import com.subscriptionservice.model.OutboxEvent;
+import com.subscriptionservice.model.OutboxEventType;
+import com.subscriptionservice.repository.OutboxEventRepository;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+
+@DisplayName("Тестирование OutboxService")
+@ExtendWith(MockitoExtension.class)
+class OutboxServiceTest {
+
+    @Mock
+    private OutboxEventRepository outboxEventRepository;
+
+    private OutboxService outboxService;
+
+    @BeforeEach
+    void setUp() {
+        outboxService = new OutboxService(outboxEventRepository, new OutboxProperties(), new ObjectMapper());
+    }
+
+    @Test
+    @DisplayName("Событие записывается с типом объекта и данными в формате JSON")
+    void record_savesSerializedEvent() {
+        outboxService.record(OutboxEventType.USER_DELETED, 7L, Map.of("id", 7L));
+
+        ArgumentCaptor<OutboxEvent> saved = ArgumentCaptor.forClass(OutboxEvent.class);
+        Mockito.verify(outboxEventRepository).save(saved.capture());
+        Assertions.assertEquals("USER", saved.getValue().getAggregateType());
+        Assertions.assertEquals(7L, saved.getValue().getAggregateId());
+        Assertions.assertEquals("{\"id\":7}", saved.getValue().getPayload());
+        Assertions.assertNull(saved.getValue().getPosition());
+    }
+
+    @Test
+    @DisplayName("Позиции не назначаются, если блокировку удерживает другой экземпляр")
+    void assignPositions_lockNotAcquired() {
+        Mockito.when(outboxEventRepository.tryLockSequencer(OutboxService.SEQUENCER_LOCK_KEY)).thenReturn(false);
+
+        Assertions.assertEquals(0, outboxService.assignPositions(100));
+        Mockito.verify(outboxEventRepository, Mockito.never()).assignPositions(anyInt());
+    }
+
+    @Test
+    @DisplayName("Некорректные имя потребителя, позиция и количество событий отклоняются")
+    void invalidParameters() {
+        Assertions.assertThrows(ValidationException.class, () -> outboxService.commitOffset("bad name", 1));
+        Assertions.assertThrows(ValidationException.class, () -> outboxService.commitOffset("billing", -1));
+        Assertions.assertThrows(ValidationException.class, () -> outboxService.getOffset("sink:file"));
+        Assertions.assertThrows(ValidationException.class, () -> outboxService.resolveLimit(0));
+        Assertions.assertThrows(ValidationException.class, () -> outboxService.resolveLimit(1001));
+        Mockito.verify(outboxEventRepository, Mockito.never()).saveOffset(any(), Mockito.anyLong(),
+                any(LocalDateTime.class));
+    }
+}
@@ -0,0 +1,246 @@
+package com.subscriptionservice.service;
+
+import com.subscriptionservice.config.PaginationProperties;
+import com.subscriptionservice.config.TopSubscriptionsProperties;
+import com.subscriptionservice.dto.SubscriptionDTO;
+import com.subscriptionservice.dto.SubscriptionPageDTO;
+import com.subscriptionservice.dto.TopSubscriptionDTO;
+import com.subscriptionservice.event.SubscriptionsChangedEvent;
+import com.subscriptionservice.exception.ResourceNotFoundException;
+import com.subscriptionservice.exception.ValidationException;
+import com.subscriptionservice.mapper.SubscriptionMapper;
+import com.subscriptionservice.model.OutboxEventType;
+import com.subscriptionservice.model.SubscriptionRow;
+import com.subscriptionservice.model.SubscriptionStatus;
+import com.subscriptionservice.repository.ReactiveSubscriptionRepository;
+import io.r2dbc.postgresql.api.ErrorDetails;
+import io.r2dbc.postgresql.api.PostgresqlException;
+import io.r2dbc.postgresql.message.backend.Field;
+import io.r2dbc.spi.R2dbcDataIntegrityViolationException;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.any;
+
+@DisplayName("Тестирование ReactiveSubscriptionService")
+@ExtendWith(MockitoExtension.class)
+class ReactiveSubscriptionServiceTest {
+
+    @Mock
+    private ReactiveSubscriptionRepository subscriptionRepository;
+
+    @Mock
+    private SubscriptionLeaderboard subscriptionLeaderboard;
+
+    @Mock
+    private TransactionalOperator transactionalOperator;
+
+    @Mock
+    private ReactiveOutboxService outboxService;
+
+    @Mock
+    private ServiceDictionary serviceDictionary;
+
+    private ReactiveSubscriptionService subscriptionService;
+
+    private SubscriptionRow subscription;
+    private SubscriptionDTO subscriptionDTO;
+
+    @BeforeEach
+    void setUp() {
+        subscriptionService = new ReactiveSubscriptionService(subscriptionRepository, subscriptionLeaderboard,
+                new TopSubscriptionsProperties(), new PaginationProperties(), transactionalOperator, outboxService,
+                serviceDictionary, new SubscriptionMapper(serviceDictionary));
+        Mockito.lenient().when(serviceDictionary.resolveId("Netflix")).thenReturn(Mono.just(1));
+        Mockito.lenient().when(serviceDictionary.resolveNames(any())).thenReturn(Mono.empty());
+        Mockito.lenient().when(serviceDictionary.getName(1)).thenReturn("Netflix");
+        Mockito.lenient().when(serviceDictionary.getName(2)).thenReturn("Spotify");
+
+        subscription = new SubscriptionRow();
+        subscription.setId(1L);
+        subscription.setServiceId(1);
+        subscription.setStartDate(LocalDateTime.now());
+        subscription.setEndDate(LocalDateTime.now().plusMonths(1));
+        subscription.setUserId(1L);
+
+        subscriptionDTO = new SubscriptionDTO();
+        subscriptionDTO.setServiceName("Netflix");
+        subscriptionDTO.setStartDate(subscription.getStartDate());
+        subscriptionDTO.setEndDate(subscription.getEndDate());
+    }
+
+    @Test
+    @DisplayName("Добавление подписки успешно")
+    void addSubscription_success() {
+        stubTransactions();
+        Mockito.when(subscriptionRepository.save(any(SubscriptionRow.class))).thenReturn(Mono.just(subscription));
+
+        SubscriptionDTO result = subscriptionService.addSubscription(1L, subscriptionDTO).block();
+
+        Assertions.assertNotNull(result);
+        Assertions.assertEquals(1L, result.getId());
+        Assertions.assertEquals(1L, result.getUserId());
+        Mockito.verify(subscriptionLeaderboard).onSubscriptionsChanged(SubscriptionsChangedEvent.added("Netflix"));
+        Mockito.verify(outboxService).record(OutboxEventType.SUBSCRIPTION_CREATED, 1L, result);
+    }
+
+    @Test
+    @DisplayName("Добавление подписки — пользователь не найден")
+    void addSubscription_userNotFound() {
+        stubTransactions();
+        Mockito.when(subscriptionRepository.save(any(SubscriptionRow.class)))
+                .thenReturn(Mono.error(constraintViolation("fk_subscription_user")));
+
+        Assertions.assertThrows(ResourceNotFoundException.class,
+            () -> subscriptionService.addSubscription(1L, subscriptionDTO).block());
+        Mockito.verifyNoInteractions(subscriptionLeaderboard);
+    }
+
+    @Test
+    @DisplayName("Добавление подписки — подписка уже существует")
+    void addSubscription_duplicate() {
+        stubTransactions();
+        Mockito.when(subscriptionRepository.save(any(SubscriptionRow.class)))
+                .thenReturn(Mono.error(constraintViolation("uk_subscriptions_user_service")));
+
+        Assertions.assertThrows(ValidationException.class,
+            () -> subscriptionService.addSubscription(1L, subscriptionDTO).block());
+        Mockito.verifyNoInteractions(subscriptionLeaderboard);
+    }
+
+    @Test
+    @DisplayName("Добавление подписки — неверные даты")
+    void addSubscription_invalidDates() {
+        subscriptionDTO.setEndDate(LocalDateTime.now().minusDays(1));
+
+        Assertions.assertThrows(ValidationException.class,
+            () -> subscriptionService.addSubscription(1L, subscriptionDTO).block());
+        Mockito.verifyNoInteractions(subscriptionRepository);
+    }
+
+    @Test
+    @DisplayName("Получение подписок пользователя — следующая страница по токену продолжения")
+    void getUserSubscriptions_nextPage() {
+        SubscriptionRow first = new SubscriptionRow(5L, 1, null, null, 1L, SubscriptionStatus.ACTIVE);
+        SubscriptionRow second = new SubscriptionRow(6L, 2, null, null, 1L, SubscriptionStatus.ACTIVE);
+        Mockito.when(subscriptionRepository.findPageByUserId(1L, 0L, 2)).thenReturn(Flux.just(first, second));
+        Mockito.when(subscriptionRepository.findPageByUserId(1L, 5L, 2)).thenReturn(Flux.just(second));
+
+        SubscriptionPageDTO page = subscriptionService.getUserSubscriptions(1L, null, 1).block();
+        SubscriptionPageDTO next = subscriptionService.getUserSubscriptions(1L, page.getNextCursor(), 1).block();
+
+        Assertions.assertEquals(List.of(new SubscriptionDTO(5L, "Netflix", null, null, 1L, SubscriptionStatus.ACTIVE)),
+                page.getSubscriptions());
+        Assertions.assertEquals(List.of(new SubscriptionDTO(6L, "Spotify", null, null, 1L, SubscriptionStatus.ACTIVE)),
+                next.getSubscriptions());
+        Assertions.assertNull(next.getNextCursor());
+    }
+
+    @Test
+    @DisplayName("Получение подписок пользователя — некорректный размер страницы или токен")
+    void getUserSubscriptions_invalidParameters() {
+        Assertions.assertThrows(ValidationException.class,
+            () -> subscriptionService.getUserSubscriptions(1L, null, 0).block());
+        Assertions.assertThrows(ValidationException.class,
+            () -> subscriptionService.getUserSubscriptions(1L, "not-a-cursor", null).block());
+        Mockito.verifyNoInteractions(subscriptionRepository);
+    }
+
+    @Test
+    @DisplayName("Удаление подписки успешно")
+    void deleteSubscription_success() {
+        stubTransactions();
+        Mockito.when(subscriptionRepository.deleteOwned(1L, 1L)).thenReturn(Mono.just(subscription));
+
+        subscriptionService.deleteSubscription(1L, 1L).block();
+
+        Mockito.verify(subscriptionRepository, Mockito.never()).findById(any(Long.class));
+        Mockito.verify(subscriptionLeaderboard).onSubscriptionsChanged(SubscriptionsChangedEvent.removed("Netflix"));
+    }
+
+    @Test
+    @DisplayName("Удаление подписки — не найдена или не принадлежит пользователю")
+    void deleteSubscription_notFoundOrForeign() {
+        stubTransactions();
+        Mockito.when(subscriptionRepository.deleteOwned(any(Long.class), any(Long.class))).thenReturn(Mono.empty());
+        Mockito.when(subscriptionRepository.existsById(1L)).thenReturn(Mono.just(true));
+        Mockito.when(subscriptionRepository.existsById(2L)).thenReturn(Mono.just(false));
+
+        Assertions.assertThrows(ResourceNotFoundException.class,
+            () -> subscriptionService.deleteSubscription(1L, 2L).block());
+        Assertions.assertThrows(ValidationException.class,
+            () -> subscriptionService.deleteSubscription(2L, 1L).block());
+        Mockito.verifyNoInteractions(subscriptionLeaderboard);
+    }
+
+    @Test
+    @DisplayName("Получение топовых подписок из рейтинга в памяти и из базы данных")
+    void getTopSubscriptions_success() {
+        TopSubscriptionDTO top = new TopSubscriptionDTO();
+        top.setServiceName("Netflix");
+        top.setSubscriberCount(2L);
+        LocalDateTime activeAt = LocalDateTime.now();
+        Mockito.when(subscriptionLeaderboard.isLoaded()).thenReturn(true);
+        Mockito.when(subscriptionLeaderboard.getTop(3)).thenReturn(List.of(top));
+        Mockito.when(subscriptionRepository.findTopPopularSubscriptionsActiveBetween(activeAt, activeAt, 3))
+                .thenReturn(Flux.just(top));
+
+        Assertions.assertEquals(List.of(top), subscriptionService.getTopSubscriptions(null, null, null, null).block());
+        Assertions.assertEquals(List.of(top),
+                subscriptionService.getTopSubscriptions(null, activeAt, null, null).block());
+        Mockito.verify(subscriptionRepository, Mockito.never()).findTopPopularSubscriptions(Mockito.anyInt());
+    }
+
+    @Test
+    @DisplayName("Получение топовых подписок — некорректные параметры")
+    void getTopSubscriptions_invalidParameters() {
+        LocalDateTime now = LocalDateTime.now();
+
+        Assertions.assertThrows(ValidationException.class,
+            () -> subscriptionService.getTopSubscriptions(0, null, null, null).block());
+        Assertions.assertThrows(ValidationException.class,
+            () -> subscriptionService.getTopSubscriptions(null, null, now, null).block());
+        Mockito.verifyNoInteractions(subscriptionRepository);
+    }
+
+    @SuppressWarnings("unchecked")
+    private void stubTransactions() {
+        Mockito.when(transactionalOperator.transactional(any(Mono.class)))
+                .thenAnswer(invocation -> invocation.getArgument(0));
+        Mockito.lenient().when(outboxService.record(any(OutboxEventType.class), any(), any()))
+                .thenReturn(Mono.empty());
+    }
+
+    private static DataIntegrityViolationException constraintViolation(String constraintName) {
+        return new DataIntegrityViolationException("could not execute statement",
+                new PostgresqlViolation(constraintName));
+    }
+
+    private static class PostgresqlViolation extends R2dbcDataIntegrityViolationException
+            implements PostgresqlException {
+        private final ErrorDetails errorDetails;
+
+        private PostgresqlViolation(String constraintName) {
+            super("violates constraint " + constraintName);
+            errorDetails = new ErrorDetails(List.of(new Field(Field.FieldType.CONSTRAINT_NAME, constraintName)));
+        }
+
+        @Override
+        public ErrorDetails getErrorDetails() {
+            return errorDetails;
+        }
+    }
+}
@@ -0,0 +1,147 @@
+package com.subscriptionservice.service;
+
+import com.subscriptionservice.dto.TopSubscriptionDTO;
+import com.subscriptionservice.dto.UserDTO;
+import com.subscriptionservice.event.SubscriptionsChangedEvent;
+import com.subscriptionservice.exception.ResourceNotFoundException;
+import com.subscriptionservice.exception.UserAlreadyExistsException;
+import com.subscriptionservice.model.OutboxEventType;
+import com.subscriptionservice.model.UserRow;
+import com.subscriptionservice.repository.ReactiveSubscriptionRepository;
+import com.subscriptionservice.repository.ReactiveUserRepository;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.Map;
+
+import static org.mockito.ArgumentMatchers.any;
+
+@DisplayName("Тестирование ReactiveUserService")
+@ExtendWith(MockitoExtension.class)
+class ReactiveUserServiceTest {
+
+    @Mock
+    private ReactiveUserRepository userRepository;
+
+    @Mock
+    private ReactiveSubscriptionRepository subscriptionRepository;
+
+    @Mock
+    private SubscriptionLeaderboard subscriptionLeaderboard;
+
+    @Mock
+    private TransactionalOperator transactionalOperator;
+
+    @Mock
+    private ReactiveOutboxService outboxService;
+
+    @InjectMocks
+    private ReactiveUserService userService;
+
+    private UserRow user;
+    private UserDTO userDTO;
+
+    @BeforeEach
+    void setUp() {
+        user = new UserRow();
+        user.setId(1L);
+        user.setUserName("Test User");
+        user.setEmail("test@example.com");
+
+        userDTO = new UserDTO(null, "Test User", "test@example.com");
+    }
+
+    @Test
+    @DisplayName("Создание пользователя успешно")
+    void createUser_success() {
+        stubTransactions();
+        Mockito.when(userRepository.existsByEmail("test@example.com")).thenReturn(Mono.just(false));
+        Mockito.when(userRepository.save(any(UserRow.class))).thenReturn(Mono.just(user));
+
+        UserDTO result = userService.createUser(userDTO).block();
+
+        Assertions.assertEquals(new UserDTO(1L, "Test User", "test@example.com"), result);
+        ArgumentCaptor<UserRow> saved = ArgumentCaptor.forClass(UserRow.class);
+        Mockito.verify(userRepository).save(saved.capture());
+        Assertions.assertNotNull(saved.getValue().getCreatedAt());
+        Assertions.assertNotNull(saved.getValue().getUpdatedAt());
+        Mockito.verify(outboxService).record(OutboxEventType.USER_CREATED, 1L, result);
+    }
+
+    @Test
+    @DisplayName("Создание пользователя — email уже используется")
+    void createUser_emailExists() {
+        stubTransactions();
+        Mockito.when(userRepository.existsByEmail("test@example.com")).thenReturn(Mono.just(true));
+
+        Assertions.assertThrows(UserAlreadyExistsException.class, () -> userService.createUser(userDTO).block());
+        Mockito.verify(userRepository, Mockito.never()).save(any());
+    }
+
+    @Test
+    @DisplayName("Получение пользователя — не найден")
+    void getUser_notFound() {
+        Mockito.when(userRepository.findDTOById(1L)).thenReturn(Mono.empty());
+
+        Assertions.assertThrows(ResourceNotFoundException.class, () -> userService.getUserById(1L).block());
+    }
+
+    @Test
+    @DisplayName("Обновление пользователя — новый email уже используется")
+    void updateUser_emailExists() {
+        stubTransactions();
+        userDTO.setEmail("other@example.com");
+        Mockito.when(userRepository.findById(1L)).thenReturn(Mono.just(user));
+        Mockito.when(userRepository.existsByEmail("other@example.com")).thenReturn(Mono.just(true));
+
+        Assertions.assertThrows(UserAlreadyExistsException.class, () -> userService.updateUser(1L, userDTO).block());
+        Mockito.verify(userRepository, Mockito.never()).save(any());
+    }
+
+    @Test
+    @DisplayName("Удаление пользователя обновляет рейтинг подписок")
+    void deleteUser_success() {
+        stubTransactions();
+        TopSubscriptionDTO netflix = new TopSubscriptionDTO();
+        netflix.setServiceName("Netflix");
+        netflix.setSubscriberCount(1L);
+        Mockito.when(subscriptionRepository.countSubscriptionsByServiceNameForUser(1L)).thenReturn(Flux.just(netflix));
+        Mockito.when(userRepository.deleteUserById(1L)).thenReturn(Mono.just(1));
+
+        userService.deleteUser(1L).block();
+
+        Mockito.verify(userRepository, Mockito.never()).existsById(any(Long.class));
+        Mockito.verify(subscriptionLeaderboard)
+                .onSubscriptionsChanged(new SubscriptionsChangedEvent(Map.of("Netflix", -1L)));
+    }
+
+    @Test
+    @DisplayName("Удаление пользователя — не найден")
+    void deleteUser_notFound() {
+        stubTransactions();
+        Mockito.when(subscriptionRepository.countSubscriptionsByServiceNameForUser(1L)).thenReturn(Flux.empty());
+        Mockito.when(userRepository.deleteUserById(1L)).thenReturn(Mono.just(0));
+
+        Assertions.assertThrows(ResourceNotFoundException.class, () -> userService.deleteUser(1L).block());
+        Mockito.verifyNoInteractions(subscriptionLeaderboard);
+    }
+
+    @SuppressWarnings("unchecked")
+    private void stubTransactions() {
+        Mockito.when(transactionalOperator.transactional(any(Mono.class)))
+                .thenAnswer(invocation -> invocation.getArgument(0));
+        Mockito.lenient().when(outboxService.record(any(OutboxEventType.class), any(), any()))
+                .thenReturn(Mono.empty());
+    }
+}
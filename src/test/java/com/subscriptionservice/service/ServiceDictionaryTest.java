@@ -0,0 +1,117 @@
+package com.subscriptionservice.service;
+
+import com.subscriptionservice.exception.ValidationException;
+import com.subscriptionservice.model.ServiceEntry;
+import com.subscriptionservice.repository.ServiceEntryRepository;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionSynchronizationUtils;
+
+import java.util.List;
+import java.util.Optional;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Тесты справочника сервисов")
+class ServiceDictionaryTest {
+
+    @Mock
+    private ServiceEntryRepository serviceEntryRepository;
+
+    private ServiceDictionary serviceDictionary;
+
+    @BeforeEach
+    void setUp() {
+        serviceDictionary = new ServiceDictionary(serviceEntryRepository, Mockito.mock(PlatformTransactionManager.class));
+        Mockito.when(serviceEntryRepository.findAll()).thenReturn(List.of(serviceEntry(1, "Netflix")));
+        serviceDictionary.load();
+    }
+
+    @Test
+    @DisplayName("Известный сервис не запрашивается из базы данных, новый сервис добавляется один раз")
+    void getId_insertsUnknownServiceOnce() {
+        Mockito.when(serviceEntryRepository.insertIfAbsent("Spotify")).thenReturn(2);
+
+        Assertions.assertEquals(1, serviceDictionary.getId("Netflix"));
+        Assertions.assertEquals(2, serviceDictionary.getId("Spotify"));
+        Assertions.assertEquals(2, serviceDictionary.getId("Spotify"));
+        Assertions.assertEquals("Spotify", serviceDictionary.getName(2));
+
+        Mockito.verify(serviceEntryRepository).insertIfAbsent("Spotify");
+        Mockito.verify(serviceEntryRepository, Mockito.never()).insertIfAbsent("Netflix");
+        Assertions.assertThrows(ValidationException.class, () -> serviceDictionary.getId(" "));
+    }
+
+    @Test
+    @DisplayName("Сервис, добавленный параллельной транзакцией, находится по названию")
+    void getId_concurrentInsert() {
+        Mockito.when(serviceEntryRepository.insertIfAbsent("Spotify")).thenReturn(null);
+        Mockito.when(serviceEntryRepository.findByName("Spotify")).thenReturn(Optional.of(serviceEntry(2, "Spotify")));
+
+        Assertions.assertEquals(2, serviceDictionary.getId("Spotify"));
+    }
+
+    @Test
+    @DisplayName("Поиск не добавляет сервис; неизвестный идентификатор загружается повторной загрузкой")
+    void findIdAndGetName() {
+        Assertions.assertEquals(Optional.empty(), serviceDictionary.findId("Hulu"));
+        Mockito.verify(serviceEntryRepository, Mockito.never()).insertIfAbsent(Mockito.anyString());
+
+        Mockito.when(serviceEntryRepository.findAll())
+                .thenReturn(List.of(serviceEntry(1, "Netflix"), serviceEntry(3, "Hulu")));
+        Assertions.assertEquals("Hulu", serviceDictionary.getName(3));
+        Assertions.assertEquals(Optional.of(3), serviceDictionary.findId("Hulu"));
+        Assertions.assertThrows(IllegalStateException.class, () -> serviceDictionary.getName(4));
+    }
+
+    @Test
+    @DisplayName("Сервис, добавленный в транзакции, попадает в справочник после фиксации и не попадает при откате")
+    void getId_publishesAfterCommitOnly() {
+        Mockito.when(serviceEntryRepository.insertIfAbsent("Spotify")).thenReturn(2);
+        Mockito.when(serviceEntryRepository.insertIfAbsent("Hulu")).thenReturn(3);
+
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            Assertions.assertEquals(3, serviceDictionary.getId("Hulu"));
+            Assertions.assertEquals(3, serviceDictionary.getId("Hulu"));
+            Assertions.assertEquals("Hulu", serviceDictionary.getName(3));
+            Assertions.assertEquals(Optional.of(3), serviceDictionary.findId("Hulu"));
+            Mockito.verify(serviceEntryRepository).insertIfAbsent("Hulu");
+            // Запрос отклонен, транзакция откатывается
+            TransactionSynchronizationUtils.invokeAfterCompletion(
+                    TransactionSynchronizationManager.getSynchronizations(), TransactionSynchronization.STATUS_ROLLED_BACK);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        Assertions.assertThrows(IllegalStateException.class, () -> serviceDictionary.getName(3));
+
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            Assertions.assertEquals(2, serviceDictionary.getId("Spotify"));
+            TransactionSynchronizationUtils.triggerAfterCommit();
+            TransactionSynchronizationUtils.invokeAfterCompletion(
+                    TransactionSynchronizationManager.getSynchronizations(), TransactionSynchronization.STATUS_COMMITTED);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        Assertions.assertEquals(2, serviceDictionary.getId("Spotify"));
+        Assertions.assertEquals("Spotify", serviceDictionary.getName(2));
+        Mockito.verify(serviceEntryRepository).insertIfAbsent("Spotify");
+        Assertions.assertFalse(TransactionSynchronizationManager.hasResource(serviceDictionary));
+    }
+
+    private static ServiceEntry serviceEntry(Integer id, String name) {
+        ServiceEntry entry = new ServiceEntry();
+        entry.setId(id);
+        entry.setName(name);
+        return entry;
+    }
+}
@@ -0,0 +1,206 @@
+package com.subscriptionservice.service;
+
+import com.subscriptionservice.config.BatchProperties;
+import com.subscriptionservice.dto.BatchItemResultDTO;
+import com.subscriptionservice.dto.SubscriptionDTO;
+import com.subscriptionservice.event.SubscriptionsChangedEvent;
+import com.subscriptionservice.event.UserSubscriptionsChangedEvent;
+import com.subscriptionservice.exception.ValidationException;
+import com.subscriptionservice.mapper.SubscriptionMapper;
+import com.subscriptionservice.model.OutboxEventType;
+import com.subscriptionservice.model.ServiceEntry;
+import com.subscriptionservice.model.Subscription;
+import com.subscriptionservice.model.User;
+import com.subscriptionservice.repository.ServiceEntryRepository;
+import com.subscriptionservice.repository.SubscriptionRepository;
+import com.subscriptionservice.repository.UserRepository;
+import jakarta.validation.Validation;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Тесты пакетного создания и массового удаления подписок")
+class SubscriptionBatchServiceTest {
+
+    @Mock
+    private SubscriptionRepository subscriptionRepository;
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private OutboxService outboxService;
+
+    @Mock
+    private ServiceEntryRepository serviceEntryRepository;
+
+    private SubscriptionBatchService batchService;
+
+    @BeforeEach
+    void setUp() {
+        BatchProperties batchProperties = new BatchProperties();
+        batchProperties.setMaxSize(3);
+        Mockito.lenient().when(serviceEntryRepository.findAll())
+                .thenReturn(List.of(serviceEntry(1, "Netflix"), serviceEntry(2, "Spotify")));
+        ServiceDictionary serviceDictionary = new ServiceDictionary(serviceEntryRepository,
+                Mockito.mock(PlatformTransactionManager.class));
+        serviceDictionary.load();
+        batchService = new SubscriptionBatchService(subscriptionRepository, userRepository,
+                new SubscriptionMapper(serviceDictionary), Validation.buildDefaultValidatorFactory().getValidator(),
+                batchProperties, eventPublisher, outboxService,
+                new TransactionTemplate(Mockito.mock(PlatformTransactionManager.class)), serviceDictionary);
+    }
+
+    @Test
+    @DisplayName("Пакет обрабатывается поэлементно: созданные, дубликаты и ошибки валидации")
+    void addSubscriptions_perItemResults() {
+        SubscriptionDTO netflix = subscription("Netflix");
+        SubscriptionDTO spotify = subscription("Spotify");
+        SubscriptionDTO invalid = subscription("");
+
+        Mockito.when(userRepository.findExistingIds(Set.of(1L))).thenReturn(Set.of(1L));
+        Mockito.when(subscriptionRepository.findUserServicePairs(anyCollection(), anyCollection()))
+                .thenReturn(List.<Object[]>of(new Object[]{1L, 1}));
+        Mockito.when(userRepository.getReferenceById(anyLong())).thenAnswer(invocation -> {
+            User user = new User();
+            user.setId(invocation.getArgument(0));
+            return user;
+        });
+        Mockito.when(subscriptionRepository.saveAll(any())).thenAnswer(invocation -> {
+            List<Subscription> subscriptions = new ArrayList<>(invocation.getArgument(0));
+            long id = 100;
+            for (Subscription subscription : subscriptions) {
+                subscription.setId(id++);
+            }
+            return subscriptions;
+        });
+
+        List<BatchItemResultDTO> results = batchService.addSubscriptions(1L, List.of(netflix, spotify, invalid));
+
+        Assertions.assertEquals(3, results.size());
+        Assertions.assertEquals(BatchItemResultDTO.Status.DUPLICATE, results.get(0).getStatus());
+        Assertions.assertEquals(BatchItemResultDTO.Status.CREATED, results.get(1).getStatus());
+        Assertions.assertEquals(100L, results.get(1).getSubscription().getId());
+        Assertions.assertEquals(1L, results.get(1).getSubscription().getUserId());
+        Assertions.assertEquals(BatchItemResultDTO.Status.INVALID, results.get(2).getStatus());
+        Assertions.assertEquals(2, results.get(2).getIndex());
+        Mockito.verify(eventPublisher).publishEvent(new SubscriptionsChangedEvent(Map.of("Spotify", 1L)));
+        Mockito.verify(eventPublisher).publishEvent(UserSubscriptionsChangedEvent.of(1L));
+    }
+
+    @Test
+    @DisplayName("Подписки несуществующих пользователей и повторы внутри пакета отклоняются")
+    void addSubscriptions_crossUser() {
+        SubscriptionDTO first = subscription("Netflix");
+        first.setUserId(1L);
+        SubscriptionDTO repeated = subscription("Netflix");
+        repeated.setUserId(1L);
+        SubscriptionDTO unknownUser = subscription("Netflix");
+        unknownUser.setUserId(2L);
+
+        Mockito.when(userRepository.findExistingIds(Set.of(1L, 2L))).thenReturn(Set.of(1L));
+        Mockito.when(subscriptionRepository.findUserServicePairs(anyCollection(), anyCollection()))
+                .thenReturn(Collections.emptyList());
+        Mockito.when(subscriptionRepository.saveAll(any())).thenAnswer(invocation -> invocation.getArgument(0));
+
+        List<BatchItemResultDTO> results = batchService.addSubscriptions(List.of(first, repeated, unknownUser));
+
+        Assertions.assertEquals(BatchItemResultDTO.Status.CREATED, results.get(0).getStatus());
+        Assertions.assertEquals(BatchItemResultDTO.Status.DUPLICATE, results.get(1).getStatus());
+        Assertions.assertEquals(BatchItemResultDTO.Status.USER_NOT_FOUND, results.get(2).getStatus());
+    }
+
+    @Test
+    @DisplayName("Пустой пакет и пакет сверх допустимого размера отклоняются")
+    void addSubscriptions_invalidBatchSize() {
+        Assertions.assertThrows(ValidationException.class,
+            () -> batchService.addSubscriptions(1L, List.of()));
+        Assertions.assertThrows(ValidationException.class,
+            () -> batchService.addSubscriptions(1L, List.of(subscription("A"), subscription("B"),
+                    subscription("C"), subscription("D"))));
+        Mockito.verifyNoInteractions(subscriptionRepository);
+    }
+
+    @Test
+    @DisplayName("Пакетное удаление подписок пользователя одним запросом с общим событием изменения")
+    void deleteSubscriptions_byIds() {
+        Mockito.when(subscriptionRepository.deleteOwnedByIds(List.of(1L, 2L, 3L), 1L))
+                .thenReturn(List.of(saved(1L, 1), saved(2L, 1)));
+
+        Assertions.assertEquals(2, batchService.deleteSubscriptions(1L, List.of(1L, 2L, 3L)));
+        Mockito.verify(eventPublisher).publishEvent(new SubscriptionsChangedEvent(Map.of("Netflix", -2L)));
+        Mockito.verify(eventPublisher).publishEvent(UserSubscriptionsChangedEvent.of(1L));
+        Mockito.verify(outboxService, Mockito.times(2)).record(eq(OutboxEventType.SUBSCRIPTION_DELETED), anyLong(), any());
+
+        Assertions.assertThrows(ValidationException.class, () -> batchService.deleteSubscriptions(1L, List.of()));
+        Assertions.assertThrows(ValidationException.class,
+            () -> batchService.deleteSubscriptions(1L, List.of(1L, 2L, 3L, 4L)));
+    }
+
+    @Test
+    @DisplayName("Массовое удаление по сервису выполняется частями до неполной части; нужен ровно один параметр")
+    void deleteSubscriptions_byCriteriaInChunks() {
+        Mockito.when(subscriptionRepository.deleteByServiceId(1, 3))
+                .thenReturn(List.of(saved(1L, 1), saved(2L, 1), saved(3L, 1)))
+                .thenReturn(List.of(saved(4L, 1)));
+
+        Assertions.assertEquals(4, batchService.deleteSubscriptions("Netflix", null));
+        Mockito.verify(subscriptionRepository, Mockito.times(2)).deleteByServiceId(1, 3);
+        Mockito.verify(eventPublisher).publishEvent(new SubscriptionsChangedEvent(Map.of("Netflix", -3L)));
+        Mockito.verify(eventPublisher).publishEvent(new SubscriptionsChangedEvent(Map.of("Netflix", -1L)));
+
+        Assertions.assertEquals(0, batchService.deleteSubscriptions("Hulu", null));
+        Assertions.assertThrows(ValidationException.class, () -> batchService.deleteSubscriptions((String) null, null));
+        Assertions.assertThrows(ValidationException.class,
+            () -> batchService.deleteSubscriptions("Netflix", LocalDateTime.now()));
+    }
+
+    private static Subscription saved(Long id, Integer serviceId) {
+        User user = new User();
+        user.setId(1L);
+        Subscription subscription = new Subscription();
+        subscription.setId(id);
+        subscription.setServiceId(serviceId);
+        subscription.setUser(user);
+        return subscription;
+    }
+
+    private static ServiceEntry serviceEntry(Integer id, String name) {
+        ServiceEntry entry = new ServiceEntry();
+        entry.setId(id);
+        entry.setName(name);
+        return entry;
+    }
+
+    private static SubscriptionDTO subscription(String serviceName) {
+        SubscriptionDTO dto = new SubscriptionDTO();
+        dto.setServiceName(serviceName);
+        dto.setStartDate(LocalDateTime.now());
+        dto.setEndDate(LocalDateTime.now().plusMonths(1));
+        return dto;
+    }
+}
@@ -0,0 +1,132 @@
+package com.subscriptionservice.service;
+
+import com.subscriptionservice.config.ExpiryProperties;
+import com.subscriptionservice.config.MetricsConfig;
+import com.subscriptionservice.event.UserSubscriptionsChangedEvent;
+import com.subscriptionservice.repository.SubscriptionRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+
+@DisplayName("Тестирование SubscriptionExpiryScheduler")
+@ExtendWith(MockitoExtension.class)
+class SubscriptionExpirySchedulerTest {
+
+    @Mock
+    private SubscriptionRepository subscriptionRepository;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    private ExpiryProperties expiryProperties;
+    private SimpleMeterRegistry meterRegistry;
+    private SubscriptionExpiryScheduler scheduler;
+    private Instant now;
+
+    @BeforeEach
+    void setUp() {
+        expiryProperties = new ExpiryProperties();
+        expiryProperties.setTick(Duration.ofMillis(10));
+        expiryProperties.setBatchSize(2);
+        meterRegistry = new SimpleMeterRegistry();
+        now = Instant.parse("2024-01-01T00:00:00Z");
+        scheduler = new SubscriptionExpiryScheduler(subscriptionRepository, expiryProperties, eventPublisher,
+                meterRegistry, new Clock() {
+                    @Override
+                    public ZoneId getZone() {
+                        return ZoneOffset.UTC;
+                    }
+
+                    @Override
+                    public Clock withZone(ZoneId zone) {
+                        throw new UnsupportedOperationException();
+                    }
+
+                    @Override
+                    public Instant instant() {
+                        return now;
+                    }
+                });
+    }
+
+    @Test
+    @DisplayName("Просроченные подписки переводятся пакетами до исчерпания")
+    void load_expiresOverdueInBatches() {
+        Mockito.when(subscriptionRepository.expireOverdue(any(LocalDateTime.class), eq(2)))
+                .thenReturn(List.of(10L, 11L))
+                .thenReturn(List.of(10L, 12L))
+                .thenReturn(List.of(13L));
+
+        scheduler.load();
+
+        Mockito.verify(subscriptionRepository, Mockito.times(3)).expireOverdue(any(LocalDateTime.class), eq(2));
+        Assertions.assertEquals(5, meterRegistry.get(MetricsConfig.SUBSCRIPTIONS_EXPIRED).counter().count());
+        Mockito.verify(eventPublisher).publishEvent(new UserSubscriptionsChangedEvent(Set.of(10L, 11L)));
+        Mockito.verify(eventPublisher).publishEvent(new UserSubscriptionsChangedEvent(Set.of(10L, 12L)));
+        Mockito.verify(eventPublisher).publishEvent(new UserSubscriptionsChangedEvent(Set.of(13L)));
+    }
+
+    @Test
+    @DisplayName("Подписки окна переводятся в статус EXPIRED пакетами после наступления срока")
+    void tick_expiresLoadedSubscriptions() {
+        LocalDateTime endDate = LocalDateTime.ofInstant(now, ZoneOffset.UTC).plus(Duration.ofMillis(50));
+        Mockito.when(subscriptionRepository.findActiveExpiringBetween(any(), any(), any(PageRequest.class)))
+                .thenReturn(List.of(
+                        new Object[]{1L, endDate},
+                        new Object[]{2L, endDate},
+                        new Object[]{3L, endDate}));
+        Mockito.when(subscriptionRepository.expireByIds(any(), any())).thenAnswer(invocation ->
+                Collections.nCopies(invocation.<List<Long>>getArgument(0).size(), 7L));
+
+        scheduler.load();
+        scheduler.tick();
+        Mockito.verify(subscriptionRepository, Mockito.never()).expireByIds(any(), any());
+
+        now = now.plus(Duration.ofMillis(100));
+        scheduler.tick();
+
+        Mockito.verify(subscriptionRepository).expireByIds(eq(List.of(1L, 2L)), any());
+        Mockito.verify(subscriptionRepository).expireByIds(eq(List.of(3L)), any());
+        Assertions.assertEquals(3, meterRegistry.get(MetricsConfig.SUBSCRIPTIONS_EXPIRED).counter().count());
+        Assertions.assertEquals(0, meterRegistry.get(MetricsConfig.SUBSCRIPTIONS_EXPIRY_PENDING).gauge().value());
+        Mockito.verify(eventPublisher, Mockito.times(2)).publishEvent(new UserSubscriptionsChangedEvent(Set.of(7L)));
+    }
+
+    @Test
+    @DisplayName("Следующая загрузка читает только новую часть окна")
+    void load_continuesFromLoadedWindow() {
+        scheduler.load();
+        now = now.plus(expiryProperties.getLoadInterval());
+        scheduler.load();
+
+        ArgumentCaptor<LocalDateTime> from = ArgumentCaptor.forClass(LocalDateTime.class);
+        ArgumentCaptor<LocalDateTime> to = ArgumentCaptor.forClass(LocalDateTime.class);
+        Mockito.verify(subscriptionRepository, Mockito.times(2))
+                .findActiveExpiringBetween(from.capture(), to.capture(), any(PageRequest.class));
+        Assertions.assertEquals(to.getAllValues().get(0), from.getAllValues().get(1));
+        Mockito.verify(subscriptionRepository, Mockito.times(2)).expireOverdue(any(), anyInt());
+    }
+}
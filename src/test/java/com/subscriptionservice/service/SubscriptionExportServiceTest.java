@@ -0,0 +1,137 @@
+package com.subscriptionservice.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.subscriptionservice.config.ExportProperties;
+import com.subscriptionservice.exception.ServiceOverloadedException;
+import com.subscriptionservice.exception.ValidationException;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.PreparedStatementCreator;
+import org.springframework.jdbc.core.RowCallbackHandler;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Тесты потоковой выгрузки подписок")
+class SubscriptionExportServiceTest {
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private Connection connection;
+
+    @Mock
+    private PreparedStatement statement;
+
+    @Mock
+    private ResultSet resultSet;
+
+    @Mock
+    private ServiceDictionary serviceDictionary;
+
+    private SubscriptionExportService exportService;
+
+    @BeforeEach
+    void setUp() {
+        ExportProperties exportProperties = new ExportProperties();
+        exportProperties.setFetchSize(500);
+        exportService = new SubscriptionExportService(jdbcTemplate, new ObjectMapper(), exportProperties,
+                serviceDictionary);
+    }
+
+    @Test
+    @DisplayName("Выгрузка CSV читается курсором и экранирует значения")
+    void export_csv() throws Exception {
+        Mockito.when(serviceDictionary.findId("Yandex, Plus")).thenReturn(Optional.of(3));
+        Mockito.when(serviceDictionary.getName(3)).thenReturn("Yandex, Plus");
+        Mockito.when(connection.prepareStatement(anyString(), anyInt(), anyInt())).thenReturn(statement);
+        Mockito.when(resultSet.getLong(1)).thenReturn(7L);
+        Mockito.when(resultSet.getLong(2)).thenReturn(1L);
+        Mockito.when(resultSet.getInt(3)).thenReturn(3);
+        Mockito.when(resultSet.getTimestamp(4)).thenReturn(Timestamp.valueOf(LocalDateTime.of(2024, 1, 1, 0, 0)));
+        Mockito.when(resultSet.getTimestamp(5)).thenReturn(Timestamp.valueOf(LocalDateTime.of(2024, 2, 1, 0, 0)));
+        Mockito.doAnswer(invocation -> {
+            PreparedStatementCreator creator = invocation.getArgument(0);
+            Assertions.assertSame(statement, creator.createPreparedStatement(connection));
+            RowCallbackHandler handler = invocation.getArgument(1);
+            handler.processRow(resultSet);
+            return null;
+        }).when(jdbcTemplate).query(any(PreparedStatementCreator.class), any(RowCallbackHandler.class));
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        exportService.export(SubscriptionExportService.Format.CSV, "Yandex, Plus", null, null, out);
+
+        Assertions.assertEquals("""
+                id,userId,serviceName,startDate,endDate
+                7,1,"Yandex, Plus",2024-01-01T00:00:00,2024-02-01T00:00:00
+                """, out.toString(StandardCharsets.UTF_8));
+        Mockito.verify(connection).prepareStatement(
+                "SELECT id, user_id, service_id, start_date, end_date FROM subscriptions"
+                        + " WHERE service_id = ? ORDER BY id",
+                ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+        Mockito.verify(statement).setFetchSize(500);
+        Mockito.verify(statement).setObject(1, 3);
+    }
+
+    @Test
+    @DisplayName("Пустая выгрузка NDJSON не содержит строк")
+    void export_emptyNdjson() {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        exportService.export(SubscriptionExportService.Format.NDJSON, null, null, null, out);
+
+        Assertions.assertEquals(0, out.size());
+    }
+
+    @Test
+    @DisplayName("Выгрузка по неизвестному сервису не обращается к базе данных")
+    void export_unknownService() {
+        Mockito.when(serviceDictionary.findId("Hulu")).thenReturn(Optional.empty());
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        exportService.export(SubscriptionExportService.Format.CSV, "Hulu", null, null, out);
+
+        Assertions.assertEquals("id,userId,serviceName,startDate,endDate\n", out.toString(StandardCharsets.UTF_8));
+        Mockito.verifyNoInteractions(jdbcTemplate);
+    }
+
+    @Test
+    @DisplayName("Выгрузка сверх app.export.max-concurrent отклоняется до освобождения места")
+    void acquire_limitsConcurrentExports() {
+        exportService.acquire();
+        exportService.acquire();
+
+        Assertions.assertThrows(ServiceOverloadedException.class, exportService::acquire);
+
+        exportService.release();
+        Assertions.assertDoesNotThrow(exportService::acquire);
+    }
+
+    @Test
+    @DisplayName("Неподдерживаемый формат и некорректный период отклоняются")
+    void resolveFormat_invalid() {
+        Assertions.assertEquals(SubscriptionExportService.Format.CSV, exportService.resolveFormat("CSV", null, null));
+        Assertions.assertThrows(ValidationException.class, () -> exportService.resolveFormat("xml", null, null));
+        Assertions.assertThrows(ValidationException.class, () -> exportService.resolveFormat("ndjson",
+                LocalDateTime.of(2024, 2, 1, 0, 0), LocalDateTime.of(2024, 1, 1, 0, 0)));
+    }
+}
@@ -0,0 +1,119 @@
+package com.subscriptionservice.service;
+
+import com.subscriptionservice.dto.TopSubscriptionDTO;
+import com.subscriptionservice.event.SubscriptionsChangedEvent;
+import com.subscriptionservice.repository.SubscriptionRepository;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+import java.util.Map;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Тесты рейтинга подписок в памяти")
+class SubscriptionLeaderboardTest {
+
+    @Mock
+    private SubscriptionRepository subscriptionRepository;
+
+    @Mock
+    private ServiceDictionary serviceDictionary;
+
+    @InjectMocks
+    private SubscriptionLeaderboard leaderboard;
+
+    @BeforeEach
+    void setUp() {
+        Mockito.lenient().when(serviceDictionary.getName(1)).thenReturn("Netflix");
+        Mockito.lenient().when(serviceDictionary.getName(2)).thenReturn("Spotify");
+        Mockito.lenient().when(serviceDictionary.getName(3)).thenReturn("Disney+");
+    }
+
+    @Test
+    @DisplayName("Рейтинг загружается из базы данных и сортируется по убыванию")
+    void load_buildsRankingFromDatabase() {
+        Mockito.when(subscriptionRepository.countSubscriptionsByServiceId()).thenReturn(List.of(
+                new Object[]{2, 2L},
+                new Object[]{1, 5L},
+                new Object[]{3, 1L}));
+
+        leaderboard.load();
+
+        List<TopSubscriptionDTO> top = leaderboard.getTop(2);
+        Assertions.assertTrue(leaderboard.isLoaded());
+        Assertions.assertEquals(2, top.size());
+        Assertions.assertEquals("Netflix", top.get(0).getServiceName());
+        Assertions.assertEquals(5L, top.get(0).getSubscriberCount());
+        Assertions.assertEquals("Spotify", top.get(1).getServiceName());
+    }
+
+    @Test
+    @DisplayName("Изменения подписок применяются к рейтингу инкрементально")
+    void onSubscriptionsChanged_updatesRanking() {
+        Mockito.when(subscriptionRepository.countSubscriptionsByServiceId()).thenReturn(List.of(
+                new Object[]{1, 2L},
+                new Object[]{2, 1L}));
+        leaderboard.load();
+
+        leaderboard.onSubscriptionsChanged(SubscriptionsChangedEvent.added("Spotify"));
+        leaderboard.onSubscriptionsChanged(SubscriptionsChangedEvent.added("Spotify"));
+        leaderboard.onSubscriptionsChanged(new SubscriptionsChangedEvent(Map.of("Netflix", -2L)));
+
+        List<TopSubscriptionDTO> top = leaderboard.getTop(3);
+        Assertions.assertEquals(1, top.size());
+        Assertions.assertEquals("Spotify", top.get(0).getServiceName());
+        Assertions.assertEquals(3L, top.get(0).getSubscriberCount());
+    }
+
+    @Test
+    @DisplayName("Сверка с базой данных устраняет расхождения")
+    void reconcile_replacesCounts() {
+        Mockito.when(subscriptionRepository.countSubscriptionsByServiceId())
+                .thenReturn(List.<Object[]>of(new Object[]{1, 2L}))
+                .thenReturn(List.<Object[]>of(new Object[]{1, 7L}));
+        leaderboard.load();
+        leaderboard.getTop(3);
+
+        leaderboard.reconcile();
+
+        Assertions.assertEquals(7L, leaderboard.getTop(3).get(0).getSubscriberCount());
+    }
+
+    @Test
+    @DisplayName("Изменения, зафиксированные во время сверки, не теряются при замене счетчиков")
+    void reconcile_keepsChangesDuringLoad() {
+        Mockito.when(subscriptionRepository.countSubscriptionsByServiceId())
+                .thenReturn(List.<Object[]>of(new Object[]{1, 2L}))
+                .thenAnswer(invocation -> {
+                    // Подписка добавлена после чтения счетчиков, но до их замены
+                    leaderboard.onSubscriptionsChanged(SubscriptionsChangedEvent.added("Spotify"));
+                    return List.<Object[]>of(new Object[]{1, 2L});
+                });
+        leaderboard.load();
+
+        leaderboard.reconcile();
+
+        List<TopSubscriptionDTO> top = leaderboard.getTop(3);
+        Assertions.assertEquals(2, top.size());
+        Assertions.assertEquals("Spotify", top.get(1).getServiceName());
+        Assertions.assertEquals(1L, top.get(1).getSubscriberCount());
+    }
+
+    @Test
+    @DisplayName("Рейтинг не загружен при ошибке базы данных")
+    void load_databaseError() {
+        Mockito.when(subscriptionRepository.countSubscriptionsByServiceId())
+                .thenThrow(new IllegalStateException("connection refused"));
+
+        leaderboard.load();
+
+        Assertions.assertFalse(leaderboard.isLoaded());
+    }
+}
@@ -0,0 +1,87 @@
+package com.subscriptionservice.service;
+
+import com.subscriptionservice.config.MetricsConfig;
+import com.subscriptionservice.config.PartitioningProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.CannotAcquireLockException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import static org.mockito.ArgumentMatchers.anyString;
+
+@DisplayName("Тестирование SubscriptionPartitioningBackfill")
+@ExtendWith(MockitoExtension.class)
+class SubscriptionPartitioningBackfillTest {
+    private static final String PENDING = "SELECT to_regclass('subscriptions_partitioned') IS NOT NULL";
+    private static final String BACKFILL = "SELECT subscriptions_partitioning_backfill(?)";
+    private static final String CUTOVER = "SELECT subscriptions_partitioning_cutover()";
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    private SimpleMeterRegistry meterRegistry;
+    private SubscriptionPartitioningBackfill backfill;
+
+    @BeforeEach
+    void setUp() {
+        PartitioningProperties partitioningProperties = new PartitioningProperties();
+        partitioningProperties.setBatchSize(2);
+        meterRegistry = new SimpleMeterRegistry();
+        backfill = new SubscriptionPartitioningBackfill(jdbcTemplate, Mockito.mock(PlatformTransactionManager.class),
+                partitioningProperties, meterRegistry);
+    }
+
+    @Test
+    @DisplayName("Строки копируются частями, после неполной части таблица заменяется один раз")
+    void backfill_copiesInBatchesThenCutsOver() {
+        Mockito.when(jdbcTemplate.queryForObject(PENDING, Boolean.class)).thenReturn(true);
+        Mockito.when(jdbcTemplate.queryForObject(BACKFILL, Integer.class, 2)).thenReturn(2, 1);
+
+        backfill.backfill();
+        Mockito.verify(jdbcTemplate, Mockito.never()).execute(anyString());
+
+        backfill.backfill();
+        backfill.backfill();
+
+        Mockito.verify(jdbcTemplate).execute(CUTOVER);
+        Mockito.verify(jdbcTemplate, Mockito.times(2)).queryForObject(PENDING, Boolean.class);
+        Assertions.assertEquals(3, meterRegistry.get(MetricsConfig.SUBSCRIPTIONS_PARTITIONING_BACKFILLED)
+                .counter().count());
+    }
+
+    @Test
+    @DisplayName("Копирование другим экземпляром и ошибка блокировки при замене не завершают переход")
+    void backfill_retriesLater() {
+        Mockito.when(jdbcTemplate.queryForObject(PENDING, Boolean.class)).thenReturn(true);
+        Mockito.when(jdbcTemplate.queryForObject(BACKFILL, Integer.class, 2)).thenReturn(null, 0, 0);
+        Mockito.doThrow(new CannotAcquireLockException("lock timeout")).doNothing().when(jdbcTemplate).execute(CUTOVER);
+
+        backfill.backfill();
+        Mockito.verify(jdbcTemplate, Mockito.never()).execute(CUTOVER);
+
+        backfill.backfill();
+        backfill.backfill();
+
+        Mockito.verify(jdbcTemplate, Mockito.times(2)).execute(CUTOVER);
+    }
+
+    @Test
+    @DisplayName("Если таблица уже секционирована, база данных больше не опрашивается")
+    void backfill_alreadyPartitioned() {
+        Mockito.when(jdbcTemplate.queryForObject(PENDING, Boolean.class)).thenReturn(false);
+
+        backfill.backfill();
+        backfill.backfill();
+
+        Mockito.verify(jdbcTemplate).queryForObject(PENDING, Boolean.class);
+        Mockito.verifyNoMoreInteractions(jdbcTemplate);
+    }
+}
@@ -1,13 +1,21 @@
 package com.subscriptionservice.service;
 
+import com.subscriptionservice.config.PaginationProperties;
+import com.subscriptionservice.config.TopSubscriptionsProperties;
 import com.subscriptionservice.dto.SubscriptionDTO;
+import com.subscriptionservice.dto.SubscriptionPageDTO;
 import com.subscriptionservice.dto.TopSubscriptionDTO;
 import com.subscriptionservice.dto.UserDTO;
+import com.subscriptionservice.event.SubscriptionsChangedEvent;
+import com.subscriptionservice.event.UserSubscriptionsChangedEvent;
 import com.subscriptionservice.exception.ResourceNotFoundException;
 import com.subscriptionservice.exception.ValidationException;
 import com.subscriptionservice.mapper.SubscriptionMapper;
 import com.subscriptionservice.mapper.UserMapper;
+import com.subscriptionservice.model.OutboxEventType;
 import com.subscriptionservice.model.Subscription;
+import com.subscriptionservice.model.SubscriptionRow;
+import com.subscriptionservice.model.SubscriptionStatus;
 import com.subscriptionservice.model.User;
 import com.subscriptionservice.repository.SubscriptionRepository;
 import com.subscriptionservice.repository.UserRepository;
@@ -19,15 +27,22 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.Mockito;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.hibernate.exception.ConstraintViolationException;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
 
+import java.sql.SQLException;
 import java.time.LocalDateTime;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
-import java.util.Optional;
 
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
 
 @DisplayName("Тестирование SubscriptionService")
 @ExtendWith(MockitoExtension.class)
@@ -48,6 +63,21 @@ class SubscriptionServiceTest {
     @Mock
     private SubscriptionMapper subscriptionMapper;
 
+    @Mock
+    private SubscriptionLeaderboard subscriptionLeaderboard;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private OutboxService outboxService;
+
+    @Spy
+    private TopSubscriptionsProperties topSubscriptionsProperties = new TopSubscriptionsProperties();
+
+    @Spy
+    private PaginationProperties paginationProperties = new PaginationProperties();
+
     @InjectMocks
     private SubscriptionService subscriptionService;
 
@@ -70,7 +100,7 @@ class SubscriptionServiceTest {
 
         subscription = new Subscription();
         subscription.setId(1L);
-        subscription.setServiceName("Netflix");
+        subscription.setServiceId(1);
         subscription.setStartDate(LocalDateTime.now());
         subscription.setEndDate(LocalDateTime.now().plusMonths(1));
         subscription.setUser(user);
@@ -86,16 +116,54 @@ class SubscriptionServiceTest {
     @Test
     @DisplayName("Добавление подписки успешно")
     void addSubscription_success() {
-        Mockito.when(userService.getUserEntityById(1L)).thenReturn(user);
+        Mockito.when(userRepository.getReferenceById(1L)).thenReturn(user);
         Mockito.when(subscriptionMapper.toEntity(subscriptionDTO)).thenReturn(subscription);
-        Mockito.when(subscriptionRepository.save(any(Subscription.class))).thenReturn(subscription);
+        Mockito.when(subscriptionRepository.saveAndFlush(any(Subscription.class))).thenReturn(subscription);
         Mockito.when(subscriptionMapper.toDTO(subscription)).thenReturn(subscriptionDTO);
 
         SubscriptionDTO result = subscriptionService.addSubscription(1L, subscriptionDTO);
 
         Assertions.assertNotNull(result);
         Assertions.assertEquals(subscriptionDTO.getServiceName(), result.getServiceName());
-        Mockito.verify(subscriptionRepository).save(any(Subscription.class));
+        Mockito.verify(subscriptionRepository).saveAndFlush(any(Subscription.class));
+        Mockito.verify(eventPublisher).publishEvent(SubscriptionsChangedEvent.added("Netflix"));
+        Mockito.verify(eventPublisher).publishEvent(UserSubscriptionsChangedEvent.of(1L));
+        Mockito.verify(outboxService).record(OutboxEventType.SUBSCRIPTION_CREATED, subscription.getId(), subscriptionDTO);
+    }
+
+    @Test
+    @DisplayName("Добавление подписки — пользователь не найден")
+    void addSubscription_userNotFound() {
+        Mockito.when(subscriptionMapper.toEntity(subscriptionDTO)).thenReturn(subscription);
+        Mockito.when(subscriptionRepository.saveAndFlush(any(Subscription.class)))
+                .thenThrow(constraintViolation("fk_subscription_user"));
+
+        Assertions.assertThrows(ResourceNotFoundException.class,
+            () -> subscriptionService.addSubscription(1L, subscriptionDTO));
+        Mockito.verifyNoInteractions(eventPublisher);
+    }
+
+    @Test
+    @DisplayName("Добавление подписки — подписка уже существует")
+    void addSubscription_duplicate() {
+        Mockito.when(subscriptionMapper.toEntity(subscriptionDTO)).thenReturn(subscription);
+        Mockito.when(subscriptionRepository.saveAndFlush(any(Subscription.class)))
+                .thenThrow(constraintViolation("uk_subscriptions_user_service"));
+
+        Assertions.assertThrows(ValidationException.class,
+            () -> subscriptionService.addSubscription(1L, subscriptionDTO));
+        Mockito.verifyNoInteractions(eventPublisher);
+    }
+
+    @Test
+    @DisplayName("Добавление подписки — дубликат в секции таблицы подписок")
+    void addSubscription_duplicateInPartition() {
+        Mockito.when(subscriptionMapper.toEntity(subscriptionDTO)).thenReturn(subscription);
+        Mockito.when(subscriptionRepository.saveAndFlush(any(Subscription.class)))
+                .thenThrow(constraintViolation("uk_subscriptions_user_service_p13"));
+
+        Assertions.assertThrows(ValidationException.class,
+            () -> subscriptionService.addSubscription(1L, subscriptionDTO));
     }
 
     @Test
@@ -111,68 +179,175 @@ class SubscriptionServiceTest {
     @Test
     @DisplayName("Получение подписок пользователя успешно")
     void getUserSubscriptions_success() {
-        List<Subscription> subscriptions = Arrays.asList(subscription);
-        Mockito.when(subscriptionRepository.findByUserId(1L)).thenReturn(subscriptions);
-        Mockito.when(subscriptionMapper.toDTO(subscription)).thenReturn(subscriptionDTO);
+        SubscriptionRow row = new SubscriptionRow(1L, 1, subscriptionDTO.getStartDate(), subscriptionDTO.getEndDate(),
+                1L, SubscriptionStatus.ACTIVE);
+        Mockito.when(subscriptionRepository.findPageByUserId(1L, 0L, PageRequest.of(0, 101)))
+                .thenReturn(List.of(row));
+        Mockito.when(subscriptionMapper.toDTO(row)).thenReturn(subscriptionDTO);
 
-        List<SubscriptionDTO> result = subscriptionService.getUserSubscriptions(1L);
+        SubscriptionPageDTO result = subscriptionService.getUserSubscriptions(1L, null, null);
 
         Assertions.assertNotNull(result);
-        Assertions.assertEquals(1, result.size());
-        Assertions.assertEquals(subscriptionDTO.getServiceName(), result.get(0).getServiceName());
+        Assertions.assertEquals(1, result.getSubscriptions().size());
+        Assertions.assertEquals(subscriptionDTO.getServiceName(), result.getSubscriptions().get(0).getServiceName());
+        Assertions.assertNull(result.getNextCursor());
+    }
+
+    @Test
+    @DisplayName("Получение подписок пользователя — следующая страница по токену продолжения")
+    void getUserSubscriptions_nextPage() {
+        SubscriptionRow first = new SubscriptionRow(1L, 1, null, null, 1L, SubscriptionStatus.ACTIVE);
+        SubscriptionRow second = new SubscriptionRow(2L, 2, null, null, 1L, SubscriptionStatus.ACTIVE);
+        SubscriptionRow third = new SubscriptionRow(3L, 3, null, null, 1L, SubscriptionStatus.ACTIVE);
+        Mockito.when(subscriptionMapper.toDTO(any(SubscriptionRow.class))).thenAnswer(invocation -> {
+            SubscriptionRow row = invocation.getArgument(0);
+            return new SubscriptionDTO(row.getId(), "service-" + row.getServiceId(), null, null, row.getUserId());
+        });
+        Mockito.when(subscriptionRepository.findPageByUserId(1L, 0L, PageRequest.of(0, 3)))
+                .thenReturn(Arrays.asList(first, second, third));
+
+        SubscriptionPageDTO firstPage = subscriptionService.getUserSubscriptions(1L, null, 2);
+
+        Assertions.assertEquals(2, firstPage.getSubscriptions().size());
+        Assertions.assertNotNull(firstPage.getNextCursor());
+
+        Mockito.when(subscriptionRepository.findPageByUserId(1L, 2L, PageRequest.of(0, 3)))
+                .thenReturn(List.of(third));
+
+        SubscriptionPageDTO lastPage = subscriptionService.getUserSubscriptions(1L, firstPage.getNextCursor(), 2);
+
+        Assertions.assertEquals(1, lastPage.getSubscriptions().size());
+        Assertions.assertNull(lastPage.getNextCursor());
+    }
+
+    @Test
+    @DisplayName("Получение подписок пользователя — некорректный размер страницы или токен")
+    void getUserSubscriptions_invalidParameters() {
+        Assertions.assertThrows(ValidationException.class,
+            () -> subscriptionService.getUserSubscriptions(1L, null, 0));
+        Assertions.assertThrows(ValidationException.class,
+            () -> subscriptionService.getUserSubscriptions(1L, null, 1001));
+        Assertions.assertThrows(ValidationException.class,
+            () -> subscriptionService.getUserSubscriptions(1L, "not-a-cursor", null));
+        Assertions.assertThrows(ValidationException.class,
+            () -> subscriptionService.getUserSubscriptions(1L, "Mjo1", null));
+        Mockito.verifyNoInteractions(subscriptionRepository);
     }
 
     @Test
     @DisplayName("Удаление подписки успешно")
     void deleteSubscription_success() {
-        Mockito.when(subscriptionRepository.findById(1L)).thenReturn(Optional.of(subscription));
-        Mockito.doNothing().when(subscriptionRepository).delete(subscription);
+        Mockito.when(subscriptionRepository.deleteOwnedByIds(List.of(1L), 1L)).thenReturn(List.of(subscription));
+        Mockito.when(subscriptionMapper.toDTO(subscription)).thenReturn(subscriptionDTO);
 
         subscriptionService.deleteSubscription(1L, 1L);
 
-        Mockito.verify(subscriptionRepository).delete(subscription);
+        Mockito.verify(subscriptionRepository, Mockito.never()).findById(any());
+        Mockito.verify(eventPublisher).publishEvent(SubscriptionsChangedEvent.removed("Netflix"));
+        Mockito.verify(eventPublisher).publishEvent(UserSubscriptionsChangedEvent.of(1L));
+        Mockito.verify(outboxService).record(OutboxEventType.SUBSCRIPTION_DELETED, 1L, subscriptionDTO);
     }
 
     @Test
     @DisplayName("Удаление подписки — не найдена")
     void deleteSubscription_notFound() {
-        Mockito.when(subscriptionRepository.findById(1L)).thenReturn(Optional.empty());
+        Mockito.when(subscriptionRepository.deleteOwnedByIds(List.of(1L), 1L)).thenReturn(List.of());
+        Mockito.when(subscriptionRepository.existsById(1L)).thenReturn(false);
 
         Assertions.assertThrows(ResourceNotFoundException.class,
             () -> subscriptionService.deleteSubscription(1L, 1L));
-        Mockito.verify(subscriptionRepository, Mockito.never()).delete(any());
+        Mockito.verifyNoInteractions(eventPublisher);
     }
 
     @Test
     @DisplayName("Удаление подписки — не принадлежит пользователю")
     void deleteSubscription_notBelongsToUser() {
-        User differentUser = new User();
-        differentUser.setId(2L);
-        differentUser.setUserName("Different User");
-        differentUser.setEmail("different@example.com");
-        subscription.setUser(differentUser);
-
-        Mockito.when(subscriptionRepository.findById(1L)).thenReturn(Optional.of(subscription));
+        Mockito.when(subscriptionRepository.deleteOwnedByIds(List.of(1L), 1L)).thenReturn(List.of());
+        Mockito.when(subscriptionRepository.existsById(1L)).thenReturn(true);
 
         Assertions.assertThrows(ValidationException.class,
             () -> subscriptionService.deleteSubscription(1L, 1L));
-        Mockito.verify(subscriptionRepository, Mockito.never()).delete(any());
+        Mockito.verifyNoInteractions(eventPublisher);
     }
 
     @Test
-    @DisplayName("Успешное получение топовых подписок")
+    @DisplayName("Успешное получение топовых подписок из рейтинга в памяти")
     void getTopSubscriptions_Success() {
+        TopSubscriptionDTO topSubscription = new TopSubscriptionDTO();
+        topSubscription.setServiceName("Netflix");
+        topSubscription.setSubscriberCount(5L);
+
+        Mockito.when(subscriptionLeaderboard.isLoaded()).thenReturn(true);
+        Mockito.when(subscriptionLeaderboard.getTop(3)).thenReturn(List.of(topSubscription));
+
+        List<TopSubscriptionDTO> subscriptionDTOs = subscriptionService.getTopSubscriptions(null, null, null, null);
+
+        Assertions.assertNotNull(subscriptionDTOs);
+        Assertions.assertEquals(1, subscriptionDTOs.size());
+        Assertions.assertEquals("Netflix", subscriptionDTOs.get(0).getServiceName());
+        Assertions.assertEquals(5L, subscriptionDTOs.get(0).getSubscriberCount());
+        Mockito.verify(subscriptionRepository, Mockito.never()).findTopPopularSubscriptions(anyInt());
+    }
+
+    @Test
+    @DisplayName("Получение топовых подписок из базы данных, пока рейтинг не загружен")
+    void getTopSubscriptions_LeaderboardNotLoaded() {
         Object[] subscriptionData = new Object[]{"Netflix", 5L};
         List<Object[]> topSubscriptions = Collections.singletonList(subscriptionData);
-        
-        Mockito.when(subscriptionRepository.findTop3PopularSubscriptions()).thenReturn(topSubscriptions);
 
-        List<TopSubscriptionDTO> subscriptionDTOs = subscriptionService.getTopSubscriptions();
+        Mockito.when(subscriptionLeaderboard.isLoaded()).thenReturn(false);
+        Mockito.when(subscriptionRepository.findTopPopularSubscriptions(10))
+                .thenReturn(topSubscriptions);
+
+        List<TopSubscriptionDTO> subscriptionDTOs = subscriptionService.getTopSubscriptions(10, null, null, null);
 
         Assertions.assertNotNull(subscriptionDTOs);
         Assertions.assertEquals(1, subscriptionDTOs.size());
         Assertions.assertEquals("Netflix", subscriptionDTOs.get(0).getServiceName());
         Assertions.assertEquals(5L, subscriptionDTOs.get(0).getSubscriberCount());
-        Mockito.verify(subscriptionRepository).findTop3PopularSubscriptions();
+    }
+
+    @Test
+    @DisplayName("Получение топовых подписок, действующих в заданный момент")
+    void getTopSubscriptions_ActiveAt() {
+        LocalDateTime activeAt = LocalDateTime.of(2024, 3, 20, 0, 0);
+        List<Object[]> topSubscriptions = Collections.singletonList(new Object[]{"Spotify", 2L});
+
+        Mockito.when(subscriptionRepository.findTopPopularSubscriptionsActiveBetween(
+                eq(activeAt), eq(activeAt), eq(3))).thenReturn(topSubscriptions);
+
+        List<TopSubscriptionDTO> subscriptionDTOs = subscriptionService.getTopSubscriptions(null, activeAt, null, null);
+
+        Assertions.assertEquals(1, subscriptionDTOs.size());
+        Assertions.assertEquals("Spotify", subscriptionDTOs.get(0).getServiceName());
+        Mockito.verifyNoInteractions(subscriptionLeaderboard);
+    }
+
+    @Test
+    @DisplayName("Получение топовых подписок — недопустимый limit")
+    void getTopSubscriptions_InvalidLimit() {
+        Assertions.assertThrows(ValidationException.class,
+            () -> subscriptionService.getTopSubscriptions(0, null, null, null));
+        Assertions.assertThrows(ValidationException.class,
+            () -> subscriptionService.getTopSubscriptions(101, null, null, null));
+    }
+
+    @Test
+    @DisplayName("Получение топовых подписок — некорректный период")
+    void getTopSubscriptions_InvalidPeriod() {
+        LocalDateTime now = LocalDateTime.now();
+
+        Assertions.assertThrows(ValidationException.class,
+            () -> subscriptionService.getTopSubscriptions(null, null, now, null));
+        Assertions.assertThrows(ValidationException.class,
+            () -> subscriptionService.getTopSubscriptions(null, null, now, now.minusDays(1)));
+        Assertions.assertThrows(ValidationException.class,
+            () -> subscriptionService.getTopSubscriptions(null, now, now, now));
+    }
+
+    private static DataIntegrityViolationException constraintViolation(String constraintName) {
+        return new DataIntegrityViolationException("could not execute statement",
+                new ConstraintViolationException("could not execute statement",
+                        new SQLException("violates constraint " + constraintName), constraintName));
     }
 }
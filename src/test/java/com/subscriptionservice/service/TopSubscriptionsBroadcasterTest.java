@@ -0,0 +1,119 @@
+package com.subscriptionservice.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.subscriptionservice.config.TopSubscriptionsProperties;
+import com.subscriptionservice.dto.TopSubscriptionDTO;
+import com.subscriptionservice.exception.ValidationException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.anyInt;
+
+@DisplayName("Тестирование TopSubscriptionsBroadcaster")
+@ExtendWith(MockitoExtension.class)
+class TopSubscriptionsBroadcasterTest {
+
+    @Mock
+    private SubscriptionLeaderboard subscriptionLeaderboard;
+
+    private final List<Runnable> tasks = new ArrayList<>();
+    private TopSubscriptionsBroadcaster broadcaster;
+
+    @BeforeEach
+    void setUp() {
+        broadcaster = new TopSubscriptionsBroadcaster(subscriptionLeaderboard, new TopSubscriptionsProperties(),
+                new ObjectMapper(), new SimpleMeterRegistry(), tasks::add);
+        Mockito.lenient().when(subscriptionLeaderboard.isLoaded()).thenReturn(true);
+    }
+
+    @Test
+    @DisplayName("Клиент получает текущий рейтинг и затем только изменившиеся рейтинги")
+    void broadcast_sendsOnlyChangedRankings() {
+        List<String> received = new ArrayList<>();
+        Mockito.when(subscriptionLeaderboard.getVersion()).thenReturn(1L, 1L, 2L, 3L);
+        Mockito.when(subscriptionLeaderboard.getTop(2))
+                .thenReturn(top("Netflix", 5))
+                .thenReturn(top("Netflix", 5))
+                .thenReturn(top("Netflix", 5))
+                .thenReturn(top("Netflix", 6));
+
+        broadcaster.register(2, received::add);
+        runTasks();
+        broadcaster.broadcast();
+        runTasks();
+        broadcaster.broadcast();
+        runTasks();
+        broadcaster.broadcast();
+        runTasks();
+        broadcaster.broadcast();
+        runTasks();
+
+        Assertions.assertEquals(List.of(
+                "[{\"serviceName\":\"Netflix\",\"subscriberCount\":5}]",
+                "[{\"serviceName\":\"Netflix\",\"subscriberCount\":6}]"), received);
+    }
+
+    @Test
+    @DisplayName("Рейтинг вычисляется один раз, медленный клиент получает только последний рейтинг")
+    void broadcast_coalescesForSlowClients() {
+        List<String> first = new ArrayList<>();
+        List<String> second = new ArrayList<>();
+        Mockito.when(subscriptionLeaderboard.getVersion()).thenReturn(1L, 2L);
+        Mockito.when(subscriptionLeaderboard.getTop(anyInt()))
+                .thenReturn(top("Netflix", 1))
+                .thenReturn(top("Netflix", 1))
+                .thenReturn(top("Netflix", 1))
+                .thenReturn(top("Spotify", 2));
+
+        broadcaster.register(3, first::add);
+        broadcaster.register(3, second::add);
+        broadcaster.broadcast();
+        broadcaster.broadcast();
+
+        Assertions.assertEquals(2, tasks.size());
+        runTasks();
+        String latest = "[{\"serviceName\":\"Spotify\",\"subscriberCount\":2}]";
+        Assertions.assertEquals(List.of(latest), first);
+        Assertions.assertEquals(List.of(latest), second);
+        Mockito.verify(subscriptionLeaderboard, Mockito.times(4)).getTop(anyInt());
+    }
+
+    @Test
+    @DisplayName("Клиент с ошибкой записи отключается; неверный limit отклоняется")
+    void register_failingClientRemoved() {
+        Mockito.when(subscriptionLeaderboard.getTop(3)).thenReturn(top("Netflix", 1));
+
+        broadcaster.register(3, ranking -> {
+            throw new IOException("Broken pipe");
+        });
+        Assertions.assertEquals(1, broadcaster.clientCount());
+        runTasks();
+
+        Assertions.assertEquals(0, broadcaster.clientCount());
+        Assertions.assertThrows(ValidationException.class, () -> broadcaster.flux(0));
+    }
+
+    private void runTasks() {
+        List<Runnable> pending = new ArrayList<>(tasks);
+        tasks.clear();
+        pending.forEach(Runnable::run);
+    }
+
+    private static List<TopSubscriptionDTO> top(String serviceName, long subscriberCount) {
+        TopSubscriptionDTO dto = new TopSubscriptionDTO();
+        dto.setServiceName(serviceName);
+        dto.setSubscriberCount(subscriberCount);
+        return List.of(dto);
+    }
+}
@@ -0,0 +1,124 @@
+package com.subscriptionservice.service;
+
+import com.subscriptionservice.config.BatchProperties;
+import com.subscriptionservice.config.CacheConfig;
+import com.subscriptionservice.dto.UserDTO;
+import com.subscriptionservice.event.UserChangedEvent;
+import com.subscriptionservice.mapper.UserMapper;
+import com.subscriptionservice.model.User;
+import com.subscriptionservice.repository.SubscriptionRepository;
+import com.subscriptionservice.repository.UserRepository;
+import jakarta.validation.Validator;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.test.context.junit.jupiter.SpringJUnitConfig;
+import org.springframework.test.util.AopTestUtils;
+
+import java.util.Optional;
+
+@SpringJUnitConfig
+@DisplayName("Тесты кэша пользователей")
+class UserCacheTest {
+
+    @Configuration
+    @EnableCaching
+    static class Config {
+        @Bean
+        CacheManager cacheManager() {
+            return new CaffeineCacheManager(CacheConfig.USERS_CACHE);
+        }
+
+        @Bean
+        UserRepository userRepository() {
+            return Mockito.mock(UserRepository.class);
+        }
+
+        @Bean
+        UserMapper userMapper() {
+            return Mockito.mock(UserMapper.class);
+        }
+
+        @Bean
+        UserService userService(UserRepository userRepository, UserMapper userMapper) {
+            return new UserService(userRepository, Mockito.mock(SubscriptionRepository.class),
+                    Mockito.mock(SubscriptionBatchService.class), userMapper, Mockito.mock(Validator.class),
+                    Mockito.mock(ApplicationEventPublisher.class), Mockito.mock(OutboxService.class),
+                    new BatchProperties());
+        }
+    }
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private UserRepository cachedUserRepository;
+
+    private UserRepository userRepository;
+
+    @Autowired
+    private UserMapper userMapper;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    private UserDTO userDTO;
+
+    @BeforeEach
+    void setUp() {
+        userRepository = AopTestUtils.getUltimateTargetObject(cachedUserRepository);
+        Mockito.reset(userRepository, userMapper);
+        cacheManager.getCache(CacheConfig.USERS_CACHE).clear();
+        userDTO = new UserDTO(1L, "testuser", "test@example.com");
+    }
+
+    @Test
+    @DisplayName("Повторное чтение пользователя обслуживается из кэша")
+    void getUserById_cached() {
+        Mockito.when(userRepository.findDTOById(1L)).thenReturn(Optional.of(userDTO));
+
+        userService.getUserById(1L);
+        userService.getUserById(1L);
+
+        Mockito.verify(userRepository, Mockito.times(1)).findDTOById(1L);
+    }
+
+    @Test
+    @DisplayName("Отсутствующий пользователь не кэшируется")
+    void getUserById_missNotCached() {
+        Mockito.when(userRepository.findDTOById(2L)).thenReturn(Optional.empty());
+
+        Assertions.assertThrows(RuntimeException.class, () -> userService.getUserById(2L));
+        Assertions.assertThrows(RuntimeException.class, () -> userService.getUserById(2L));
+
+        Mockito.verify(userRepository, Mockito.times(2)).findDTOById(2L);
+    }
+
+    @Test
+    @DisplayName("Обновление пользователя удаляет его из кэша после фиксации транзакции")
+    void updateUser_evicts() {
+        User user = new User();
+        user.setId(1L);
+        user.setEmail("test@example.com");
+        Mockito.when(userRepository.findDTOById(1L)).thenReturn(Optional.of(userDTO));
+        Mockito.when(userRepository.findById(1L)).thenReturn(Optional.of(user));
+        Mockito.when(userMapper.updateEntity(user, userDTO)).thenReturn(user);
+        Mockito.when(userRepository.save(user)).thenReturn(user);
+
+        userService.getUserById(1L);
+        userService.updateUser(1L, userDTO);
+        userService.onUserChanged(new UserChangedEvent(1L));
+        userService.getUserById(1L);
+
+        Mockito.verify(userRepository, Mockito.times(2)).findDTOById(1L);
+    }
+}
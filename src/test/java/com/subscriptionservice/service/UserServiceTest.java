@@ -1,24 +1,41 @@
 package com.subscriptionservice.service;
 
+import com.subscriptionservice.config.BatchProperties;
+import com.subscriptionservice.dto.BatchItemResultDTO;
 import com.subscriptionservice.dto.UserDTO;
 import com.subscriptionservice.exception.ResourceNotFoundException;
 import com.subscriptionservice.exception.UserAlreadyExistsException;
+import com.subscriptionservice.exception.ValidationException;
 import com.subscriptionservice.mapper.UserMapper;
+import com.subscriptionservice.model.OutboxEventType;
+import com.subscriptionservice.model.Subscription;
 import com.subscriptionservice.model.User;
+import com.subscriptionservice.event.UserChangedEvent;
+import com.subscriptionservice.repository.SubscriptionRepository;
 import com.subscriptionservice.repository.UserRepository;
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.Mockito;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
 
 @ExtendWith(MockitoExtension.class)
 @DisplayName("Тесты сервиса пользователей")
@@ -27,9 +44,27 @@ class UserServiceTest {
     @Mock
     private UserRepository userRepository;
 
+    @Mock
+    private SubscriptionRepository subscriptionRepository;
+
     @Mock
     private UserMapper userMapper;
 
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private OutboxService outboxService;
+
+    @Mock
+    private SubscriptionBatchService subscriptionBatchService;
+
+    @Spy
+    private BatchProperties batchProperties = new BatchProperties();
+
+    @Spy
+    private Validator validator = Validation.buildDefaultValidatorFactory().getValidator();
+
     @InjectMocks
     private UserService userService;
 
@@ -61,6 +96,7 @@ class UserServiceTest {
         Assertions.assertNotNull(result);
         Assertions.assertEquals(userDTO.getEmail(), result.getEmail());
         Mockito.verify(userRepository).save(any(User.class));
+        Mockito.verify(outboxService).record(OutboxEventType.USER_CREATED, user.getId(), userDTO);
     }
 
     @Test
@@ -70,13 +106,13 @@ class UserServiceTest {
 
         Assertions.assertThrows(UserAlreadyExistsException.class, () -> userService.createUser(userDTO));
         Mockito.verify(userRepository, Mockito.never()).save(any());
+        Mockito.verifyNoInteractions(outboxService);
     }
 
     @Test
     @DisplayName("Получение пользователя по ID — успешно")
     void getUserById_success() {
-        Mockito.when(userRepository.findById(1L)).thenReturn(Optional.of(user));
-        Mockito.when(userMapper.toDTO(user)).thenReturn(userDTO);
+        Mockito.when(userRepository.findDTOById(1L)).thenReturn(Optional.of(userDTO));
 
         UserDTO result = userService.getUserById(1L);
 
@@ -87,7 +123,7 @@ class UserServiceTest {
     @Test
     @DisplayName("Получение пользователя по ID — пользователь не найден")
     void getUserById_notFound() {
-        Mockito.when(userRepository.findById(1L)).thenReturn(Optional.empty());
+        Mockito.when(userRepository.findDTOById(1L)).thenReturn(Optional.empty());
 
         Assertions.assertThrows(ResourceNotFoundException.class, () -> userService.getUserById(1L));
     }
@@ -104,6 +140,7 @@ class UserServiceTest {
 
         Assertions.assertNotNull(result);
         Assertions.assertEquals(userDTO.getEmail(), result.getEmail());
+        Mockito.verify(eventPublisher).publishEvent(new UserChangedEvent(1L));
         Mockito.verify(userRepository).save(user);
     }
 
@@ -130,21 +167,88 @@ class UserServiceTest {
         Mockito.verify(userRepository, Mockito.never()).save(any());
     }
 
+    @Test
+    @DisplayName("Пакетное создание пользователей — дубликаты и ошибки валидации отклоняются поэлементно")
+    void createUsers_perItemResults() {
+        UserDTO existing = newUser("existing", "taken@example.com");
+        UserDTO invalid = newUser("x", "not-an-email");
+        UserDTO repeated = newUser("repeated", "test@example.com");
+
+        Mockito.when(userRepository.findExistingEmails(Set.of("taken@example.com", "test@example.com")))
+                .thenReturn(Set.of("taken@example.com"));
+        Mockito.when(userMapper.toEntity(userDTO)).thenReturn(user);
+        Mockito.when(userRepository.saveAll(anyList())).thenReturn(List.of(user));
+        Mockito.when(userMapper.toDTO(user)).thenReturn(userDTO);
+
+        List<BatchItemResultDTO> results = userService.createUsers(List.of(userDTO, existing, invalid, repeated));
+
+        Assertions.assertEquals(BatchItemResultDTO.Status.CREATED, results.get(0).getStatus());
+        Assertions.assertEquals(userDTO, results.get(0).getUser());
+        Assertions.assertEquals(BatchItemResultDTO.Status.DUPLICATE, results.get(1).getStatus());
+        Assertions.assertEquals(BatchItemResultDTO.Status.INVALID, results.get(2).getStatus());
+        Assertions.assertEquals(BatchItemResultDTO.Status.DUPLICATE, results.get(3).getStatus());
+        Assertions.assertEquals(3, results.get(3).getIndex());
+    }
+
     @Test
     @DisplayName("Удаление пользователя — успешно")
     void deleteUser_success() {
-        Mockito.when(userRepository.existsById(1L)).thenReturn(true);
+        Mockito.when(userRepository.lockByIds(List.of(1L))).thenReturn(List.of(1L));
+        Mockito.when(userRepository.deleteByIdsReturningIds(List.of(1L))).thenReturn(List.of(1L));
 
         Assertions.assertDoesNotThrow(() -> userService.deleteUser(1L));
-        Mockito.verify(userRepository).deleteById(1L);
+        Mockito.verify(userRepository, Mockito.never()).deleteById(any());
+        Mockito.verify(outboxService).record(OutboxEventType.USER_DELETED, 1L, Map.of("id", 1L));
+    }
+
+    @Test
+    @DisplayName("Удаление пользователя — подписки удаляются до пользователя с событиями удаления подписок")
+    void deleteUser_recordsDeletedSubscriptions() {
+        Subscription subscription = new Subscription();
+        subscription.setId(10L);
+        Mockito.when(userRepository.lockByIds(List.of(1L))).thenReturn(List.of(1L));
+        Mockito.when(subscriptionRepository.deleteByUserIds(List.of(1L))).thenReturn(List.of(subscription));
+        Mockito.when(userRepository.deleteByIdsReturningIds(List.of(1L))).thenReturn(List.of(1L));
+
+        userService.deleteUser(1L);
+
+        InOrder inOrder = Mockito.inOrder(userRepository, subscriptionRepository, subscriptionBatchService,
+                outboxService);
+        inOrder.verify(userRepository).lockByIds(List.of(1L));
+        inOrder.verify(subscriptionRepository).deleteByUserIds(List.of(1L));
+        inOrder.verify(subscriptionBatchService).onDeleted(List.of(subscription));
+        inOrder.verify(userRepository).deleteByIdsReturningIds(List.of(1L));
+        inOrder.verify(outboxService).record(OutboxEventType.USER_DELETED, 1L, Map.of("id", 1L));
     }
 
     @Test
     @DisplayName("Удаление пользователя — пользователь не найден")
     void deleteUser_notFound() {
-        Mockito.when(userRepository.existsById(1L)).thenReturn(false);
+        Mockito.when(userRepository.lockByIds(List.of(1L))).thenReturn(List.of());
 
         Assertions.assertThrows(ResourceNotFoundException.class, () -> userService.deleteUser(1L));
-        Mockito.verify(userRepository, Mockito.never()).deleteById(any());
+        Mockito.verifyNoInteractions(eventPublisher, outboxService, subscriptionRepository, subscriptionBatchService);
+    }
+
+    @Test
+    @DisplayName("Пакетное удаление пользователей — удаляются только существующие, пакет проверяется")
+    void deleteUsers_deletesExistingOnly() {
+        Mockito.when(userRepository.lockByIds(List.of(1L, 2L))).thenReturn(List.of(2L));
+        Mockito.when(userRepository.deleteByIdsReturningIds(List.of(2L))).thenReturn(List.of(2L));
+
+        Assertions.assertEquals(1, userService.deleteUsers(List.of(1L, 2L)));
+        Mockito.verify(outboxService).record(OutboxEventType.USER_DELETED, 2L, Map.of("id", 2L));
+        Mockito.verify(outboxService, Mockito.never()).record(OutboxEventType.USER_DELETED, 1L, Map.of("id", 1L));
+
+        Assertions.assertThrows(ValidationException.class, () -> userService.deleteUsers(List.of()));
+        Assertions.assertThrows(ValidationException.class,
+            () -> userService.deleteUsers(Collections.nCopies(batchProperties.getMaxSize() + 1, 1L)));
+    }
+
+    private static UserDTO newUser(String userName, String email) {
+        UserDTO dto = new UserDTO();
+        dto.setUserName(userName);
+        dto.setEmail(email);
+        return dto;
     }
 }